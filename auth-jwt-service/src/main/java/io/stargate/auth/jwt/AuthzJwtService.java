@@ -15,10 +15,10 @@
  */
 package io.stargate.auth.jwt;
 
-import static io.stargate.auth.jwt.AuthnJwtService.CLAIMS_FIELD;
-import static io.stargate.auth.jwt.AuthnJwtService.STARGATE_PREFIX;
-
 import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.stargate.auth.AuthenticationSubject;
 import io.stargate.auth.AuthorizationService;
 import io.stargate.auth.Scope;
@@ -26,23 +26,55 @@ import io.stargate.auth.SourceAPI;
 import io.stargate.auth.TypedKeyValue;
 import io.stargate.auth.UnauthorizedException;
 import io.stargate.db.datastore.ResultSet;
-import io.stargate.db.schema.Column;
-import io.stargate.db.schema.Column.ColumnType;
-import io.stargate.db.schema.Column.Type;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
 import org.json.JSONException;
-import org.json.JSONObject;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 public class AuthzJwtService implements AuthorizationService {
 
-  private static final Logger log = LoggerFactory.getLogger(AuthzJwtService.class);
-  private final Pattern tokenPattern = Pattern.compile("\\.");
+  // Upper bound on how long the claims of a token are cached, used as is for tokens with no
+  // expiration and as a cap for the others.
+  private static final long CLAIMS_CACHE_MAX_TTL_SECONDS =
+      Long.parseLong(System.getProperty("stargate.auth.jwt_claims_cache_max_ttl", "300"));
+  private static final long CLAIMS_CACHE_MAX_SIZE =
+      Long.parseLong(System.getProperty("stargate.auth.jwt_claims_cache_max_size", "10000"));
+
+  // The same token is usually authorized multiple times per request, and across the requests of
+  // a client, so we avoid re-parsing its payload every time. Entries are keyed by the whole token,
+  // and as tokens are validated before reaching this class, a cached entry can only be accessed by
+  // a client that has presented a valid token.
+  private final Cache<String, StargateClaims> claimsCache =
+      Caffeine.newBuilder()
+          .maximumSize(CLAIMS_CACHE_MAX_SIZE)
+          .expireAfter(
+              new Expiry<String, StargateClaims>() {
+                @Override
+                public long expireAfterCreate(String token, StargateClaims claims, long now) {
+                  long maxTtlNanos = TimeUnit.SECONDS.toNanos(CLAIMS_CACHE_MAX_TTL_SECONDS);
+                  if (!claims.expirationEpochSeconds().isPresent()) {
+                    return maxTtlNanos;
+                  }
+                  long remainingMillis =
+                      TimeUnit.SECONDS.toMillis(claims.expirationEpochSeconds().getAsLong())
+                          - System.currentTimeMillis();
+                  return Math.max(
+                      0, Math.min(maxTtlNanos, TimeUnit.MILLISECONDS.toNanos(remainingMillis)));
+                }
+
+                @Override
+                public long expireAfterUpdate(
+                    String token, StargateClaims claims, long now, long currentDuration) {
+                  return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(
+                    String token, StargateClaims claims, long now, long currentDuration) {
+                  return currentDuration;
+                }
+              })
+          .build();
 
   /**
    * Using the provided JWT and the claims it contains will perform pre-authorization where
@@ -61,9 +93,9 @@ public class AuthzJwtService implements AuthorizationService {
           sourceAPI) // this isn’t supported but if you want to use it you’ll need something other
       // than a JWT
       throws Exception {
-    JSONObject stargateClaims = extractClaimsFromJWT(authenticationSubject.token());
+    StargateClaims stargateClaims = extractClaimsFromJWT(authenticationSubject.token());
 
-    preCheckDataReadWrite(stargateClaims, typedKeyValues);
+    stargateClaims.checkKeyValues(typedKeyValues);
 
     ResultSet result = action.call();
 
@@ -75,28 +107,8 @@ public class AuthzJwtService implements AuthorizationService {
   }
 
   @VisibleForTesting
-  static boolean hasCorrectClaims(JSONObject stargateClaims, io.stargate.db.datastore.Row row) {
-    if (row == null) {
-      return true;
-    }
-
-    for (Column col : row.columns()) {
-      if (stargateClaims.has(STARGATE_PREFIX + col.name())) {
-
-        String stargateClaimValue;
-        try {
-          stargateClaimValue = stargateClaims.getString(STARGATE_PREFIX + col.name());
-        } catch (JSONException e) {
-          log.warn("Unable to get stargate claim for " + STARGATE_PREFIX + col.name());
-          return false;
-        }
-        String columnValue = row.getString(col.name());
-        if (!stargateClaimValue.equals(columnValue)) {
-          return false;
-        }
-      }
-    }
-    return true;
+  static boolean hasCorrectClaims(StargateClaims stargateClaims, io.stargate.db.datastore.Row row) {
+    return row == null || stargateClaims.matches(row);
   }
 
   /**
@@ -144,9 +156,9 @@ public class AuthzJwtService implements AuthorizationService {
       Scope scope,
       SourceAPI sourceAPI)
       throws UnauthorizedException {
-    JSONObject stargateClaims = extractClaimsFromJWT(authenticationSubject.token());
+    StargateClaims stargateClaims = extractClaimsFromJWT(authenticationSubject.token());
 
-    preCheckDataReadWrite(stargateClaims, typedKeyValues);
+    stargateClaims.checkKeyValues(typedKeyValues);
 
     // Just return. No value in doing a post check since we can't roll back anyway.
   }
@@ -257,43 +269,13 @@ public class AuthzJwtService implements AuthorizationService {
     // Cannot perform authorization with a JWT token so just return
   }
 
-  private JSONObject extractClaimsFromJWT(String token) throws JSONException {
-    // Grab the custom claims from the JWT. It's safe to work with the JWT as a plain Base64 encoded
-    // json object here since by this point we've already authenticated the request.
-    String[] parts = tokenPattern.split(token);
-    if (parts.length < 3) {
-      throw new IllegalArgumentException(
-          "Valid JWT should contain 3 parts but provided only contains " + parts.length);
-    }
-
-    String decodedPayload =
-        new String(
-            Base64.getUrlDecoder().decode(parts[1]),
-            // Per RFC-7519, JWTs are encoded from the UTF-8 representation of the JSON payload:
-            StandardCharsets.UTF_8);
-    JSONObject payload = new JSONObject(decodedPayload);
-    return payload.getJSONObject(CLAIMS_FIELD);
-  }
-
-  private void preCheckDataReadWrite(JSONObject stargateClaims, List<TypedKeyValue> typedKeyValues)
-      throws JSONException, UnauthorizedException {
-    for (TypedKeyValue typedKeyValue : typedKeyValues) {
-      // If one of the columns exist as a field in the JWT claims and the values do not match then
-      // the request is not allowed.
-      if (stargateClaims.has(STARGATE_PREFIX + typedKeyValue.getName())) {
-        ColumnType targetCellType = typedKeyValue.getType();
-        if (!(targetCellType.equals(Type.Varchar) || targetCellType.equals(Type.Text))) {
-          throw new IllegalArgumentException(
-              "Column must be of type text to be used for authorization");
-        }
-
-        String stargateClaimValue =
-            stargateClaims.getString(STARGATE_PREFIX + typedKeyValue.getName());
-        String columnValue = (String) typedKeyValue.getValue();
-        if (!stargateClaimValue.equals(columnValue)) {
-          throw new UnauthorizedException("Not allowed to access this resource");
-        }
-      }
+  private StargateClaims extractClaimsFromJWT(String token) throws JSONException {
+    StargateClaims claims = claimsCache.getIfPresent(token);
+    if (claims == null) {
+      // Not using Cache#get(key, mappingFunction) so that parsing exceptions propagate unchanged.
+      claims = StargateClaims.fromJWT(token);
+      claimsCache.put(token, claims);
     }
+    return claims;
   }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.auth.jwt;
+
+import static io.stargate.auth.jwt.AuthnJwtService.CLAIMS_FIELD;
+import static io.stargate.auth.jwt.AuthnJwtService.STARGATE_PREFIX;
+
+import io.stargate.auth.TypedKeyValue;
+import io.stargate.auth.UnauthorizedException;
+import io.stargate.db.datastore.Row;
+import io.stargate.db.schema.Column;
+import io.stargate.db.schema.Column.ColumnType;
+import io.stargate.db.schema.Column.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Stargate claims of a JWT, pre-processed for the authorization checks of {@link
+ * AuthzJwtService}.
+ *
+ * <p>The claims are extracted from the JSON payload once, into a map of column names to the value
+ * those columns must have, so that checking a row (or the keys of a request) against them does not
+ * involve any JSON processing.
+ */
+class StargateClaims {
+
+  private static final Logger log = LoggerFactory.getLogger(StargateClaims.class);
+  private static final Pattern TOKEN_PATTERN = Pattern.compile("\\.");
+  private static final String EXPIRATION_FIELD = "exp";
+
+  // Column name (without STARGATE_PREFIX) to expected value.
+  private final Map<String, String> columnValues;
+  // Columns for which a claim exists but whose value is not a string. Those never match.
+  private final Set<String> invalidColumns;
+  private final OptionalLong expirationEpochSeconds;
+
+  private StargateClaims(
+      Map<String, String> columnValues,
+      Set<String> invalidColumns,
+      OptionalLong expirationEpochSeconds) {
+    this.columnValues = columnValues;
+    this.invalidColumns = invalidColumns;
+    this.expirationEpochSeconds = expirationEpochSeconds;
+  }
+
+  /** Extracts the claims of the provided (already authenticated) JWT. */
+  static StargateClaims fromJWT(String token) throws JSONException {
+    // Grab the custom claims from the JWT. It's safe to work with the JWT as a plain Base64 encoded
+    // json object here since by this point we've already authenticated the request.
+    String[] parts = TOKEN_PATTERN.split(token);
+    if (parts.length < 3) {
+      throw new IllegalArgumentException(
+          "Valid JWT should contain 3 parts but provided only contains " + parts.length);
+    }
+
+    String decodedPayload =
+        new String(
+            Base64.getUrlDecoder().decode(parts[1]),
+            // Per RFC-7519, JWTs are encoded from the UTF-8 representation of the JSON payload:
+            StandardCharsets.UTF_8);
+    JSONObject payload = new JSONObject(decodedPayload);
+    OptionalLong expiration =
+        payload.has(EXPIRATION_FIELD)
+            ? OptionalLong.of(payload.optLong(EXPIRATION_FIELD))
+            : OptionalLong.empty();
+    return of(payload.getJSONObject(CLAIMS_FIELD), expiration);
+  }
+
+  /** Pre-processes the provided Stargate claims JSON object. */
+  static StargateClaims of(JSONObject stargateClaims) {
+    return of(stargateClaims, OptionalLong.empty());
+  }
+
+  private static StargateClaims of(JSONObject stargateClaims, OptionalLong expiration) {
+    Map<String, String> columnValues = new HashMap<>();
+    Set<String> invalidColumns = new HashSet<>();
+    for (String key : stargateClaims.keySet()) {
+      if (!key.startsWith(STARGATE_PREFIX)) {
+        continue;
+      }
+      String columnName = key.substring(STARGATE_PREFIX.length());
+      try {
+        columnValues.put(columnName, stargateClaims.getString(key));
+      } catch (JSONException e) {
+        invalidColumns.add(columnName);
+      }
+    }
+    return new StargateClaims(
+        columnValues.isEmpty() ? Collections.emptyMap() : columnValues,
+        invalidColumns.isEmpty() ? Collections.emptySet() : invalidColumns,
+        expiration);
+  }
+
+  /** The expiration time of the JWT these claims come from, if known. */
+  OptionalLong expirationEpochSeconds() {
+    return expirationEpochSeconds;
+  }
+
+  /**
+   * Whether the provided row is allowed by these claims, that is whether, for every column of the
+   * row for which there is a claim, the row has the value of that claim.
+   */
+  boolean matches(Row row) {
+    if (row == null) {
+      return true;
+    }
+    if (columnValues.isEmpty() && invalidColumns.isEmpty()) {
+      return true;
+    }
+
+    for (Column col : row.columns()) {
+      String name = col.name();
+      String expected = columnValues.get(name);
+      if (expected == null) {
+        if (invalidColumns.contains(name)) {
+          log.warn("Unable to get stargate claim for " + STARGATE_PREFIX + name);
+          return false;
+        }
+        continue;
+      }
+      if (!expected.equals(row.getString(name))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks that for every provided key for which there is a claim, the key has the value of that
+   * claim.
+   *
+   * @throws UnauthorizedException if a key does not have the value of its claim.
+   */
+  void checkKeyValues(List<TypedKeyValue> typedKeyValues)
+      throws JSONException, UnauthorizedException {
+    for (TypedKeyValue typedKeyValue : typedKeyValues) {
+      // If one of the columns exist as a field in the JWT claims and the values do not match then
+      // the request is not allowed.
+      String name = typedKeyValue.getName();
+      String stargateClaimValue = columnValues.get(name);
+      boolean invalidClaim = stargateClaimValue == null && invalidColumns.contains(name);
+      if (stargateClaimValue == null && !invalidClaim) {
+        continue;
+      }
+
+      ColumnType targetCellType = typedKeyValue.getType();
+      if (!(targetCellType.equals(Type.Varchar) || targetCellType.equals(Type.Text))) {
+        throw new IllegalArgumentException(
+            "Column must be of type text to be used for authorization");
+      }
+      if (invalidClaim) {
+        throw new JSONException(
+            String.format("JSONObject[\"%s\"] is not a string.", STARGATE_PREFIX + name));
+      }
+
+      String columnValue = (String) typedKeyValue.getValue();
+      if (!stargateClaimValue.equals(columnValue)) {
+        throw new UnauthorizedException("Not allowed to access this resource");
+      }
+    }
+  }
+}
@@ -31,6 +31,7 @@ import com.nimbusds.jose.crypto.MACSigner;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import io.stargate.auth.AuthenticationSubject;
+import io.stargate.auth.Scope;
 import io.stargate.auth.SourceAPI;
 import io.stargate.auth.TypedKeyValue;
 import io.stargate.auth.UnauthorizedException;
@@ -45,13 +46,13 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
-import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -293,6 +294,60 @@ public class AuthzJwtServiceTest {
     assertThat(result.rows().get(1)).isEqualTo(row2);
   }
 
+  @Test
+  public void authorizeDataWriteWithSameTokenMultipleTimes() throws Exception {
+    Map<String, Object> stargate_claims = new HashMap<>();
+    stargate_claims.put("x-stargate-role", "web-user");
+    stargate_claims.put("x-stargate-userid", "123");
+    AuthenticationSubject subject = AuthenticationSubject.of(signJWT(stargate_claims), "web-user");
+
+    // The claims of the token are cached after the first call, make sure they are still applied.
+    for (int i = 0; i < 3; i++) {
+      mockAuthzJwtService.authorizeDataWrite(
+          subject,
+          "keyspace",
+          "table",
+          Collections.singletonList(new TypedKeyValue("userid", Type.Text, "123")),
+          Scope.MODIFY,
+          SourceAPI.REST);
+
+      UnauthorizedException ex =
+          assertThrows(
+              UnauthorizedException.class,
+              () ->
+                  mockAuthzJwtService.authorizeDataWrite(
+                      subject,
+                      "keyspace",
+                      "table",
+                      Collections.singletonList(new TypedKeyValue("userid", Type.Text, "456")),
+                      Scope.MODIFY,
+                      SourceAPI.REST));
+      assertThat(ex).hasMessage("Not allowed to access this resource");
+    }
+  }
+
+  @Test
+  public void shouldExtractClaimsAndExpirationFromJWT() throws Exception {
+    Map<String, Object> stargate_claims = new HashMap<>();
+    stargate_claims.put("x-stargate-role", "web-user");
+    stargate_claims.put("x-stargate-userid", "123");
+    stargate_claims.put("not-a-stargate-claim", "foo");
+    JWTClaimsSet claims =
+        new JWTClaimsSet.Builder()
+            .claim("stargate_claims", stargate_claims)
+            .expirationTime(new Date(1_000_000_000L))
+            .build();
+    SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+    jwt.sign(new MACSigner(key));
+
+    StargateClaims stargateClaims = StargateClaims.fromJWT(jwt.serialize());
+
+    assertThat(stargateClaims.expirationEpochSeconds()).hasValue(1_000_000L);
+    assertThat(stargateClaims.matches(mockRow("userid", "123"))).isTrue();
+    assertThat(stargateClaims.matches(mockRow("userid", "456"))).isFalse();
+    assertThat(stargateClaims.matches(mockRow("not-a-stargate-claim", "bar"))).isTrue();
+  }
+
   @Test
   public void shouldReturnTrueIfRowIsNull() {
     // when
@@ -307,7 +362,8 @@ public class AuthzJwtServiceTest {
     // given
     String columnName = "column_to_check";
     String columnValue = "value";
-    JSONObject stargateClaims = new JSONObject().put("x-stargate-" + columnName, columnValue);
+    StargateClaims stargateClaims =
+        StargateClaims.of(new JSONObject().put("x-stargate-" + columnName, columnValue));
     Row row = mockRow(columnName, columnValue);
 
     // when
@@ -320,7 +376,8 @@ public class AuthzJwtServiceTest {
   public void shouldReturnFalseIfColumnAndClaimDoesNotHaveTheSameValue() {
     // given
     String columnName = "column_to_check";
-    JSONObject stargateClaims = new JSONObject().put("x-stargate-" + columnName, "value");
+    StargateClaims stargateClaims =
+        StargateClaims.of(new JSONObject().put("x-stargate-" + columnName, "value"));
     Row row = mockRow(columnName, "different_value");
 
     // when
@@ -332,7 +389,8 @@ public class AuthzJwtServiceTest {
   @Test
   public void shouldReturnTrueIfOneOfTheColumnsAndClaimHaveTheSameValue() {
     // given
-    JSONObject stargateClaims = new JSONObject().put("x-stargate-column_to_check", "value");
+    StargateClaims stargateClaims =
+        StargateClaims.of(new JSONObject().put("x-stargate-column_to_check", "value"));
     Row row = mockRow("column_to_check", "value", "column2", "different_value");
 
     // when
@@ -344,7 +402,8 @@ public class AuthzJwtServiceTest {
   @Test
   public void shouldReturnTrueIfColumnsAreEmpty() {
     // given
-    JSONObject stargateClaims = new JSONObject().put("x-stargate-column_to_check", "value");
+    StargateClaims stargateClaims =
+        StargateClaims.of(new JSONObject().put("x-stargate-column_to_check", "value"));
     Row row = mock(Row.class);
     when(row.columns()).thenReturn(Collections.emptyList());
 
@@ -357,11 +416,10 @@ public class AuthzJwtServiceTest {
   @Test
   public void shouldReturnFalseIfGettingClaimsFailed() {
     // given
-    JSONObject stargateClaims = mock(JSONObject.class);
+    StargateClaims stargateClaims =
+        StargateClaims.of(
+            new JSONObject().put("x-stargate-column_to_check", new JSONObject().put("a", 1)));
     Row row = mockRow("column_to_check", "value");
-    when(stargateClaims.has("x-stargate-column_to_check")).thenReturn(true);
-    when(stargateClaims.getString("x-stargate-column_to_check"))
-        .thenThrow(new JSONException("problem"));
 
     // when
     boolean result = AuthzJwtService.hasCorrectClaims(stargateClaims, row);
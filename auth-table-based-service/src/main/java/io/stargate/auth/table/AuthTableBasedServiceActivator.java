@@ -62,6 +62,13 @@ public class AuthTableBasedServiceActivator extends BaseActivator {
     return Collections.emptyList();
   }
 
+  @Override
+  // The parent class calls stopService() from a synchronized method
+  @SuppressWarnings("GuardedBy")
+  protected void stopService() {
+    authnTableBasedService.stop();
+  }
+
   @Override
   protected List<ServicePointer<?>> dependencies() {
     return Collections.singletonList(dataStoreFactory);
@@ -15,7 +15,10 @@
  */
 package io.stargate.auth.table;
 
+import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
 import com.datastax.oss.driver.shaded.guava.common.base.Strings;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.stargate.auth.AuthenticationService;
 import io.stargate.auth.AuthenticationSubject;
 import io.stargate.auth.UnauthorizedException;
@@ -29,10 +32,17 @@ import io.stargate.db.query.Predicate;
 import io.stargate.db.query.builder.Replication;
 import io.stargate.db.schema.Column.Kind;
 import io.stargate.db.schema.Column.Type;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.apache.cassandra.stargate.db.ConsistencyLevel;
 import org.mindrot.jbcrypt.BCrypt;
 import org.slf4j.Logger;
@@ -50,6 +60,30 @@ public class AuthnTableBasedService implements AuthenticationService {
       Integer.parseInt(System.getProperty("stargate.auth_tokenttl", "1800"));
   private static final boolean shouldInitializeAuthKeyspace =
       Boolean.parseBoolean(System.getProperty("stargate.auth_tablebased_init", "true"));
+  // How long a validated token is trusted without reading the token table again. This is capped to
+  // half the token TTL so that a cached token always has its TTL refreshed well before it expires.
+  // Setting it to 0 disables the cache.
+  private static final int tokenCacheTTL =
+      Math.min(
+          Integer.parseInt(System.getProperty("stargate.auth_token_cache_ttl", "60")),
+          tokenTTL / 2);
+  private static final int tokenCacheMaxSize =
+      Integer.parseInt(System.getProperty("stargate.auth_token_cache_max_size", "100000"));
+  // The minimum interval between 2 refreshes of the TTL of the same token.
+  private static final int tokenRefreshInterval =
+      Integer.parseInt(System.getProperty("stargate.auth_token_refresh_interval", "30"));
+
+  private final Cache<UUID, StoredToken> tokenCache =
+      Caffeine.newBuilder()
+          .maximumSize(tokenCacheMaxSize)
+          .expireAfterWrite(Duration.ofSeconds(tokenCacheTTL))
+          .build();
+
+  // Tokens that were used since their TTL was last refreshed. Using a map coalesces all the uses of
+  // a token between 2 runs of the refresher into a single update.
+  private final Map<UUID, StoredToken> pendingRefreshes = new ConcurrentHashMap<>();
+
+  private ScheduledExecutorService refresher;
 
   public void setDataStoreFactory(DataStoreFactory dataStoreFactory) {
     this.dataStore = dataStoreFactory.createInternal();
@@ -57,6 +91,35 @@ public class AuthnTableBasedService implements AuthenticationService {
     if (shouldInitializeAuthKeyspace) {
       initAuthTable(this.dataStore);
     }
+
+    if (tokenCacheTTL > 0) {
+      startRefresher();
+    }
+  }
+
+  private synchronized void startRefresher() {
+    if (refresher != null) {
+      return;
+    }
+    refresher =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread t = new Thread(r, "auth-token-ttl-refresher");
+              t.setDaemon(true);
+              return t;
+            });
+    refresher.scheduleWithFixedDelay(
+        this::refreshPendingTokens, tokenRefreshInterval, tokenRefreshInterval, TimeUnit.SECONDS);
+  }
+
+  /** Stops the background refresh of token TTLs, flushing any pending refresh first. */
+  public synchronized void stop() {
+    if (refresher == null) {
+      return;
+    }
+    refresher.shutdown();
+    refresher = null;
+    refreshPendingTokens();
   }
 
   private void initAuthTable(DataStore dataStore) {
@@ -237,6 +300,16 @@ public class AuthnTableBasedService implements AuthenticationService {
       throw new UnauthorizedException("authorization failed - bad token");
     }
 
+    if (tokenCacheTTL > 0) {
+      StoredToken cached = tokenCache.getIfPresent(uuid);
+      if (cached != null) {
+        // The token was validated (and its TTL refreshed) recently; we'll refresh its TTL again in
+        // the background, but there is no point in delaying the request for that.
+        pendingRefreshes.put(uuid, cached);
+        return AuthenticationSubject.of(token, cached.username);
+      }
+    }
+
     String username;
     try {
       ResultSet resultSet =
@@ -259,19 +332,16 @@ public class AuthnTableBasedService implements AuthenticationService {
         throw new RuntimeException("unable to get username from token table");
       }
 
-      int timestamp = row.getInt("created_timestamp");
-      username = row.getString("username");
+      StoredToken storedToken =
+          new StoredToken(row.getString("username"), row.getInt("created_timestamp"));
+      username = storedToken.username;
 
-      dataStore
-          .queryBuilder()
-          .update(AUTH_KEYSPACE, AUTH_TABLE)
-          .ttl(tokenTTL)
-          .value("username", username)
-          .value("created_timestamp", timestamp)
-          .where("auth_token", Predicate.EQ, UUID.fromString(token))
-          .build()
-          .execute(ConsistencyLevel.LOCAL_QUORUM)
-          .get();
+      // We don't know how close to expiration the token is, so that first refresh is done inline.
+      refreshTokenTTL(uuid, storedToken).get();
+
+      if (tokenCacheTTL > 0) {
+        tokenCache.put(uuid, storedToken);
+      }
     } catch (InterruptedException | ExecutionException e) {
       logger.error("Failed to validate token", e);
       throw new RuntimeException(e);
@@ -280,6 +350,48 @@ public class AuthnTableBasedService implements AuthenticationService {
     return AuthenticationSubject.of(token, username);
   }
 
+  private CompletableFuture<ResultSet> refreshTokenTTL(UUID token, StoredToken storedToken) {
+    return dataStore
+        .queryBuilder()
+        .update(AUTH_KEYSPACE, AUTH_TABLE)
+        .ttl(tokenTTL)
+        .value("username", storedToken.username)
+        .value("created_timestamp", storedToken.createdTimestamp)
+        .where("auth_token", Predicate.EQ, token)
+        .build()
+        .execute(ConsistencyLevel.LOCAL_QUORUM);
+  }
+
+  @VisibleForTesting
+  void refreshPendingTokens() {
+    Iterator<Map.Entry<UUID, StoredToken>> iter = pendingRefreshes.entrySet().iterator();
+    while (iter.hasNext()) {
+      Map.Entry<UUID, StoredToken> entry = iter.next();
+      iter.remove();
+      try {
+        refreshTokenTTL(entry.getKey(), entry.getValue())
+            .whenComplete(
+                (rs, t) -> {
+                  if (t != null) {
+                    logger.warn("Failed to refresh the TTL of an authentication token", t);
+                  }
+                });
+      } catch (RuntimeException e) {
+        logger.warn("Failed to refresh the TTL of an authentication token", e);
+      }
+    }
+  }
+
+  private static class StoredToken {
+    private final String username;
+    private final int createdTimestamp;
+
+    private StoredToken(String username, int createdTimestamp) {
+      this.username = username;
+      this.createdTimestamp = createdTimestamp;
+    }
+  }
+
   @Override
   public SaslNegotiator getSaslNegotiator(SaslNegotiator wrapped, ClientInfo clientInfo) {
     return new PlainTextTableBasedTokenSaslNegotiator(
@@ -0,0 +1,106 @@
+package io.stargate.auth.table;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.stargate.auth.AuthenticationSubject;
+import io.stargate.db.datastore.DataStore;
+import io.stargate.db.datastore.DataStoreFactory;
+import io.stargate.db.datastore.ResultSet;
+import io.stargate.db.datastore.Row;
+import io.stargate.db.query.BoundQuery;
+import io.stargate.db.query.QueryType;
+import io.stargate.db.query.TypedValue;
+import io.stargate.db.schema.Column.Kind;
+import io.stargate.db.schema.Column.Type;
+import io.stargate.db.schema.Schema;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AuthnTableBasedServiceTest {
+
+  private static final String TOKEN = "a24b121a-a385-44a6-8ae1-fe7542dbc490";
+
+  private final List<BoundQuery> executed = new ArrayList<>();
+  private AuthnTableBasedService service;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setup() {
+    Schema schema =
+        Schema.build()
+            .keyspace("data_endpoint_auth")
+            .table("token")
+            .column("auth_token", Type.Uuid, Kind.PartitionKey)
+            .column("username", Type.Text)
+            .column("created_timestamp", Type.Int)
+            .build();
+
+    Row row = mock(Row.class);
+    when(row.isNull("username")).thenReturn(false);
+    when(row.getString("username")).thenReturn("user1");
+    when(row.getInt("created_timestamp")).thenReturn(42);
+
+    ResultSet rows = mock(ResultSet.class);
+    when(rows.hasNoMoreFetchedRows()).thenReturn(false);
+    when(rows.one()).thenReturn(row);
+
+    DataStore dataStore = mock(DataStore.class, CALLS_REAL_METHODS);
+    when(dataStore.schema()).thenReturn(schema);
+    when(dataStore.valueCodec()).thenReturn(TypedValue.Codec.testCodec());
+    when(dataStore.execute(any(), any(UnaryOperator.class)))
+        .thenAnswer(
+            invocation -> {
+              BoundQuery query = invocation.getArgument(0);
+              executed.add(query);
+              return CompletableFuture.completedFuture(
+                  query.type() == QueryType.SELECT ? rows : ResultSet.empty());
+            });
+
+    DataStoreFactory dataStoreFactory = mock(DataStoreFactory.class);
+    when(dataStoreFactory.createInternal()).thenReturn(dataStore);
+
+    service = new AuthnTableBasedService();
+    service.setDataStoreFactory(dataStoreFactory);
+    executed.clear();
+  }
+
+  @AfterEach
+  void cleanup() {
+    service.stop();
+  }
+
+  private List<QueryType> executedTypes() {
+    return executed.stream().map(BoundQuery::type).collect(Collectors.toList());
+  }
+
+  @Test
+  public void shouldCacheValidatedTokensAndCoalesceRefreshes() throws Exception {
+    AuthenticationSubject subject = service.validateToken(TOKEN);
+    assertThat(subject.roleName()).isEqualTo("user1");
+    assertThat(executedTypes()).containsExactly(QueryType.SELECT, QueryType.UPDATE);
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(service.validateToken(TOKEN).roleName()).isEqualTo("user1");
+    }
+    // Cached: no additional query until the refresher runs.
+    assertThat(executedTypes()).containsExactly(QueryType.SELECT, QueryType.UPDATE);
+
+    service.refreshPendingTokens();
+    assertThat(executedTypes())
+        .containsExactly(QueryType.SELECT, QueryType.UPDATE, QueryType.UPDATE);
+
+    // Nothing used since the last refresh, nothing to refresh.
+    service.refreshPendingTokens();
+    assertThat(executed).hasSize(3);
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.benchmarks.cql;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import org.apache.cassandra.stargate.transport.internal.Frame;
+import org.apache.cassandra.stargate.transport.internal.frame.compress.CompressingTransformer;
+import org.apache.cassandra.stargate.transport.internal.frame.compress.LZ4Compressor;
+import org.apache.cassandra.stargate.transport.internal.frame.compress.SnappyCompressor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the compression and decompression of CQL frame bodies by {@link CompressingTransformer},
+ * for both heap buffers and the direct buffers Netty usually hands us.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressingTransformerBenchmark {
+
+  private static final EnumSet<Frame.Header.Flag> COMPRESSED =
+      EnumSet.of(Frame.Header.Flag.COMPRESSED);
+
+  @Param({"lz4", "snappy"})
+  public String compressor;
+
+  @Param({"true", "false"})
+  public boolean direct;
+
+  @Param({"1024", "65536"})
+  public int bodySize;
+
+  private CompressingTransformer transformer;
+  private ByteBuf uncompressed;
+  private ByteBuf compressed;
+
+  @Setup
+  public void setup() throws IOException {
+    transformer =
+        CompressingTransformer.getTransformer(
+            "lz4".equals(compressor) ? LZ4Compressor.INSTANCE : SnappyCompressor.INSTANCE);
+    uncompressed = allocate(bodySize);
+    uncompressed.writeBytes(FrameBodies.resultLike(bodySize));
+
+    ByteBuf output = transformer.transformOutbound(uncompressed.duplicate());
+    compressed = allocate(output.readableBytes());
+    compressed.writeBytes(output);
+    output.release();
+  }
+
+  private ByteBuf allocate(int size) {
+    return direct ? Unpooled.directBuffer(size) : Unpooled.buffer(size);
+  }
+
+  @TearDown
+  public void tearDown() {
+    uncompressed.release();
+    compressed.release();
+  }
+
+  @Benchmark
+  public int compress() throws IOException {
+    ByteBuf output = transformer.transformOutbound(uncompressed.duplicate());
+    int size = output.readableBytes();
+    output.release();
+    return size;
+  }
+
+  @Benchmark
+  public int decompress() throws IOException {
+    ByteBuf output = transformer.transformInbound(compressed.duplicate(), COMPRESSED);
+    int size = output.readableBytes();
+    output.release();
+    return size;
+  }
+}
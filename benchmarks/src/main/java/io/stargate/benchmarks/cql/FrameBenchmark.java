@@ -0,0 +1,110 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.benchmarks.cql;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.cassandra.stargate.transport.ProtocolVersion;
+import org.apache.cassandra.stargate.transport.internal.Connection;
+import org.apache.cassandra.stargate.transport.internal.Frame;
+import org.apache.cassandra.stargate.transport.internal.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the framing of CQL messages: the encoding of a frame header by {@link Frame.Encoder} and
+ * the decoding of a frame from the bytes received by {@link Frame.Decoder}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FrameBenchmark {
+
+  @Param({"128", "16384"})
+  public int bodySize;
+
+  private final Frame.Encoder encoder = new Frame.Encoder();
+  // The decoder of a connection, that receives one whole frame at a time.
+  private final EmbeddedChannel channel =
+      new EmbeddedChannel(
+          new Frame.Decoder(
+              (ch, proxyInfo, version) -> new Connection(ch, version, (c, connection) -> {})));
+  private ByteBuf body;
+  private ByteBuf encoded;
+
+  @Setup
+  public void setup() throws Exception {
+    body = Unpooled.directBuffer(bodySize);
+    body.writeBytes(FrameBodies.resultLike(bodySize));
+
+    // A request, as this is what the decoder sees.
+    List<Object> parts = new ArrayList<>(2);
+    encoder.encode(null, frame(Message.Type.QUERY), parts);
+    encoded = Unpooled.directBuffer(Frame.Header.LENGTH + bodySize);
+    for (Object part : parts) {
+      encoded.writeBytes((ByteBuf) part);
+    }
+    ((ByteBuf) parts.get(0)).release();
+  }
+
+  private Frame frame(Message.Type type) {
+    return Frame.create(
+        type, 1, ProtocolVersion.V4, EnumSet.noneOf(Frame.Header.Flag.class), body.duplicate());
+  }
+
+  @TearDown
+  public void tearDown() {
+    body.release();
+    encoded.release();
+    channel.finishAndReleaseAll();
+  }
+
+  @Benchmark
+  public List<Object> encode() throws Exception {
+    List<Object> results = new ArrayList<>(2);
+    encoder.encode(null, frame(Message.Type.RESULT), results);
+    // Only the header is allocated, the body is the one of the frame.
+    ((ByteBuf) results.get(0)).release();
+    return results;
+  }
+
+  @Benchmark
+  public Frame decode() {
+    // The decoder releases the bytes it decoded.
+    channel.writeInbound(encoded.retainedDuplicate());
+    Frame frame = channel.readInbound();
+    frame.release();
+    return frame;
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.benchmarks.cql;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/** Frame body fixtures for the transport benchmarks. */
+public final class FrameBodies {
+
+  private FrameBodies() {}
+
+  /**
+   * Returns {@code size} bytes that compress roughly like a page of rows: values of a limited set
+   * of shapes, with some random content (ids, numbers) in between.
+   */
+  public static byte[] resultLike(int size) {
+    Random random = new Random(42);
+    byte[] body = new byte[size];
+    int i = 0;
+    while (i < size) {
+      byte[] cell =
+          String.format("%08x-user-%d-some-text-value", random.nextInt(), random.nextInt(1000))
+              .getBytes(StandardCharsets.UTF_8);
+      int length = Math.min(cell.length, size - i);
+      System.arraycopy(cell, 0, body, i, length);
+      i += length;
+    }
+    return body;
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.benchmarks.db;
+
+import io.stargate.db.query.BoundQuery;
+import io.stargate.db.query.Predicate;
+import io.stargate.db.query.TypedValue;
+import io.stargate.db.query.builder.BuiltQuery;
+import io.stargate.db.query.builder.QueryBuilder;
+import io.stargate.db.schema.Column.Kind;
+import io.stargate.db.schema.Column.Type;
+import io.stargate.db.schema.Schema;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the generation of query strings by {@link QueryBuilderImpl}, both when a query is built
+ * and bound for every request (which is what most of the APIs do) and when only the binding of a
+ * pre-built query is done.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryBuilderBenchmark {
+
+  private static final String KEYSPACE = "ks";
+  private static final String TABLE = "events";
+
+  private static final Schema SCHEMA =
+      Schema.build()
+          .keyspace(KEYSPACE)
+          .table(TABLE)
+          .column("tenant", Type.Text, Kind.PartitionKey)
+          .column("day", Type.Int, Kind.PartitionKey)
+          .column("ts", Type.Bigint, Kind.Clustering)
+          .column("kind", Type.Text)
+          .column("payload", Type.Text)
+          .column("score", Type.Double)
+          .column("tags", Type.Set.of(Type.Text))
+          .build();
+
+  private final TypedValue.Codec codec = TypedValue.Codec.testCodec();
+  private BuiltQuery<?> preparedSelect;
+  private BuiltQuery<?> preparedInsert;
+
+  @Setup
+  public void setup() {
+    preparedSelect = selectWithMarkers();
+    preparedInsert = insertWithMarkers();
+  }
+
+  // Builders are single-use, like the ones returned by DataStore#queryBuilder.
+  private QueryBuilder newBuilder() {
+    return new QueryBuilder(SCHEMA, codec, null);
+  }
+
+  private BuiltQuery<?> selectWithMarkers() {
+    return newBuilder()
+        .select()
+        .column("ts", "kind", "payload", "score")
+        .from(KEYSPACE, TABLE)
+        .where("tenant", Predicate.EQ)
+        .where("day", Predicate.EQ)
+        .where("ts", Predicate.GTE)
+        .limit()
+        .build();
+  }
+
+  private BuiltQuery<?> insertWithMarkers() {
+    return newBuilder()
+        .insertInto(KEYSPACE, TABLE)
+        .value("tenant")
+        .value("day")
+        .value("ts")
+        .value("kind")
+        .value("payload")
+        .value("score")
+        .build();
+  }
+
+  @Benchmark
+  public String buildAndBindSelect() {
+    return selectWithMarkers().bind("acme", 20201101, 1604188800000L, 100).queryString();
+  }
+
+  @Benchmark
+  public String buildAndBindInsert() {
+    return insertWithMarkers()
+        .bind("acme", 20201101, 1604188800000L, "click", "{\"x\":1}", 0.5)
+        .queryString();
+  }
+
+  @Benchmark
+  public String buildSelectWithInlinedValues() {
+    return newBuilder()
+        .select()
+        .column("ts", "kind", "payload", "score")
+        .from(KEYSPACE, TABLE)
+        .where("tenant", Predicate.EQ, "acme")
+        .where("day", Predicate.EQ, 20201101)
+        .where("ts", Predicate.GTE, 1604188800000L)
+        .limit(100)
+        .build()
+        .bind()
+        .queryString();
+  }
+
+  @Benchmark
+  public BoundQuery bindPrebuiltSelect() {
+    return preparedSelect.bind("acme", 20201101, 1604188800000L, 100);
+  }
+
+  @Benchmark
+  public BoundQuery bindPrebuiltInsert() {
+    return preparedInsert.bind("acme", 20201101, 1604188800000L, "click", "{\"x\":1}", 0.5);
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.benchmarks.db;
+
+import io.stargate.db.query.BindMarker;
+import io.stargate.db.query.TypedValue;
+import io.stargate.db.schema.Column.ColumnType;
+import io.stargate.db.schema.Column.Type;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link TypedValue.Codec} encoding and decoding for simple and (nested) collection types.
+ *
+ * <p>Collection types are re-created on every invocation, like they are when a type is parsed from
+ * a request or when a schema is converted, so this also covers the cost of getting the codec of a
+ * parameterized type.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TypedValueCodecBenchmark {
+
+  @Param({"text", "uuid", "list<int>", "map<text, list<int>>"})
+  public String type;
+
+  private final TypedValue.Codec codec = TypedValue.Codec.testCodec();
+
+  private Object value;
+  private ByteBuffer encoded;
+
+  @Setup
+  public void setup() {
+    value = valueFor(type);
+    encoded = codec.encode(typeFor(type), value);
+  }
+
+  private static ColumnType typeFor(String type) {
+    switch (type) {
+      case "text":
+        return Type.Text;
+      case "uuid":
+        return Type.Uuid;
+      case "list<int>":
+        return Type.List.of(Type.Int);
+      case "map<text, list<int>>":
+        return Type.Map.of(Type.Text, Type.List.of(Type.Int));
+      default:
+        throw new IllegalArgumentException("Unknown type " + type);
+    }
+  }
+
+  private static Object valueFor(String type) {
+    switch (type) {
+      case "text":
+        return "The quick brown fox jumps over the lazy dog";
+      case "uuid":
+        return UUID.randomUUID();
+      case "list<int>":
+        return ints(16);
+      case "map<text, list<int>>":
+        Map<String, List<Integer>> map = new HashMap<>();
+        for (int i = 0; i < 8; i++) {
+          map.put("key" + i, ints(8));
+        }
+        return map;
+      default:
+        throw new IllegalArgumentException("Unknown type " + type);
+    }
+  }
+
+  private static List<Integer> ints(int count) {
+    List<Integer> ints = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      ints.add(i);
+    }
+    return ints;
+  }
+
+  @Benchmark
+  public ByteBuffer encode() {
+    return codec.encode(typeFor(type), value);
+  }
+
+  @Benchmark
+  public Object decode() {
+    return codec.decode(typeFor(type), encoded.duplicate());
+  }
+
+  @Benchmark
+  public List<TypedValue> forJavaValues() {
+    ColumnType columnType = typeFor(type);
+    return TypedValue.forJavaValues(
+        codec,
+        Arrays.asList(BindMarker.markerFor("a", columnType), BindMarker.markerFor("b", columnType)),
+        Arrays.asList(value, value));
+  }
+}
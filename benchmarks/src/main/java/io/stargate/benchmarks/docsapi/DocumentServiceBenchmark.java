@@ -0,0 +1,171 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.benchmarks.docsapi;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.stargate.auth.UnauthorizedException;
+import io.stargate.db.datastore.ArrayListBackedRow;
+import io.stargate.db.datastore.Row;
+import io.stargate.db.query.BoundInsert;
+import io.stargate.db.query.BoundQuery;
+import io.stargate.db.query.TypedValue;
+import io.stargate.db.schema.Column;
+import io.stargate.db.schema.Column.Kind;
+import io.stargate.db.schema.Column.Type;
+import io.stargate.db.schema.Schema;
+import io.stargate.db.schema.SchemaBuilder.SchemaBuilder__5;
+import io.stargate.web.docsapi.dao.DocumentDB;
+import io.stargate.web.docsapi.service.DocumentService;
+import io.stargate.web.resources.Db;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the two halves of the documents API data model: the shredding of a JSON document into
+ * rows on writes, and the re-assembly of rows into a JSON document on reads.
+ *
+ * <p>Writes go through a whole PUT of the document, against a data store that executes nothing. The
+ * rows used for the re-assembly are the ones written by that PUT.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentServiceBenchmark {
+
+  private static final String KEYSPACE = "ks";
+  private static final String COLLECTION = "docs";
+
+  /** The number of top-level fields of the document, each with a nested object and array. */
+  @Param({"10", "100"})
+  public int fields;
+
+  private final DocumentService service = new DocumentService();
+  private InMemoryDataStore dataStore;
+  private Db db;
+  private String payload;
+  private List<Row> rows;
+
+  @Setup
+  public void setup() throws UnauthorizedException {
+    dataStore = new InMemoryDataStore(schema());
+    db = new InMemoryDb(dataStore);
+    payload = document(fields);
+
+    put();
+    rows = new ArrayList<>();
+    for (BoundQuery query : dataStore.lastBatch()) {
+      if (query instanceof BoundInsert) {
+        rows.add(row(query.values()));
+      }
+    }
+  }
+
+  private static Schema schema() {
+    SchemaBuilder__5 table =
+        Schema.build()
+            .keyspace(KEYSPACE)
+            .table(COLLECTION)
+            .column("key", Type.Text, Kind.PartitionKey)
+            .column("leaf", Type.Text)
+            .column("text_value", Type.Text)
+            .column("dbl_value", Type.Double)
+            .column("bool_value", Type.Boolean);
+    for (int i = 0; i < DocumentDB.MAX_DEPTH; i++) {
+      table = table.column("p" + i, Type.Text, Kind.Clustering);
+    }
+    return table.build();
+  }
+
+  private static String document(int fields) {
+    StringBuilder sb = new StringBuilder("{");
+    for (int i = 0; i < fields; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(String.format("\"field%d\":{", i))
+          .append(String.format("\"name\":\"value %d\",", i))
+          .append(String.format("\"count\":%d,", i))
+          .append("\"enabled\":true,")
+          .append("\"nested\":{\"a\":{\"b\":\"deep\"}},")
+          .append("\"items\":[1,\"two\",{\"three\":3.0},[]]")
+          .append('}');
+    }
+    return sb.append('}').toString();
+  }
+
+  private static Row row(List<TypedValue> values) {
+    List<Column> columns = new ArrayList<>(DocumentDB.allColumns());
+    columns.add(Column.create("writetime(leaf)", Type.Bigint));
+    ProtocolVersion version = ProtocolVersion.DEFAULT;
+    List<ByteBuffer> buffers = new ArrayList<>(columns.size());
+    for (int i = 0; i < columns.size(); i++) {
+      // The values of the insert are the ones of the columns, followed by its timestamp.
+      Object v = i < values.size() ? values.get(i).javaValue() : 0L;
+      buffers.add(
+          v == null || v == TypedValue.UNSET
+              ? null
+              : columns.get(i).type().codec().encode(v, version));
+    }
+    return new ArrayListBackedRow(columns, buffers, version);
+  }
+
+  private void put() throws UnauthorizedException {
+    service
+        .putAtPath(
+            "token",
+            KEYSPACE,
+            COLLECTION,
+            "doc",
+            payload,
+            Collections.emptyList(),
+            false,
+            db,
+            true,
+            Collections.emptyMap())
+        .toCompletableFuture()
+        .join();
+  }
+
+  @Benchmark
+  public void putJson() throws UnauthorizedException {
+    put();
+  }
+
+  @Benchmark
+  public ImmutablePair<JsonNode, Map<String, List<JsonNode>>> convertToJsonDoc() {
+    return service.convertToJsonDoc(rows, false, false);
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.benchmarks.docsapi;
+
+import io.stargate.db.BatchType;
+import io.stargate.db.Parameters;
+import io.stargate.db.datastore.DataStore;
+import io.stargate.db.datastore.ResultSet;
+import io.stargate.db.query.BoundQuery;
+import io.stargate.db.query.Query;
+import io.stargate.db.query.TypedValue.Codec;
+import io.stargate.db.schema.Schema;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+
+/**
+ * A {@link DataStore} that executes nothing, for benchmarking code that needs a data store but not
+ * the results of its queries. It only remembers the queries of the last batch.
+ */
+class InMemoryDataStore implements DataStore {
+
+  private final Schema schema;
+  private volatile Collection<BoundQuery> lastBatch = Collections.emptyList();
+
+  InMemoryDataStore(Schema schema) {
+    this.schema = schema;
+  }
+
+  @Override
+  public Codec valueCodec() {
+    return Codec.testCodec();
+  }
+
+  @Override
+  public <B extends BoundQuery> CompletableFuture<Query<B>> prepare(Query<B> query) {
+    return CompletableFuture.completedFuture(query);
+  }
+
+  @Override
+  public CompletableFuture<ResultSet> execute(
+      BoundQuery query, UnaryOperator<Parameters> parametersModifier) {
+    return CompletableFuture.completedFuture(ResultSet.empty());
+  }
+
+  @Override
+  public CompletableFuture<ResultSet> batch(
+      Collection<BoundQuery> queries,
+      BatchType batchType,
+      UnaryOperator<Parameters> parametersModifier) {
+    lastBatch = queries;
+    return CompletableFuture.completedFuture(ResultSet.empty());
+  }
+
+  Collection<BoundQuery> lastBatch() {
+    return lastBatch;
+  }
+
+  @Override
+  public Schema schema() {
+    return schema;
+  }
+
+  @Override
+  public boolean supportsSecondaryIndex() {
+    return true;
+  }
+
+  @Override
+  public boolean supportsSAI() {
+    return false;
+  }
+
+  @Override
+  public boolean supportsLoggedBatches() {
+    return true;
+  }
+
+  @Override
+  public boolean isInSchemaAgreement() {
+    return true;
+  }
+
+  @Override
+  public void waitForSchemaAgreement() {}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.benchmarks.docsapi;
+
+import io.stargate.auth.AuthenticationSubject;
+import io.stargate.auth.AuthorizationService;
+import io.stargate.db.AuthenticatedUser;
+import io.stargate.db.datastore.DataStore;
+import io.stargate.db.datastore.DataStoreFactory;
+import io.stargate.db.datastore.DataStoreOptions;
+import io.stargate.web.docsapi.dao.DocumentDB;
+import io.stargate.web.resources.Db;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+/**
+ * A {@link Db} whose documents are all read and written through the provided data store, by a user
+ * that is authorized to do anything.
+ */
+class InMemoryDb extends Db {
+
+  private final DocumentDB documentDB;
+
+  InMemoryDb(DataStore dataStore) {
+    this(dataStore, allowAll());
+  }
+
+  private InMemoryDb(DataStore dataStore, AuthorizationService authorizationService) {
+    super(null, authorizationService, factory(dataStore));
+    this.documentDB =
+        new DocumentDB(
+            dataStore,
+            AuthenticationSubject.of("token", "user"),
+            authorizationService,
+            getDocsReadDepths());
+  }
+
+  private static AuthorizationService allowAll() {
+    // All the authorization checks of the writes return nothing, unless they fail.
+    return (AuthorizationService)
+        Proxy.newProxyInstance(
+            AuthorizationService.class.getClassLoader(),
+            new Class<?>[] {AuthorizationService.class},
+            (proxy, method, args) -> null);
+  }
+
+  private static DataStoreFactory factory(DataStore dataStore) {
+    return new DataStoreFactory() {
+      @Override
+      public DataStore create(AuthenticatedUser user, DataStoreOptions options) {
+        return dataStore;
+      }
+
+      @Override
+      public DataStore createInternal() {
+        return dataStore;
+      }
+
+      @Override
+      public DataStore createInternal(DataStoreOptions options) {
+        return dataStore;
+      }
+    };
+  }
+
+  @Override
+  public DocumentDB getDocDataStoreForToken(String token, Map<String, String> headers) {
+    return documentDB;
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.benchmarks.limiter;
+
+import io.stargate.db.limiter.AsyncRateLimiter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead of {@link AsyncRateLimiter#acquireAndExecute} on the request path, with and
+ * without contention between threads.
+ *
+ * <p>The rate is high enough that tasks are not delayed, so this measures the permit accounting
+ * (and the contention on it), not the scheduling of delayed tasks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AsyncRateLimiterBenchmark {
+
+  private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+
+  private ScheduledExecutorService executor;
+  private AsyncRateLimiter limiter;
+
+  @Setup
+  public void setup() {
+    executor = Executors.newSingleThreadScheduledExecutor();
+    // One permit per nanosecond: every acquisition moves the limiter forward, but the rate is well
+    // above what a few threads can acquire.
+    limiter = new AsyncRateLimiter(executor, 1, TimeUnit.NANOSECONDS, 1, TimeUnit.SECONDS);
+  }
+
+  private static CompletableFuture<Void> task() {
+    return DONE;
+  }
+
+  @TearDown
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public CompletableFuture<Void> uncontended() {
+    return limiter.acquireAndExecute(1, AsyncRateLimiterBenchmark::task);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public CompletableFuture<Void> contended() {
+    return limiter.acquireAndExecute(1, AsyncRateLimiterBenchmark::task);
+  }
+}
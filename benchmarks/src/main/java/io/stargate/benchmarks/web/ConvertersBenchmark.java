@@ -0,0 +1,158 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.benchmarks.web;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.stargate.db.datastore.ArrayListBackedRow;
+import io.stargate.db.datastore.Row;
+import io.stargate.db.schema.Column;
+import io.stargate.db.schema.Column.ColumnType;
+import io.stargate.db.schema.Column.Type;
+import io.stargate.web.resources.Converters;
+import io.stargate.web.resources.RowsResponseWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the conversions done by the REST API between rows and JSON: {@link Converters#row2Map}
+ * and {@link RowsResponseWriter} for reads, {@link Converters#toCqlValue} for writes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConvertersBenchmark {
+
+  private static final int PAGE_SIZE = 100;
+
+  private static final List<Column> COLUMNS =
+      Arrays.asList(
+          Column.create("id", Type.Uuid),
+          Column.create("name", Type.Text),
+          Column.create("counter", Type.Bigint),
+          Column.create("score", Type.Double),
+          Column.create("created", Type.Timestamp),
+          Column.create("tags", Type.List.of(Type.Text)),
+          Column.create("attributes", Type.Map.of(Type.Text, Type.Int)));
+
+  private static final ColumnType LIST_TYPE = Type.List.of(Type.Text);
+  private static final ColumnType MAP_TYPE = Type.Map.of(Type.Text, Type.Int);
+
+  private List<Row> page;
+  private Map<String, Object> jsonValues;
+
+  @Setup
+  public void setup() {
+    page = new ArrayList<>(PAGE_SIZE);
+    for (int i = 0; i < PAGE_SIZE; i++) {
+      page.add(
+          row(
+              UUID.randomUUID(),
+              "name" + i,
+              (long) i,
+              i / 3.0,
+              Instant.ofEpochMilli(1604188800000L + i),
+              ImmutableList.of("a", "b", "c"),
+              ImmutableMap.of("x", i, "y", -i)));
+    }
+
+    jsonValues =
+        ImmutableMap.<String, Object>builder()
+            .put("text", "some text")
+            .put("bigint", 1234567890123L)
+            .put("timestamp", "2020-11-01T12:00:00Z")
+            .put("list", ImmutableList.of("a", "b", "c"))
+            .put(
+                "map",
+                ImmutableList.of(
+                    ImmutableMap.of("key", "x", "value", 1),
+                    ImmutableMap.of("key", "y", "value", 2)))
+            .build();
+  }
+
+  private static Row row(Object... data) {
+    List<ByteBuffer> values = new ArrayList<>(COLUMNS.size());
+    ProtocolVersion version = ProtocolVersion.DEFAULT;
+    for (int i = 0; i < COLUMNS.size(); i++) {
+      values.add(COLUMNS.get(i).type().codec().encode(data[i], version));
+    }
+    return new ArrayListBackedRow(COLUMNS, values, version);
+  }
+
+  @Benchmark
+  public void row2Map(Blackhole blackhole) {
+    for (Row row : page) {
+      blackhole.consume(Converters.row2Map(row));
+    }
+  }
+
+  @Benchmark
+  public String row2MapAndWriteResponse() throws IOException {
+    List<Map<String, Object>> maps = new ArrayList<>(page.size());
+    for (Row row : page) {
+      maps.add(Converters.row2Map(row));
+    }
+    return Converters.writeResponse(maps);
+  }
+
+  @Benchmark
+  public int streamResponse() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    RowsResponseWriter.v2(page, null, true).write(out);
+    return out.size();
+  }
+
+  @Benchmark
+  public void toCqlValueFromJson(Blackhole blackhole) {
+    blackhole.consume(Converters.toCqlValue(Type.Text, jsonValues.get("text")));
+    blackhole.consume(Converters.toCqlValue(Type.Bigint, jsonValues.get("bigint")));
+    blackhole.consume(Converters.toCqlValue(Type.Timestamp, jsonValues.get("timestamp")));
+    blackhole.consume(Converters.toCqlValue(LIST_TYPE, jsonValues.get("list")));
+    blackhole.consume(Converters.toCqlValue(MAP_TYPE, jsonValues.get("map")));
+  }
+
+  @Benchmark
+  public void toCqlValueFromString(Blackhole blackhole) {
+    blackhole.consume(Converters.toCqlValue(Type.Text, "some text"));
+    blackhole.consume(Converters.toCqlValue(Type.Bigint, "1234567890123"));
+    blackhole.consume(Converters.toCqlValue(Type.Timestamp, "2020-11-01T12:00:00Z"));
+    blackhole.consume(Converters.toCqlValue(LIST_TYPE, "['a', 'b', 'c']"));
+    blackhole.consume(Converters.toCqlValue(MAP_TYPE, "{'x': 1, 'y': 2}"));
+  }
+}
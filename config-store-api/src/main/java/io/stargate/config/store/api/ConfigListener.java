@@ -0,0 +1,33 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.config.store.api;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/** A listener of the changes of the settings of a module, registered in a {@link ConfigStore}. */
+@FunctionalInterface
+public interface ConfigListener {
+
+  /**
+   * It is called after the settings of the module the listener was registered for changed.
+   *
+   * @param moduleName - the name of the module whose settings changed.
+   * @param config - the new settings of the module, or null if the module does not have any setting
+   *     anymore.
+   */
+  void onConfigChanged(@Nonnull String moduleName, @Nullable ConfigWithOverrides config);
+}
@@ -36,4 +36,18 @@ public interface ConfigStore {
   default ConfigWithOverrides getGlobalConfig() {
     return getConfigForModule("stargate");
   }
+
+  /**
+   * It registers a listener that will be notified every time the settings of a given module change.
+   * The listener is not notified of the settings that are in place when it is registered: the
+   * caller should get them with the {@link this#getConfigForModule(String)} beforehand.
+   *
+   * <p>The listener may be called from a background thread, and should not block.
+   *
+   * <p>By default, the settings are considered to never change, so the listener is never notified.
+   */
+  default void addListener(String moduleName, ConfigListener listener) {}
+
+  /** It unregisters a listener that was registered with {@link this#addListener}. */
+  default void removeListener(String moduleName, ConfigListener listener) {}
 }
@@ -32,18 +32,27 @@ public class ConfigStoreActivator extends BaseActivator {
   public static final String CONFIG_STORE_YAML_IDENTIFIER = "ConfigStoreYaml";
 
   private final String configYamlLocation;
+  private final boolean watch;
+  private ConfigStoreYaml configStoreYaml;
   private ServicePointer<Metrics> metricsService = ServicePointer.create(Metrics.class);
 
   // for testing purpose
   public ConfigStoreActivator(String configYamlLocation) {
+    this(configYamlLocation, false);
+  }
+
+  // for testing purpose
+  public ConfigStoreActivator(String configYamlLocation, boolean watch) {
     super("Config Store YAML");
     this.configYamlLocation = configYamlLocation;
+    this.watch = watch;
   }
 
   public ConfigStoreActivator() {
     this(
         System.getProperty(
-            "stargate.config_store.yaml.location", "/etc/stargate/stargate-config.yaml"));
+            "stargate.config_store.yaml.location", "/etc/stargate/stargate-config.yaml"),
+        Boolean.getBoolean("stargate.config_store.yaml.watch"));
   }
 
   @Override
@@ -54,12 +63,23 @@ public class ConfigStoreActivator extends BaseActivator {
     Hashtable<String, String> props = new Hashtable<>();
     props.put("ConfigStoreIdentifier", CONFIG_STORE_YAML_IDENTIFIER);
 
-    logger.info("Creating Config Store YAML for config file location: {} ", configYamlLocation);
-    return new ServiceAndProperties(
+    logger.info(
+        "Creating Config Store YAML for config file location: {} (watch: {})",
+        configYamlLocation,
+        watch);
+    configStoreYaml =
         new ConfigStoreYaml(
-            Paths.get(configYamlLocation), metrics.getRegistry(CONFIG_STORE_YAML_METRICS_PREFIX)),
-        ConfigStore.class,
-        props);
+            Paths.get(configYamlLocation),
+            metrics.getRegistry(CONFIG_STORE_YAML_METRICS_PREFIX),
+            watch);
+    return new ServiceAndProperties(configStoreYaml, ConfigStore.class, props);
+  }
+
+  @Override
+  protected void stopService() {
+    if (configStoreYaml != null) {
+      configStoreYaml.close();
+    }
   }
 
   @Override
@@ -26,30 +26,69 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.stargate.config.store.api.ConfigListener;
 import io.stargate.config.store.api.ConfigStore;
 import io.stargate.config.store.api.ConfigWithOverrides;
 import io.stargate.config.store.api.MissingModuleSettingsException;
 import io.stargate.config.store.yaml.metrics.CacheMetricsRegistry;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ConfigStore} reading the settings of the modules from a YAML file.
+ *
+ * <p>By default, the content of the file is cached for {@link #DEFAULT_EVICTION_TIME}, and read
+ * again by the first caller that needs it after that. In watch mode, the file is instead read by a
+ * {@link FileWatcher} every time it changes, and callers only get the last read content.
+ */
+public class ConfigStoreYaml implements ConfigStore, AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(ConfigStoreYaml.class);
 
-public class ConfigStoreYaml implements ConfigStore {
   private final ObjectMapper mapper;
   private final Path configFilePath;
   private final MapType yamlConfigType;
   @VisibleForTesting final LoadingCache<Path, Map<String, Map<String, Object>>> configFileCache;
   public static final Duration DEFAULT_EVICTION_TIME = Duration.ofSeconds(30);
 
+  private final Map<String, List<ConfigListener>> listeners = new ConcurrentHashMap<>();
+  // The last read content of the file, to find the settings that changed when it is read again.
+  private Map<String, Map<String, Object>> lastContent;
+
+  // Only used in watch mode.
+  @Nullable private final FileWatcher watcher;
+  private volatile Snapshot snapshot;
+
   public ConfigStoreYaml(Path configFilePath, MetricRegistry metricRegistry) {
     this(configFilePath, Ticker.systemTicker(), metricRegistry);
   }
 
   @VisibleForTesting
   public ConfigStoreYaml(Path configFilePath, Ticker ticker, MetricRegistry metricRegistry) {
+    this(configFilePath, ticker, metricRegistry, false);
+  }
+
+  /**
+   * @param watch whether the file should be watched and read again as soon as it changes, rather
+   *     than cached for {@link #DEFAULT_EVICTION_TIME}.
+   */
+  public ConfigStoreYaml(Path configFilePath, MetricRegistry metricRegistry, boolean watch) {
+    this(configFilePath, Ticker.systemTicker(), metricRegistry, watch);
+  }
+
+  private ConfigStoreYaml(
+      Path configFilePath, Ticker ticker, MetricRegistry metricRegistry, boolean watch) {
     this.configFilePath = configFilePath;
     mapper = new ObjectMapper(new YAMLFactory());
     MapType mapType =
@@ -70,23 +109,34 @@ public class ConfigStoreYaml implements ConfigStore {
                   @Override
                   public Map<String, Map<String, Object>> load(@Nonnull Path configFilePath)
                       throws Exception {
-                    return mapper.readValue(configFilePath.toFile(), yamlConfigType);
+                    Map<String, Map<String, Object>> content = read(configFilePath);
+                    contentRead(content);
+                    return content;
                   }
                 });
 
     CacheMetricsRegistry.registerCacheMetrics(metricRegistry, configFileCache);
+
+    if (watch) {
+      // Start watching before the first read, so that no change can be missed.
+      watcher = new FileWatcher(configFilePath, this::reload);
+      reload();
+      watcher.start();
+    } else {
+      watcher = null;
+    }
   }
 
   @Override
   public ConfigWithOverrides getConfigForModule(String moduleName)
       throws MissingModuleSettingsException {
+    if (watcher != null) {
+      return snapshot.getConfigForModule(moduleName);
+    }
     try {
       Map<String, Map<String, Object>> result = configFileCache.get(configFilePath);
       if (!result.containsKey(moduleName)) {
-        throw new MissingModuleSettingsException(
-            String.format(
-                "The loaded configuration map: %s, does not contain settings from a given module: %s",
-                result, moduleName));
+        throw missingModuleSettings(result, moduleName);
       }
       return new ConfigWithOverrides(ImmutableMap.copyOf(result.get(moduleName)), moduleName);
     } catch (ExecutionException e) {
@@ -94,4 +144,127 @@ public class ConfigStoreYaml implements ConfigStore {
           "Problem when processing yaml file from: " + configFilePath, e);
     }
   }
+
+  @Override
+  public void addListener(String moduleName, ConfigListener listener) {
+    listeners.computeIfAbsent(moduleName, k -> new CopyOnWriteArrayList<>()).add(listener);
+  }
+
+  @Override
+  public void removeListener(String moduleName, ConfigListener listener) {
+    List<ConfigListener> moduleListeners = listeners.get(moduleName);
+    if (moduleListeners != null) {
+      moduleListeners.remove(listener);
+    }
+  }
+
+  /** Stops watching the file, if it was watched. */
+  @Override
+  public void close() {
+    if (watcher != null) {
+      watcher.close();
+    }
+  }
+
+  private Map<String, Map<String, Object>> read(Path configFilePath) throws IOException {
+    return mapper.readValue(configFilePath.toFile(), yamlConfigType);
+  }
+
+  @VisibleForTesting
+  synchronized void reload() {
+    Map<String, Map<String, Object>> content;
+    Snapshot newSnapshot;
+    try {
+      content = read(configFilePath);
+      newSnapshot = new Snapshot(content);
+    } catch (Exception e) {
+      if (snapshot == null || snapshot.error != null) {
+        snapshot = new Snapshot(e);
+        // All the settings will be new once the file can be read.
+        contentRead(ImmutableMap.of());
+      } else {
+        logger.warn(
+            "Unable to read the config file {}, keeping its previous content", configFilePath, e);
+      }
+      return;
+    }
+    snapshot = newSnapshot;
+    contentRead(content);
+  }
+
+  /** Notifies the listeners of the modules whose settings changed since the last read. */
+  private synchronized void contentRead(Map<String, Map<String, Object>> content) {
+    Map<String, Map<String, Object>> previousContent = lastContent;
+    lastContent = content;
+    if (previousContent == null) {
+      return;
+    }
+    for (Map.Entry<String, List<ConfigListener>> entry : listeners.entrySet()) {
+      String moduleName = entry.getKey();
+      Map<String, Object> settings = content.get(moduleName);
+      if (Objects.equals(previousContent.get(moduleName), settings)) {
+        continue;
+      }
+      ConfigWithOverrides config;
+      try {
+        config =
+            settings == null
+                ? null
+                : new ConfigWithOverrides(ImmutableMap.copyOf(settings), moduleName);
+      } catch (Exception e) {
+        logger.warn("Invalid settings for {}, not notifying their change", moduleName, e);
+        continue;
+      }
+      for (ConfigListener listener : entry.getValue()) {
+        try {
+          listener.onConfigChanged(moduleName, config);
+        } catch (Exception e) {
+          logger.warn(
+              "Unexpected error while notifying a change of the settings of {}", moduleName, e);
+        }
+      }
+    }
+  }
+
+  private static MissingModuleSettingsException missingModuleSettings(
+      Map<String, Map<String, Object>> content, String moduleName) {
+    return new MissingModuleSettingsException(
+        String.format(
+            "The loaded configuration map: %s, does not contain settings from a given module: %s",
+            content, moduleName));
+  }
+
+  /**
+   * The immutable result of a read of the file in watch mode.
+   *
+   * <p>As in the default mode, the settings of a module are only copied when they are first
+   * requested, so that the invalid settings of a module only fail the callers of that module.
+   */
+  private class Snapshot {
+    @Nullable private final Map<String, Map<String, Object>> content;
+    private final Map<String, ConfigWithOverrides> configs = new ConcurrentHashMap<>();
+    @Nullable private final Exception error;
+
+    private Snapshot(Map<String, Map<String, Object>> content) {
+      this.content = content;
+      this.error = null;
+    }
+
+    private Snapshot(Exception error) {
+      this.content = null;
+      this.error = error;
+    }
+
+    private ConfigWithOverrides getConfigForModule(String moduleName) {
+      if (error != null) {
+        throw new UncheckedExecutionException(
+            "Problem when processing yaml file from: " + configFilePath, error);
+      }
+      if (!content.containsKey(moduleName)) {
+        throw missingModuleSettings(content, moduleName);
+      }
+      return configs.computeIfAbsent(
+          moduleName, k -> new ConfigWithOverrides(ImmutableMap.copyOf(content.get(k)), k));
+    }
+  }
 }
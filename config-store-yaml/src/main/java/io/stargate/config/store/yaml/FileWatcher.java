@@ -0,0 +1,119 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.config.store.yaml;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches a file with a {@link WatchService}, and runs a given action from a background thread
+ * every time something changes in its directory.
+ *
+ * <p>The directory of the file is watched rather than the file itself, so that the file can be
+ * replaced (as most editors do), created after the watcher, or be a symbolic link to another entry
+ * of the directory.
+ */
+class FileWatcher implements AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(FileWatcher.class);
+
+  private final Path file;
+  private final Runnable onChange;
+  @Nullable private final WatchService watchService;
+  private final Thread thread;
+
+  FileWatcher(Path file, Runnable onChange) {
+    this.file = file.toAbsolutePath();
+    this.onChange = onChange;
+    this.watchService = newWatchService(this.file);
+    this.thread = new Thread(this::watch, "config-store-yaml-watcher");
+    this.thread.setDaemon(true);
+  }
+
+  private static WatchService newWatchService(Path file) {
+    WatchService watchService = null;
+    try {
+      watchService = FileSystems.getDefault().newWatchService();
+      file.getParent()
+          .register(
+              watchService,
+              StandardWatchEventKinds.ENTRY_CREATE,
+              StandardWatchEventKinds.ENTRY_MODIFY,
+              StandardWatchEventKinds.ENTRY_DELETE);
+      return watchService;
+    } catch (IOException e) {
+      logger.warn("Unable to watch {}, changes to it won't be detected", file, e);
+      if (watchService != null) {
+        try {
+          watchService.close();
+        } catch (IOException ignored) {
+          // ignore
+        }
+      }
+      return null;
+    }
+  }
+
+  void start() {
+    if (watchService != null) {
+      thread.start();
+    }
+  }
+
+  private void watch() {
+    while (true) {
+      WatchKey key;
+      try {
+        key = watchService.take();
+      } catch (InterruptedException | ClosedWatchServiceException e) {
+        return;
+      }
+
+      // Any event of the directory may change the content of the file: it could be a symbolic
+      // link whose target was swapped, as Kubernetes does to update ConfigMap volumes. Reading it
+      // again when nothing changed is harmless.
+      if (!key.pollEvents().isEmpty()) {
+        try {
+          onChange.run();
+        } catch (Exception e) {
+          logger.warn("Unexpected error while handling a change of {}", file, e);
+        }
+      }
+      if (!key.reset()) {
+        logger.warn("The directory of {} can't be watched anymore", file);
+        return;
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    if (watchService != null) {
+      try {
+        watchService.close();
+      } catch (IOException e) {
+        logger.warn("Unable to close the watcher of {}", file, e);
+      }
+    }
+  }
+}
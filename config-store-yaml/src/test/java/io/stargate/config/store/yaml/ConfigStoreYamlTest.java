@@ -24,13 +24,22 @@ import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.stargate.config.store.api.ConfigWithOverrides;
 import io.stargate.config.store.api.MissingModuleSettingsException;
 import io.stargate.config.store.yaml.metrics.CacheMetricsRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class ConfigStoreYamlTest {
 
@@ -112,4 +121,141 @@ class ConfigStoreYamlTest {
     assertThat(getMetricValue(metricRegistry, CacheMetricsRegistry.SIZE)).isEqualTo(1L);
     assertThat(getMetricValue(metricRegistry, CacheMetricsRegistry.EVICTION_COUNT)).isEqualTo(1L);
   }
+
+  @Test
+  public void shouldNotifyListenersOfChangedSettingsWhenReloadingEvictedContent(@TempDir Path dir)
+      throws IOException {
+    // given
+    FakeTicker ticker = new FakeTicker();
+    Path path = dir.resolve("stargate-config.yaml");
+    write(path, "extension-1:\n  a: 1\nextension-2:\n  a: 2\n");
+    ConfigStoreYaml configStoreYaml = new ConfigStoreYaml(path, ticker, new MetricRegistry());
+    List<ConfigWithOverrides> changes1 = new ArrayList<>();
+    List<ConfigWithOverrides> changes2 = new ArrayList<>();
+    configStoreYaml.addListener("extension-1", (module, config) -> changes1.add(config));
+    configStoreYaml.addListener("extension-2", (module, config) -> changes2.add(config));
+    assertThat(configStoreYaml.getConfigForModule("extension-1").getConfigMap())
+        .containsOnly(new SimpleEntry<>("a", 1));
+
+    // when
+    write(path, "extension-1:\n  a: 10\nextension-2:\n  a: 2\n");
+    ticker.advance(ConfigStoreYaml.DEFAULT_EVICTION_TIME);
+
+    // then
+    assertThat(configStoreYaml.getConfigForModule("extension-1").getConfigMap())
+        .containsOnly(new SimpleEntry<>("a", 10));
+    assertThat(changes1).hasSize(1);
+    assertThat(changes1.get(0).getConfigMap()).containsOnly(new SimpleEntry<>("a", 10));
+    assertThat(changes2).isEmpty();
+  }
+
+  @Test
+  public void shouldServeAndNotifyTheLastReadContentInWatchMode(@TempDir Path dir)
+      throws IOException {
+    // given
+    Path path = dir.resolve("stargate-config.yaml");
+    write(path, "extension-1:\n  a: 1\n");
+    try (ConfigStoreYaml configStoreYaml = new ConfigStoreYaml(path, new MetricRegistry(), true)) {
+      List<ConfigWithOverrides> changes = new CopyOnWriteArrayList<>();
+      configStoreYaml.addListener("extension-1", (module, config) -> changes.add(config));
+      assertThat(configStoreYaml.getConfigForModule("extension-1").getConfigMap())
+          .containsOnly(new SimpleEntry<>("a", 1));
+
+      // when
+      write(path, "extension-2:\n  a: 2\n");
+      configStoreYaml.reload();
+
+      // then
+      assertThat(configStoreYaml.getConfigForModule("extension-2").getConfigMap())
+          .containsOnly(new SimpleEntry<>("a", 2));
+      assertThatThrownBy(() -> configStoreYaml.getConfigForModule("extension-1"))
+          .isInstanceOf(MissingModuleSettingsException.class);
+      assertThat(changes).containsExactly((ConfigWithOverrides) null);
+    }
+  }
+
+  @Test
+  public void shouldKeepThePreviousContentWhenTheFileCanNotBeReadInWatchMode(@TempDir Path dir)
+      throws IOException {
+    // given
+    Path path = dir.resolve("stargate-config.yaml");
+    write(path, "extension-1:\n  a: 1\n");
+    try (ConfigStoreYaml configStoreYaml = new ConfigStoreYaml(path, new MetricRegistry(), true)) {
+
+      // when
+      Files.delete(path);
+      configStoreYaml.reload();
+
+      // then
+      assertThat(configStoreYaml.getConfigForModule("extension-1").getConfigMap())
+          .containsOnly(new SimpleEntry<>("a", 1));
+    }
+  }
+
+  @Test
+  public void shouldServeTheValidModulesWhenAnotherModuleIsInvalidInWatchMode(@TempDir Path dir)
+      throws IOException {
+    // given
+    Path path = dir.resolve("stargate-config.yaml");
+    write(path, "extension-1:\n  a: 1\nextension-2:\nextension-3:\n  b:\n");
+    try (ConfigStoreYaml configStoreYaml = new ConfigStoreYaml(path, new MetricRegistry(), true)) {
+
+      // then
+      assertThat(configStoreYaml.getConfigForModule("extension-1").getConfigMap())
+          .containsOnly(new SimpleEntry<>("a", 1));
+      assertThatThrownBy(() -> configStoreYaml.getConfigForModule("extension-2"))
+          .isInstanceOf(NullPointerException.class);
+      assertThatThrownBy(() -> configStoreYaml.getConfigForModule("extension-3"))
+          .isInstanceOf(NullPointerException.class);
+    }
+  }
+
+  @Test
+  public void shouldThrowYamlConfigExceptionWhenWatchingNonExistingFile(@TempDir Path dir) {
+    // given
+    Path path = dir.resolve("non-existing");
+    try (ConfigStoreYaml configStoreYaml = new ConfigStoreYaml(path, new MetricRegistry(), true)) {
+
+      // when, then
+      assertThatThrownBy(() -> configStoreYaml.getConfigForModule("extension-1"))
+          .isInstanceOf(UncheckedExecutionException.class)
+          .hasMessageContaining("Problem when processing yaml file from: " + path);
+    }
+  }
+
+  @Test
+  public void shouldReloadWhenASymbolicLinkIsSwappedInWatchMode(@TempDir Path dir)
+      throws Exception {
+    // given a layout like the one of Kubernetes ConfigMap volumes
+    Path v1 = Files.createDirectory(dir.resolve("..v1"));
+    Path v2 = Files.createDirectory(dir.resolve("..v2"));
+    write(v1.resolve("stargate-config.yaml"), "extension-1:\n  a: 1\n");
+    write(v2.resolve("stargate-config.yaml"), "extension-1:\n  a: 2\n");
+    Path data = Files.createSymbolicLink(dir.resolve("..data"), v1.getFileName());
+    Path path =
+        Files.createSymbolicLink(
+            dir.resolve("stargate-config.yaml"),
+            data.getFileName().resolve("stargate-config.yaml"));
+    try (ConfigStoreYaml configStoreYaml = new ConfigStoreYaml(path, new MetricRegistry(), true)) {
+      assertThat(configStoreYaml.getConfigForModule("extension-1").getConfigMap())
+          .containsOnly(new SimpleEntry<>("a", 1));
+
+      // when
+      Path tmp = Files.createSymbolicLink(dir.resolve("..data_tmp"), v2.getFileName());
+      Files.move(tmp, data, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+      // then
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+      while (!configStoreYaml.getConfigForModule("extension-1").getConfigMap().containsValue(2)
+          && System.nanoTime() < deadline) {
+        Thread.sleep(50);
+      }
+      assertThat(configStoreYaml.getConfigForModule("extension-1").getConfigMap())
+          .containsOnly(new SimpleEntry<>("a", 2));
+    }
+  }
+
+  private static void write(Path path, String content) throws IOException {
+    Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+  }
 }
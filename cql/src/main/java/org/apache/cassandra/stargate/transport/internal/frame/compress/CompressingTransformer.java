@@ -20,6 +20,7 @@ package org.apache.cassandra.stargate.transport.internal.frame.compress;
 
 import io.netty.buffer.ByteBuf;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.EnumSet;
 import org.apache.cassandra.stargate.transport.ProtocolException;
 import org.apache.cassandra.stargate.transport.internal.CBUtil;
@@ -62,6 +63,19 @@ public abstract class CompressingTransformer implements FrameBodyTransformer {
 
   abstract ByteBuf transformInbound(ByteBuf inputBuf) throws IOException;
 
+  /**
+   * Whether the provided buffer can be (de)compressed directly, without first copying it to a byte
+   * array. This is the case of direct buffers backed by a single memory region, in which case we
+   * also use direct buffers for the output. Heap buffers keep using the array based methods of
+   * {@link Compressor}.
+   *
+   * <p>The NIO buffers of the direct path are not assumed to start at position 0: their position is
+   * passed as the offset.
+   */
+  static boolean useDirectPath(ByteBuf buf) {
+    return buf.isDirect() && buf.nioBufferCount() == 1;
+  }
+
   // Simple LZ4 encoding prefixes the compressed bytes with the
   // length of the uncompressed bytes. This length is explicitly big-endian
   // as the native protocol is entirely big-endian, so it feels like putting
@@ -69,6 +83,10 @@ public abstract class CompressingTransformer implements FrameBodyTransformer {
   private static class LZ4 extends CompressingTransformer {
     @Override
     public ByteBuf transformOutbound(ByteBuf inputBuf) throws IOException {
+      if (useDirectPath(inputBuf)) {
+        return transformOutboundDirect(inputBuf);
+      }
+
       byte[] input = CBUtil.readRawBytes(inputBuf);
       int maxCompressedLength = LZ4Compressor.INSTANCE.maxCompressedLength(input.length);
       ByteBuf outputBuf = CBUtil.allocator.heapBuffer(Integer.BYTES + maxCompressedLength);
@@ -90,8 +108,32 @@ public abstract class CompressingTransformer implements FrameBodyTransformer {
       }
     }
 
+    private ByteBuf transformOutboundDirect(ByteBuf inputBuf) throws IOException {
+      int length = inputBuf.readableBytes();
+      int maxCompressedLength = LZ4Compressor.INSTANCE.maxCompressedLength(length);
+      ByteBuf outputBuf = CBUtil.allocator.directBuffer(Integer.BYTES + maxCompressedLength);
+      try {
+        outputBuf.writeInt(length);
+        ByteBuffer input = inputBuf.nioBuffer(inputBuf.readerIndex(), length);
+        ByteBuffer output = outputBuf.nioBuffer(Integer.BYTES, maxCompressedLength);
+        int written =
+            LZ4Compressor.INSTANCE.compress(
+                input, input.position(), length, output, output.position());
+        inputBuf.skipBytes(length);
+        outputBuf.writerIndex(Integer.BYTES + written);
+        return outputBuf;
+      } catch (IOException e) {
+        outputBuf.release();
+        throw e;
+      }
+    }
+
     @Override
     ByteBuf transformInbound(ByteBuf inputBuf) throws IOException {
+      if (useDirectPath(inputBuf)) {
+        return transformInboundDirect(inputBuf);
+      }
+
       byte[] input = CBUtil.readRawBytes(inputBuf);
       int uncompressedLength =
           ((input[0] & 0xFF) << 24)
@@ -109,12 +151,40 @@ public abstract class CompressingTransformer implements FrameBodyTransformer {
         throw e;
       }
     }
+
+    private ByteBuf transformInboundDirect(ByteBuf inputBuf) throws IOException {
+      int uncompressedLength = inputBuf.readInt();
+      int compressedLength = inputBuf.readableBytes();
+      ByteBuf outputBuf = CBUtil.allocator.directBuffer(uncompressedLength);
+      try {
+        ByteBuffer input = inputBuf.nioBuffer(inputBuf.readerIndex(), compressedLength);
+        ByteBuffer output = outputBuf.nioBuffer(0, uncompressedLength);
+        int written =
+            LZ4Compressor.INSTANCE.decompress(
+                input,
+                input.position(),
+                compressedLength,
+                output,
+                output.position(),
+                uncompressedLength);
+        inputBuf.skipBytes(compressedLength);
+        outputBuf.writerIndex(written);
+        return outputBuf;
+      } catch (IOException e) {
+        outputBuf.release();
+        throw e;
+      }
+    }
   }
 
   // Simple Snappy encoding simply writes the compressed bytes, without the preceding length
   private static class Snappy extends CompressingTransformer {
     @Override
     public ByteBuf transformOutbound(ByteBuf inputBuf) throws IOException {
+      if (useDirectPath(inputBuf)) {
+        return transformOutboundDirect(inputBuf);
+      }
+
       byte[] input = CBUtil.readRawBytes(inputBuf);
       int uncompressedLength = input.length;
       int maxCompressedLength = SnappyCompressor.INSTANCE.maxCompressedLength(uncompressedLength);
@@ -131,8 +201,31 @@ public abstract class CompressingTransformer implements FrameBodyTransformer {
       }
     }
 
+    private ByteBuf transformOutboundDirect(ByteBuf inputBuf) throws IOException {
+      int length = inputBuf.readableBytes();
+      int maxCompressedLength = SnappyCompressor.INSTANCE.maxCompressedLength(length);
+      ByteBuf outputBuf = CBUtil.allocator.directBuffer(maxCompressedLength);
+      try {
+        ByteBuffer input = inputBuf.nioBuffer(inputBuf.readerIndex(), length);
+        ByteBuffer output = outputBuf.nioBuffer(0, maxCompressedLength);
+        int written =
+            SnappyCompressor.INSTANCE.compress(
+                input, input.position(), length, output, output.position());
+        inputBuf.skipBytes(length);
+        outputBuf.writerIndex(written);
+        return outputBuf;
+      } catch (IOException e) {
+        outputBuf.release();
+        throw e;
+      }
+    }
+
     @Override
     ByteBuf transformInbound(ByteBuf inputBuf) throws IOException {
+      if (useDirectPath(inputBuf)) {
+        return transformInboundDirect(inputBuf);
+      }
+
       byte[] input = CBUtil.readRawBytes(inputBuf);
       int uncompressedLength = org.xerial.snappy.Snappy.uncompressedLength(input);
       ByteBuf outputBuf = CBUtil.allocator.heapBuffer(uncompressedLength);
@@ -145,5 +238,30 @@ public abstract class CompressingTransformer implements FrameBodyTransformer {
         throw e;
       }
     }
+
+    private ByteBuf transformInboundDirect(ByteBuf inputBuf) throws IOException {
+      int compressedLength = inputBuf.readableBytes();
+      ByteBuffer input = inputBuf.nioBuffer(inputBuf.readerIndex(), compressedLength);
+      int uncompressedLength =
+          SnappyCompressor.INSTANCE.uncompressedLength(input, input.position(), compressedLength);
+      ByteBuf outputBuf = CBUtil.allocator.directBuffer(uncompressedLength);
+      try {
+        ByteBuffer output = outputBuf.nioBuffer(0, uncompressedLength);
+        int written =
+            SnappyCompressor.INSTANCE.decompress(
+                input,
+                input.position(),
+                compressedLength,
+                output,
+                output.position(),
+                uncompressedLength);
+        inputBuf.skipBytes(compressedLength);
+        outputBuf.writerIndex(written);
+        return outputBuf;
+      } catch (IOException e) {
+        outputBuf.release();
+        throw e;
+      }
+    }
   }
 }
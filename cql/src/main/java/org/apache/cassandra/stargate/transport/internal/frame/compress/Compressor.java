@@ -19,6 +19,7 @@
 package org.apache.cassandra.stargate.transport.internal.frame.compress;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Analogous to {@link org.apache.cassandra.io.compress.ICompressor}, but different enough that it's
@@ -62,4 +63,46 @@ public interface Compressor {
    */
   byte[] decompress(byte[] src, int srcOffset, int length, int expectedDecompressedLength)
       throws IOException;
+
+  /**
+   * Same as {@link #compress(byte[], int, int, byte[], int)} but working on {@link ByteBuffer}s,
+   * which avoids copies when those are direct buffers. The positions and limits of the buffers are
+   * left untouched.
+   *
+   * @param src the buffer containing the bytes to be compressed
+   * @param srcOffset the offset (absolute index) in src to start compressing from
+   * @param length the total number of bytes from srcOffset to compress
+   * @param dest the output buffer to write the compressed bytes to
+   * @param destOffset the offset (absolute index) in dest to start writing the compressed bytes to
+   * @return the length of resulting compressed bytes written into the dest buffer
+   * @throws IOException if the compression implementation failed while compressing the input bytes
+   */
+  int compress(ByteBuffer src, int srcOffset, int length, ByteBuffer dest, int destOffset)
+      throws IOException;
+
+  /**
+   * Same as {@link #decompress(byte[], int, int, int)} but working on {@link ByteBuffer}s, writing
+   * the decompressed bytes in the provided buffer. The positions and limits of the buffers are left
+   * untouched.
+   *
+   * @param src the buffer containing the compressed bytes
+   * @param srcOffset the offset (absolute index) in src of the compressed bytes
+   * @param length the number of compressed bytes
+   * @param dest the output buffer to write the decompressed bytes to, which must have room for at
+   *     least expectedDecompressedLength bytes after destOffset
+   * @param destOffset the offset (absolute index) in dest to start writing the decompressed bytes
+   *     to
+   * @param expectedDecompressedLength the expected length the input bytes will decompress to
+   * @return the length of resulting decompressed bytes written into the dest buffer
+   * @throws IOException thrown if the compression implementation failed to decompress the provided
+   *     input bytes
+   */
+  int decompress(
+      ByteBuffer src,
+      int srcOffset,
+      int length,
+      ByteBuffer dest,
+      int destOffset,
+      int expectedDecompressedLength)
+      throws IOException;
 }
@@ -19,6 +19,7 @@
 package org.apache.cassandra.stargate.transport.internal.frame.compress;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import net.jpountz.lz4.LZ4Factory;
 import net.jpountz.lz4.LZ4SafeDecompressor;
 
@@ -60,4 +61,32 @@ public class LZ4Compressor implements Compressor {
       throw new IOException("Error caught during LZ4 decompression", t);
     }
   }
+
+  @Override
+  public int compress(ByteBuffer src, int srcOffset, int length, ByteBuffer dest, int destOffset)
+      throws IOException {
+    try {
+      return compressor.compress(
+          src, srcOffset, length, dest, destOffset, dest.limit() - destOffset);
+    } catch (Throwable t) {
+      throw new IOException("Error caught during LZ4 compression", t);
+    }
+  }
+
+  @Override
+  public int decompress(
+      ByteBuffer src,
+      int srcOffset,
+      int length,
+      ByteBuffer dest,
+      int destOffset,
+      int expectedDecompressedLength)
+      throws IOException {
+    try {
+      return decompressor.decompress(
+          src, srcOffset, length, dest, destOffset, expectedDecompressedLength);
+    } catch (Throwable t) {
+      throw new IOException("Error caught during LZ4 decompression", t);
+    }
+  }
 }
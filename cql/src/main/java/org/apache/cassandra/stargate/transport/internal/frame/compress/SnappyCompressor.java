@@ -18,7 +18,9 @@
 
 package org.apache.cassandra.stargate.transport.internal.frame.compress;
 
+import io.netty.util.internal.PlatformDependent;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import org.xerial.snappy.Snappy;
 import org.xerial.snappy.SnappyError;
 
@@ -66,4 +68,101 @@ public class SnappyCompressor implements Compressor {
     Snappy.uncompress(src, offset, length, output, 0);
     return output;
   }
+
+  // Snappy's own ByteBuffer methods are not usable on Java 8 (snappy-java is compiled against the
+  // covariant ByteBuffer methods of Java 9+), so the following methods use the raw memory addresses
+  // of direct buffers, and fall back to arrays if either buffer is a heap one (or if addresses are
+  // not available).
+
+  @Override
+  public int compress(ByteBuffer src, int srcOffset, int length, ByteBuffer dest, int destOffset)
+      throws IOException {
+    checkBounds(src, srcOffset, length);
+    if (hasAddress(src) && hasAddress(dest)) {
+      // rawCompress writes blindly to the destination address.
+      checkBounds(dest, destOffset, maxCompressedLength(length));
+      return (int) Snappy.rawCompress(address(src, srcOffset), length, address(dest, destOffset));
+    }
+
+    byte[] input = toArray(src, srcOffset, length);
+    byte[] output = new byte[maxCompressedLength(length)];
+    int written = compress(input, 0, length, output, 0);
+    slice(dest, destOffset, written).put(output, 0, written);
+    return written;
+  }
+
+  @Override
+  public int decompress(
+      ByteBuffer src,
+      int srcOffset,
+      int length,
+      ByteBuffer dest,
+      int destOffset,
+      int expectedDecompressedLength)
+      throws IOException {
+    checkBounds(src, srcOffset, length);
+    if (hasAddress(src) && hasAddress(dest)) {
+      checkBounds(dest, destOffset, 0);
+      long input = address(src, srcOffset);
+      if (!Snappy.isValidCompressedBuffer(input, 0, length))
+        throw new IOException("Provided frame does not appear to be Snappy compressed");
+      if (Snappy.uncompressedLength(input, length) > dest.limit() - destOffset)
+        throw new IOException("Provided frame decompresses to more than the expected length");
+
+      return (int) Snappy.rawUncompress(input, length, address(dest, destOffset));
+    }
+
+    byte[] output =
+        decompress(toArray(src, srcOffset, length), 0, length, expectedDecompressedLength);
+    slice(dest, destOffset, output.length).put(output);
+    return output.length;
+  }
+
+  /**
+   * The length the provided compressed bytes will decompress to.
+   *
+   * @param src the buffer containing the compressed bytes
+   * @param srcOffset the offset (absolute index) in src of the compressed bytes
+   * @param length the number of compressed bytes
+   */
+  public int uncompressedLength(ByteBuffer src, int srcOffset, int length) throws IOException {
+    checkBounds(src, srcOffset, length);
+    return hasAddress(src)
+        ? (int) Snappy.uncompressedLength(address(src, srcOffset), length)
+        : Snappy.uncompressedLength(toArray(src, srcOffset, length));
+  }
+
+  /**
+   * Checks that the given range is within the limit of the buffer, which the native methods can't
+   * do on their own when they are passed raw addresses.
+   */
+  private static void checkBounds(ByteBuffer buffer, int offset, int length) throws IOException {
+    if (offset < 0 || length < 0 || offset > buffer.limit() - length) {
+      throw new IOException(
+          String.format(
+              "Invalid range [%d, %d + %d) for a buffer of limit %d",
+              offset, offset, length, buffer.limit()));
+    }
+  }
+
+  private static boolean hasAddress(ByteBuffer buffer) {
+    return buffer.isDirect() && PlatformDependent.hasUnsafe();
+  }
+
+  private static long address(ByteBuffer buffer, int offset) {
+    return PlatformDependent.directBufferAddress(buffer) + offset;
+  }
+
+  private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+    ByteBuffer duplicate = buffer.duplicate();
+    duplicate.limit(offset + length);
+    duplicate.position(offset);
+    return duplicate.slice();
+  }
+
+  private static byte[] toArray(ByteBuffer buffer, int offset, int length) {
+    byte[] bytes = new byte[length];
+    slice(buffer, offset, length).get(bytes);
+    return bytes;
+  }
 }
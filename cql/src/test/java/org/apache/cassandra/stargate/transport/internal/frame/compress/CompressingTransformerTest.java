@@ -0,0 +1,219 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.cassandra.stargate.transport.internal.frame.compress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.apache.cassandra.stargate.transport.internal.Frame.Header.Flag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class CompressingTransformerTest {
+
+  private static final byte[] PAYLOAD = payload();
+
+  private static byte[] payload() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 2_000; i++) {
+      builder.append("row ").append(i % 37).append(" of the frame body; ");
+    }
+    return builder.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  enum Algorithm {
+    LZ4 {
+      @Override
+      Compressor compressor() {
+        return LZ4Compressor.INSTANCE;
+      }
+    },
+    SNAPPY {
+      @Override
+      Compressor compressor() {
+        return SnappyCompressor.INSTANCE;
+      }
+    };
+
+    abstract Compressor compressor();
+
+    CompressingTransformer transformer() {
+      assumeTrue(compressor() != null, "Compression library not available");
+      return CompressingTransformer.getTransformer(compressor());
+    }
+  }
+
+  /** The different kinds of buffers the frames can be read from or written to. */
+  enum BufferKind {
+    HEAP(bytes -> Unpooled.wrappedBuffer(bytes.clone())),
+    UNPOOLED_DIRECT(bytes -> Unpooled.directBuffer(bytes.length).writeBytes(bytes)),
+    POOLED_DIRECT(bytes -> PooledByteBufAllocator.DEFAULT.directBuffer().writeBytes(bytes)),
+    // The readable bytes don't start at index 0 of the buffer.
+    READER_INDEX(
+        bytes -> {
+          ByteBuf buf = PooledByteBufAllocator.DEFAULT.directBuffer();
+          buf.writeBytes(new byte[] {1, 2, 3, 4, 5, 6, 7});
+          buf.writeBytes(bytes);
+          buf.writeBytes(new byte[] {8, 9});
+          buf.readerIndex(7);
+          buf.writerIndex(7 + bytes.length);
+          return buf;
+        }),
+    // The NIO buffers of a slice don't start at the position 0 of the underlying memory.
+    SLICED(
+        bytes -> {
+          ByteBuf buf = Unpooled.directBuffer();
+          buf.writeBytes(new byte[] {1, 2, 3});
+          buf.writeBytes(bytes);
+          buf.writeBytes(new byte[] {4});
+          return buf.slice(3, bytes.length);
+        }),
+    // A composite of several direct buffers is not a single memory region: it takes the array path.
+    COMPOSITE(
+        bytes -> {
+          int half = bytes.length / 2;
+          return Unpooled.wrappedBuffer(
+              Unpooled.directBuffer(half).writeBytes(bytes, 0, half),
+              Unpooled.directBuffer(bytes.length - half)
+                  .writeBytes(bytes, half, bytes.length - half));
+        });
+
+    private final Function<byte[], ByteBuf> factory;
+
+    BufferKind(Function<byte[], ByteBuf> factory) {
+      this.factory = factory;
+    }
+
+    ByteBuf create(byte[] bytes) {
+      return factory.apply(bytes);
+    }
+  }
+
+  static Stream<Arguments> combinations() {
+    Stream.Builder<Arguments> builder = Stream.builder();
+    for (Algorithm algorithm : Algorithm.values()) {
+      for (BufferKind input : BufferKind.values()) {
+        for (BufferKind compressed : BufferKind.values()) {
+          builder.add(Arguments.of(algorithm, input, compressed));
+        }
+      }
+    }
+    return builder.build();
+  }
+
+  @ParameterizedTest(name = "{0}: {1} input, {2} compressed frame")
+  @MethodSource("combinations")
+  public void shouldRoundTrip(Algorithm algorithm, BufferKind input, BufferKind compressed)
+      throws IOException {
+    CompressingTransformer transformer = algorithm.transformer();
+
+    ByteBuf inputBuf = input.create(PAYLOAD);
+    ByteBuf outbound = transformer.transformOutbound(inputBuf);
+    // The whole input is consumed.
+    assertThat(inputBuf.readableBytes()).isZero();
+    inputBuf.release();
+
+    // Read the compressed bytes from another kind of buffer, as a client would send them.
+    ByteBuf compressedBuf = compressed.create(ByteBufUtil.getBytes(outbound));
+    outbound.release();
+    ByteBuf inbound = transformer.transformInbound(compressedBuf, EnumSet.noneOf(Flag.class));
+    assertThat(compressedBuf.readableBytes()).isZero();
+    compressedBuf.release();
+
+    assertThat(ByteBufUtil.getBytes(inbound)).isEqualTo(PAYLOAD);
+    inbound.release();
+  }
+
+  static Stream<Arguments> corruptions() {
+    Stream.Builder<Arguments> builder = Stream.builder();
+    for (Algorithm algorithm : Algorithm.values()) {
+      for (BufferKind kind : BufferKind.values()) {
+        builder.add(Arguments.of(algorithm, kind));
+      }
+    }
+    return builder.build();
+  }
+
+  @ParameterizedTest(name = "{0}: {1} compressed frame")
+  @MethodSource("corruptions")
+  public void shouldRejectCorruptInput(Algorithm algorithm, BufferKind kind) throws IOException {
+    CompressingTransformer transformer = algorithm.transformer();
+
+    ByteBuf outbound = transformer.transformOutbound(Unpooled.wrappedBuffer(PAYLOAD.clone()));
+    byte[] corrupt = ByteBufUtil.getBytes(outbound);
+    outbound.release();
+    // Keeps the (LZ4) length prefix, but garbles the compressed bytes.
+    for (int i = 4; i < corrupt.length; i++) {
+      corrupt[i] = (byte) (0xA5 ^ i);
+    }
+
+    ByteBuf compressedBuf = kind.create(corrupt);
+    try {
+      assertThatThrownBy(
+              () -> transformer.transformInbound(compressedBuf, EnumSet.noneOf(Flag.class)))
+          .isInstanceOf(IOException.class);
+    } finally {
+      compressedBuf.release();
+    }
+  }
+
+  @ParameterizedTest(name = "{0}: {1} compressed frame")
+  @MethodSource("corruptions")
+  public void shouldRejectTruncatedInput(Algorithm algorithm, BufferKind kind) throws IOException {
+    CompressingTransformer transformer = algorithm.transformer();
+
+    ByteBuf outbound = transformer.transformOutbound(Unpooled.wrappedBuffer(PAYLOAD.clone()));
+    byte[] bytes = ByteBufUtil.getBytes(outbound);
+    outbound.release();
+    byte[] truncated = new byte[bytes.length / 2];
+    System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+
+    ByteBuf compressedBuf = kind.create(truncated);
+    try {
+      assertThatThrownBy(
+              () -> transformer.transformInbound(compressedBuf, EnumSet.noneOf(Flag.class)))
+          .isInstanceOf(IOException.class);
+    } finally {
+      compressedBuf.release();
+    }
+  }
+
+  @Test
+  public void shouldNotWriteSnappyOutputPastTheDestinationLimit() {
+    assumeTrue(SnappyCompressor.INSTANCE != null, "Compression library not available");
+    ByteBuffer src = ByteBuffer.allocateDirect(PAYLOAD.length);
+    src.put(PAYLOAD).flip();
+    ByteBuffer dest = ByteBuffer.allocateDirect(16);
+
+    assertThatThrownBy(() -> SnappyCompressor.INSTANCE.compress(src, 0, PAYLOAD.length, dest, 0))
+        .isInstanceOf(IOException.class);
+    assertThatThrownBy(() -> SnappyCompressor.INSTANCE.compress(src, 1, PAYLOAD.length, dest, 0))
+        .isInstanceOf(IOException.class);
+  }
+}
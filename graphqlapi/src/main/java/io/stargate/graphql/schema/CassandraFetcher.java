@@ -8,7 +8,6 @@ import io.stargate.auth.AuthorizationService;
 import io.stargate.db.Parameters;
 import io.stargate.db.datastore.DataStore;
 import io.stargate.db.datastore.DataStoreFactory;
-import io.stargate.db.datastore.DataStoreOptions;
 import io.stargate.graphql.web.HttpAwareContext;
 import org.apache.cassandra.stargate.db.ConsistencyLevel;
 
@@ -42,18 +41,12 @@ public abstract class CassandraFetcher<ResultT> implements DataFetcher<ResultT>
   public final ResultT get(DataFetchingEnvironment environment) throws Exception {
     HttpAwareContext httpAwareContext = environment.getContext();
 
-    String token = httpAwareContext.getAuthToken();
     AuthenticationSubject authenticationSubject =
-        authenticationService.validateToken(token, httpAwareContext.getAllHeaders());
+        httpAwareContext.getAuthenticationSubject(authenticationService);
 
     Parameters parameters = getDatastoreParameters(environment);
-    DataStoreOptions dataStoreOptions =
-        DataStoreOptions.builder()
-            .putAllCustomProperties(httpAwareContext.getAllHeaders())
-            .defaultParameters(parameters)
-            .alwaysPrepareQueries(true)
-            .build();
-    DataStore dataStore = dataStoreFactory.create(authenticationSubject.asUser(), dataStoreOptions);
+    DataStore dataStore =
+        httpAwareContext.getDataStore(dataStoreFactory, authenticationSubject, parameters);
     return get(environment, dataStore, authenticationSubject);
   }
 
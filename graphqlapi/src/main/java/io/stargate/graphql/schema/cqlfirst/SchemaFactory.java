@@ -22,6 +22,8 @@ import io.stargate.db.datastore.DataStoreFactory;
 import io.stargate.db.schema.Keyspace;
 import io.stargate.graphql.schema.cqlfirst.ddl.DdlSchemaBuilder;
 import io.stargate.graphql.schema.cqlfirst.dml.DmlSchemaBuilder;
+import io.stargate.graphql.schema.cqlfirst.dml.fetchers.QueryFetcher;
+import java.util.concurrent.Executor;
 
 /** Single entry point to obtain GraphQL schemas. */
 public class SchemaFactory {
@@ -30,14 +32,18 @@ public class SchemaFactory {
    * Builds the GraphQL schema to query and modify data for a particular CQL keyspace.
    *
    * <p>This is the API exposed at {@code /graphql/<keyspaceName>}.
+   *
+   * @param readExecutor the executor of the reads of the queries (see {@link
+   *     QueryFetcher#newReadExecutor()}).
    */
   public static GraphQLSchema newDmlSchema(
       AuthenticationService authenticationService,
       AuthorizationService authorizationService,
       Keyspace keyspace,
-      DataStoreFactory dataStoreFactory) {
+      DataStoreFactory dataStoreFactory,
+      Executor readExecutor) {
     return new DmlSchemaBuilder(
-            authenticationService, authorizationService, keyspace, dataStoreFactory)
+            authenticationService, authorizationService, keyspace, dataStoreFactory, readExecutor)
         .build();
   }
 
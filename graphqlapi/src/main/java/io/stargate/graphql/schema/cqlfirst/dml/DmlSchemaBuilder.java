@@ -55,6 +55,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
@@ -73,6 +74,7 @@ public class DmlSchemaBuilder {
   private final FieldFilterInputTypeCache fieldFilterInputTypes;
   private final NameMapping nameMapping;
   private final DataStoreFactory dataStoreFactory;
+  private final Executor readExecutor;
   private final Keyspace keyspace;
 
   /** Describes the different kind of types generated from a table */
@@ -88,7 +90,8 @@ public class DmlSchemaBuilder {
       AuthenticationService authenticationService,
       AuthorizationService authorizationService,
       Keyspace keyspace,
-      DataStoreFactory dataStoreFactory) {
+      DataStoreFactory dataStoreFactory,
+      Executor readExecutor) {
 
     this.authenticationService = authenticationService;
     this.authorizationService = authorizationService;
@@ -96,6 +99,7 @@ public class DmlSchemaBuilder {
 
     this.nameMapping = new NameMapping(keyspace.tables(), keyspace.userDefinedTypes(), warnings);
     this.dataStoreFactory = dataStoreFactory;
+    this.readExecutor = readExecutor;
     this.fieldInputTypes = new FieldInputTypeCache(this.nameMapping, warnings);
     this.fieldOutputTypes = new FieldOutputTypeCache(this.nameMapping, warnings);
     this.fieldFilterInputTypes =
@@ -220,7 +224,8 @@ public class DmlSchemaBuilder {
                     nameMapping,
                     authenticationService,
                     authorizationService,
-                    dataStoreFactory))
+                    dataStoreFactory,
+                    readExecutor))
             .build();
 
     GraphQLFieldDefinition filterQuery =
@@ -246,7 +251,8 @@ public class DmlSchemaBuilder {
                     nameMapping,
                     authenticationService,
                     authorizationService,
-                    dataStoreFactory))
+                    dataStoreFactory,
+                    readExecutor))
             .build();
 
     return ImmutableList.of(query, filterQuery);
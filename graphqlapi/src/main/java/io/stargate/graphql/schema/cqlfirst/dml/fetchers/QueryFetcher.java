@@ -16,6 +16,7 @@
 package io.stargate.graphql.schema.cqlfirst.dml.fetchers;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.SelectedField;
 import io.stargate.auth.AuthenticationService;
@@ -27,50 +28,93 @@ import io.stargate.core.util.ByteBufferUtils;
 import io.stargate.db.datastore.DataStore;
 import io.stargate.db.datastore.DataStoreFactory;
 import io.stargate.db.datastore.ResultSet;
-import io.stargate.db.query.BoundQuery;
 import io.stargate.db.query.BoundSelect;
 import io.stargate.db.query.builder.ColumnOrder;
 import io.stargate.db.schema.Column;
 import io.stargate.db.schema.Column.Order;
 import io.stargate.db.schema.Table;
 import io.stargate.graphql.schema.cqlfirst.dml.NameMapping;
+import io.stargate.graphql.web.HttpAwareContext;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import org.apache.cassandra.stargate.exceptions.OverloadedException;
+import org.dataloader.BatchLoader;
+import org.dataloader.CacheKey;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderOptions;
+import org.dataloader.Try;
 
-public class QueryFetcher extends DmlFetcher<Map<String, Object>> {
+public class QueryFetcher extends DmlFetcher<CompletableFuture<Map<String, Object>>> {
+
+  private static final int READ_THREADS =
+      Integer.getInteger(
+          "stargate.graphql.read_threads", 4 * Runtime.getRuntime().availableProcessors());
+
+  private static final int READ_QUEUE_SIZE =
+      Integer.getInteger("stargate.graphql.read_queue_size", 1000);
+
+  private final Executor readExecutor;
 
   public QueryFetcher(
       Table table,
       NameMapping nameMapping,
       AuthenticationService authenticationService,
       AuthorizationService authorizationService,
-      DataStoreFactory dataStoreFactory) {
+      DataStoreFactory dataStoreFactory,
+      Executor readExecutor) {
     super(table, nameMapping, authenticationService, authorizationService, dataStoreFactory);
+    this.readExecutor = readExecutor;
+  }
+
+  /**
+   * Creates the executor of the reads of the fetchers, which must be shut down by its owner.
+   *
+   * <p>At most {@code stargate.graphql.read_queue_size} reads wait for a thread: the ones after
+   * that are rejected, and fail with an {@link OverloadedException}.
+   */
+  public static ExecutorService newReadExecutor() {
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            READ_THREADS,
+            READ_THREADS,
+            60,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(READ_QUEUE_SIZE),
+            new ThreadFactoryBuilder().setNameFormat("graphql-read-%d").setDaemon(true).build());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
   }
 
   @Override
-  protected Map<String, Object> get(
+  protected CompletableFuture<Map<String, Object>> get(
       DataFetchingEnvironment environment,
       DataStore dataStore,
-      AuthenticationSubject authenticationSubject)
-      throws Exception {
-    BoundQuery query = buildQuery(environment, dataStore);
-
-    ResultSet resultSet =
-        authorizationService.authorizedDataRead(
-            () -> dataStore.execute(query).get(),
-            authenticationSubject,
-            table.keyspace(),
-            table.name(),
-            TypedKeyValue.forSelect((BoundSelect) query),
-            SourceAPI.GRAPHQL);
+      AuthenticationSubject authenticationSubject) {
+    BoundSelect query = buildQuery(environment, dataStore);
+
+    HttpAwareContext httpAwareContext = environment.getContext();
+    return httpAwareContext
+        .getSelectLoader(dataStore, ds -> newSelectLoader(ds, authenticationSubject))
+        .load(query)
+        .thenApply(this::toResult);
+  }
 
+  private Map<String, Object> toResult(ResultSet resultSet) {
     Map<String, Object> result = new HashMap<>();
     result.put(
         "values",
@@ -86,7 +130,60 @@ public class QueryFetcher extends DmlFetcher<Map<String, Object>> {
     return result;
   }
 
-  private BoundQuery buildQuery(DataFetchingEnvironment environment, DataStore dataStore) {
+  /**
+   * Creates a loader that executes the SELECT queries of the fields of an operation concurrently
+   * when it is dispatched, and only once for identical queries (as for the same field requested
+   * under different aliases).
+   */
+  private DataLoader<BoundSelect, ResultSet> newSelectLoader(
+      DataStore dataStore, AuthenticationSubject authenticationSubject) {
+    BatchLoader<BoundSelect, Try<ResultSet>> batchLoader =
+        queries -> {
+          List<CompletableFuture<Try<ResultSet>>> results = new ArrayList<>(queries.size());
+          for (BoundSelect query : queries) {
+            results.add(
+                read(query, dataStore, authenticationSubject)
+                    .handle((rs, error) -> error == null ? Try.succeeded(rs) : Try.failed(error)));
+          }
+          return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0]))
+              .thenApply(
+                  v -> results.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+        };
+    CacheKey<BoundSelect> cacheKey = query -> Arrays.asList(query.queryString(), query.values());
+    return DataLoader.newDataLoaderWithTry(
+        batchLoader, DataLoaderOptions.newOptions().setCacheKeyFunction(cacheKey));
+  }
+
+  private CompletableFuture<ResultSet> read(
+      BoundSelect query, DataStore dataStore, AuthenticationSubject authenticationSubject) {
+    // The authorization service may check the permissions before running the query, so the query
+    // must run inside it, which blocks. The reads of an operation still run concurrently, on the
+    // threads of the read executor.
+    try {
+      return CompletableFuture.supplyAsync(
+          () -> {
+            try {
+              return authorizationService.authorizedDataRead(
+                  () -> dataStore.execute(query).get(),
+                  authenticationSubject,
+                  query.table().keyspace(),
+                  query.table().name(),
+                  TypedKeyValue.forSelect(query),
+                  SourceAPI.GRAPHQL);
+            } catch (Exception e) {
+              throw new CompletionException(e);
+            }
+          },
+          readExecutor);
+    } catch (RejectedExecutionException e) {
+      CompletableFuture<ResultSet> failed = new CompletableFuture<>();
+      failed.completeExceptionally(
+          new OverloadedException("Too many concurrent GraphQL reads, try again later"));
+      return failed;
+    }
+  }
+
+  private BoundSelect buildQuery(DataFetchingEnvironment environment, DataStore dataStore) {
     Integer limit = null;
     if (environment.containsArgument("options")) {
       Map<String, Object> options = environment.getArgument("options");
@@ -95,16 +192,17 @@ public class QueryFetcher extends DmlFetcher<Map<String, Object>> {
         limit = (int) limitObj;
       }
     }
-    return dataStore
-        .queryBuilder()
-        .select()
-        .column(buildQueryColumns(environment))
-        .from(table.keyspace(), table.name())
-        .where(buildClause(table, environment))
-        .limit(limit)
-        .orderBy(buildOrderBy(environment))
-        .build()
-        .bind();
+    return (BoundSelect)
+        dataStore
+            .queryBuilder()
+            .select()
+            .column(buildQueryColumns(environment))
+            .from(table.keyspace(), table.name())
+            .where(buildClause(table, environment))
+            .limit(limit)
+            .orderBy(buildOrderBy(environment))
+            .build()
+            .bind();
   }
 
   private List<ColumnOrder> buildOrderBy(DataFetchingEnvironment environment) {
@@ -19,6 +19,7 @@ import io.dropwizard.Application;
 import io.dropwizard.Configuration;
 import io.dropwizard.cli.Cli;
 import io.dropwizard.configuration.ResourceConfigurationSourceProvider;
+import io.dropwizard.lifecycle.AutoCloseableManager;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
 import io.dropwizard.util.JarLocation;
@@ -84,7 +85,12 @@ public class DropwizardServer extends Application<Configuration> {
 
     GraphqlCache graphqlCache =
         new GraphqlCache(
-            persistence, authenticationService, authorizationService, dataStoreFactory);
+            persistence,
+            authenticationService,
+            authorizationService,
+            dataStoreFactory,
+            environment.metrics());
+    environment.lifecycle().manage(new AutoCloseableManager(graphqlCache));
     environment
         .jersey()
         .register(
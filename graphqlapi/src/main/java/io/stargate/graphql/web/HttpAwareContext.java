@@ -15,20 +15,46 @@
  */
 package io.stargate.graphql.web;
 
+import io.stargate.auth.AuthenticationService;
+import io.stargate.auth.AuthenticationSubject;
+import io.stargate.auth.UnauthorizedException;
+import io.stargate.db.Parameters;
 import io.stargate.db.datastore.DataStore;
+import io.stargate.db.datastore.DataStoreFactory;
+import io.stargate.db.datastore.DataStoreOptions;
 import io.stargate.db.datastore.ResultSet;
 import io.stargate.db.query.BoundQuery;
+import io.stargate.db.query.BoundSelect;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import javax.servlet.http.HttpServletRequest;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
 
 public class HttpAwareContext {
 
   private HttpServletRequest request;
+  private volatile Map<String, String> allHeaders;
+
+  // The fetchers of all the fields of an operation share the same authentication and data stores,
+  // so that the token is only validated once per request.
+  private AuthenticationSubject authenticationSubject;
+  private final ConcurrentMap<Parameters, DataStore> dataStores = new ConcurrentHashMap<>();
+
+  // The reads of the fields of a query operation are coalesced by data loaders, that are dispatched
+  // by graphql-java once all the fields of a level have been fetched.
+  private final DataLoaderRegistry dataLoaderRegistry = new DataLoaderRegistry();
+  private final ConcurrentMap<DataStore, DataLoader<BoundSelect, ResultSet>> selectLoaders =
+      new ConcurrentHashMap<>();
+  private final AtomicInteger selectLoaderIds = new AtomicInteger();
 
   // We need to manually maintain state between multiple selections in a single mutation
   // operation to execute them as a batch.
@@ -47,7 +73,66 @@ public class HttpAwareContext {
   }
 
   public Map<String, String> getAllHeaders() {
-    return RequestToHeadersMapper.getAllHeaders(request);
+    Map<String, String> headers = allHeaders;
+    if (headers == null) {
+      headers = RequestToHeadersMapper.getAllHeaders(request);
+      allHeaders = headers;
+    }
+    return headers;
+  }
+
+  /**
+   * Returns the subject authenticated by the token of the request, validating it on the first call
+   * only.
+   *
+   * <p>Failed validations are not remembered, each subsequent call retries it.
+   */
+  public synchronized AuthenticationSubject getAuthenticationSubject(
+      AuthenticationService authenticationService) throws UnauthorizedException {
+    if (authenticationSubject == null) {
+      authenticationSubject = authenticationService.validateToken(getAuthToken(), getAllHeaders());
+    }
+    return authenticationSubject;
+  }
+
+  /**
+   * Returns the data store of the request for the given default parameters, creating it on the
+   * first call for those parameters.
+   */
+  public DataStore getDataStore(
+      DataStoreFactory dataStoreFactory,
+      AuthenticationSubject authenticationSubject,
+      Parameters parameters) {
+    return dataStores.computeIfAbsent(
+        parameters,
+        p ->
+            dataStoreFactory.create(
+                authenticationSubject.asUser(),
+                DataStoreOptions.builder()
+                    .putAllCustomProperties(getAllHeaders())
+                    .defaultParameters(p)
+                    .alwaysPrepareQueries(true)
+                    .build()));
+  }
+
+  /** The registry to pass to the {@link graphql.ExecutionInput} of the request. */
+  public DataLoaderRegistry getDataLoaderRegistry() {
+    return dataLoaderRegistry;
+  }
+
+  /**
+   * Returns the loader of the SELECT queries executed with the given data store, creating (and
+   * registering) it on the first call for that data store.
+   */
+  public DataLoader<BoundSelect, ResultSet> getSelectLoader(
+      DataStore dataStore, Function<DataStore, DataLoader<BoundSelect, ResultSet>> loaderFactory) {
+    return selectLoaders.computeIfAbsent(
+        dataStore,
+        ds -> {
+          DataLoader<BoundSelect, ResultSet> loader = loaderFactory.apply(ds);
+          dataLoaderRegistry.register("select" + selectLoaderIds.incrementAndGet(), loader);
+          return loader;
+        });
   }
 
   public BatchContext getBatchContext() {
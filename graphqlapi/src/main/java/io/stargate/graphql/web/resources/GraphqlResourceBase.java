@@ -72,9 +72,7 @@ public class GraphqlResourceBase {
 
     try {
       ExecutionInput.Builder input =
-          ExecutionInput.newExecutionInput(query)
-              .operationName(operationName)
-              .context(new HttpAwareContext(httpRequest));
+          newExecutionInput(query, httpRequest).operationName(operationName);
 
       if (!Strings.isNullOrEmpty(variables)) {
         @SuppressWarnings("unchecked")
@@ -128,9 +126,7 @@ public class GraphqlResourceBase {
 
     String query = MoreObjects.firstNonNull(queryFromBody, queryFromUrl);
     ExecutionInput.Builder input =
-        ExecutionInput.newExecutionInput(query)
-            .operationName(operationName)
-            .context(new HttpAwareContext(httpRequest));
+        newExecutionInput(query, httpRequest).operationName(operationName);
     if (variables != null) {
       input = input.variables(variables);
     }
@@ -156,11 +152,18 @@ public class GraphqlResourceBase {
       return;
     }
 
-    ExecutionInput input =
-        ExecutionInput.newExecutionInput(query).context(new HttpAwareContext(httpRequest)).build();
+    ExecutionInput input = newExecutionInput(query, httpRequest).build();
     executeAsync(input, graphql, asyncResponse);
   }
 
+  private static ExecutionInput.Builder newExecutionInput(
+      String query, HttpServletRequest httpRequest) {
+    HttpAwareContext context = new HttpAwareContext(httpRequest);
+    return ExecutionInput.newExecutionInput(query)
+        .context(context)
+        .dataLoaderRegistry(context.getDataLoaderRegistry());
+  }
+
   protected static void executeAsync(
       ExecutionInput input, GraphQL graphql, @Suspended AsyncResponse asyncResponse) {
     graphql
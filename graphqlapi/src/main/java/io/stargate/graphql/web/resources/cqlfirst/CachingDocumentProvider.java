@@ -0,0 +1,71 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.graphql.web.resources.cqlfirst;
+
+import com.codahale.metrics.Counter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import java.util.function.Function;
+
+/**
+ * Caches the parsed and validated documents of the queries run against a {@link graphql.GraphQL}
+ * instance, keyed by their query text.
+ *
+ * <p>Validation depends on the schema, so each instance must only be used for a single schema: it
+ * is discarded along with its {@link graphql.GraphQL} instance when the schema is rebuilt.
+ */
+class CachingDocumentProvider implements PreparsedDocumentProvider {
+
+  static final int MAX_SIZE = Integer.getInteger("stargate.graphql.document_cache_size", 1000);
+
+  private final Cache<String, PreparsedDocumentEntry> documents =
+      CacheBuilder.newBuilder().maximumSize(MAX_SIZE).build();
+  private final Counter hits;
+  private final Counter misses;
+
+  /**
+   * @param hits the counter of the queries whose document was found in the cache, which is usually
+   *     shared by all the instances.
+   * @param misses the counter of the queries that had to be parsed and validated.
+   */
+  CachingDocumentProvider(Counter hits, Counter misses) {
+    this.hits = hits;
+    this.misses = misses;
+  }
+
+  @Override
+  public PreparsedDocumentEntry getDocument(
+      ExecutionInput executionInput,
+      Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+    String query = executionInput.getQuery();
+    PreparsedDocumentEntry entry = documents.getIfPresent(query);
+    if (entry != null) {
+      hits.inc();
+      return entry;
+    }
+    misses.inc();
+    entry = parseAndValidateFunction.apply(executionInput);
+    documents.put(query, entry);
+    return entry;
+  }
+
+  long size() {
+    return documents.size();
+  }
+}
@@ -15,6 +15,9 @@
  */
 package io.stargate.graphql.web.resources.cqlfirst;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
 import com.google.errorprone.annotations.FormatMethod;
 import com.google.errorprone.annotations.FormatString;
 import graphql.GraphQL;
@@ -30,14 +33,22 @@ import io.stargate.db.datastore.ResultSet;
 import io.stargate.db.datastore.Row;
 import io.stargate.db.schema.Keyspace;
 import io.stargate.graphql.schema.cqlfirst.SchemaFactory;
+import io.stargate.graphql.schema.cqlfirst.dml.fetchers.QueryFetcher;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import org.apache.cassandra.stargate.db.ConsistencyLevel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,31 +58,62 @@ import org.slf4j.LoggerFactory;
  *
  * <p>This includes staying up to date with CQL schema changes.
  */
-public class GraphqlCache implements EventListener {
+public class GraphqlCache implements EventListener, AutoCloseable {
 
   private static final Logger LOG = LoggerFactory.getLogger(GraphqlCache.class);
   private static final boolean DISABLE_DEFAULT_KEYSPACE =
       Boolean.getBoolean("stargate.graphql.default_keyspace.disabled");
+  // How long to wait after a schema change before refreshing its keyspace, so that the bursts of
+  // changes (e.g. from a migration script) only trigger one refresh.
+  static final long REFRESH_DELAY_MS =
+      Long.getLong("stargate.graphql.schema_refresh_delay_ms", 200);
 
   private final Persistence persistence;
   private final AuthenticationService authenticationService;
   private final AuthorizationService authorizationService;
   private final DataStoreFactory dataStoreFactory;
 
+  // Shared by the parsed document caches of all the GraphQL instances.
+  private final Counter documentCacheHits;
+  private final Counter documentCacheMisses;
+
   private final GraphQL ddlGraphql;
   private final String defaultKeyspace;
   private final ConcurrentMap<String, DmlGraphqlReference> dmlGraphqls;
+  private final Set<String> pendingRefreshes = ConcurrentHashMap.newKeySet();
+  private final ScheduledExecutorService refresher =
+      Executors.newSingleThreadScheduledExecutor(
+          r -> {
+            Thread t = new Thread(r, "graphql-schema-refresher");
+            t.setDaemon(true);
+            return t;
+          });
+  private final ExecutorService readExecutor = QueryFetcher.newReadExecutor();
 
   public GraphqlCache(
       Persistence persistence,
       AuthenticationService authenticationService,
       AuthorizationService authorizationService,
-      DataStoreFactory dataStoreFactory) {
+      DataStoreFactory dataStoreFactory,
+      MetricRegistry metricRegistry) {
     this.persistence = persistence;
     this.authenticationService = authenticationService;
     this.authorizationService = authorizationService;
     this.dataStoreFactory = dataStoreFactory;
 
+    this.documentCacheHits = metricRegistry.counter("graphql.document_cache.hits");
+    this.documentCacheMisses = metricRegistry.counter("graphql.document_cache.misses");
+    metricRegistry.gauge(
+        "graphql.document_cache.hit_ratio",
+        () ->
+            new RatioGauge() {
+              @Override
+              protected Ratio getRatio() {
+                long hits = documentCacheHits.getCount();
+                return Ratio.of(hits, hits + documentCacheMisses.getCount());
+              }
+            });
+
     this.ddlGraphql =
         newGraphql(
             SchemaFactory.newDdlSchema(
@@ -159,20 +201,55 @@ public class GraphqlCache implements EventListener {
               persistence,
               authenticationService,
               authorizationService,
-              dataStoreFactory));
+              dataStoreFactory,
+              readExecutor,
+              this::newGraphql));
     }
     return map;
   }
 
+  /**
+   * Schedules the refresh of a keyspace, unless one is already pending: all the changes that happen
+   * before it runs are picked by the same refresh.
+   *
+   * <p>A keyspace that has no reference yet (e.g. that was just created) is refreshed right away
+   * instead, so that it can be queried by the next request. This is cheap, since the reference does
+   * not build its schema until it is used.
+   */
   @FormatMethod
   private void addOrReplaceDmlGraphql(
       String keyspaceName, @FormatString String reason, Object... reasonArguments) {
+    if (!dmlGraphqls.containsKey(keyspaceName)) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug(
+            "Refreshing GraphQL schema for new keyspace {} because {}",
+            keyspaceName,
+            String.format(reason, reasonArguments));
+      }
+      refreshDmlGraphql(keyspaceName);
+      return;
+    }
     if (LOG.isDebugEnabled()) {
       LOG.debug(
-          "Refreshing GraphQL schema for keyspace {} because {}",
+          "Scheduling refresh of GraphQL schema for keyspace {} because {}",
           keyspaceName,
           String.format(reason, reasonArguments));
     }
+    // The persistence can't unregister listeners, so events may still come after close().
+    if (!refresher.isShutdown() && pendingRefreshes.add(keyspaceName)) {
+      refresher.schedule(
+          () -> refreshDmlGraphql(keyspaceName), REFRESH_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Replaces the reference of a keyspace. If the previous one was in use, the new schema is built
+   * before the replacement, so that the requests keep using the previous schema in the meantime.
+   */
+  private void refreshDmlGraphql(String keyspaceName) {
+    // Any change from now on will need another refresh, as it might not be in the schema we read.
+    pendingRefreshes.remove(keyspaceName);
+    LOG.debug("Refreshing GraphQL schema for keyspace {}", keyspaceName);
     try {
       DataStore dataStore = dataStoreFactory.createInternal();
       Keyspace keyspace = dataStore.schema().keyspace(keyspaceName);
@@ -181,14 +258,20 @@ public class GraphqlCache implements EventListener {
         LOG.debug("Removing GraphQL schema for keyspace {} because it was dropped", keyspaceName);
         dmlGraphqls.remove(keyspaceName);
       } else {
-        dmlGraphqls.put(
-            keyspaceName,
+        DmlGraphqlReference previous = dmlGraphqls.get(keyspaceName);
+        DmlGraphqlReference ref =
             new DmlGraphqlReference(
                 keyspace,
                 persistence,
                 authenticationService,
                 authorizationService,
-                dataStoreFactory));
+                dataStoreFactory,
+                readExecutor,
+                this::newGraphql);
+        if (previous != null && previous.isInitialized()) {
+          ref.get();
+        }
+        dmlGraphqls.put(keyspaceName, ref);
       }
       LOG.debug("Done refreshing GraphQL schema for keyspace {}", keyspaceName);
     } catch (Exception e) {
@@ -196,13 +279,20 @@ public class GraphqlCache implements EventListener {
     }
   }
 
+  /** Stops the background refreshes, and the reads of the DML queries. */
+  @Override
+  public void close() {
+    refresher.shutdownNow();
+    readExecutor.shutdownNow();
+  }
+
   // Schema change callbacks: we refresh a keyspace whenever it gets created or dropped, or anything
   // inside it changes.
-  // TODO maybe add debouncing mechanism to amortize quick event bursts
 
   @Override
   public void onCreateKeyspace(String keyspaceName) {
-    addOrReplaceDmlGraphql(keyspaceName, "it was created");
+    LOG.debug("Refreshing GraphQL schema for keyspace {} because it was created", keyspaceName);
+    refreshDmlGraphql(keyspaceName);
   }
 
   @Override
@@ -292,7 +382,8 @@ public class GraphqlCache implements EventListener {
 
   /**
    * Lazily holds the {@link GraphQL} instance for the DML operations on a particular keyspace: it
-   * will only be initialized if the keyspace is queried.
+   * will only be initialized if the keyspace is queried, or when it replaces an initialized
+   * reference after a schema change.
    */
   static class DmlGraphqlReference {
 
@@ -301,6 +392,8 @@ public class GraphqlCache implements EventListener {
     private final AuthenticationService authenticationService;
     private final AuthorizationService authorizationService;
     private final DataStoreFactory dataStoreFactory;
+    private final Executor readExecutor;
+    private final Function<GraphQLSchema, GraphQL> graphqlFactory;
 
     private volatile GraphQL graphql;
 
@@ -309,12 +402,20 @@ public class GraphqlCache implements EventListener {
         Persistence persistence,
         AuthenticationService authenticationService,
         AuthorizationService authorizationService,
-        DataStoreFactory dataStoreFactory) {
+        DataStoreFactory dataStoreFactory,
+        Executor readExecutor,
+        Function<GraphQLSchema, GraphQL> graphqlFactory) {
       this.keyspace = keyspace;
       this.persistence = persistence;
       this.authenticationService = authenticationService;
       this.authorizationService = authorizationService;
       this.dataStoreFactory = dataStoreFactory;
+      this.readExecutor = readExecutor;
+      this.graphqlFactory = graphqlFactory;
+    }
+
+    boolean isInitialized() {
+      return graphql != null;
     }
 
     GraphQL get() {
@@ -326,19 +427,27 @@ public class GraphqlCache implements EventListener {
       synchronized (this) {
         if (graphql == null) {
           graphql =
-              newGraphql(
+              graphqlFactory.apply(
                   SchemaFactory.newDmlSchema(
-                      authenticationService, authorizationService, keyspace, dataStoreFactory));
+                      authenticationService,
+                      authorizationService,
+                      keyspace,
+                      dataStoreFactory,
+                      readExecutor));
         }
         return graphql;
       }
     }
   }
 
-  private static GraphQL newGraphql(GraphQLSchema schema) {
+  private GraphQL newGraphql(GraphQLSchema schema) {
     return GraphQL.newGraphQL(schema)
         // Use parallel execution strategy for mutations (serial is default)
         .mutationExecutionStrategy(new AsyncExecutionStrategy())
+        // Each instance has its own cache, so the cache of a keyspace is dropped (and never used
+        // with another schema) when the keyspace changes.
+        .preparsedDocumentProvider(
+            new CachingDocumentProvider(documentCacheHits, documentCacheMisses))
         .build();
   }
 }
@@ -32,7 +32,6 @@ import io.stargate.db.query.builder.AbstractBound;
 import io.stargate.db.query.builder.QueryBuilder;
 import io.stargate.db.schema.Schema;
 import io.stargate.graphql.web.HttpAwareContext;
-import io.stargate.graphql.web.HttpAwareContext.BatchContext;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
@@ -40,6 +39,7 @@ import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletRequest;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -85,17 +85,17 @@ public abstract class GraphQlTestBase {
               anyString(),
               any(),
               eq(SourceAPI.GRAPHQL)))
-          .then(
-              i -> {
-                return actionCaptor.getValue().call();
-              });
+          // Reads may be authorized concurrently, so each call runs its own action
+          .then(i -> i.<Callable<ResultSet>>getArgument(0).call());
       when(dataStoreFactory.create(
               argThat(u -> u.name().equals(roleName)), dataStoreOptionsCaptor.capture()))
           .then(
               i -> {
                 DataStore dataStore = mock(DataStore.class);
+                // Data stores are shared by the fetchers of a request, so each query needs its own
+                // builder
                 when(dataStore.queryBuilder())
-                    .thenReturn(new QueryBuilder(schema, Codec.testCodec(), dataStore));
+                    .then(q -> new QueryBuilder(schema, Codec.testCodec(), dataStore));
                 when(dataStore.execute(queryCaptor.capture()))
                     .thenReturn(CompletableFuture.completedFuture(resultSet));
 
@@ -134,15 +134,16 @@ public abstract class GraphQlTestBase {
    * <p>You can also access {@link #graphQl} directly in subclasses.
    */
   protected ExecutionResult executeGraphQl(String query) {
-    // Use a context mock per execution
-    HttpAwareContext context = mock(HttpAwareContext.class);
-
-    // Use a dedicated batch executor per execution
-    BatchContext batchContext = new BatchContext();
-
-    when(context.getAuthToken()).thenReturn(token);
-    when(context.getBatchContext()).thenReturn(batchContext);
-    return graphQl.execute(ExecutionInput.newExecutionInput(query).context(context).build());
+    // Use a context per execution, with a dedicated batch executor
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    when(request.getHeader("X-Cassandra-Token")).thenReturn(token);
+    when(request.getHeaderNames()).thenReturn(Collections.emptyEnumeration());
+    HttpAwareContext context = new HttpAwareContext(request);
+    return graphQl.execute(
+        ExecutionInput.newExecutionInput(query)
+            .context(context)
+            .dataLoaderRegistry(context.getDataLoaderRegistry())
+            .build());
   }
 
   private String queryString(BoundQuery boundQuery) {
@@ -157,6 +158,10 @@ public abstract class GraphQlTestBase {
     return queryString(queryCaptor.getValue());
   }
 
+  public List<BoundQuery> getCapturedQueries() {
+    return queryCaptor.getAllValues();
+  }
+
   public List<String> getCapturedBatchQueriesString() {
     return batchCaptor.getValue().stream().map(this::queryString).collect(Collectors.toList());
   }
@@ -1,6 +1,7 @@
 package io.stargate.graphql.schema.cqlfirst.dml;
 
 import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.google.common.util.concurrent.MoreExecutors;
 import graphql.schema.GraphQLSchema;
 import io.stargate.db.datastore.ArrayListBackedRow;
 import io.stargate.db.datastore.Row;
@@ -11,16 +12,21 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 public abstract class DmlTestBase extends GraphQlTestBase {
 
+  // Reads run on the calling thread, unless a test needs another executor.
+  protected Executor readExecutor = MoreExecutors.directExecutor();
+
   @Override
   protected GraphQLSchema createGraphQlSchema() {
     return SchemaFactory.newDmlSchema(
         authenticationService,
         authorizationService,
         getCQLSchema().keyspaces().iterator().next(),
-        dataStoreFactory);
+        dataStoreFactory,
+        readExecutor);
   }
 
   /** Creates a basic row suitable for faking result sets. */
@@ -2,10 +2,18 @@ package io.stargate.graphql.schema.cqlfirst.dml.fetchers;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import graphql.ExecutionResult;
+import graphql.GraphQL;
 import graphql.schema.GraphQLNamedSchemaElement;
 import graphql.schema.GraphQLSchema;
+import io.stargate.auth.UnauthorizedException;
 import io.stargate.db.ImmutableParameters;
 import io.stargate.db.Parameters;
 import io.stargate.db.schema.Schema;
@@ -15,8 +23,11 @@ import io.stargate.graphql.schema.cqlfirst.dml.DmlTestBase;
 import java.nio.ByteBuffer;
 import java.util.Base64;
 import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import org.apache.cassandra.stargate.db.ConsistencyLevel;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -79,6 +90,69 @@ public class QueryFetcherTest extends DmlTestBase {
     assertThat(dataStoreOptionsCaptor.getValue().defaultParameters()).isEqualTo(expectedParameters);
   }
 
+  @Test
+  @DisplayName("Should authenticate and create the data store once per operation")
+  public void sharedAuthenticationTest() throws Exception {
+    ExecutionResult result =
+        executeGraphQl(
+            "query { "
+                + "  first: books { values { title } } "
+                + "  second: books { values { author } } "
+                + "  other: books(options: { pageSize: 10 }) { values { title } } "
+                + "}");
+    assertThat(result.getErrors()).isEmpty();
+    verify(authenticationService, times(1)).validateToken(any(), anyMap());
+    // One data store for the default parameters, and one for the custom page size
+    verify(dataStoreFactory, times(2)).create(any(), any());
+  }
+
+  @Test
+  @DisplayName("Should execute identical queries of an operation once")
+  public void coalescedQueriesTest() throws Exception {
+    ExecutionResult result =
+        executeGraphQl(
+            "query { "
+                + "  first: books { values { title } } "
+                + "  second: books { values { title } } "
+                + "  other: books(filter: { title: { eq: \"1984\" } }) { values { title } } "
+                + "}");
+    assertThat(result.getErrors()).isEmpty();
+    assertThat(result.<Map<String, Object>>getData()).containsOnlyKeys("first", "second", "other");
+    verify(authorizationService, times(2))
+        .authorizedDataRead(any(), any(), anyString(), anyString(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Should not execute queries that are not authorized")
+  public void unauthorizedQueryTest() throws Exception {
+    when(authorizationService.authorizedDataRead(
+            any(), any(), anyString(), anyString(), any(), any()))
+        .thenThrow(new UnauthorizedException("Not allowed"));
+
+    ExecutionResult result = executeGraphQl("query { books { values { title } } }");
+
+    assertThat(result.getErrors()).hasSize(1);
+    assertThat(result.getErrors().get(0).getMessage()).contains("Not allowed");
+    assertThat(getCapturedQueries()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should fail the reads that the read executor rejects")
+  public void rejectedQueryTest() {
+    readExecutor =
+        command -> {
+          throw new RejectedExecutionException();
+        };
+    graphQl = GraphQL.newGraphQL(createGraphQlSchema()).build();
+
+    ExecutionResult result = executeGraphQl("query { books { values { title } } }");
+
+    assertThat(result.getErrors()).hasSize(1);
+    assertThat(result.getErrors().get(0).getMessage())
+        .contains("Too many concurrent GraphQL reads");
+    assertThat(getCapturedQueries()).isEmpty();
+  }
+
   @ParameterizedTest
   @MethodSource("typeDescriptions")
   public void typeDescriptionTest(String typeName, String description) {
@@ -0,0 +1,70 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.graphql.web.resources.cqlfirst;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codahale.metrics.Counter;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class CachingDocumentProviderTest {
+
+  private final Counter hits = new Counter();
+  private final Counter misses = new Counter();
+  private final CachingDocumentProvider provider = new CachingDocumentProvider(hits, misses);
+
+  private final GraphQL graphql =
+      GraphQL.newGraphQL(schema()).preparsedDocumentProvider(provider).build();
+
+  private static GraphQLSchema schema() {
+    RuntimeWiring wiring =
+        RuntimeWiring.newRuntimeWiring()
+            .type("Query", builder -> builder.dataFetcher("hello", env -> "world"))
+            .build();
+    return new SchemaGenerator()
+        .makeExecutableSchema(new SchemaParser().parse("type Query { hello: String }"), wiring);
+  }
+
+  @Test
+  public void shouldParseAndValidateEachQueryOnce() {
+    ExecutionResult first = graphql.execute("{ hello }");
+    ExecutionResult second = graphql.execute("{ hello }");
+    graphql.execute("query Other { hello }");
+
+    assertThat(first.<Object>getData()).isEqualTo(Collections.singletonMap("hello", "world"));
+    assertThat(second.<Object>getData()).isEqualTo(first.getData());
+    assertThat(hits.getCount()).isEqualTo(1);
+    assertThat(misses.getCount()).isEqualTo(2);
+    assertThat(provider.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldCacheValidationErrors() {
+    ExecutionResult first = graphql.execute("{ unknown }");
+    ExecutionResult second = graphql.execute("{ unknown }");
+
+    assertThat(first.getErrors()).isNotEmpty();
+    assertThat(second.getErrors()).isEqualTo(first.getErrors());
+    assertThat(hits.getCount()).isEqualTo(1);
+  }
+}
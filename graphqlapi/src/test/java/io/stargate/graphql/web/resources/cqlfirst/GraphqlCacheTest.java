@@ -0,0 +1,164 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.graphql.web.resources.cqlfirst;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.codahale.metrics.MetricRegistry;
+import graphql.GraphQL;
+import io.stargate.auth.AuthenticationService;
+import io.stargate.auth.AuthorizationService;
+import io.stargate.db.Persistence;
+import io.stargate.db.datastore.DataStore;
+import io.stargate.db.datastore.DataStoreFactory;
+import io.stargate.db.schema.Column.Kind;
+import io.stargate.db.schema.Column.Type;
+import io.stargate.db.schema.Schema;
+import java.util.Collections;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GraphqlCacheTest {
+
+  private static final Schema INITIAL_SCHEMA =
+      Schema.build()
+          .keyspace("library")
+          .table("books")
+          .column("title", Type.Text, Kind.PartitionKey)
+          .build();
+
+  private static final Schema UPDATED_SCHEMA =
+      Schema.build()
+          .keyspace("library")
+          .table("books")
+          .column("title", Type.Text, Kind.PartitionKey)
+          .table("authors")
+          .column("name", Type.Text, Kind.PartitionKey)
+          .build();
+
+  private static final Schema WITH_STORE_SCHEMA =
+      Schema.build()
+          .keyspace("library")
+          .table("books")
+          .column("title", Type.Text, Kind.PartitionKey)
+          .keyspace("store")
+          .table("items")
+          .column("id", Type.Int, Kind.PartitionKey)
+          .build();
+
+  private final Persistence persistence = mock(Persistence.class);
+  private final DataStoreFactory dataStoreFactory = mock(DataStoreFactory.class);
+  private final DataStore dataStore = mock(DataStore.class);
+  private GraphqlCache cache;
+
+  @BeforeEach
+  public void setup() {
+    when(persistence.decorateKeyspaceName("library", Collections.emptyMap())).thenReturn("library");
+    when(dataStoreFactory.createInternal()).thenReturn(dataStore);
+    when(dataStore.schema()).thenReturn(INITIAL_SCHEMA);
+    cache =
+        new GraphqlCache(
+            persistence,
+            mock(AuthenticationService.class),
+            mock(AuthorizationService.class),
+            dataStoreFactory,
+            new MetricRegistry());
+  }
+
+  @AfterEach
+  public void teardown() {
+    cache.close();
+  }
+
+  @Test
+  public void shouldCoalesceSchemaChanges() throws InterruptedException {
+    GraphQL initial = cache.getDml("library", Collections.emptyMap());
+    when(dataStore.schema()).thenReturn(UPDATED_SCHEMA);
+
+    for (int i = 0; i < 50; i++) {
+      cache.onCreateTable("library", "table" + i);
+    }
+    // The previous schema is served until the refresh is done.
+    assertThat(cache.getDml("library", Collections.emptyMap())).isSameAs(initial);
+
+    // Once by the constructor, and once by the refresh.
+    verify(dataStoreFactory, timeout(GraphqlCache.REFRESH_DELAY_MS * 10).times(2)).createInternal();
+    GraphQL refreshed = awaitRefresh(initial);
+    verify(dataStore, times(2)).schema();
+    assertThat(
+            refreshed.execute("{ __schema { queryType { fields { name } } } }").<Object>getData())
+        .asString()
+        .contains("authors");
+  }
+
+  @Test
+  public void shouldAddCreatedKeyspacesRightAway() {
+    when(persistence.decorateKeyspaceName("store", Collections.emptyMap())).thenReturn("store");
+    assertThat(cache.getDml("store", Collections.emptyMap())).isNull();
+    when(dataStore.schema()).thenReturn(WITH_STORE_SCHEMA);
+
+    cache.onCreateKeyspace("store");
+
+    assertThat(cache.getDml("store", Collections.emptyMap())).isNotNull();
+  }
+
+  @Test
+  public void shouldAddChangedKeyspacesWithoutSchemaRightAway() {
+    when(persistence.decorateKeyspaceName("store", Collections.emptyMap())).thenReturn("store");
+    when(dataStore.schema()).thenReturn(WITH_STORE_SCHEMA);
+
+    cache.onCreateTable("store", "items");
+
+    assertThat(cache.getDml("store", Collections.emptyMap())).isNotNull();
+  }
+
+  @Test
+  public void shouldNotRefreshAfterClose() throws InterruptedException {
+    cache.close();
+
+    cache.onCreateTable("library", "t1");
+
+    Thread.sleep(GraphqlCache.REFRESH_DELAY_MS * 2);
+    // Only by the constructor.
+    verify(dataStoreFactory, times(1)).createInternal();
+  }
+
+  private GraphQL awaitRefresh(GraphQL previous) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + GraphqlCache.REFRESH_DELAY_MS * 10;
+    GraphQL current = cache.getDml("library", Collections.emptyMap());
+    while (current == previous && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+      current = cache.getDml("library", Collections.emptyMap());
+    }
+    assertThat(current).isNotSameAs(previous);
+    return current;
+  }
+
+  @Test
+  public void shouldRefreshAgainForLaterChanges() throws InterruptedException {
+    cache.onCreateTable("library", "t1");
+    verify(dataStoreFactory, timeout(GraphqlCache.REFRESH_DELAY_MS * 10).times(2)).createInternal();
+
+    cache.onCreateTable("library", "t2");
+    verify(dataStoreFactory, timeout(GraphqlCache.REFRESH_DELAY_MS * 10).times(3)).createInternal();
+  }
+}
@@ -3,14 +3,20 @@ package io.stargate.health;
 import static io.stargate.health.HealthCheckerActivator.BUNDLES_CHECK_NAME;
 import static io.stargate.health.HealthCheckerActivator.SCHEMA_CHECK_NAME;
 
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
 import com.codahale.metrics.health.HealthCheck;
 import com.codahale.metrics.health.HealthCheck.Result;
 import com.codahale.metrics.health.HealthCheckRegistry;
 import com.google.common.annotations.VisibleForTesting;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
@@ -22,7 +28,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Handles the two application resources under the '/checker/' path.
+ * Handles the application resources under the '/checker/' path.
  *
  * <p>Note that they are a bit redundant with regular DropWizard health checks under '/healthcheck',
  * but we preserve them because they were there first and some tools depend on them.
@@ -100,4 +106,45 @@ public class CheckerResource {
       return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity("NOT READY").build();
     }
   }
+
+  /**
+   * Reports the checks probed in the background (see {@link ProbedHealthCheck}), without running
+   * them: the result, time and age of their last probe, and the latency of their probes.
+   */
+  @GET
+  @Path("/probes")
+  public Response checkProbes() {
+    Map<String, Object> probes = new TreeMap<>();
+    for (String name : healthCheckRegistry.getNames()) {
+      HealthCheck check = healthCheckRegistry.getHealthCheck(name);
+      if (check instanceof ProbedHealthCheck) {
+        probes.put(name, probeStatus((ProbedHealthCheck) check));
+      }
+    }
+    return Response.status(Response.Status.OK).entity(probes).build();
+  }
+
+  private static Map<String, Object> probeStatus(ProbedHealthCheck check) {
+    Result result = check.execute();
+    Map<String, Object> status = new LinkedHashMap<>();
+    status.put("healthy", result.isHealthy());
+    status.put("message", result.getMessage());
+    status.put("lastProbeMillis", check.lastProbeMillis());
+    status.put("ageMillis", check.lastProbeAgeMillis());
+
+    Timer latency = check.latency();
+    Snapshot snapshot = latency.getSnapshot();
+    Map<String, Object> latencyMillis = new LinkedHashMap<>();
+    latencyMillis.put("count", latency.getCount());
+    latencyMillis.put("mean", toMillis(snapshot.getMean()));
+    latencyMillis.put("p50", toMillis(snapshot.getMedian()));
+    latencyMillis.put("p99", toMillis(snapshot.get99thPercentile()));
+    latencyMillis.put("max", toMillis(snapshot.getMax()));
+    status.put("latencyMillis", latencyMillis);
+    return status;
+  }
+
+  private static double toMillis(double nanos) {
+    return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+  }
 }
@@ -1,10 +1,15 @@
 package io.stargate.health;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheck;
 import com.codahale.metrics.health.HealthCheckRegistry;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.stargate.core.activator.BaseActivator;
 import io.stargate.core.metrics.api.Metrics;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import javax.annotation.Nullable;
 import org.osgi.framework.*;
 import org.slf4j.Logger;
@@ -18,9 +23,15 @@ public class HealthCheckerActivator extends BaseActivator {
   public static final String DATASTORE_CHECK_NAME = "datastore";
   public static final String SCHEMA_CHECK_NAME = "schema-agreement";
 
+  private static final long PROBE_INTERVAL_MILLIS =
+      Long.getLong("stargate.health_check.probe_interval_ms", 5_000);
+  private static final long MAX_STALENESS_MILLIS =
+      Long.getLong("stargate.health_check.max_staleness_ms", 30_000);
+
   private ServicePointer<Metrics> metrics = ServicePointer.create(Metrics.class);
   private ServicePointer<HealthCheckRegistry> healthCheckRegistry =
       ServicePointer.create(HealthCheckRegistry.class);
+  private ScheduledExecutorService prober;
 
   public HealthCheckerActivator() {
     super("healthchecker");
@@ -30,6 +41,10 @@ public class HealthCheckerActivator extends BaseActivator {
   public synchronized void stop(BundleContext context) {
     healthCheckRegistry.get().unregister(BUNDLES_CHECK_NAME);
     healthCheckRegistry.get().unregister(DATASTORE_CHECK_NAME);
+    healthCheckRegistry.get().unregister(SCHEMA_CHECK_NAME);
+    if (prober != null) {
+      prober.shutdownNow();
+    }
   }
 
   @Nullable
@@ -38,8 +53,16 @@ public class HealthCheckerActivator extends BaseActivator {
     log.info("Starting healthchecker....");
     try {
       healthCheckRegistry.get().register(BUNDLES_CHECK_NAME, new BundleStateChecker(context));
-      healthCheckRegistry.get().register(DATASTORE_CHECK_NAME, new DataStoreHealthChecker(context));
-      healthCheckRegistry.get().register(SCHEMA_CHECK_NAME, new SchemaAgreementChecker(context));
+
+      // The checks that query the persistence are probed in the background, so that the
+      // liveness and readiness endpoints don't load it and answer right away.
+      prober =
+          Executors.newScheduledThreadPool(
+              2,
+              new ThreadFactoryBuilder().setNameFormat("health-prober-%d").setDaemon(true).build());
+      MetricRegistry registry = metrics.get().getRegistry("health-checker");
+      registerProbed(DATASTORE_CHECK_NAME, new DataStoreHealthChecker(context), registry);
+      registerProbed(SCHEMA_CHECK_NAME, new SchemaAgreementChecker(context), registry);
 
       WebImpl web = new WebImpl(context, metrics.get(), healthCheckRegistry.get());
       web.start();
@@ -50,6 +73,17 @@ public class HealthCheckerActivator extends BaseActivator {
     return null;
   }
 
+  private void registerProbed(String name, HealthCheck check, MetricRegistry registry) {
+    ProbedHealthCheck probed =
+        new ProbedHealthCheck(
+            name,
+            check,
+            registry.timer(MetricRegistry.name("probe-latency", name)),
+            MAX_STALENESS_MILLIS);
+    probed.schedule(prober, PROBE_INTERVAL_MILLIS);
+    healthCheckRegistry.get().register(name, probed);
+  }
+
   @Override
   protected List<ServicePointer<?>> dependencies() {
     return Arrays.asList(metrics, healthCheckRegistry);
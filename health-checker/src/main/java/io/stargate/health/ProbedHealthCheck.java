@@ -0,0 +1,123 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.health;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.health.HealthCheck;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link HealthCheck} whose delegate is run periodically in the background rather than on every
+ * call to {@link #execute()}, which returns the result of the last probe instead.
+ *
+ * <p>The result of the last probe is considered unhealthy once it gets older than a given staleness
+ * threshold, for instance because the delegate is stuck. The latency of the probes is recorded in a
+ * {@link Timer}.
+ */
+public class ProbedHealthCheck extends HealthCheck {
+
+  private final String name;
+  private final HealthCheck delegate;
+  private final Timer latency;
+  private final long maxStalenessMillis;
+  private final Clock clock;
+
+  private volatile Probe lastProbe;
+
+  public ProbedHealthCheck(
+      String name, HealthCheck delegate, Timer latency, long maxStalenessMillis) {
+    this(name, delegate, latency, maxStalenessMillis, Clock.defaultClock());
+  }
+
+  @VisibleForTesting
+  ProbedHealthCheck(
+      String name, HealthCheck delegate, Timer latency, long maxStalenessMillis, Clock clock) {
+    this.name = name;
+    this.delegate = delegate;
+    this.latency = latency;
+    this.maxStalenessMillis = maxStalenessMillis;
+    this.clock = clock;
+  }
+
+  /**
+   * Schedules the probes on the given executor, the first one right away.
+   *
+   * <p>A new probe is only started once the previous one completed, so that a stuck delegate can't
+   * pile up probes. It is the staleness threshold that turns the check unhealthy then.
+   */
+  public void schedule(ScheduledExecutorService executor, long intervalMillis) {
+    executor.scheduleWithFixedDelay(this::probe, 0, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @VisibleForTesting
+  void probe() {
+    Result result;
+    try (Timer.Context ignored = latency.time()) {
+      // execute() never throws, it turns the exceptions of the delegate into an unhealthy result
+      result = delegate.execute();
+    }
+    lastProbe = new Probe(result, clock.getTime());
+  }
+
+  /** @return the time of the last probe, in milliseconds since the epoch, or null if none yet. */
+  @Nullable
+  public Long lastProbeMillis() {
+    Probe probe = lastProbe;
+    return probe == null ? null : probe.timestampMillis;
+  }
+
+  /** @return the age of the last probe, in milliseconds, or null if none yet. */
+  @Nullable
+  public Long lastProbeAgeMillis() {
+    Probe probe = lastProbe;
+    return probe == null ? null : clock.getTime() - probe.timestampMillis;
+  }
+
+  /** @return the latency of the probes, in nanoseconds. */
+  public Timer latency() {
+    return latency;
+  }
+
+  @Override
+  protected Result check() {
+    Probe probe = lastProbe;
+    if (probe == null) {
+      return Result.unhealthy("The %s check was not probed yet", name);
+    }
+
+    long age = clock.getTime() - probe.timestampMillis;
+    if (age > maxStalenessMillis) {
+      return Result.unhealthy(
+          "The last %s probe is stale (%d ms old, max %d ms): %s",
+          name, age, maxStalenessMillis, probe.result.getMessage());
+    }
+    return probe.result;
+  }
+
+  private static class Probe {
+    private final Result result;
+    private final long timestampMillis;
+
+    private Probe(Result result, long timestampMillis) {
+      this.result = result;
+      this.timestampMillis = timestampMillis;
+    }
+  }
+}
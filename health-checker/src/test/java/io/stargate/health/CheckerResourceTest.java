@@ -6,12 +6,14 @@ import static javax.ws.rs.core.Response.Status.OK;
 import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.codahale.metrics.Timer;
 import com.codahale.metrics.health.HealthCheck;
 import com.codahale.metrics.health.HealthCheck.Result;
 import com.codahale.metrics.health.HealthCheckRegistry;
 import com.google.common.collect.ImmutableSet;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
@@ -157,4 +159,32 @@ class CheckerResourceTest {
     assertThat(checker.checkReadiness(Collections.singleton("test-ok")).getStatus())
         .isEqualTo(OK.getStatusCode());
   }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void probes() {
+    healthCheckRegistry.register("test-ok", OK_CHECK);
+    ProbedHealthCheck probed = new ProbedHealthCheck("test-probed", OK_CHECK, new Timer(), 60_000);
+    healthCheckRegistry.register("test-probed", probed);
+
+    Map<String, Object> probes = (Map<String, Object>) checker.checkProbes().getEntity();
+    assertThat(probes).containsOnlyKeys("test-probed");
+    Map<String, Object> status = (Map<String, Object>) probes.get("test-probed");
+    assertThat(status).containsEntry("healthy", false);
+    assertThat(status).containsEntry("lastProbeMillis", null);
+    assertThat(status).containsEntry("ageMillis", null);
+    assertThat((Map<String, Object>) status.get("latencyMillis")).containsEntry("count", 0L);
+
+    probed.probe();
+
+    probes = (Map<String, Object>) checker.checkProbes().getEntity();
+    status = (Map<String, Object>) probes.get("test-probed");
+    assertThat(status).containsEntry("healthy", true);
+    assertThat(status).containsEntry("message", "test-message");
+    assertThat(status.get("lastProbeMillis")).isNotNull();
+    assertThat((Long) status.get("ageMillis")).isBetween(0L, 60_000L);
+    assertThat((Map<String, Object>) status.get("latencyMillis"))
+        .containsEntry("count", 1L)
+        .containsKeys("mean", "p50", "p99", "max");
+  }
 }
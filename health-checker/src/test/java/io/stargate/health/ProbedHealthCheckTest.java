@@ -0,0 +1,114 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.health;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.health.HealthCheck;
+import com.codahale.metrics.health.HealthCheck.Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class ProbedHealthCheckTest {
+
+  private static final long MAX_STALENESS_MILLIS = 1_000;
+
+  private final FakeClock clock = new FakeClock();
+  private final Timer latency = new Timer();
+  private HealthCheck delegate;
+  private ProbedHealthCheck check;
+
+  @BeforeEach
+  public void setup() {
+    delegate = Mockito.mock(HealthCheck.class);
+    check = new ProbedHealthCheck("test", delegate, latency, MAX_STALENESS_MILLIS, clock);
+  }
+
+  @Test
+  public void shouldBeUnhealthyBeforeTheFirstProbe() {
+    assertThat(check.execute().isHealthy()).isFalse();
+    assertThat(check.execute().getMessage()).contains("not probed yet");
+    Mockito.verify(delegate, Mockito.never()).execute();
+  }
+
+  @Test
+  public void shouldReturnTheLastProbedResultWithoutRunningTheDelegate() {
+    Mockito.when(delegate.execute()).thenReturn(Result.healthy("ok"));
+    check.probe();
+
+    clock.advance(MAX_STALENESS_MILLIS);
+    assertThat(check.execute().isHealthy()).isTrue();
+    assertThat(check.execute().getMessage()).isEqualTo("ok");
+    Mockito.verify(delegate, Mockito.times(1)).execute();
+    assertThat(latency.getCount()).isEqualTo(1);
+
+    Mockito.when(delegate.execute()).thenReturn(Result.unhealthy("ko"));
+    check.probe();
+
+    assertThat(check.execute().isHealthy()).isFalse();
+    assertThat(check.execute().getMessage()).isEqualTo("ko");
+    assertThat(latency.getCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldBeUnhealthyWhenTheLastProbeIsStale() {
+    Mockito.when(delegate.execute()).thenReturn(Result.healthy("ok"));
+    check.probe();
+
+    clock.advance(MAX_STALENESS_MILLIS + 1);
+    assertThat(check.execute().isHealthy()).isFalse();
+    assertThat(check.execute().getMessage()).contains("is stale").contains("ok");
+
+    check.probe();
+    assertThat(check.execute().isHealthy()).isTrue();
+  }
+
+  @Test
+  public void shouldExposeTheTimeAndAgeOfTheLastProbe() {
+    assertThat(check.lastProbeMillis()).isNull();
+    assertThat(check.lastProbeAgeMillis()).isNull();
+
+    Mockito.when(delegate.execute()).thenReturn(Result.healthy("ok"));
+    clock.advance(10);
+    check.probe();
+    clock.advance(5);
+
+    assertThat(check.lastProbeMillis()).isEqualTo(10);
+    assertThat(check.lastProbeAgeMillis()).isEqualTo(5);
+    assertThat(check.latency()).isSameAs(latency);
+  }
+
+  private static class FakeClock extends Clock {
+    private long millis;
+
+    void advance(long delta) {
+      millis += delta;
+    }
+
+    @Override
+    public long getTick() {
+      return millis * 1_000_000;
+    }
+
+    @Override
+    public long getTime() {
+      return millis;
+    }
+  }
+}
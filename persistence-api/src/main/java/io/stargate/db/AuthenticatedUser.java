@@ -86,6 +86,11 @@ public interface AuthenticatedUser extends Serializable {
       map.put(key, buffer);
     }
 
+    // Decodes a view of the buffer, so that the payload is left untouched and can be loaded again.
+    private static String decode(ByteBuffer buffer) {
+      return StandardCharsets.UTF_8.decode(buffer.duplicate()).toString();
+    }
+
     public static Map<String, ByteBuffer> serialize(AuthenticatedUser user) {
       Builder<String, ByteBuffer> map = ImmutableMap.builder();
       encode(map, TOKEN, user.token());
@@ -117,16 +122,13 @@ public interface AuthenticatedUser extends Serializable {
         String key = e.getKey();
         if (key.startsWith(CUSTOM_PAYLOAD_NAME_PREFIX)) {
           String name = key.substring(CUSTOM_PAYLOAD_NAME_PREFIX.length());
-          String value = StandardCharsets.UTF_8.decode(e.getValue()).toString();
+          String value = decode(e.getValue());
           map.put(name, value);
         }
       }
 
       return AuthenticatedUser.of(
-          StandardCharsets.UTF_8.decode(roleName).toString(),
-          StandardCharsets.UTF_8.decode(token).toString(),
-          (isFromExternalAuth != null),
-          map.build());
+          decode(roleName), decode(token), (isFromExternalAuth != null), map.build());
     }
   }
 }
@@ -1,6 +1,7 @@
 package io.stargate.db;
 
 import io.stargate.core.activator.BaseActivator;
+import io.stargate.core.metrics.api.Metrics;
 import io.stargate.db.datastore.DataStoreFactory;
 import io.stargate.db.datastore.PersistenceDataStoreFactory;
 import io.stargate.db.limiter.RateLimitingManager;
@@ -29,6 +30,8 @@ public class DbActivator extends BaseActivator {
 
   private static final String DB_PERSISTENCE_IDENTIFIER =
       System.getProperty("stargate.persistence_id", "CassandraPersistence");
+  private static final String DATASTORE_METRICS_PREFIX = "datastore";
+
   private static final String RATE_LIMITING_IDENTIFIER =
       System.getProperty(RATE_LIMITING_ID_PROPERTY, "<none>");
 
@@ -36,6 +39,8 @@ public class DbActivator extends BaseActivator {
       BaseActivator.ServicePointer.create(
           Persistence.class, "Identifier", DB_PERSISTENCE_IDENTIFIER);
 
+  private final ServicePointer<Metrics> metrics = ServicePointer.create(Metrics.class);
+
   private final ServicePointer<RateLimitingManager> rateLimitingManager =
       ServicePointer.create(RateLimitingManager.class, "Identifier", RATE_LIMITING_IDENTIFIER);
 
@@ -62,7 +67,9 @@ public class DbActivator extends BaseActivator {
     return Arrays.asList(
         new ServiceAndProperties(persistence, Persistence.class, stargatePersistenceProperties()),
         new ServiceAndProperties(
-            new PersistenceDataStoreFactory(persistence), DataStoreFactory.class));
+            new PersistenceDataStoreFactory(
+                persistence, metrics.get().getRegistry(DATASTORE_METRICS_PREFIX)),
+            DataStoreFactory.class));
   }
 
   private static Hashtable<String, String> stargatePersistenceProperties() {
@@ -73,8 +80,9 @@ public class DbActivator extends BaseActivator {
 
   @Override
   protected List<ServicePointer<?>> dependencies() {
-    List<ServicePointer<?>> deps = new ArrayList<>(2);
+    List<ServicePointer<?>> deps = new ArrayList<>(3);
     deps.add(dbPersistence);
+    deps.add(metrics);
     if (hasRateLimitingEnabled()) {
       deps.add(rateLimitingManager);
     }
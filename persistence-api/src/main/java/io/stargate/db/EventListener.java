@@ -15,6 +15,7 @@
  */
 package io.stargate.db;
 
+import io.stargate.db.schema.SchemaDiff;
 import java.net.InetAddress;
 import java.util.List;
 
@@ -63,6 +64,16 @@ public interface EventListener {
 
   default void onDropAggregate(String keyspace, String aggregate, List<String> argumentTypes) {}
 
+  /**
+   * Called once the schema exposed by the persistence layer ({@link Persistence#schema()}) has been
+   * updated, with what changed in it.
+   *
+   * <p>Unlike the other schema callbacks, which are forwarded from the underlying storage and may
+   * run before {@link Persistence#schema()} reflects the change, this is called after, and may
+   * cover several changes at once. Not all persistence layers support it.
+   */
+  default void onSchemaChange(SchemaDiff diff) {}
+
   default void onJoinCluster(InetAddress endpoint, int port) {}
 
   default void onLeaveCluster(InetAddress endpoint, int port) {}
@@ -91,6 +91,15 @@ public interface Persistence {
         System.getProperty("stargate.persistence.2i.support.default", "true"));
   }
 
+  /**
+   * Whether the connections of this persistence read the custom properties set on them with {@link
+   * Connection#setCustomProperties}. The data stores of the requests with different custom
+   * properties only share their connections when they don't.
+   */
+  default boolean readsCustomProperties() {
+    return true;
+  }
+
   /** Returns true if the persistence backend supports Storage Attached Indexes. */
   boolean supportsSAI();
 
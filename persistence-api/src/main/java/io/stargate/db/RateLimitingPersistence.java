@@ -89,6 +89,11 @@ public class RateLimitingPersistence implements Persistence {
     return persistence.supportsSAI();
   }
 
+  @Override
+  public boolean readsCustomProperties() {
+    return persistence.readsCustomProperties();
+  }
+
   @Override
   public void waitForSchemaAgreement() {
     persistence.waitForSchemaAgreement();
@@ -0,0 +1,214 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db.datastore;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.datastax.oss.driver.shaded.guava.common.base.Splitter;
+import com.datastax.oss.driver.shaded.guava.common.base.Ticker;
+import com.datastax.oss.driver.shaded.guava.common.cache.Cache;
+import com.datastax.oss.driver.shaded.guava.common.cache.CacheBuilder;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
+import io.stargate.db.AuthenticatedUser;
+import io.stargate.db.Persistence;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+/**
+ * Caches the logged in {@link Persistence.Connection} used by the {@link DataStore} instances
+ * created by a {@link PersistenceDataStoreFactory} for a given user.
+ *
+ * <p>Logging in (which looks up the role and builds a new client state on Cassandra) for every
+ * request is wasteful when the same principal issues many of them, so the connections are shared by
+ * the data stores of the same user. Persistence connections can execute queries concurrently, and
+ * data stores never change the state of their connection once created: the entries are keyed by the
+ * user and the custom properties set on the connection, which is all that state.
+ *
+ * <p>The custom properties of the data stores are mostly the headers of the HTTP requests, which
+ * differ for almost every request. Only the ones named by {@code
+ * stargate.datastore.connection_cache.key_properties} are set on the connections and part of the
+ * key; the custom properties of the user always are. When none are named, connections are still
+ * shared if the persistence doesn't read the custom properties (see {@link
+ * Persistence#readsCustomProperties()}), but the requests with other properties than the ones of
+ * their user get a connection of their own otherwise, with all their properties.
+ *
+ * <p>Connections are evicted when they are not used for a while, and in any case after a maximum
+ * age, which bounds how long a login that would not be accepted anymore (typically for a role that
+ * was dropped) keeps being used.
+ */
+class ConnectionCache {
+
+  static final String METRICS_PREFIX = "connection-cache";
+
+  private static final long MAX_SIZE =
+      Long.getLong("stargate.datastore.connection_cache.max_size", 1_000);
+  private static final long EXPIRE_AFTER_ACCESS_SECS =
+      Long.getLong("stargate.datastore.connection_cache.expire_after_access_seconds", 60);
+  private static final long EXPIRE_AFTER_WRITE_SECS =
+      Long.getLong("stargate.datastore.connection_cache.expire_after_write_seconds", 300);
+  private static final Set<String> KEY_PROPERTIES =
+      ImmutableSet.copyOf(
+          Splitter.on(',')
+              .trimResults()
+              .omitEmptyStrings()
+              .split(System.getProperty("stargate.datastore.connection_cache.key_properties", "")));
+
+  private final Cache<Key, Persistence.Connection> cache;
+  private final Set<String> keyProperties;
+  private final boolean persistenceReadsProperties;
+  private final Timer logins = new Timer();
+
+  ConnectionCache(boolean persistenceReadsProperties) {
+    this(
+        MAX_SIZE,
+        Duration.ofSeconds(EXPIRE_AFTER_ACCESS_SECS),
+        Duration.ofSeconds(EXPIRE_AFTER_WRITE_SECS),
+        KEY_PROPERTIES,
+        persistenceReadsProperties,
+        Ticker.systemTicker());
+  }
+
+  ConnectionCache(
+      long maxSize,
+      Duration expireAfterAccess,
+      Duration expireAfterWrite,
+      Set<String> keyProperties,
+      boolean persistenceReadsProperties,
+      Ticker ticker) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterAccess(expireAfterAccess)
+            .expireAfterWrite(expireAfterWrite)
+            .ticker(ticker)
+            .recordStats()
+            .build();
+    this.keyProperties = keyProperties;
+    this.persistenceReadsProperties = persistenceReadsProperties;
+  }
+
+  /**
+   * Returns the connection of the provided user and custom properties, logging in a new one with
+   * the provided function if there is none.
+   *
+   * <p>The function is passed the custom properties to set on the new connection: the ones of the
+   * provided properties that are key properties, and the ones of the user. Or all the provided
+   * properties, for a connection that is not cached because the persistence could read other
+   * properties than these.
+   *
+   * <p>Login failures are propagated as-is, and nothing is cached for them.
+   */
+  Persistence.Connection get(
+      AuthenticatedUser user,
+      @Nullable Map<String, String> customProperties,
+      Function<Map<String, String>, Persistence.Connection> login) {
+    if (persistenceReadsProperties
+        && keyProperties.isEmpty()
+        && hasOtherProperties(user, customProperties)) {
+      try (Timer.Context ignored = logins.time()) {
+        return login.apply(customProperties);
+      }
+    }
+    Map<String, String> connectionProperties = new HashMap<>();
+    if (customProperties != null) {
+      for (String name : keyProperties) {
+        String value = customProperties.get(name);
+        if (value != null) {
+          connectionProperties.put(name, value);
+        }
+      }
+    }
+    Key key = new Key(user, connectionProperties);
+    Persistence.Connection connection = cache.getIfPresent(key);
+    if (connection != null) {
+      return connection;
+    }
+    // The properties of the user override the other ones, and are part of the key through it.
+    if (user.customProperties() != null) {
+      connectionProperties.putAll(user.customProperties());
+    }
+    try (Timer.Context ignored = logins.time()) {
+      connection = login.apply(connectionProperties);
+    }
+    // Another thread may have logged in concurrently, in which case we use its connection.
+    Persistence.Connection existing = cache.asMap().putIfAbsent(key, connection);
+    return existing == null ? connection : existing;
+  }
+
+  /** Whether some of @param customProperties are not the ones of @param user. */
+  private static boolean hasOtherProperties(
+      AuthenticatedUser user, @Nullable Map<String, String> customProperties) {
+    if (customProperties == null || customProperties.isEmpty()) {
+      return false;
+    }
+    Map<String, String> userProperties = user.customProperties();
+    return userProperties == null
+        || !userProperties.keySet().containsAll(customProperties.keySet());
+  }
+
+  long size() {
+    return cache.size();
+  }
+
+  /**
+   * Registers the hit/miss/eviction/size metrics of this cache, and the latency of the logins, in
+   * the provided registry, using {@link #METRICS_PREFIX} as prefix.
+   */
+  void registerMetrics(MetricRegistry registry) {
+    registry.register(
+        name(METRICS_PREFIX, "hitCount"), (Gauge<Long>) () -> cache.stats().hitCount());
+    registry.register(
+        name(METRICS_PREFIX, "hitRate"), (Gauge<Double>) () -> cache.stats().hitRate());
+    registry.register(
+        name(METRICS_PREFIX, "missCount"), (Gauge<Long>) () -> cache.stats().missCount());
+    registry.register(
+        name(METRICS_PREFIX, "evictionCount"), (Gauge<Long>) () -> cache.stats().evictionCount());
+    registry.register(name(METRICS_PREFIX, "size"), (Gauge<Long>) cache::size);
+    registry.register(name(METRICS_PREFIX, "login"), logins);
+  }
+
+  private static final class Key {
+    private final AuthenticatedUser user;
+    private final Map<String, String> customProperties;
+
+    private Key(AuthenticatedUser user, Map<String, String> customProperties) {
+      this.user = user;
+      this.customProperties = ImmutableMap.copyOf(customProperties);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Key that = (Key) o;
+      return user.equals(that.user) && customProperties.equals(that.customProperties);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(user, customProperties);
+    }
+  }
+}
@@ -55,6 +55,30 @@ public abstract class DataStoreOptions {
     return false;
   }
 
+  /**
+   * The maximum number of result pages that result sets created by the datastore will fetch in the
+   * background, ahead of the page currently being consumed.
+   *
+   * <p>With the default of {@code 0}, pages are only fetched once the rows of the previous one have
+   * been fully consumed. A positive value trades memory (up to that many additional pages may be
+   * buffered per result set) and potentially unnecessary reads (if the caller stops iterating
+   * early) for the ability to overlap the fetching of a page with the processing of the previous
+   * one, which mostly benefits full scans.
+   */
+  @Value.Default
+  public int pagePrefetchDepth() {
+    return 0;
+  }
+
+  @Value.Check
+  protected void validate() {
+    if (pagePrefetchDepth() < 0) {
+      throw new IllegalStateException(
+          String.format(
+              "Invalid page prefetch depth %d: must be positive or zero", pagePrefetchDepth()));
+    }
+  }
+
   @Value.Default
   public Map<String, String> customProperties() {
     return Collections.emptyMap();
@@ -63,7 +87,8 @@ public abstract class DataStoreOptions {
   @Override
   public String toString() {
     return String.format(
-        "{defaultParameters: %s, alwaysPrepareQueries: %b, customProperties: %s}",
-        defaultParameters(), alwaysPrepareQueries(), customProperties());
+        "{defaultParameters: %s, alwaysPrepareQueries: %b, pagePrefetchDepth: %d, "
+            + "customProperties: %s}",
+        defaultParameters(), alwaysPrepareQueries(), pagePrefetchDepth(), customProperties());
   }
 }
@@ -16,12 +16,18 @@ import io.stargate.db.schema.Schema;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.apache.cassandra.stargate.exceptions.PreparedQueryNotFoundException;
+import org.apache.cassandra.stargate.utils.MD5Digest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,10 +37,15 @@ class PersistenceBackedDataStore implements DataStore {
   private final Persistence.Connection connection;
   private final DataStoreOptions options;
   private final Codec valueCodec;
+  private final PreparedStatementCache preparedCache;
 
-  PersistenceBackedDataStore(Persistence.Connection connection, DataStoreOptions options) {
+  PersistenceBackedDataStore(
+      Persistence.Connection connection,
+      DataStoreOptions options,
+      PreparedStatementCache preparedCache) {
     this.connection = connection;
     this.options = options;
+    this.preparedCache = preparedCache;
     this.valueCodec = new Codec(parameters().protocolVersion(), connection.persistence());
   }
 
@@ -48,15 +59,18 @@ class PersistenceBackedDataStore implements DataStore {
   }
 
   private Statement toPersistenceStatement(BoundQuery query) {
+    return toPersistenceStatement(query, query.source().query().preparedId().orElse(null));
+  }
+
+  private Statement toPersistenceStatement(BoundQuery query, @Nullable MD5Digest preparedId) {
     List<TypedValue> values = query.values();
     List<ByteBuffer> buffers = new ArrayList<>(values.size());
     for (TypedValue value : values) {
       buffers.add(value.bytes());
     }
-    Query<?> boundedQuery = query.source().query();
-    return boundedQuery.preparedId().isPresent()
-        ? new BoundStatement(boundedQuery.preparedId().get(), buffers, null)
-        : new SimpleStatement(boundedQuery.queryStringForPreparation(), buffers);
+    return preparedId != null
+        ? new BoundStatement(preparedId, buffers, null)
+        : new SimpleStatement(query.source().query().queryStringForPreparation(), buffers);
   }
 
   private void validateExecuteParameters(Parameters executeParameters) {
@@ -76,11 +90,24 @@ class PersistenceBackedDataStore implements DataStore {
         executeParameters.protocolVersion());
   }
 
+  // The keyspace against which queries are prepared, which is part of the identity of prepared
+  // statements.
+  private @Nullable String preparationKeyspace() {
+    Optional<String> keyspace = parameters().defaultKeyspace();
+    return keyspace.isPresent() ? keyspace.get() : connection.usedKeyspace().orElse(null);
+  }
+
   @Override
   public <B extends BoundQuery> CompletableFuture<Query<B>> prepare(Query<B> query) {
+    String queryString = query.queryStringForPreparation();
+    String keyspace = preparationKeyspace();
     return connection
-        .prepare(query.queryStringForPreparation(), parameters())
-        .thenApply(prepared -> query.withPreparedId(prepared.statementId));
+        .prepare(queryString, parameters())
+        .thenApply(
+            prepared -> {
+              preparedCache.put(keyspace, queryString, prepared.statementId);
+              return query.withPreparedId(prepared.statementId);
+            });
   }
 
   @Override
@@ -94,7 +121,18 @@ class PersistenceBackedDataStore implements DataStore {
     if (query.source().query().preparedId().isPresent()) {
       executeWithRetry(query, executeParameters, queryStartNanos, future);
     } else if (options.alwaysPrepareQueries()) {
-      prepareAndRetry(query.source(), executeParameters, queryStartNanos, future);
+      BoundQuery.Source<?> source = query.source();
+      MD5Digest preparedId =
+          preparedCache.get(preparationKeyspace(), source.query().queryStringForPreparation());
+      if (preparedId != null) {
+        executeWithRetry(
+            source.query().withPreparedId(preparedId).bindValues(source.values()),
+            executeParameters,
+            queryStartNanos,
+            future);
+      } else {
+        prepareAndRetry(source, executeParameters, queryStartNanos, future);
+      }
     } else {
       doExecute(query, executeParameters, queryStartNanos, future, future::completeExceptionally);
     }
@@ -119,6 +157,8 @@ class PersistenceBackedDataStore implements DataStore {
                 "Prepared statement (id={}) was invalid when executed. This can happen due to a "
                     + "conflicting schema change. Will re-prepare and retry.",
                 ((PreparedQueryNotFoundException) ex).id);
+            preparedCache.invalidate(
+                preparationKeyspace(), query.source().query().queryStringForPreparation());
             prepareAndRetry(query.source(), executeParameters, queryStartNanos, future);
           } else {
             future.completeExceptionally(ex);
@@ -138,10 +178,14 @@ class PersistenceBackedDataStore implements DataStore {
         .thenAccept(
             r ->
                 successFuture.complete(
-                    PersistenceBackedResultSet.create(connection, r, statement, executeParameters)))
+                    PersistenceBackedResultSet.create(
+                        connection, r, statement, executeParameters, options.pagePrefetchDepth())))
         .exceptionally(
             ex -> {
-              onException.accept(ex);
+              // Exceptions of the execution future are wrapped when propagated to the future
+              // returned by thenAccept(), but the handler may need to inspect the actual exception.
+              onException.accept(
+                  ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
               return null;
             });
   }
@@ -174,11 +218,93 @@ class PersistenceBackedDataStore implements DataStore {
     long queryStartNanos = System.nanoTime();
     Parameters executeParameters = parametersModifier.apply(parameters());
     validateExecuteParameters(executeParameters);
+    if (options.alwaysPrepareQueries()) {
+      return preparedBatch(queries, batchType, executeParameters, queryStartNanos, true);
+    }
     List<Statement> persistenceStatements =
         queries.stream().map(this::toPersistenceStatement).collect(Collectors.toList());
     return batch(persistenceStatements, batchType, executeParameters, queryStartNanos);
   }
 
+  /**
+   * Executes a batch where every statement is sent as a prepared one, like {@link #execute} does
+   * for single queries when {@link DataStoreOptions#alwaysPrepareQueries()} is set.
+   *
+   * <p>Batches usually repeat the same few query strings (with different values), so each distinct
+   * string is only looked up in (or added to) the prepared cache once per batch.
+   */
+  private CompletableFuture<ResultSet> preparedBatch(
+      Collection<BoundQuery> queries,
+      BatchType batchType,
+      Parameters executeParameters,
+      long queryStartNanos,
+      boolean retryIfNotFound) {
+    String keyspace = preparationKeyspace();
+    Map<String, CompletableFuture<MD5Digest>> preparedIds = new HashMap<>();
+    for (BoundQuery query : queries) {
+      Query<?> source = query.source().query();
+      if (source.preparedId().isPresent()) {
+        continue;
+      }
+      preparedIds.computeIfAbsent(
+          source.queryStringForPreparation(),
+          queryString -> {
+            MD5Digest preparedId = preparedCache.get(keyspace, queryString);
+            return preparedId != null
+                ? CompletableFuture.completedFuture(preparedId)
+                : prepare(source).thenApply(prepared -> prepared.preparedId().get());
+          });
+    }
+
+    CompletableFuture<ResultSet> future = new CompletableFuture<>();
+    CompletableFuture.allOf(preparedIds.values().toArray(new CompletableFuture<?>[0]))
+        .thenCompose(
+            v -> {
+              List<Statement> statements = new ArrayList<>(queries.size());
+              for (BoundQuery query : queries) {
+                CompletableFuture<MD5Digest> preparedId =
+                    preparedIds.get(query.source().query().queryStringForPreparation());
+                statements.add(
+                    preparedId == null
+                        ? toPersistenceStatement(query)
+                        : toPersistenceStatement(query, preparedId.join()));
+              }
+              return batch(statements, batchType, executeParameters, queryStartNanos);
+            })
+        .whenComplete(
+            (r, t) -> {
+              if (t == null) {
+                future.complete(r);
+                return;
+              }
+              Throwable ex =
+                  t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+              if (retryIfNotFound && ex instanceof PreparedQueryNotFoundException) {
+                // Same as for single queries: a schema change may have invalidated some of the
+                // statements, so re-prepare them all and retry once.
+                logger.debug(
+                    "Prepared statement (id={}) was invalid when executed in a batch. This can "
+                        + "happen due to a conflicting schema change. Will re-prepare and retry.",
+                    ((PreparedQueryNotFoundException) ex).id);
+                for (String queryString : preparedIds.keySet()) {
+                  preparedCache.invalidate(keyspace, queryString);
+                }
+                preparedBatch(queries, batchType, executeParameters, queryStartNanos, false)
+                    .whenComplete(
+                        (retried, retryEx) -> {
+                          if (retryEx == null) {
+                            future.complete(retried);
+                          } else {
+                            future.completeExceptionally(retryEx);
+                          }
+                        });
+              } else {
+                future.completeExceptionally(ex);
+              }
+            });
+    return future;
+  }
+
   private CompletableFuture<ResultSet> batch(
       List<Statement> statements,
       BatchType batchType,
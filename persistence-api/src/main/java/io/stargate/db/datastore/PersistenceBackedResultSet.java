@@ -1,6 +1,8 @@
 package io.stargate.db.datastore;
 
 import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.shaded.guava.common.cache.Cache;
+import com.datastax.oss.driver.shaded.guava.common.cache.CacheBuilder;
 import io.stargate.db.Parameters;
 import io.stargate.db.Persistence;
 import io.stargate.db.Persistence.Connection;
@@ -11,19 +13,29 @@ import io.stargate.db.schema.Column;
 import io.stargate.db.schema.Keyspace;
 import io.stargate.db.schema.Schema;
 import io.stargate.db.schema.Table;
+import java.lang.ref.WeakReference;
 import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import java.util.function.Predicate;
 import javax.annotation.Nullable;
 
 class PersistenceBackedResultSet implements ResultSet {
 
+  private static final Cache<List<Column>, ProcessedColumns> PROCESSED_COLUMNS_CACHE =
+      CacheBuilder.newBuilder()
+          .weakKeys()
+          .maximumSize(Long.getLong("stargate.datastore.processed_columns_cache_max_size", 10_000))
+          .build();
+
   private final Persistence.Connection connection;
   private final Parameters parameters;
   // Can be null when we know there is a single page
@@ -33,6 +45,11 @@ class PersistenceBackedResultSet implements ResultSet {
   private final List<Column> columns;
   private Predicate<Row> authzFilter;
   private final Result.Rows initialPage; // Used for calling withRowInspector()
+  private final int prefetchDepth;
+  // Pages requested ahead of time (at most prefetchDepth of them), in order. The first one is the
+  // page corresponding to nextPagingState, and each following one is chained on its predecessor.
+  // A future completing with null means that its predecessor was the last page.
+  private final Deque<CompletableFuture<Result>> prefetchedPages = new ArrayDeque<>();
 
   // Paging state to fetch the next page, or null is we've fetched all pages.
   private ByteBuffer nextPagingState;
@@ -42,7 +59,16 @@ class PersistenceBackedResultSet implements ResultSet {
       Parameters parameters,
       @Nullable Statement statement,
       Result.Rows initialPage) {
-    this(connection, parameters, statement, initialPage, null);
+    this(connection, parameters, statement, initialPage, 0, null);
+  }
+
+  PersistenceBackedResultSet(
+      Persistence.Connection connection,
+      Parameters parameters,
+      @Nullable Statement statement,
+      Result.Rows initialPage,
+      int prefetchDepth) {
+    this(connection, parameters, statement, initialPage, prefetchDepth, null);
   }
 
   private PersistenceBackedResultSet(
@@ -50,6 +76,7 @@ class PersistenceBackedResultSet implements ResultSet {
       Parameters parameters,
       Statement statement,
       Rows initialPage,
+      int prefetchDepth,
       Predicate<Row> authzFilter) {
     this.connection = connection;
     // We get our metadata in our initial page; let's skip it for following pages
@@ -59,6 +86,7 @@ class PersistenceBackedResultSet implements ResultSet {
     this.fetchedRows = new ArrayDeque<>(parameters.pageSize().orElse(32));
     this.columns = processColumns(initialPage.resultMetadata.columns);
     this.authzFilter = authzFilter;
+    this.prefetchDepth = prefetchDepth;
     processNewPage(initialPage);
     this.initialPage = initialPage;
     if (nextPagingState != null && this.statement == null) {
@@ -72,6 +100,15 @@ class PersistenceBackedResultSet implements ResultSet {
       Result result,
       @Nullable Statement statement,
       Parameters executeParameters) {
+    return create(connection, result, statement, executeParameters, 0);
+  }
+
+  static ResultSet create(
+      Persistence.Connection connection,
+      Result result,
+      @Nullable Statement statement,
+      Parameters executeParameters,
+      int prefetchDepth) {
     switch (result.kind) {
       case Prepared:
         throw new AssertionError("Shouldn't get a 'Prepared' result when executing a statement");
@@ -83,7 +120,7 @@ class PersistenceBackedResultSet implements ResultSet {
         return ResultSet.empty();
       case Rows:
         return new PersistenceBackedResultSet(
-            connection, executeParameters, statement, (Result.Rows) result);
+            connection, executeParameters, statement, (Result.Rows) result, prefetchDepth);
       default:
         throw new AssertionError("Unhandled result type: " + result.kind);
     }
@@ -95,14 +132,24 @@ class PersistenceBackedResultSet implements ResultSet {
   // equality). See Result.Rows#columns javadoc for details.
   // Here, there is little we can do about non-genuine columns, but we can at least ensure that
   // for genuine columns, the object we use in the result set will full formed.
+  // Persistence implementations reuse the same columns list for all the results of a given
+  // statement, so we cache the processed columns by identity of that list (through weak keys), for
+  // as long as the schema they were resolved against is the current one.
   private List<Column> processColumns(List<Column> columns) {
     Schema schema = connection.persistence().schema();
+    ProcessedColumns cached = PROCESSED_COLUMNS_CACHE.getIfPresent(columns);
+    if (cached != null && cached.schema.get() == schema) {
+      return cached.columns;
+    }
+
     List<Column> processed = new ArrayList<>(columns.size());
     for (Column c : columns) {
       Column inSchema = columnInSchema(schema, c);
       processed.add(inSchema == null ? c : inSchema);
     }
-    return processed;
+    cached = new ProcessedColumns(schema, processed);
+    PROCESSED_COLUMNS_CACHE.put(columns, cached);
+    return cached.columns;
   }
 
   private static @Nullable Column columnInSchema(Schema schema, Column toFind) {
@@ -126,28 +173,76 @@ class PersistenceBackedResultSet implements ResultSet {
     nextPagingState = page.resultMetadata.pagingState;
   }
 
+  private CompletableFuture<Result> requestPage(ByteBuffer pagingState) {
+    return connection.execute(
+        statement, parameters.withPagingState(pagingState), System.nanoTime());
+  }
+
+  // Returns the future for the page corresponding to nextPagingState, either one that was already
+  // prefetched or a newly requested one.
+  private CompletableFuture<Result> nextPage() {
+    CompletableFuture<Result> prefetched = prefetchedPages.pollFirst();
+    return prefetched == null ? requestPage(nextPagingState) : prefetched;
+  }
+
+  private void maybePrefetch() {
+    if (nextPagingState == null) {
+      return;
+    }
+    while (prefetchedPages.size() < prefetchDepth) {
+      CompletableFuture<Result> last = prefetchedPages.peekLast();
+      if (last == null) {
+        prefetchedPages.addLast(requestPage(nextPagingState));
+        continue;
+      }
+      if (last.isDone() && !last.isCompletedExceptionally() && pagingStateOf(last.join()) == null) {
+        // We already know we have requested the last page.
+        return;
+      }
+      prefetchedPages.addLast(
+          last.thenCompose(
+              r -> {
+                ByteBuffer pagingState = pagingStateOf(r);
+                return pagingState == null
+                    ? CompletableFuture.completedFuture(null)
+                    : requestPage(pagingState);
+              }));
+    }
+  }
+
+  private static @Nullable ByteBuffer pagingStateOf(@Nullable Result result) {
+    return result != null && result.kind == Result.Kind.Rows
+        ? ((Result.Rows) result).resultMetadata.pagingState
+        : null;
+  }
+
+  private void processNextPageResult(@Nullable Result result) {
+    if (result == null) {
+      nextPagingState = null;
+      return;
+    }
+    switch (result.kind) {
+      case Void:
+        nextPagingState = null;
+        break;
+      case Rows:
+        processNewPage((Result.Rows) result);
+        break;
+      default:
+        throw new IllegalStateException(
+            String.format("Unexpected %s result received for a result set page", result.kind));
+    }
+  }
+
   private void fetchNextPage() {
     assert nextPagingState != null;
     try {
       // Note: we could have add a timeout on that get() for security. That said, we don't want
       // to pull a random number, and adding a new config for that should probably be discussed.
       // But it's probably good enough to rely on the persistence layer query timeout.
-      Result result =
-          connection
-              .execute(statement, parameters.withPagingState(nextPagingState), System.nanoTime())
-              .get();
-
-      switch (result.kind) {
-        case Void:
-          nextPagingState = null;
-          break;
-        case Rows:
-          processNewPage((Result.Rows) result);
-          break;
-        default:
-          throw new IllegalStateException(
-              String.format("Unexpected %s result received for a result set page", result.kind));
-      }
+      Result result = nextPage().get();
+      processNextPageResult(result);
+      maybePrefetch();
     } catch (InterruptedException e) {
       // We don't play with interruptions, so hopefully this never happen
       throw new RuntimeException("Interrupted while waiting on new page results");
@@ -161,7 +256,22 @@ class PersistenceBackedResultSet implements ResultSet {
     }
   }
 
+  @Override
+  public CompletionStage<ResultSet> fetchNextPageAsync() {
+    if (nextPagingState == null) {
+      return CompletableFuture.completedFuture(this);
+    }
+    return nextPage()
+        .thenApply(
+            result -> {
+              processNextPageResult(result);
+              maybePrefetch();
+              return this;
+            });
+  }
+
   private boolean hasNextRow() {
+    maybePrefetch();
     while (true) {
       if (!fetchedRows.isEmpty()) {
         return true;
@@ -174,6 +284,7 @@ class PersistenceBackedResultSet implements ResultSet {
   }
 
   private Row nextRow() {
+    maybePrefetch();
     while (true) {
       Row nextRow = fetchedRows.pollFirst();
       if (nextRow != null) {
@@ -189,7 +300,12 @@ class PersistenceBackedResultSet implements ResultSet {
   @Override
   public ResultSet withRowInspector(Predicate<Row> authzFilter) {
     return new PersistenceBackedResultSet(
-        this.connection, this.parameters, this.statement, this.initialPage, authzFilter);
+        this.connection,
+        this.parameters,
+        this.statement,
+        this.initialPage,
+        this.prefetchDepth,
+        authzFilter);
   }
 
   @Override
@@ -244,4 +360,15 @@ class PersistenceBackedResultSet implements ResultSet {
   public boolean waitedForSchemaAgreement() {
     return false;
   }
+
+  private static class ProcessedColumns {
+    // Weak so that cached entries don't retain outdated schema objects.
+    private final WeakReference<Schema> schema;
+    private final List<Column> columns;
+
+    private ProcessedColumns(Schema schema, List<Column> columns) {
+      this.schema = new WeakReference<>(schema);
+      this.columns = Collections.unmodifiableList(columns);
+    }
+  }
 }
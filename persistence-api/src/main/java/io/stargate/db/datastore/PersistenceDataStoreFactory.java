@@ -15,6 +15,7 @@
  */
 package io.stargate.db.datastore;
 
+import com.codahale.metrics.MetricRegistry;
 import io.stargate.db.AuthenticatedUser;
 import io.stargate.db.ClientInfo;
 import io.stargate.db.Persistence;
@@ -26,9 +27,23 @@ import javax.annotation.Nullable;
 
 public class PersistenceDataStoreFactory implements DataStoreFactory {
   private final Persistence persistence;
+  private final PreparedStatementCache preparedCache = new PreparedStatementCache();
+  private final ConnectionCache connectionCache;
 
   public PersistenceDataStoreFactory(Persistence persistence) {
     this.persistence = persistence;
+    this.connectionCache = new ConnectionCache(persistence.readsCustomProperties());
+    persistence.registerEventListener(preparedCache.schemaChangeListener());
+  }
+
+  /**
+   * Creates the factory, registering the metrics of the prepared statement and connection caches
+   * shared by the created data stores in the provided registry.
+   */
+  public PersistenceDataStoreFactory(Persistence persistence, MetricRegistry metricRegistry) {
+    this(persistence);
+    preparedCache.registerMetrics(metricRegistry);
+    connectionCache.registerMetrics(metricRegistry);
   }
 
   /**
@@ -41,22 +56,13 @@ public class PersistenceDataStoreFactory implements DataStoreFactory {
    */
   private DataStore create(Persistence.Connection connection, @Nonnull DataStoreOptions options) {
     Objects.requireNonNull(options);
-    return new PersistenceBackedDataStore(connection, options);
+    return new PersistenceBackedDataStore(connection, options, preparedCache);
   }
 
   private DataStore create(
       @Nonnull AuthenticatedUser user,
       @Nonnull DataStoreOptions options,
       @Nullable ClientInfo clientInfo) {
-    Persistence.Connection connection;
-    if (clientInfo != null) {
-      connection = persistence.newConnection(clientInfo);
-    } else {
-      connection = persistence.newConnection();
-    }
-
-    connection.login(user);
-
     // Note: the user's custom properties (if provided) override any matching properties previously
     // set in DataStoreOptions. This is intentional to give the AuthenticatedUser data more
     // authority.
@@ -66,13 +72,34 @@ public class PersistenceDataStoreFactory implements DataStoreFactory {
           DataStoreOptions.builder().from(options).putAllCustomProperties(customProperties).build();
     }
 
-    if (options.customProperties() != null) {
-      connection.setCustomProperties(options.customProperties());
-    }
+    Persistence.Connection connection =
+        connectionCache.get(
+            user,
+            options.customProperties(),
+            connectionProperties -> login(user, connectionProperties, clientInfo));
 
     return create(connection, options);
   }
 
+  private Persistence.Connection login(
+      AuthenticatedUser user,
+      @Nullable Map<String, String> customProperties,
+      @Nullable ClientInfo clientInfo) {
+    Persistence.Connection connection;
+    if (clientInfo != null) {
+      connection = persistence.newConnection(clientInfo);
+    } else {
+      connection = persistence.newConnection();
+    }
+
+    connection.login(user);
+
+    if (customProperties != null) {
+      connection.setCustomProperties(customProperties);
+    }
+    return connection;
+  }
+
   @Override
   public DataStore create(@Nonnull AuthenticatedUser user, @Nonnull DataStoreOptions options) {
     ClientInfo clientInfo = null;
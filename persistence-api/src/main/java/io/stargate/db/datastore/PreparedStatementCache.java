@@ -0,0 +1,226 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db.datastore;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.oss.driver.shaded.guava.common.cache.Cache;
+import com.datastax.oss.driver.shaded.guava.common.cache.CacheBuilder;
+import io.stargate.db.EventListener;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nullable;
+import org.apache.cassandra.stargate.utils.MD5Digest;
+
+/**
+ * Caches the prepared IDs of the queries prepared by the {@link DataStore} instances created by a
+ * {@link PersistenceDataStoreFactory}.
+ *
+ * <p>This allows data stores created with {@link DataStoreOptions#alwaysPrepareQueries()} to skip
+ * the preparation of queries that have already been prepared (by any data store of the same
+ * factory), which would otherwise happen on every execution since queries are usually re-built for
+ * every request.
+ *
+ * <p>Entries are keyed by the query string used for preparation and the keyspace it is prepared
+ * against. Stale entries (typically due to the persistence evicting a prepared statement, or to a
+ * schema change invalidating it) are not a correctness issue: executing a query with an unknown
+ * prepared ID fails with a {@link
+ * org.apache.cassandra.stargate.exceptions.PreparedQueryNotFoundException}, in which case the data
+ * store invalidates the entry and re-prepares the query. Entries are nonetheless eagerly
+ * invalidated on schema changes that may impact existing prepared statements, as this is cheaper
+ * than failing executions.
+ */
+class PreparedStatementCache {
+
+  static final String METRICS_PREFIX = "prepared-statement-cache";
+
+  private static final long MAX_SIZE =
+      Long.getLong("stargate.datastore.prepared_cache.max_size", 10_000);
+  private static final long EXPIRE_AFTER_ACCESS_SECS =
+      Long.getLong("stargate.datastore.prepared_cache.expire_after_access_seconds", 600);
+
+  private final Cache<Key, MD5Digest> cache;
+
+  PreparedStatementCache() {
+    this(MAX_SIZE, Duration.ofSeconds(EXPIRE_AFTER_ACCESS_SECS));
+  }
+
+  PreparedStatementCache(long maxSize, Duration expireAfterAccess) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterAccess(expireAfterAccess)
+            .recordStats()
+            .build();
+  }
+
+  @Nullable
+  MD5Digest get(@Nullable String keyspace, String queryString) {
+    return cache.getIfPresent(new Key(keyspace, queryString));
+  }
+
+  void put(@Nullable String keyspace, String queryString, MD5Digest preparedId) {
+    cache.put(new Key(keyspace, queryString), preparedId);
+  }
+
+  void invalidate(@Nullable String keyspace, String queryString) {
+    cache.invalidate(new Key(keyspace, queryString));
+  }
+
+  void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  long size() {
+    return cache.size();
+  }
+
+  /**
+   * Registers the hit/miss/eviction/size metrics of this cache in the provided registry, using
+   * {@link #METRICS_PREFIX} as prefix.
+   */
+  void registerMetrics(MetricRegistry registry) {
+    registry.register(
+        name(METRICS_PREFIX, "hitCount"), (Gauge<Long>) () -> cache.stats().hitCount());
+    registry.register(
+        name(METRICS_PREFIX, "hitRate"), (Gauge<Double>) () -> cache.stats().hitRate());
+    registry.register(
+        name(METRICS_PREFIX, "missCount"), (Gauge<Long>) () -> cache.stats().missCount());
+    registry.register(
+        name(METRICS_PREFIX, "missRate"), (Gauge<Double>) () -> cache.stats().missRate());
+    registry.register(
+        name(METRICS_PREFIX, "evictionCount"), (Gauge<Long>) () -> cache.stats().evictionCount());
+    registry.register(name(METRICS_PREFIX, "size"), (Gauge<Long>) cache::size);
+  }
+
+  /**
+   * A listener that invalidates the cache on any schema change that may invalidate existing
+   * prepared statements.
+   *
+   * <p>Queries are not necessarily qualified by the keyspace they are prepared against, and the
+   * tables, types or functions a query uses are not easily extracted from its query string, so we
+   * invalidate the whole cache. Those changes are rare enough that this should not matter.
+   *
+   * <p>The persistence has no way to unregister its listeners, so the listener only weakly
+   * references this cache: it doesn't keep the cache (and its entries) alive once the factory that
+   * owns it is gone, and does nothing from then on.
+   */
+  EventListener schemaChangeListener() {
+    return new SchemaChangeListener(this);
+  }
+
+  private static final class SchemaChangeListener implements EventListener {
+    private final WeakReference<PreparedStatementCache> cache;
+
+    private SchemaChangeListener(PreparedStatementCache cache) {
+      this.cache = new WeakReference<>(cache);
+    }
+
+    private void invalidateAll() {
+      PreparedStatementCache cache = this.cache.get();
+      if (cache != null) {
+        cache.invalidateAll();
+      }
+    }
+
+    @Override
+    public void onAlterKeyspace(String keyspace) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onAlterTable(String keyspace, String table) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onAlterView(String keyspace, String view) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onAlterType(String keyspace, String type) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onAlterFunction(String keyspace, String function, List<String> argumentTypes) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onAlterAggregate(String keyspace, String aggregate, List<String> argumentTypes) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onDropKeyspace(String keyspace) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onDropTable(String keyspace, String table) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onDropView(String keyspace, String view) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onDropType(String keyspace, String type) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onDropFunction(String keyspace, String function, List<String> argumentTypes) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onDropAggregate(String keyspace, String aggregate, List<String> argumentTypes) {
+      invalidateAll();
+    }
+  }
+
+  private static final class Key {
+    private final @Nullable String keyspace;
+    private final String queryString;
+
+    private Key(@Nullable String keyspace, String queryString) {
+      this.keyspace = keyspace;
+      this.queryString = queryString;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Key that = (Key) o;
+      return Objects.equals(keyspace, that.keyspace) && queryString.equals(that.queryString);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(keyspace, queryString);
+    }
+  }
+}
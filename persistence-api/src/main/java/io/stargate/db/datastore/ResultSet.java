@@ -20,6 +20,8 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Predicate;
 import javax.validation.constraints.NotNull;
 
@@ -116,6 +118,52 @@ public interface ResultSet extends Iterable<Row> {
 
   ByteBuffer getPagingState();
 
+  /**
+   * @return true if there are pages that have not been fetched yet, that is if {@link
+   *     #fetchNextPageAsync()} may add new rows to this result set.
+   */
+  default boolean hasMorePages() {
+    return getPagingState() != null;
+  }
+
+  /**
+   * Asynchronously fetches the next page of this result set, without blocking the calling thread.
+   *
+   * <p>Once the returned stage completes, the rows of the fetched page are part of the fetched rows
+   * of this result set (so can be consumed through {@link #currentPageRows()}, or through {@link
+   * #iterator()} without blocking until {@link #hasNoMoreFetchedRows()} is true). If there is no
+   * more pages ({@link #hasMorePages()} is false), the returned stage is already completed.
+   *
+   * <p>Result sets are not thread-safe: this result set should not be otherwise used until the
+   * returned stage completes.
+   *
+   * <p>The default implementation can't fetch any page: the returned stage fails if there are more
+   * pages, as returning this result set unchanged would have callers loop on the same page.
+   *
+   * @return a stage that completes with this result set once the next page has been fetched.
+   */
+  default CompletionStage<ResultSet> fetchNextPageAsync() {
+    if (!hasMorePages()) {
+      return CompletableFuture.completedFuture(this);
+    }
+    CompletableFuture<ResultSet> failed = new CompletableFuture<>();
+    failed.completeExceptionally(
+        new UnsupportedOperationException(
+            getClass().getName() + " does not support fetching pages asynchronously"));
+    return failed;
+  }
+
+  /**
+   * Asynchronous equivalent of {@link #rows()}: fetches the pages not yet fetched with {@link
+   * #fetchNextPageAsync()}, so the calling thread is never blocked waiting on one.
+   *
+   * @return a stage that completes with the remaining rows, in the current page or any other page
+   *     not yet fetched.
+   */
+  default CompletionStage<List<Row>> rowsAsync() {
+    return RowsCollector.collect(this);
+  }
+
   /** Returns true of this request waited for schema agreement. */
   default boolean waitedForSchemaAgreement() {
     return false;
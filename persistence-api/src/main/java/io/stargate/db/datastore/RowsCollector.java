@@ -0,0 +1,72 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db.datastore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Implements {@link ResultSet#rowsAsync()}: appends the rows of every page to a single list.
+ *
+ * <p>The pages are fetched in a loop rather than by chaining a stage per page, so that pages that
+ * are already fetched (e.g. prefetched) don't grow the stack, whatever their number.
+ */
+final class RowsCollector {
+
+  private final ResultSet resultSet;
+  private final List<Row> rows = new ArrayList<>();
+  private final CompletableFuture<List<Row>> result = new CompletableFuture<>();
+
+  private RowsCollector(ResultSet resultSet) {
+    this.resultSet = resultSet;
+  }
+
+  static CompletionStage<List<Row>> collect(ResultSet resultSet) {
+    RowsCollector collector = new RowsCollector(resultSet);
+    collector.collectFetchedPages();
+    return collector.result;
+  }
+
+  private void collectFetchedPages() {
+    try {
+      while (true) {
+        rows.addAll(resultSet.currentPageRows());
+        if (!resultSet.hasMorePages()) {
+          result.complete(rows);
+          return;
+        }
+
+        CompletableFuture<ResultSet> next = resultSet.fetchNextPageAsync().toCompletableFuture();
+        if (!next.isDone() || next.isCompletedExceptionally()) {
+          // Resumes the loop from the thread that completes the fetch, with a fresh stack.
+          next.whenComplete(
+              (ignored, error) -> {
+                if (error != null) {
+                  result.completeExceptionally(error);
+                } else {
+                  collectFetchedPages();
+                }
+              });
+          return;
+        }
+      }
+    } catch (Throwable t) {
+      result.completeExceptionally(t);
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package io.stargate.db.limiter;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 import org.apache.cassandra.stargate.exceptions.UnauthorizedException;
@@ -11,7 +13,8 @@ import org.apache.cassandra.stargate.exceptions.UnauthorizedException;
  *
  * <ul>
  *   <li>to not rate limit at all ({@link #unlimited()}).
- *   <li>to rate limit the query, using a provided limiter ({@link #limit}).
+ *   <li>to rate limit the query, using a provided limiter ({@link #limit}), or a hierarchy of
+ *       limiters ({@link #limitAll}).
  *   <li>to reject the query altogether ({@link #reject}).
  * </ul>
  */
@@ -32,6 +35,26 @@ public abstract class RateLimitingDecision {
     return new Limited(limiter, permitsToAcquire);
   }
 
+  /**
+   * Creates a new decision consisting of rate limiting a query through acquiring the provided
+   * number of permits on each of the provided limiters, in order: the permits of a limiter are only
+   * requested once those of the previous ones have been obtained.
+   *
+   * <p>This is meant for nested limits, the most specific limiter (say, per user) coming first, so
+   * that the queries delayed by it don't use the permits of the more general ones (say, global)
+   * while waiting.
+   */
+  public static RateLimitingDecision limitAll(
+      List<? extends AsyncRateLimiter> limiters, long permitsToAcquire) {
+    if (limiters.isEmpty()) {
+      return unlimited();
+    }
+    if (limiters.size() == 1) {
+      return limit(limiters.get(0), permitsToAcquire);
+    }
+    return new LimitedAll(limiters, permitsToAcquire);
+  }
+
   /**
    * Creates a new decision consisting of rejecting a query, the rejected query throwing an {@link
    * UnauthorizedException} with the provided message.
@@ -67,6 +90,28 @@ public abstract class RateLimitingDecision {
     }
   }
 
+  public static class LimitedAll extends RateLimitingDecision {
+    private final List<AsyncRateLimiter> limiters;
+    private final long permitsToAcquire;
+
+    private LimitedAll(List<? extends AsyncRateLimiter> limiters, long permitsToAcquire) {
+      this.limiters = new ArrayList<>(limiters);
+      this.permitsToAcquire = permitsToAcquire;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> apply(Supplier<CompletableFuture<T>> task) {
+      return apply(0, task);
+    }
+
+    private <T> CompletableFuture<T> apply(int level, Supplier<CompletableFuture<T>> task) {
+      if (level == limiters.size()) {
+        return task.get();
+      }
+      return limiters.get(level).acquireAndExecute(permitsToAcquire, () -> apply(level + 1, task));
+    }
+  }
+
   public static class Rejected extends RateLimitingDecision {
     private final String rejectionMessage;
 
@@ -84,7 +84,7 @@ import org.javatuples.Pair;
       @SubExpr(
           name = "select",
           definedAs =
-              "select star? column* writeTimeColumn? from (where* limit? orderBy*) allowFiltering?"),
+              "select star? column* writeTimeColumn? tokenColumn? from (where* limit? orderBy*) allowFiltering?"),
       @SubExpr(
           name = "index",
           definedAs =
@@ -159,6 +159,7 @@ public class QueryBuilderImpl {
   private Value<Long> timestamp;
   private String writeTimeColumn;
   private String writeTimeColumnAlias;
+  private String tokenColumnAlias;
   private boolean allowFiltering;
 
   public QueryBuilderImpl(Schema schema, Codec valueCodec, @Nullable AsyncQueryExecutor executor) {
@@ -340,6 +341,11 @@ public class QueryBuilderImpl {
     this.writeTimeColumnAlias = alias;
   }
 
+  /** Selects the token of the partition key of the rows, under the given alias. */
+  public void tokenColumn(String alias) {
+    this.tokenColumnAlias = alias;
+  }
+
   public void star() {
     // This can be called to be explicit, but is the default when no columns are selected
     checkArgument(this.selection.isEmpty(), "Cannot use * when other columns are selected");
@@ -1393,8 +1399,13 @@ public class QueryBuilderImpl {
       wtColumn = table.column(writeTimeColumn);
       allSelected.add(wtColumn);
     }
+    List<Column> tokenColumns = null;
+    if (tokenColumnAlias != null) {
+      tokenColumns = table.partitionKeyColumns();
+      allSelected.addAll(tokenColumns);
+    }
     builder.append("SELECT");
-    if (selectedColumns.isEmpty() && writeTimeColumn == null) {
+    if (selectedColumns.isEmpty() && writeTimeColumn == null && tokenColumns == null) {
       builder.append("*");
     } else {
       builder
@@ -1408,6 +1419,12 @@ public class QueryBuilderImpl {
                   builder.append("AS").append(cqlName(writeTimeColumnAlias));
                 }
               })
+          .addIfNotNull(
+              tokenColumns,
+              c -> {
+                builder.append("TOKEN(").start().addAll(c).end().append(")");
+                builder.append("AS").append(cqlName(tokenColumnAlias));
+              })
           .end();
     }
     builder.append("FROM").append(table);
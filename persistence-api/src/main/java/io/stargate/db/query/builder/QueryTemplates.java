@@ -0,0 +1,74 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db.query.builder;
+
+import io.stargate.db.query.BoundQuery;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Queries built once per "shape" and then reused, for code that issues many queries differing only
+ * by their values (typically, the statements of a large batch).
+ *
+ * <p>Templates are built on first use of their key, must use bind markers for all of their values,
+ * and are then bound with {@link #bind}, which skips the query building and query string generation
+ * entirely. As their query string never changes, a template bound through a {@link
+ * io.stargate.db.datastore.DataStore} configured to {@link
+ * io.stargate.db.datastore.DataStoreOptions#alwaysPrepareQueries() always prepare queries} is
+ * prepared once and then always executed (or batched) through its prepared id.
+ *
+ * <p>Built queries are tied to the data store that built them, so templates should not outlive it.
+ * No eviction is done: keys should be drawn from a bounded set (like the tables of a keyspace times
+ * a few shapes). This class is thread-safe.
+ *
+ * @param <K> the type of the keys identifying templates. A key must capture everything the query
+ *     string of its template depends on.
+ */
+public class QueryTemplates<K> {
+
+  private final Function<? super K, ? extends BuiltQuery<?>> builder;
+  private final ConcurrentMap<K, BuiltQuery<?>> templates = new ConcurrentHashMap<>();
+
+  /**
+   * @param builder the function building the template of a given key, which is called at most once
+   *     per key.
+   */
+  public QueryTemplates(Function<? super K, ? extends BuiltQuery<?>> builder) {
+    this.builder = builder;
+  }
+
+  /** Returns the template for the provided key, building it if this is the first use of the key. */
+  public BuiltQuery<?> get(K key) {
+    BuiltQuery<?> template = templates.get(key);
+    return template != null ? template : templates.computeIfAbsent(key, builder);
+  }
+
+  /**
+   * Binds the template for the provided key.
+   *
+   * @param key the key of the template to bind.
+   * @param values the values for the bind markers of the template, in order.
+   */
+  public BoundQuery bind(K key, Object... values) {
+    return get(key).bind(values);
+  }
+
+  /** The number of templates built so far. */
+  public int size() {
+    return templates.size();
+  }
+}
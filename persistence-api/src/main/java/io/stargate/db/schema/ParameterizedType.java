@@ -118,6 +118,7 @@ public abstract class ParameterizedType implements Column.ColumnType {
     }
 
     @Override
+    @Value.Lazy
     public TypeCodec codec() {
       TypeCodec elementCodec = parameters().get(0).codec();
       return new ListCodec<>(DataTypes.listOf(elementCodec.getCqlType(), isFrozen()), elementCodec);
@@ -184,6 +185,7 @@ public abstract class ParameterizedType implements Column.ColumnType {
     }
 
     @Override
+    @Value.Lazy
     public TypeCodec codec() {
       TypeCodec elementCodec = parameters().get(0).codec();
       return new SetCodec<>(DataTypes.setOf(elementCodec.getCqlType(), isFrozen()), elementCodec);
@@ -265,6 +267,7 @@ public abstract class ParameterizedType implements Column.ColumnType {
     }
 
     @Override
+    @Value.Lazy
     public TypeCodec codec() {
       TypeCodec keyCodec = parameters().get(0).codec();
       TypeCodec valueCodec = parameters().get(1).codec();
@@ -362,6 +365,7 @@ public abstract class ParameterizedType implements Column.ColumnType {
     }
 
     @Override
+    @Value.Lazy
     public TypeCodec codec() {
       return new TupleCodec(cqlDataType());
     }
@@ -0,0 +1,149 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db.schema;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The differences between two versions of the schema, at the keyspace and table levels.
+ *
+ * <p>Keyspaces that are the same instance in both versions are not compared any further, so
+ * computing the difference between schemas that share most of their keyspaces (as the successive
+ * versions of the schema of a persistence layer do) only costs a comparison of the keyspaces that
+ * actually changed.
+ */
+public class SchemaDiff {
+  private final Schema previous;
+  private final Schema current;
+  private final Set<String> createdKeyspaces;
+  private final Set<String> droppedKeyspaces;
+  private final Set<String> alteredKeyspaces;
+
+  private SchemaDiff(Schema previous, Schema current) {
+    this.previous = previous;
+    this.current = current;
+    Set<String> created = new LinkedHashSet<>();
+    Set<String> altered = new LinkedHashSet<>();
+    for (Keyspace keyspace : current.keyspaces()) {
+      Keyspace previousKeyspace = previous.keyspace(keyspace.name());
+      if (previousKeyspace == null) {
+        created.add(keyspace.name());
+      } else if (previousKeyspace != keyspace && !previousKeyspace.equals(keyspace)) {
+        altered.add(keyspace.name());
+      }
+    }
+    Set<String> dropped = new LinkedHashSet<>();
+    for (Keyspace keyspace : previous.keyspaces()) {
+      if (current.keyspace(keyspace.name()) == null) {
+        dropped.add(keyspace.name());
+      }
+    }
+    this.createdKeyspaces = Collections.unmodifiableSet(created);
+    this.droppedKeyspaces = Collections.unmodifiableSet(dropped);
+    this.alteredKeyspaces = Collections.unmodifiableSet(altered);
+  }
+
+  public static SchemaDiff between(Schema previous, Schema current) {
+    return new SchemaDiff(previous, current);
+  }
+
+  public Schema previous() {
+    return previous;
+  }
+
+  public Schema current() {
+    return current;
+  }
+
+  public boolean isEmpty() {
+    return createdKeyspaces.isEmpty() && droppedKeyspaces.isEmpty() && alteredKeyspaces.isEmpty();
+  }
+
+  /** The names of the keyspaces that only exist in the current schema. */
+  public Set<String> createdKeyspaces() {
+    return createdKeyspaces;
+  }
+
+  /** The names of the keyspaces that only exist in the previous schema. */
+  public Set<String> droppedKeyspaces() {
+    return droppedKeyspaces;
+  }
+
+  /**
+   * The names of the keyspaces that exist in both schemas but differ, either by their options or by
+   * any of their tables or user types.
+   */
+  public Set<String> alteredKeyspaces() {
+    return alteredKeyspaces;
+  }
+
+  /**
+   * The names of the tables of the provided altered keyspace that only exist in its new version.
+   */
+  public Set<String> createdTables(String keyspace) {
+    return tablesOnlyIn(current.keyspace(keyspace), previous.keyspace(keyspace));
+  }
+
+  /**
+   * The names of the tables of the provided altered keyspace that only exist in its previous
+   * version.
+   */
+  public Set<String> droppedTables(String keyspace) {
+    return tablesOnlyIn(previous.keyspace(keyspace), current.keyspace(keyspace));
+  }
+
+  /**
+   * The names of the tables of the provided altered keyspace that exist in both versions but
+   * differ.
+   */
+  public Set<String> alteredTables(String keyspace) {
+    Keyspace previousKeyspace = previous.keyspace(keyspace);
+    Keyspace currentKeyspace = current.keyspace(keyspace);
+    if (previousKeyspace == null || currentKeyspace == null) {
+      return Collections.emptySet();
+    }
+    Set<String> altered = new LinkedHashSet<>();
+    for (Table table : currentKeyspace.tables()) {
+      Table previousTable = previousKeyspace.table(table.name());
+      if (previousTable != null && !previousTable.equals(table)) {
+        altered.add(table.name());
+      }
+    }
+    return altered;
+  }
+
+  private static Set<String> tablesOnlyIn(Keyspace keyspace, Keyspace other) {
+    if (keyspace == null || other == null) {
+      return Collections.emptySet();
+    }
+    Set<String> tables = new LinkedHashSet<>();
+    for (Table table : keyspace.tables()) {
+      if (other.table(table.name()) == null) {
+        tables.add(table.name());
+      }
+    }
+    return tables;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "SchemaDiff{created=%s, dropped=%s, altered=%s}",
+        createdKeyspaces, droppedKeyspaces, alteredKeyspaces);
+  }
+}
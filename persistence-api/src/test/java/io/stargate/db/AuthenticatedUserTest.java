@@ -81,4 +81,17 @@ class AuthenticatedUserTest {
     assertThat(user1.customProperties())
         .containsExactlyEntriesOf(ImmutableMap.of("key1", "val1", "key2", "val2"));
   }
+
+  @Test
+  public void loadLeavesPayloadUntouched() {
+    AuthenticatedUser user0 =
+        AuthenticatedUser.of("name1", "token2", false, ImmutableMap.of("key1", "val1"));
+
+    Map<String, ByteBuffer> bytes = Serializer.serialize(user0);
+    Map<String, ByteBuffer> copy = Serializer.serialize(user0);
+
+    assertThat(Serializer.load(bytes)).isEqualTo(user0);
+    assertThat(Serializer.load(bytes)).isEqualTo(user0);
+    assertThat(bytes).isEqualTo(copy);
+  }
 }
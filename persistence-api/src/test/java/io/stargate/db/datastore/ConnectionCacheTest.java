@@ -0,0 +1,210 @@
+package io.stargate.db.datastore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.datastax.oss.driver.shaded.guava.common.base.Ticker;
+import io.stargate.db.AuthenticatedUser;
+import io.stargate.db.Persistence.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.cassandra.stargate.exceptions.AuthenticationException;
+import org.junit.jupiter.api.Test;
+
+class ConnectionCacheTest {
+
+  private final FakeTicker ticker = new FakeTicker();
+  private final ConnectionCache cache =
+      new ConnectionCache(
+          100,
+          Duration.ofSeconds(60),
+          Duration.ofSeconds(300),
+          Collections.singleton("tenant"),
+          true,
+          ticker);
+  private final AtomicInteger logins = new AtomicInteger();
+  private final List<Map<String, String>> loginProperties = new ArrayList<>();
+
+  private Connection login(Map<String, String> properties) {
+    logins.incrementAndGet();
+    loginProperties.add(properties);
+    return mock(Connection.class);
+  }
+
+  @Test
+  void shouldReuseConnectionsOfSameUser() {
+    AuthenticatedUser user = AuthenticatedUser.of("user", "token");
+    Map<String, String> properties = Collections.singletonMap("tenant", "t1");
+
+    Connection first = cache.get(user, properties, this::login);
+    Connection second = cache.get(AuthenticatedUser.of("user", "token"), properties, this::login);
+
+    assertThat(second).isSameAs(first);
+    assertThat(logins).hasValue(1);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotShareConnectionsBetweenUsersOrProperties() {
+    AuthenticatedUser user = AuthenticatedUser.of("user", "token");
+
+    Connection first = cache.get(user, Collections.singletonMap("tenant", "t1"), this::login);
+    Connection otherProperties =
+        cache.get(user, Collections.singletonMap("tenant", "t2"), this::login);
+    Connection otherUser =
+        cache.get(
+            AuthenticatedUser.of("other", "token"),
+            Collections.singletonMap("tenant", "t1"),
+            this::login);
+
+    assertThat(otherProperties).isNotSameAs(first);
+    assertThat(otherUser).isNotSameAs(first).isNotSameAs(otherProperties);
+    assertThat(logins).hasValue(3);
+  }
+
+  @Test
+  void shouldNotCacheFailedLogins() {
+    AuthenticatedUser user = AuthenticatedUser.of("user", "token");
+
+    assertThatThrownBy(
+            () ->
+                cache.get(
+                    user,
+                    null,
+                    properties -> {
+                      throw new AuthenticationException("Invalid user");
+                    }))
+        .isInstanceOf(AuthenticationException.class);
+    assertThat(cache.size()).isZero();
+
+    cache.get(user, null, this::login);
+    assertThat(logins).hasValue(1);
+  }
+
+  @Test
+  void shouldRegisterMetrics() {
+    MetricRegistry registry = new MetricRegistry();
+    cache.registerMetrics(registry);
+    AuthenticatedUser user = AuthenticatedUser.of("user", "token");
+
+    cache.get(user, null, this::login);
+    cache.get(user, null, this::login);
+
+    assertThat(registry.getGauges().get("connection-cache.hitCount").getValue()).isEqualTo(1L);
+    assertThat(registry.getGauges().get("connection-cache.size").getValue()).isEqualTo(1L);
+    Timer logins = registry.getTimers().get("connection-cache.login");
+    assertThat(logins.getCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldShareConnectionsOfRequestsThatOnlyDifferByOtherProperties() {
+    AuthenticatedUser user =
+        AuthenticatedUser.of("user", "token", false, Collections.singletonMap("role", "r1"));
+    Map<String, String> firstHeaders = new HashMap<>();
+    firstHeaders.put("tenant", "t1");
+    firstHeaders.put("Content-Length", "12");
+    firstHeaders.put("X-Request-Id", "1");
+    Map<String, String> secondHeaders = new HashMap<>();
+    secondHeaders.put("tenant", "t1");
+    secondHeaders.put("Content-Length", "34");
+    secondHeaders.put("X-Request-Id", "2");
+
+    Connection first = cache.get(user, firstHeaders, this::login);
+    Connection second = cache.get(user, secondHeaders, this::login);
+
+    assertThat(second).isSameAs(first);
+    assertThat(logins).hasValue(1);
+    // Only the key properties and the ones of the user are set on the connection.
+    Map<String, String> expected = new HashMap<>();
+    expected.put("tenant", "t1");
+    expected.put("role", "r1");
+    assertThat(loginProperties).containsExactly(expected);
+  }
+
+  @Test
+  void shouldPassUnkeyedPropertiesToPersistencesThatReadThem() {
+    ConnectionCache unkeyed =
+        new ConnectionCache(
+            100,
+            Duration.ofSeconds(60),
+            Duration.ofSeconds(300),
+            Collections.emptySet(),
+            true,
+            ticker);
+    AuthenticatedUser user =
+        AuthenticatedUser.of("user", "token", false, Collections.singletonMap("role", "r1"));
+    Map<String, String> headers = new HashMap<>();
+    headers.put("tenant", "t1");
+    headers.put("role", "r1");
+
+    Connection first = unkeyed.get(user, headers, this::login);
+    Connection second = unkeyed.get(user, headers, this::login);
+
+    // Every request gets all its properties on a connection of its own...
+    assertThat(second).isNotSameAs(first);
+    assertThat(logins).hasValue(2);
+    assertThat(loginProperties).containsExactly(headers, headers);
+    assertThat(unkeyed.size()).isZero();
+
+    // ... but the connections of the requests with only the properties of their user are shared.
+    Connection third = unkeyed.get(user, Collections.singletonMap("role", "r1"), this::login);
+    assertThat(unkeyed.get(user, null, this::login)).isSameAs(third);
+    assertThat(logins).hasValue(3);
+  }
+
+  @Test
+  void shouldShareConnectionsWhenThePersistenceIgnoresProperties() {
+    ConnectionCache unkeyed =
+        new ConnectionCache(
+            100,
+            Duration.ofSeconds(60),
+            Duration.ofSeconds(300),
+            Collections.emptySet(),
+            false,
+            ticker);
+    AuthenticatedUser user = AuthenticatedUser.of("user", "token");
+
+    Connection first = unkeyed.get(user, Collections.singletonMap("tenant", "t1"), this::login);
+    Connection second = unkeyed.get(user, Collections.singletonMap("tenant", "t2"), this::login);
+
+    assertThat(second).isSameAs(first);
+    assertThat(logins).hasValue(1);
+    assertThat(loginProperties).containsExactly(Collections.emptyMap());
+  }
+
+  @Test
+  void shouldExpireConnectionsThatKeepBeingUsed() {
+    AuthenticatedUser user = AuthenticatedUser.of("user", "token");
+
+    Connection first = cache.get(user, null, this::login);
+    for (int i = 0; i < 10; i++) {
+      ticker.advance(Duration.ofSeconds(30));
+      cache.get(user, null, this::login);
+    }
+    // 300 seconds after the login, even though it was used every 30 seconds.
+    assertThat(logins).hasValue(2);
+    assertThat(cache.get(user, null, this::login)).isNotSameAs(first);
+  }
+
+  private static class FakeTicker extends Ticker {
+    private final AtomicLong nanos = new AtomicLong();
+
+    void advance(Duration duration) {
+      nanos.addAndGet(duration.toNanos());
+    }
+
+    @Override
+    public long read() {
+      return nanos.get();
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package io.stargate.db.datastore;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.stargate.db.Batch;
+import io.stargate.db.BatchType;
+import io.stargate.db.BoundStatement;
+import io.stargate.db.Persistence;
+import io.stargate.db.Persistence.Connection;
+import io.stargate.db.Result;
+import io.stargate.db.Statement;
+import io.stargate.db.query.BoundQuery;
+import io.stargate.db.query.Predicate;
+import io.stargate.db.schema.Column.Kind;
+import io.stargate.db.schema.Column.Type;
+import io.stargate.db.schema.Schema;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.apache.cassandra.stargate.exceptions.PreparedQueryNotFoundException;
+import org.apache.cassandra.stargate.utils.MD5Digest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class PersistenceBackedDataStoreTest {
+
+  private static final Schema SCHEMA =
+      Schema.build()
+          .keyspace("ks")
+          .table("t1")
+          .column("k", Type.Text, Kind.PartitionKey)
+          .column("v", Type.Int, Kind.Regular)
+          .build();
+
+  private static final MD5Digest PREPARED_ID = MD5Digest.compute("SELECT * FROM ks.t1 WHERE k = ?");
+
+  private Connection connection;
+  private PreparedStatementCache preparedCache;
+
+  @BeforeEach
+  void setup() {
+    Persistence persistence = mock(Persistence.class);
+    when(persistence.unsetValue()).thenReturn(ByteBuffer.allocate(0));
+    when(persistence.schema()).thenReturn(SCHEMA);
+
+    connection = mock(Connection.class);
+    when(connection.persistence()).thenReturn(persistence);
+    when(connection.usedKeyspace()).thenReturn(Optional.empty());
+    when(connection.prepare(anyString(), any()))
+        .thenReturn(
+            CompletableFuture.completedFuture(new Result.Prepared(PREPARED_ID, null, null, null)));
+
+    preparedCache = new PreparedStatementCache(100, Duration.ofSeconds(60));
+  }
+
+  private DataStore newDataStore() {
+    return new PersistenceBackedDataStore(
+        connection, DataStoreOptions.defaultsWithAutoPreparedQueries(), preparedCache);
+  }
+
+  private BoundQuery select(DataStore dataStore, String key) {
+    return dataStore
+        .queryBuilder()
+        .select()
+        .from("ks", "t1")
+        .where("k", Predicate.EQ, key)
+        .build()
+        .bind();
+  }
+
+  @Test
+  public void shouldReusePreparedIdAcrossDataStores() {
+    when(connection.execute(any(), any(), anyLong()))
+        .thenReturn(CompletableFuture.completedFuture(new Result.Void()));
+
+    DataStore first = newDataStore();
+    first.execute(select(first, "a")).join();
+    DataStore second = newDataStore();
+    second.execute(select(second, "b")).join();
+
+    verify(connection, times(1)).prepare(anyString(), any());
+    ArgumentCaptor<Statement> statements = ArgumentCaptor.forClass(Statement.class);
+    verify(connection, times(2)).execute(statements.capture(), any(), anyLong());
+    assertThat(statements.getAllValues())
+        .allSatisfy(
+            s -> {
+              assertThat(s).isInstanceOf(BoundStatement.class);
+              assertThat(((BoundStatement) s).preparedId()).isEqualTo(PREPARED_ID);
+            });
+    assertThat(preparedCache.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldRePrepareWhenCachedIdIsUnknown() {
+    CompletableFuture<Result> notFound = new CompletableFuture<>();
+    notFound.completeExceptionally(new PreparedQueryNotFoundException(PREPARED_ID));
+    when(connection.execute(any(), any(), anyLong()))
+        .thenReturn(notFound)
+        .thenReturn(CompletableFuture.completedFuture(new Result.Void()));
+
+    DataStore dataStore = newDataStore();
+    BoundQuery query = select(dataStore, "a");
+    preparedCache.put(null, query.source().query().queryStringForPreparation(), PREPARED_ID);
+
+    dataStore.execute(query).join();
+
+    verify(connection, times(1)).prepare(anyString(), any());
+    verify(connection, times(2)).execute(any(), any(), anyLong());
+    assertThat(preparedCache.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldPrepareBatchStatementsOncePerQueryString() {
+    when(connection.batch(any(), any(), anyLong()))
+        .thenReturn(CompletableFuture.completedFuture(new Result.Void()));
+
+    DataStore dataStore = newDataStore();
+    dataStore
+        .batch(
+            asList(select(dataStore, "a"), select(newDataStore(), "b")), BatchType.UNLOGGED, p -> p)
+        .join();
+
+    verify(connection, times(1)).prepare(anyString(), any());
+    ArgumentCaptor<Batch> batch = ArgumentCaptor.forClass(Batch.class);
+    verify(connection).batch(batch.capture(), any(), anyLong());
+    assertThat(batch.getValue().statements())
+        .hasSize(2)
+        .allSatisfy(
+            s -> {
+              assertThat(s).isInstanceOf(BoundStatement.class);
+              assertThat(((BoundStatement) s).preparedId()).isEqualTo(PREPARED_ID);
+            });
+  }
+
+  @Test
+  public void shouldRePrepareBatchWhenCachedIdIsUnknown() {
+    CompletableFuture<Result> notFound = new CompletableFuture<>();
+    notFound.completeExceptionally(new PreparedQueryNotFoundException(PREPARED_ID));
+    when(connection.batch(any(), any(), anyLong()))
+        .thenReturn(notFound)
+        .thenReturn(CompletableFuture.completedFuture(new Result.Void()));
+
+    DataStore dataStore = newDataStore();
+    BoundQuery query = select(dataStore, "a");
+    preparedCache.put(null, query.source().query().queryStringForPreparation(), PREPARED_ID);
+
+    dataStore.batch(singletonList(query), BatchType.LOGGED, p -> p).join();
+
+    verify(connection, times(1)).prepare(anyString(), any());
+    verify(connection, times(2)).batch(any(), any(), anyLong());
+  }
+
+  @Test
+  public void shouldInvalidateOnSchemaChange() {
+    preparedCache.put(null, "SELECT * FROM ks.t1", PREPARED_ID);
+    preparedCache.put("ks", "SELECT * FROM t1", PREPARED_ID);
+
+    preparedCache.schemaChangeListener().onCreateTable("ks", "t2");
+    assertThat(preparedCache.size()).isEqualTo(2);
+
+    preparedCache.schemaChangeListener().onAlterTable("ks", "t1");
+    assertThat(preparedCache.size()).isEqualTo(0);
+  }
+}
@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.datastax.oss.driver.api.core.ProtocolVersion;
@@ -37,6 +39,7 @@ import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -50,6 +53,7 @@ class PersistenceBackedResultSetTest {
   private static final Logger log = LoggerFactory.getLogger(PersistenceBackedResultSetTest.class);
 
   private Connection connection;
+  private Persistence persistence;
   private Rows rowsSameUser;
   private Rows rowsDifferentUser;
 
@@ -62,7 +66,7 @@ class PersistenceBackedResultSetTest {
                 ImmutableKeyspace.builder().name("store").addTables(SHOPPING_CART).build())
             .build();
 
-    Persistence persistence = mock(Persistence.class);
+    persistence = mock(Persistence.class);
     when(connection.persistence()).thenReturn(persistence);
     when(persistence.schema()).thenReturn(schema);
 
@@ -417,6 +421,193 @@ class PersistenceBackedResultSetTest {
     assertRows(rowsResult, rowsDifferentUser.rows);
   }
 
+  @Test
+  public void rowsWithPagingAndPrefetch() {
+    rowsSameUser.resultMetadata.pagingState = ByteBuffer.allocate(1);
+    rowsDifferentUser.resultMetadata.pagingState = ByteBuffer.allocate(2);
+
+    List<Map<String, Object>> data = new ArrayList<>();
+    Map<String, Object> rowVal = new HashMap<>();
+    rowVal.put("userid", "789");
+    rowVal.put("item_count", 9);
+    rowVal.put("last_update_timestamp", Instant.now());
+    data.add(rowVal);
+    Rows thirdPage = createRows(SHOPPING_CART.columns(), data);
+
+    when(connection.execute(any(), any(), anyLong()))
+        .thenReturn(CompletableFuture.completedFuture(rowsDifferentUser))
+        .thenReturn(CompletableFuture.completedFuture(thirdPage));
+
+    ResultSet resultSet =
+        new PersistenceBackedResultSet(
+            connection,
+            ImmutableParameters.builder()
+                .protocolVersion(org.apache.cassandra.stargate.transport.ProtocolVersion.CURRENT)
+                .build(),
+            new SimpleStatement("select * from system.local;"),
+            rowsSameUser,
+            2);
+
+    Iterator<Row> iterator = resultSet.iterator();
+    assertThat(iterator.hasNext()).isTrue();
+    // Both remaining pages should have been requested as soon as we started iterating.
+    verify(connection, times(2)).execute(any(), any(), anyLong());
+
+    List<Row> rowsResult = new ArrayList<>();
+    iterator.forEachRemaining(rowsResult::add);
+
+    List<List<ByteBuffer>> expected = new ArrayList<>(rowsSameUser.rows);
+    expected.addAll(rowsDifferentUser.rows);
+    expected.addAll(thirdPage.rows);
+    assertThat(rowsResult.size()).isEqualTo(5);
+    assertRows(rowsResult, expected);
+    verify(connection, times(2)).execute(any(), any(), anyLong());
+  }
+
+  @Test
+  public void fetchNextPageAsync() {
+    rowsSameUser.resultMetadata.pagingState = ByteBuffer.allocate(1);
+
+    CompletableFuture<Result> future = new CompletableFuture<>();
+    when(connection.execute(any(), any(), anyLong())).thenReturn(future);
+
+    ResultSet resultSet =
+        new PersistenceBackedResultSet(
+            connection,
+            ImmutableParameters.builder()
+                .protocolVersion(org.apache.cassandra.stargate.transport.ProtocolVersion.CURRENT)
+                .build(),
+            new SimpleStatement("select * from system.local;"),
+            rowsSameUser);
+
+    assertRows(resultSet.currentPageRows(), rowsSameUser.rows);
+    assertThat(resultSet.hasMorePages()).isTrue();
+
+    CompletableFuture<ResultSet> fetched = resultSet.fetchNextPageAsync().toCompletableFuture();
+    assertThat(fetched).isNotDone();
+
+    future.complete(rowsDifferentUser);
+    assertThat(fetched).isCompletedWithValue(resultSet);
+    assertThat(resultSet.hasMorePages()).isFalse();
+
+    List<Row> rowsResult = resultSet.currentPageRows();
+    assertThat(rowsResult.size()).isEqualTo(2);
+    assertRows(rowsResult, rowsDifferentUser.rows);
+    assertThat(resultSet.fetchNextPageAsync().toCompletableFuture())
+        .isCompletedWithValue(resultSet);
+  }
+
+  @Test
+  public void rowsAsync() {
+    rowsSameUser.resultMetadata.pagingState = ByteBuffer.allocate(1);
+
+    CompletableFuture<Result> future = new CompletableFuture<>();
+    when(connection.execute(any(), any(), anyLong())).thenReturn(future);
+
+    ResultSet resultSet =
+        new PersistenceBackedResultSet(
+            connection,
+            ImmutableParameters.builder()
+                .protocolVersion(org.apache.cassandra.stargate.transport.ProtocolVersion.CURRENT)
+                .build(),
+            new SimpleStatement("select * from system.local;"),
+            rowsSameUser);
+
+    CompletableFuture<List<Row>> rows = resultSet.rowsAsync().toCompletableFuture();
+    assertThat(rows).isNotDone();
+
+    future.complete(rowsDifferentUser);
+    assertThat(rows).isDone();
+
+    List<List<ByteBuffer>> expected = new ArrayList<>(rowsSameUser.rows);
+    expected.addAll(rowsDifferentUser.rows);
+    assertRows(rows.join(), expected);
+  }
+
+  @Test
+  public void rowsAsyncWithManyFetchedPages() {
+    int pages = 20_000;
+    Map<String, Object> data = new HashMap<>();
+    data.put("userid", "123");
+    data.put("item_count", 2);
+    data.put("last_update_timestamp", Instant.now());
+    List<Map<String, Object>> page = Collections.singletonList(data);
+
+    AtomicInteger fetched = new AtomicInteger(1);
+    when(connection.execute(any(), any(), anyLong()))
+        .thenAnswer(
+            invocation -> {
+              Rows rows = createRows(SHOPPING_CART.columns(), page);
+              if (fetched.incrementAndGet() < pages) {
+                rows.resultMetadata.pagingState = ByteBuffer.allocate(1);
+              }
+              return CompletableFuture.completedFuture(rows);
+            });
+
+    Rows first = createRows(SHOPPING_CART.columns(), page);
+    first.resultMetadata.pagingState = ByteBuffer.allocate(1);
+    ResultSet resultSet =
+        new PersistenceBackedResultSet(
+            connection,
+            ImmutableParameters.builder()
+                .protocolVersion(org.apache.cassandra.stargate.transport.ProtocolVersion.CURRENT)
+                .build(),
+            new SimpleStatement("select * from system.local;"),
+            first);
+
+    // Every page is already fetched when requested: this must neither overflow the stack nor copy
+    // the rows of a page more than once.
+    CompletableFuture<List<Row>> rows = resultSet.rowsAsync().toCompletableFuture();
+    assertThat(rows).isDone();
+    assertThat(rows.join()).hasSize(pages);
+    assertThat(fetched.get()).isEqualTo(pages);
+  }
+
+  @Test
+  public void processedColumnsAreReusedUntilSchemaChanges() {
+    // Columns as returned by the persistence, which are not exactly the ones from the schema.
+    List<Column> columns = new ArrayList<>();
+    for (Column c : SHOPPING_CART.columns()) {
+      columns.add(
+          ImmutableColumn.builder()
+              .keyspace(c.keyspace())
+              .table(c.table())
+              .name(c.name())
+              .type(c.type())
+              .build());
+    }
+    Map<String, Object> data = new HashMap<>();
+    data.put("userid", "123");
+    data.put("item_count", 2);
+    List<Map<String, Object>> values = Collections.singletonList(data);
+
+    List<Column> first = newResultSet(createRows(columns, values)).one().columns();
+    assertThat(first.get(0)).isSameAs(SHOPPING_CART.column("userid"));
+    assertThat(first.get(0).kind()).isEqualTo(Kind.PartitionKey);
+
+    List<Column> second = newResultSet(createRows(columns, values)).one().columns();
+    assertThat(second).isSameAs(first);
+
+    when(persistence.schema())
+        .thenReturn(
+            ImmutableSchema.builder()
+                .addKeyspaces(
+                    ImmutableKeyspace.builder().name("store").addTables(SHOPPING_CART).build())
+                .build());
+    List<Column> afterSchemaChange = newResultSet(createRows(columns, values)).one().columns();
+    assertThat(afterSchemaChange).isNotSameAs(first).isEqualTo(first);
+  }
+
+  private ResultSet newResultSet(Rows rows) {
+    return new PersistenceBackedResultSet(
+        connection,
+        ImmutableParameters.builder()
+            .protocolVersion(org.apache.cassandra.stargate.transport.ProtocolVersion.CURRENT)
+            .build(),
+        null,
+        rows);
+  }
+
   @Test
   public void rowsNotAuthorized() {
     Map<String, String> claims = new HashMap<>();
@@ -0,0 +1,42 @@
+package io.stargate.db.datastore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ResultSetTest {
+
+  @Test
+  public void defaultFetchNextPageAsyncCompletesWithoutMorePages() {
+    ResultSet resultSet = mock(ResultSet.class, CALLS_REAL_METHODS);
+    when(resultSet.getPagingState()).thenReturn(null);
+
+    CompletableFuture<ResultSet> next = resultSet.fetchNextPageAsync().toCompletableFuture();
+
+    assertThat(next).isCompletedWithValue(resultSet);
+  }
+
+  @Test
+  public void defaultFetchNextPageAsyncFailsWithMorePages() {
+    ResultSet resultSet = mock(ResultSet.class, CALLS_REAL_METHODS);
+    when(resultSet.getPagingState()).thenReturn(ByteBuffer.allocate(1));
+    when(resultSet.currentPageRows()).thenReturn(Collections.emptyList());
+
+    assertThat(resultSet.fetchNextPageAsync().toCompletableFuture()).isCompletedExceptionally();
+    // Would loop forever on the same page if the default completed with this result set.
+    ExecutionException e =
+        assertThrows(
+            ExecutionException.class,
+            () -> resultSet.rowsAsync().toCompletableFuture().get(10, TimeUnit.SECONDS));
+    assertThat(e).hasCauseInstanceOf(UnsupportedOperationException.class);
+  }
+}
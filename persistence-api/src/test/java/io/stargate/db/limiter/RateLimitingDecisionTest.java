@@ -0,0 +1,57 @@
+package io.stargate.db.limiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+public class RateLimitingDecisionTest {
+
+  private final List<String> acquired = new ArrayList<>();
+
+  @SuppressWarnings("unchecked")
+  private AsyncRateLimiter limiter(String name) {
+    AsyncRateLimiter limiter = mock(AsyncRateLimiter.class);
+    when(limiter.acquireAndExecute(eq(3L), any()))
+        .then(
+            i -> {
+              acquired.add(name);
+              return ((Supplier<CompletableFuture<?>>) i.getArgument(1)).get();
+            });
+    return limiter;
+  }
+
+  @Test
+  public void shouldAcquireOnAllLimitersInOrder() {
+    RateLimitingDecision decision =
+        RateLimitingDecision.limitAll(
+            Arrays.asList(limiter("user"), limiter("tenant"), limiter("global")), 3);
+
+    CompletableFuture<String> result =
+        decision.apply(
+            () -> {
+              acquired.add("task");
+              return CompletableFuture.completedFuture("done");
+            });
+
+    assertThat(result).isCompletedWithValue("done");
+    assertThat(acquired).containsExactly("user", "tenant", "global", "task");
+  }
+
+  @Test
+  public void shouldNotLimitWithoutLimiters() {
+    assertThat(RateLimitingDecision.limitAll(Collections.emptyList(), 1))
+        .isSameAs(RateLimitingDecision.unlimited());
+    assertThat(RateLimitingDecision.limitAll(Collections.singletonList(limiter("global")), 1))
+        .isInstanceOf(RateLimitingDecision.Limited.class);
+  }
+}
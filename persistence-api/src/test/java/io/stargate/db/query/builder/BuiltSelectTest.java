@@ -61,6 +61,23 @@ class BuiltSelectTest extends BuiltQueryTest {
     assertThat(names(select.selectedColumns())).isEqualTo(asSet("k2", "v1"));
   }
 
+  @Test
+  public void testSelectToken() {
+    QueryBuilder builder = newBuilder();
+
+    BuiltQuery<?> query =
+        builder.select().column("k2").tokenColumn("tk").from(KS_NAME, "t1").build();
+
+    assertBuiltQuery(query, "SELECT k2, TOKEN(k1) AS tk FROM ks.t1", emptyList());
+
+    BoundSelect select = checkedCast(query.bind());
+
+    assertBoundQuery(select, "SELECT k2, TOKEN(k1) AS tk FROM ks.t1");
+
+    assertThat(select.isStarSelect()).isFalse();
+    assertThat(names(select.selectedColumns())).isEqualTo(asSet("k1", "k2"));
+  }
+
   @Test
   public void testSelectColumnsWithWhereNoMarkers() {
     QueryBuilder builder = newBuilder();
@@ -0,0 +1,96 @@
+package io.stargate.db.query.builder;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.stargate.db.query.BoundQuery;
+import io.stargate.db.query.Predicate;
+import io.stargate.db.query.TypedValue;
+import io.stargate.db.schema.Column.Kind;
+import io.stargate.db.schema.Column.Type;
+import io.stargate.db.schema.Schema;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class QueryTemplatesTest {
+
+  private static final Schema schema =
+      Schema.build()
+          .keyspace("ks")
+          .table("t1")
+          .column("k1", Type.Text, Kind.PartitionKey)
+          .column("k2", Type.Bigint, Kind.Clustering)
+          .column("v1", Type.Text, Kind.Regular)
+          .table("t2")
+          .column("k1", Type.Text, Kind.PartitionKey)
+          .column("v1", Type.Text, Kind.Regular)
+          .build();
+
+  private final AtomicInteger builds = new AtomicInteger();
+
+  private final QueryTemplates<String> inserts =
+      new QueryTemplates<>(
+          table -> {
+            builds.incrementAndGet();
+            return newBuilder().insertInto("ks", table).value("k1").value("v1").timestamp().build();
+          });
+
+  private static QueryBuilder newBuilder() {
+    return new QueryBuilder(schema, TypedValue.Codec.testCodec(), null);
+  }
+
+  @Test
+  public void shouldBuildTemplateOncePerKey() {
+    BuiltQuery<?> template = inserts.get("t1");
+
+    assertThat(inserts.get("t1")).isSameAs(template);
+    assertThat(inserts.get("t2")).isNotSameAs(template);
+    assertThat(builds.get()).isEqualTo(2);
+    assertThat(inserts.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldBindValuesInMarkerOrder() {
+    BoundQuery first = inserts.bind("t1", "a", "value_a", 1L);
+    BoundQuery second = inserts.bind("t1", "b", "value_b", 2L);
+
+    assertThat(first.queryString())
+        .isEqualTo("INSERT INTO ks.t1 (k1, v1) VALUES (?, ?) USING TIMESTAMP ?");
+    assertThat(first.source().query()).isSameAs(second.source().query());
+    assertThat(javaValues(first)).containsExactly("a", "value_a", 1L);
+    assertThat(javaValues(second)).containsExactly("b", "value_b", 2L);
+    assertThat(builds.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldBindDeleteTemplates() {
+    QueryTemplates<Integer> deletes =
+        new QueryTemplates<>(
+            size ->
+                newBuilder()
+                    .delete()
+                    .from("ks", "t1")
+                    .timestamp()
+                    .where("k1", Predicate.EQ)
+                    .where("k2", size == 1 ? Predicate.EQ : Predicate.IN)
+                    .build());
+
+    BoundQuery single = deletes.bind(1, 1L, "a", 42L);
+    BoundQuery multiple = deletes.bind(2, 1L, "a", asList(1L, 2L));
+
+    assertThat(single.queryString())
+        .isEqualTo("DELETE FROM ks.t1 USING TIMESTAMP ? WHERE k1 = ? AND k2 = ?");
+    assertThat(javaValues(single)).containsExactly(1L, "a", 42L);
+    assertThat(multiple.queryString())
+        .isEqualTo("DELETE FROM ks.t1 USING TIMESTAMP ? WHERE k1 = ? AND k2 IN ?");
+    assertThat(javaValues(multiple)).containsExactly(1L, "a", asList(1L, 2L));
+  }
+
+  private static Object[] javaValues(BoundQuery bound) {
+    return bound.values().stream()
+        .map(TypedValue::javaValue)
+        .collect(Collectors.toList())
+        .toArray();
+  }
+}
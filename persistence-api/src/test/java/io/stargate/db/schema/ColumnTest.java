@@ -10,6 +10,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.data.CqlDuration;
 import com.datastax.oss.driver.api.core.data.TupleValue;
 import com.datastax.oss.driver.api.core.data.UdtValue;
@@ -27,6 +28,7 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -731,4 +733,30 @@ public class ColumnTest {
     assertThat(Type.fromCqlDefinitionOf(ks, "frozen  <map<text, my_udt>>"))
         .isEqualTo(Type.Map.of(Type.Text, udt).frozen());
   }
+
+  @Test
+  public void testParameterizedCodecsAreMemoized() {
+    ColumnType nested = Type.Map.of(Type.Text, Type.List.of(Type.Int));
+    assertThat(nested.codec()).isSameAs(nested.codec());
+    assertThat(nested.parameters().get(1).codec()).isSameAs(nested.parameters().get(1).codec());
+
+    ColumnType set = Type.Set.of(Type.Uuid);
+    assertThat(set.codec()).isSameAs(set.codec());
+
+    ColumnType tuple = Type.Tuple.of(Type.Int, Type.Text);
+    assertThat(tuple.codec()).isSameAs(tuple.codec());
+
+    // Memoized codecs are not part of equality, and frozen variants get their own codec.
+    ColumnType frozen = nested.frozen();
+    assertThat(frozen.codec()).isNotSameAs(nested.codec());
+    assertThat(frozen.codec().getCqlType().toString()).contains("frozen");
+    assertThat(Type.Map.of(Type.Text, Type.List.of(Type.Int))).isEqualTo(nested);
+
+    Map<String, List<Integer>> value = ImmutableMap.of("a", Arrays.asList(1, 2));
+    assertThat(
+            nested
+                .codec()
+                .decode(nested.codec().encode(value, ProtocolVersion.V4), ProtocolVersion.V4))
+        .isEqualTo(value);
+  }
 }
@@ -0,0 +1,73 @@
+package io.stargate.db.schema;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.stargate.db.schema.Column.Kind;
+import io.stargate.db.schema.Column.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class SchemaDiffTest {
+
+  private static final Schema previous =
+      Schema.build()
+          .keyspace("unchanged")
+          .table("t")
+          .column("k", Type.Text, Kind.PartitionKey)
+          .keyspace("altered")
+          .table("unchanged")
+          .column("k", Type.Text, Kind.PartitionKey)
+          .table("altered")
+          .column("k", Type.Text, Kind.PartitionKey)
+          .table("dropped")
+          .column("k", Type.Text, Kind.PartitionKey)
+          .keyspace("dropped")
+          .build();
+
+  private static final Schema current =
+      Schema.build()
+          .keyspace("altered")
+          .table("unchanged")
+          .column("k", Type.Text, Kind.PartitionKey)
+          .table("altered")
+          .column("k", Type.Text, Kind.PartitionKey)
+          .column("v", Type.Int)
+          .table("created")
+          .column("k", Type.Text, Kind.PartitionKey)
+          .keyspace("created")
+          .build();
+
+  @Test
+  public void shouldDiffKeyspaces() {
+    // The unchanged keyspace is shared by both versions, as for an incremental schema update.
+    List<Keyspace> keyspaces = new ArrayList<>(current.keyspaces());
+    keyspaces.add(previous.keyspace("unchanged"));
+    SchemaDiff diff = SchemaDiff.between(previous, Schema.create(keyspaces));
+
+    assertThat(diff.isEmpty()).isFalse();
+    assertThat(diff.createdKeyspaces()).containsExactly("created");
+    assertThat(diff.droppedKeyspaces()).containsExactly("dropped");
+    assertThat(diff.alteredKeyspaces()).containsExactly("altered");
+  }
+
+  @Test
+  public void shouldDiffTablesOfAlteredKeyspace() {
+    SchemaDiff diff = SchemaDiff.between(previous, current);
+
+    assertThat(diff.createdTables("altered")).containsExactly("created");
+    assertThat(diff.droppedTables("altered")).containsExactly("dropped");
+    assertThat(diff.alteredTables("altered")).containsExactly("altered");
+    assertThat(diff.createdTables("created")).isEmpty();
+  }
+
+  @Test
+  public void shouldBeEmptyForEqualSchemas() {
+    Schema copy = Schema.create(new ArrayList<>(previous.keyspaces()));
+
+    assertThat(SchemaDiff.between(previous, copy).isEmpty()).isTrue();
+    assertThat(SchemaDiff.between(previous, Schema.create(Arrays.asList())).droppedKeyspaces())
+        .containsExactlyInAnyOrder("unchanged", "altered", "dropped");
+  }
+}
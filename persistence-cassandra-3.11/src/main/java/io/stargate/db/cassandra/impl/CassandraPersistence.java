@@ -48,6 +48,7 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -161,12 +162,12 @@ public class CassandraPersistence
   }
 
   @Override
-  protected void registerInternalSchemaListener(Runnable runOnSchemaChange) {
+  protected void registerInternalSchemaListener(Consumer<String> onKeyspaceChange) {
     migrationListener =
         new SimpleCallbackMigrationListener() {
           @Override
-          void onSchemaChange() {
-            runOnSchemaChange.run();
+          void onSchemaChange(String keyspace) {
+            onKeyspaceChange.accept(keyspace);
           }
         };
     MigrationManager.instance.register(migrationListener);
@@ -228,7 +229,7 @@ public class CassandraPersistence
   }
 
   @Override
-  public void registerEventListener(EventListener listener) {
+  protected void registerInternalEventListener(EventListener listener) {
     MigrationManager.instance.register(new EventListenerWrapper(listener));
     interceptor.register(listener);
   }
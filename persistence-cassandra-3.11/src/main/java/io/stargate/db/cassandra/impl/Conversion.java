@@ -17,6 +17,8 @@ package io.stargate.db.cassandra.impl;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import io.stargate.db.BatchType;
 import io.stargate.db.Parameters;
@@ -32,6 +34,7 @@ import java.net.InetAddress;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
@@ -139,6 +142,18 @@ public class Conversion {
 
   private static final Map<Class<? extends AbstractType>, Column.Type> TYPE_MAPPINGS;
 
+  // The results of a given statement are described, for every execution and every page, by the same
+  // list of column specifications (owned by the statement's selection), so we cache the conversion
+  // of those columns keyed by that list. Keys are weak, and so compared by identity, and entries go
+  // away with the statement they belong to. The conversion only depends on the (immutable)
+  // specifications, so entries can't get stale: statements whose result is changed by a schema
+  // change are re-prepared, and so come with new specifications.
+  private static final Cache<List<ColumnSpecification>, List<Column>> RESULT_COLUMNS_CACHE =
+      CacheBuilder.newBuilder()
+          .weakKeys()
+          .maximumSize(Long.getLong("stargate.result_columns_cache_max_size", 10_000))
+          .build();
+
   static {
     Map<Class<? extends AbstractType>, Column.Type> types = new HashMap<>();
     Arrays.asList(Column.Type.values())
@@ -369,18 +384,8 @@ public class Conversion {
   public static Result.ResultMetadata toResultMetadata(
       org.apache.cassandra.cql3.ResultSet.ResultMetadata metadata,
       org.apache.cassandra.transport.ProtocolVersion version) {
-    List<Column> columns = new ArrayList<>();
-    if (metadata.names != null) {
-      metadata.names.forEach(
-          c ->
-              columns.add(
-                  ImmutableColumn.builder()
-                      .keyspace(c.ksName)
-                      .table(c.cfName)
-                      .name(c.name.toString())
-                      .type(getTypeFromInternal(c.type))
-                      .build()));
-    }
+    List<Column> columns =
+        metadata.names == null ? Collections.emptyList() : toResultColumns(metadata.names);
 
     EnumSet<Result.Flag> flags = EnumSet.noneOf(Result.Flag.class);
 
@@ -404,6 +409,27 @@ public class Conversion {
         pagingState != null ? pagingState.serialize(version) : null);
   }
 
+  private static List<Column> toResultColumns(List<ColumnSpecification> names) {
+    List<Column> columns = RESULT_COLUMNS_CACHE.getIfPresent(names);
+    // The size check is only a safety net: the names are not supposed to change once the statement
+    // is prepared.
+    if (columns == null || columns.size() != names.size()) {
+      List<Column> converted = new ArrayList<>(names.size());
+      names.forEach(
+          c ->
+              converted.add(
+                  ImmutableColumn.builder()
+                      .keyspace(c.ksName)
+                      .table(c.cfName)
+                      .name(c.name.toString())
+                      .type(getTypeFromInternal(c.type))
+                      .build()));
+      columns = Collections.unmodifiableList(converted);
+      RESULT_COLUMNS_CACHE.put(names, columns);
+    }
+    return columns;
+  }
+
   public static Result.PreparedMetadata toPreparedMetadata(
       List<ColumnSpecification> names, short[] indexes) {
     List<Column> columns = new ArrayList<>();
@@ -32,6 +32,7 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -144,12 +145,12 @@ public class CassandraPersistence
   }
 
   @Override
-  protected void registerInternalSchemaListener(Runnable runOnSchemaChange) {
+  protected void registerInternalSchemaListener(Consumer<String> onKeyspaceChange) {
     schemaChangeListener =
         new SimpleCallbackMigrationListener() {
           @Override
-          void onSchemaChange() {
-            runOnSchemaChange.run();
+          void onSchemaChange(String keyspace) {
+            onKeyspaceChange.accept(keyspace);
           }
         };
     org.apache.cassandra.schema.Schema.instance.registerListener(schemaChangeListener);
@@ -212,7 +213,7 @@ public class CassandraPersistence
   }
 
   @Override
-  public void registerEventListener(EventListener listener) {
+  protected void registerInternalEventListener(EventListener listener) {
     Schema.instance.registerListener(new EventListenerWrapper(listener));
     interceptor.register(listener);
   }
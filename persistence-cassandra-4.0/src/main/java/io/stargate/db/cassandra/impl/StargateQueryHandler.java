@@ -17,6 +17,8 @@
  */
 package io.stargate.db.cassandra.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.stargate.auth.AuthenticationSubject;
 import io.stargate.auth.AuthorizationService;
 import io.stargate.auth.Scope;
@@ -24,11 +26,15 @@ import io.stargate.auth.SourceAPI;
 import io.stargate.db.AuthenticatedUser;
 import io.stargate.db.AuthenticatedUser.Serializer;
 import io.stargate.db.cassandra.impl.interceptors.QueryInterceptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.validation.constraints.NotNull;
@@ -93,9 +99,35 @@ import org.slf4j.LoggerFactory;
 public class StargateQueryHandler implements QueryHandler {
 
   private static final Logger logger = LoggerFactory.getLogger(StargateQueryHandler.class);
+
+  // The getters of the private fields holding some of the authorization targets, looked up once
+  // per class and field.
+  private static final ClassValue<Map<String, MethodHandle>> FIELD_GETTERS =
+      new ClassValue<Map<String, MethodHandle>>() {
+        @Override
+        protected Map<String, MethodHandle> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
   private final List<QueryInterceptor> interceptors = new CopyOnWriteArrayList<>();
   private AtomicReference<AuthorizationService> authorizationService;
 
+  // Prepared statements are kept by the QueryProcessor and executed many times, so what they must
+  // be authorized against is only extracted once per statement. Keys are weak, and so compared by
+  // identity, and entries go away with the statement they belong to (which is why authorizers must
+  // not reference their statement).
+  private final Cache<CQLStatement, Authorizer> authorizers =
+      CacheBuilder.newBuilder()
+          .weakKeys()
+          .maximumSize(Long.getLong("stargate.authorizer_cache_max_size", 10_000))
+          .build();
+
+  // The subject of the last request of each connection, keyed by the connection's client state: all
+  // the requests of a connection usually come from the same user.
+  private final Cache<ClientState, LoadedSubject> subjects =
+      CacheBuilder.newBuilder().weakKeys().build();
+
   void register(QueryInterceptor interceptor) {
     this.interceptors.add(interceptor);
   }
@@ -138,7 +170,9 @@ public class StargateQueryHandler implements QueryHandler {
     }
 
     if (customPayload != null && customPayload.containsKey("stargate.auth.subject.token")) {
-      authorizeByToken(customPayload, statement);
+      // Unprepared statements are parsed for every execution, so there is no point in caching
+      // their authorizer.
+      authorizeByToken(customPayload, queryState.getClientState(), authorizer(statement));
     }
 
     return QueryProcessor.instance.process(statement, queryState, options, queryStartNanoTime);
@@ -173,7 +207,7 @@ public class StargateQueryHandler implements QueryHandler {
     }
 
     if (customPayload != null && customPayload.containsKey("stargate.auth.subject.token")) {
-      authorizeByToken(customPayload, statement);
+      authorizeByToken(customPayload, queryState.getClientState(), cachedAuthorizer(statement));
     }
 
     return QueryProcessor.instance.processPrepared(
@@ -189,7 +223,7 @@ public class StargateQueryHandler implements QueryHandler {
       long queryStartNanoTime)
       throws RequestExecutionException, RequestValidationException {
     if (customPayload != null && customPayload.containsKey("stargate.auth.subject.token")) {
-      authorizeByToken(customPayload, batchStatement);
+      authorizeByToken(customPayload, queryState.getClientState(), authorizer(batchStatement));
     }
 
     return QueryProcessor.instance.processBatch(
@@ -198,84 +232,114 @@ public class StargateQueryHandler implements QueryHandler {
 
   protected void authorizeByToken(Map<String, ByteBuffer> customPayload, CQLStatement statement) {
     AuthenticationSubject authenticationSubject = loadAuthenticationSubject(customPayload);
+    AuthorizationService authorization = authorizationService();
+    authorizer(statement).authorize(authenticationSubject, authorization);
+  }
+
+  private void authorizeByToken(
+      Map<String, ByteBuffer> customPayload, ClientState clientState, Authorizer authorizer) {
+    AuthenticationSubject authenticationSubject =
+        loadAuthenticationSubject(customPayload, clientState);
+    authorizer.authorize(authenticationSubject, authorizationService());
+  }
+
+  private AuthorizationService authorizationService() {
+    return getAuthorizationService()
+        .orElseThrow(
+            () ->
+                new RuntimeException(
+                    "Failed to find an io.stargate.auth.AuthorizationService to authorize request"));
+  }
+
+  @NotNull
+  private AuthenticationSubject loadAuthenticationSubject(Map<String, ByteBuffer> customPayload) {
+    AuthenticatedUser user = Serializer.load(customPayload);
+    return AuthenticationSubject.of(user);
+  }
+
+  private AuthenticationSubject loadAuthenticationSubject(
+      Map<String, ByteBuffer> customPayload, ClientState clientState) {
+    LoadedSubject loaded = subjects.getIfPresent(clientState);
+    if (loaded == null || !loaded.customPayload.equals(customPayload)) {
+      loaded = new LoadedSubject(customPayload, loadAuthenticationSubject(customPayload));
+      subjects.put(clientState, loaded);
+    }
+    return loaded.subject;
+  }
 
-    if (!getAuthorizationService().isPresent()) {
-      throw new RuntimeException(
-          "Failed to find an io.stargate.auth.AuthorizationService to authorize request");
+  private Authorizer cachedAuthorizer(CQLStatement statement) {
+    Authorizer authorizer = authorizers.getIfPresent(statement);
+    if (authorizer == null) {
+      authorizer = authorizer(statement);
+      authorizers.put(statement, authorizer);
     }
+    return authorizer;
+  }
 
-    AuthorizationService authorization = getAuthorizationService().get();
+  private Authorizer authorizer(CQLStatement statement) {
     if (statement instanceof SelectStatement) {
       SelectStatement castStatement = (SelectStatement) statement;
-      logger.debug(
-          "preparing to authorize statement of type {} on {}.{}",
-          castStatement.getClass().toString(),
-          castStatement.keyspace(),
-          castStatement.columnFamily());
-
-      try {
-        authorization.authorizeDataRead(
-            authenticationSubject,
-            castStatement.keyspace(),
-            castStatement.columnFamily(),
-            SourceAPI.CQL);
-      } catch (io.stargate.auth.UnauthorizedException e) {
-        throw new UnauthorizedException(
-            String.format(
-                "No SELECT permission on <table %s.%s>",
-                castStatement.keyspace(), castStatement.columnFamily()));
-      }
-
-      logger.debug(
-          "authorized statement of type {} on {}.{}",
-          castStatement.getClass().toString(),
-          castStatement.keyspace(),
-          castStatement.columnFamily());
+      String type = castStatement.getClass().toString();
+      String keyspace = castStatement.keyspace();
+      String table = castStatement.columnFamily();
+
+      return (authenticationSubject, authorization) -> {
+        logger.debug("preparing to authorize statement of type {} on {}.{}", type, keyspace, table);
+
+        try {
+          authorization.authorizeDataRead(authenticationSubject, keyspace, table, SourceAPI.CQL);
+        } catch (io.stargate.auth.UnauthorizedException e) {
+          throw new UnauthorizedException(
+              String.format("No SELECT permission on <table %s.%s>", keyspace, table));
+        }
+
+        logger.debug("authorized statement of type {} on {}.{}", type, keyspace, table);
+      };
     } else if (statement instanceof ModificationStatement) {
-      authorizeModificationStatement(statement, authenticationSubject, authorization);
+      return modificationStatementAuthorizer(statement);
     } else if (statement instanceof TruncateStatement) {
       TruncateStatement castStatement = (TruncateStatement) statement;
-
-      logger.debug(
-          "preparing to authorize statement of type {} on {}.{}",
-          castStatement.getClass().toString(),
-          castStatement.keyspace(),
-          castStatement.name());
-
-      try {
-        authorization.authorizeDataWrite(
-            authenticationSubject,
-            castStatement.keyspace(),
-            castStatement.name(),
-            Scope.TRUNCATE,
-            SourceAPI.CQL);
-      } catch (io.stargate.auth.UnauthorizedException e) {
-        throw new UnauthorizedException(
-            String.format(
-                "No TRUNCATE permission on <table %s.%s>",
-                castStatement.keyspace(), castStatement.name()));
-      }
-
-      logger.debug(
-          "authorized statement of type {} on {}.{}",
-          castStatement.getClass().toString(),
-          castStatement.keyspace(),
-          castStatement.name());
+      String type = castStatement.getClass().toString();
+      String keyspace = castStatement.keyspace();
+      String table = castStatement.name();
+
+      return (authenticationSubject, authorization) -> {
+        logger.debug("preparing to authorize statement of type {} on {}.{}", type, keyspace, table);
+
+        try {
+          authorization.authorizeDataWrite(
+              authenticationSubject, keyspace, table, Scope.TRUNCATE, SourceAPI.CQL);
+        } catch (io.stargate.auth.UnauthorizedException e) {
+          throw new UnauthorizedException(
+              String.format("No TRUNCATE permission on <table %s.%s>", keyspace, table));
+        }
+
+        logger.debug("authorized statement of type {} on {}.{}", type, keyspace, table);
+      };
     } else if (statement instanceof SchemaTransformation) {
-      authorizeSchemaTransformation(statement, authenticationSubject, authorization);
+      return schemaTransformationAuthorizer(statement);
     } else if (statement instanceof AuthorizationStatement) {
-      authorizeAuthorizationStatement(statement, authenticationSubject, authorization);
+      return authorizationStatementAuthorizer(statement);
     } else if (statement instanceof AuthenticationStatement) {
-      authorizeAuthenticationStatement(statement, authenticationSubject, authorization);
+      return authenticationStatementAuthorizer(statement);
     } else if (statement instanceof UseStatement) {
       // NOOP on UseStatement since it doesn't require authorization
-      logger.debug("Skipping auth on UseStatement since it's not required");
+      return (authenticationSubject, authorization) ->
+          logger.debug("Skipping auth on UseStatement since it's not required");
     } else if (statement instanceof BatchStatement) {
+      // Batches are built for every execution, but the statements they contain are usually
+      // prepared ones.
       BatchStatement castStatement = (BatchStatement) statement;
-      List<ModificationStatement> statements = castStatement.getStatements();
-      for (ModificationStatement stmt : statements) {
-        authorizeModificationStatement(stmt, authenticationSubject, authorization);
+      List<Authorizer> statementAuthorizers = new ArrayList<>();
+      for (ModificationStatement stmt : castStatement.getStatements()) {
+        statementAuthorizers.add(cachedAuthorizer(stmt));
       }
+
+      return (authenticationSubject, authorization) -> {
+        for (Authorizer authorizer : statementAuthorizers) {
+          authorizer.authorize(authenticationSubject, authorization);
+        }
+      };
     } else {
       logger.warn("Tried to authorize unsupported statement");
       throw new UnsupportedOperationException(
@@ -284,16 +348,7 @@ public class StargateQueryHandler implements QueryHandler {
     }
   }
 
-  @NotNull
-  private AuthenticationSubject loadAuthenticationSubject(Map<String, ByteBuffer> customPayload) {
-    AuthenticatedUser user = Serializer.load(customPayload);
-    return AuthenticationSubject.of(user);
-  }
-
-  private void authorizeModificationStatement(
-      CQLStatement statement,
-      AuthenticationSubject authenticationSubject,
-      AuthorizationService authorization) {
+  private Authorizer modificationStatementAuthorizer(CQLStatement statement) {
     ModificationStatement castStatement = (ModificationStatement) statement;
     Scope scope;
     if (statement instanceof DeleteStatement) {
@@ -301,63 +356,52 @@ public class StargateQueryHandler implements QueryHandler {
     } else {
       scope = Scope.MODIFY;
     }
+    String type = castStatement.getClass().toString();
+    String keyspace = castStatement.keyspace();
+    String table = castStatement.columnFamily();
 
-    logger.debug(
-        "preparing to authorize statement of type {} on {}.{}",
-        castStatement.getClass().toString(),
-        castStatement.keyspace(),
-        castStatement.columnFamily());
+    return (authenticationSubject, authorization) -> {
+      logger.debug("preparing to authorize statement of type {} on {}.{}", type, keyspace, table);
 
-    try {
-      authorization.authorizeDataWrite(
-          authenticationSubject,
-          castStatement.keyspace(),
-          castStatement.columnFamily(),
-          scope,
-          SourceAPI.CQL);
-    } catch (io.stargate.auth.UnauthorizedException e) {
-      throw new UnauthorizedException(
-          String.format(
-              "Missing correct permission on <table %s.%s>",
-              castStatement.keyspace(), castStatement.columnFamily()));
-    }
+      try {
+        authorization.authorizeDataWrite(
+            authenticationSubject, keyspace, table, scope, SourceAPI.CQL);
+      } catch (io.stargate.auth.UnauthorizedException e) {
+        throw new UnauthorizedException(
+            String.format("Missing correct permission on <table %s.%s>", keyspace, table));
+      }
 
-    logger.debug(
-        "authorized statement of type {} on {}.{}",
-        castStatement.getClass().toString(),
-        castStatement.keyspace(),
-        castStatement.columnFamily());
+      logger.debug("authorized statement of type {} on {}.{}", type, keyspace, table);
+    };
   }
 
-  private void authorizeAuthenticationStatement(
-      CQLStatement statement,
-      AuthenticationSubject authenticationSubject,
-      AuthorizationService authorization) {
+  private Authorizer authenticationStatementAuthorizer(CQLStatement statement) {
     AuthenticationStatement castStatement = (AuthenticationStatement) statement;
+    String type = castStatement.getClass().toString();
     Scope scope = null;
     String role = null;
 
     if (statement instanceof RoleManagementStatement) {
       RoleManagementStatement stmt = (RoleManagementStatement) castStatement;
-      scope = Scope.AUTHORIZE;
-      role = getRoleResourceFromStatement(stmt, "role");
+      Scope roleScope = Scope.AUTHORIZE;
+      String managedRole = getRoleResourceFromStatement(stmt, "role");
       String grantee = getRoleResourceFromStatement(stmt, "grantee");
-      logger.debug(
-          "preparing to authorize statement of type {} on {}",
-          castStatement.getClass().toString(),
-          role);
 
-      try {
-        authorization.authorizeRoleManagement(
-            authenticationSubject, role, grantee, scope, SourceAPI.CQL);
-      } catch (io.stargate.auth.UnauthorizedException e) {
-        throw new UnauthorizedException(
-            String.format("Missing correct permission on role %s: %s", role, e.getMessage()), e);
-      }
-
-      logger.debug(
-          "authorized statement of type {} on {}", castStatement.getClass().toString(), role);
-      return;
+      return (authenticationSubject, authorization) -> {
+        logger.debug("preparing to authorize statement of type {} on {}", type, managedRole);
+
+        try {
+          authorization.authorizeRoleManagement(
+              authenticationSubject, managedRole, grantee, roleScope, SourceAPI.CQL);
+        } catch (io.stargate.auth.UnauthorizedException e) {
+          throw new UnauthorizedException(
+              String.format(
+                  "Missing correct permission on role %s: %s", managedRole, e.getMessage()),
+              e);
+        }
+
+        logger.debug("authorized statement of type {} on {}", type, managedRole);
+      };
     } else if (statement instanceof DropRoleStatement) {
       DropRoleStatement stmt = (DropRoleStatement) castStatement;
       scope = Scope.DROP;
@@ -372,27 +416,27 @@ public class StargateQueryHandler implements QueryHandler {
       role = getRoleResourceFromStatement(stmt, "role");
     }
 
-    logger.debug(
-        "preparing to authorize statement of type {} on {}",
-        castStatement.getClass().toString(),
-        role);
+    Scope roleScope = scope;
+    String managedRole = role;
+    return (authenticationSubject, authorization) -> {
+      logger.debug("preparing to authorize statement of type {} on {}", type, managedRole);
 
-    try {
-      authorization.authorizeRoleManagement(authenticationSubject, role, scope, SourceAPI.CQL);
-    } catch (io.stargate.auth.UnauthorizedException e) {
-      throw new UnauthorizedException(
-          String.format("Missing correct permission on role %s: %s", role, e.getMessage()), e);
-    }
+      try {
+        authorization.authorizeRoleManagement(
+            authenticationSubject, managedRole, roleScope, SourceAPI.CQL);
+      } catch (io.stargate.auth.UnauthorizedException e) {
+        throw new UnauthorizedException(
+            String.format("Missing correct permission on role %s: %s", managedRole, e.getMessage()),
+            e);
+      }
 
-    logger.debug(
-        "authorized statement of type {} on {}", castStatement.getClass().toString(), role);
+      logger.debug("authorized statement of type {} on {}", type, managedRole);
+    };
   }
 
-  private void authorizeAuthorizationStatement(
-      CQLStatement statement,
-      AuthenticationSubject authenticationSubject,
-      AuthorizationService authorization) {
+  private Authorizer authorizationStatementAuthorizer(CQLStatement statement) {
     AuthorizationStatement castStatement = (AuthorizationStatement) statement;
+    String type = castStatement.getClass().toString();
 
     if (statement instanceof PermissionsManagementStatement) {
       PermissionsManagementStatement stmt = (PermissionsManagementStatement) castStatement;
@@ -400,57 +444,55 @@ public class StargateQueryHandler implements QueryHandler {
       String resource = getResourceFromStatement(stmt);
       String grantee = getRoleResourceFromStatement(stmt, "grantee");
 
-      logger.debug(
-          "preparing to authorize statement of type {} on {}",
-          castStatement.getClass().toString(),
-          resource);
+      return (authenticationSubject, authorization) -> {
+        logger.debug("preparing to authorize statement of type {} on {}", type, resource);
 
-      try {
-        authorization.authorizePermissionManagement(
-            authenticationSubject, resource, grantee, scope, SourceAPI.CQL);
-      } catch (io.stargate.auth.UnauthorizedException e) {
-        throw new UnauthorizedException(
-            String.format("Missing correct permission on role %s: %s", resource, e.getMessage()),
-            e);
-      }
+        try {
+          authorization.authorizePermissionManagement(
+              authenticationSubject, resource, grantee, scope, SourceAPI.CQL);
+        } catch (io.stargate.auth.UnauthorizedException e) {
+          throw new UnauthorizedException(
+              String.format("Missing correct permission on role %s: %s", resource, e.getMessage()),
+              e);
+        }
 
-      logger.debug(
-          "authorized statement of type {} on {}", castStatement.getClass().toString(), resource);
+        logger.debug("authorized statement of type {} on {}", type, resource);
+      };
     } else if (statement instanceof ListRolesStatement) {
       ListRolesStatement stmt = (ListRolesStatement) castStatement;
       String role = getRoleResourceFromStatement(stmt, "grantee");
-      logger.debug(
-          "preparing to authorize statement of type {} on {}",
-          castStatement.getClass().toString(),
-          role);
 
-      try {
-        authorization.authorizeRoleRead(authenticationSubject, role, SourceAPI.CQL);
-      } catch (io.stargate.auth.UnauthorizedException e) {
-        throw new UnauthorizedException(
-            String.format("Missing correct permission on role %s: %s", role, e.getMessage()), e);
-      }
+      return (authenticationSubject, authorization) -> {
+        logger.debug("preparing to authorize statement of type {} on {}", type, role);
 
-      logger.debug(
-          "authorized statement of type {} on {}", castStatement.getClass().toString(), role);
+        try {
+          authorization.authorizeRoleRead(authenticationSubject, role, SourceAPI.CQL);
+        } catch (io.stargate.auth.UnauthorizedException e) {
+          throw new UnauthorizedException(
+              String.format("Missing correct permission on role %s: %s", role, e.getMessage()), e);
+        }
+
+        logger.debug("authorized statement of type {} on {}", type, role);
+      };
     } else if (statement instanceof ListPermissionsStatement) {
       ListPermissionsStatement stmt = (ListPermissionsStatement) castStatement;
       String role = getRoleResourceFromStatement(stmt, "grantee");
-      logger.debug(
-          "preparing to authorize statement of type {} on {}",
-          castStatement.getClass().toString(),
-          role);
 
-      try {
-        authorization.authorizePermissionRead(authenticationSubject, role, SourceAPI.CQL);
-      } catch (io.stargate.auth.UnauthorizedException e) {
-        throw new UnauthorizedException(
-            String.format("Missing correct permission on role %s: %s", role, e.getMessage()), e);
-      }
+      return (authenticationSubject, authorization) -> {
+        logger.debug("preparing to authorize statement of type {} on {}", type, role);
 
-      logger.debug(
-          "authorized statement of type {} on {}", castStatement.getClass().toString(), role);
+        try {
+          authorization.authorizePermissionRead(authenticationSubject, role, SourceAPI.CQL);
+        } catch (io.stargate.auth.UnauthorizedException e) {
+          throw new UnauthorizedException(
+              String.format("Missing correct permission on role %s: %s", role, e.getMessage()), e);
+        }
+
+        logger.debug("authorized statement of type {} on {}", type, role);
+      };
     }
+
+    return (authenticationSubject, authorization) -> {};
   }
 
   private String getRoleResourceFromStatement(Object stmt, String fieldName) {
@@ -464,12 +506,10 @@ public class StargateQueryHandler implements QueryHandler {
         aClass = aClass.getSuperclass();
       }
 
-      Field f = aClass.getDeclaredField(fieldName);
-      f.setAccessible(true);
-      RoleResource roleResource = (RoleResource) f.get(stmt);
+      RoleResource roleResource = (RoleResource) getPrivateField(stmt, aClass, fieldName);
 
       return roleResource != null ? roleResource.getName() : null;
-    } catch (Exception e) {
+    } catch (Throwable e) {
       logger.error("Unable to get " + fieldName, e);
       throw new RuntimeException("Unable to get private field", e);
     }
@@ -477,21 +517,17 @@ public class StargateQueryHandler implements QueryHandler {
 
   private String getResourceFromStatement(PermissionsManagementStatement stmt) {
     try {
-      Field f = stmt.getClass().getSuperclass().getDeclaredField("resource");
-      f.setAccessible(true);
-      IResource resource = (IResource) f.get(stmt);
+      IResource resource =
+          (IResource) getPrivateField(stmt, stmt.getClass().getSuperclass(), "resource");
 
       return resource != null ? resource.getName() : null;
-    } catch (Exception e) {
+    } catch (Throwable e) {
       logger.error("Unable to get role", e);
       throw new RuntimeException("Unable to get private field", e);
     }
   }
 
-  private void authorizeSchemaTransformation(
-      CQLStatement statement,
-      AuthenticationSubject authenticationSubject,
-      AuthorizationService authorization) {
+  private Authorizer schemaTransformationAuthorizer(CQLStatement statement) {
     SchemaTransformation castStatement = (SchemaTransformation) statement;
     Scope scope = null;
     String keyspaceName = null;
@@ -591,27 +627,28 @@ public class StargateQueryHandler implements QueryHandler {
       keyspaceName = getKeyspaceNameFromSuper(stmt);
     }
 
-    logger.debug(
-        "preparing to authorize statement of type {} on {}.{}",
-        castStatement.getClass().toString(),
-        keyspaceName,
-        tableName);
+    return schemaWriteAuthorizer(
+        castStatement.getClass().toString(), scope, keyspaceName, tableName);
+  }
 
-    try {
-      authorization.authorizeSchemaWrite(
-          authenticationSubject, keyspaceName, tableName, scope, SourceAPI.CQL);
-    } catch (io.stargate.auth.UnauthorizedException e) {
-      throw new UnauthorizedException(
-          String.format(
-              "Missing correct permission on %s.%s",
-              keyspaceName, (tableName == null ? "" : tableName)));
-    }
+  private static Authorizer schemaWriteAuthorizer(
+      String type, Scope scope, String keyspaceName, String tableName) {
+    return (authenticationSubject, authorization) -> {
+      logger.debug(
+          "preparing to authorize statement of type {} on {}.{}", type, keyspaceName, tableName);
 
-    logger.debug(
-        "authorized statement of type {} on {}.{}",
-        castStatement.getClass().toString(),
-        keyspaceName,
-        tableName);
+      try {
+        authorization.authorizeSchemaWrite(
+            authenticationSubject, keyspaceName, tableName, scope, SourceAPI.CQL);
+      } catch (io.stargate.auth.UnauthorizedException e) {
+        throw new UnauthorizedException(
+            String.format(
+                "Missing correct permission on %s.%s",
+                keyspaceName, (tableName == null ? "" : tableName)));
+      }
+
+      logger.debug("authorized statement of type {} on {}.{}", type, keyspaceName, tableName);
+    };
   }
 
   private String getTableName(Object stmt) {
@@ -620,10 +657,8 @@ public class StargateQueryHandler implements QueryHandler {
       if (stmt instanceof AlterTableStatement || stmt instanceof AlterTypeStatement) {
         aClass = aClass.getSuperclass();
       }
-      Field f = aClass.getDeclaredField("tableName");
-      f.setAccessible(true);
-      return (String) f.get(stmt);
-    } catch (Exception e) {
+      return (String) getPrivateField(stmt, aClass, "tableName");
+    } catch (Throwable e) {
       logger.error("Unable to get private field", e);
       throw new RuntimeException("Unable to get private field", e);
     }
@@ -637,15 +672,26 @@ public class StargateQueryHandler implements QueryHandler {
         superclass = superclass.getSuperclass();
       }
 
-      Field f = superclass.getDeclaredField("keyspaceName");
-      f.setAccessible(true);
-      return (String) f.get(stmt);
-    } catch (Exception e) {
+      return (String) getPrivateField(stmt, superclass, "keyspaceName");
+    } catch (Throwable e) {
       logger.error("Unable to get private field", e);
       throw new RuntimeException("Unable to get private field", e);
     }
   }
 
+  private static Object getPrivateField(Object stmt, Class<?> declaringClass, String fieldName)
+      throws Throwable {
+    Map<String, MethodHandle> getters = FIELD_GETTERS.get(declaringClass);
+    MethodHandle getter = getters.get(fieldName);
+    if (getter == null) {
+      Field f = declaringClass.getDeclaredField(fieldName);
+      f.setAccessible(true);
+      getter = MethodHandles.lookup().unreflectGetter(f);
+      getters.put(fieldName, getter);
+    }
+    return getter.invoke(stmt);
+  }
+
   public void setAuthorizationService(AtomicReference<AuthorizationService> authorizationService) {
     this.authorizationService = authorizationService;
   }
@@ -653,4 +699,20 @@ public class StargateQueryHandler implements QueryHandler {
   public Optional<AuthorizationService> getAuthorizationService() {
     return Optional.ofNullable(authorizationService.get());
   }
+
+  /** Authorizes the execution of a given statement. */
+  @FunctionalInterface
+  private interface Authorizer {
+    void authorize(AuthenticationSubject authenticationSubject, AuthorizationService authorization);
+  }
+
+  private static class LoadedSubject {
+    private final Map<String, ByteBuffer> customPayload;
+    private final AuthenticationSubject subject;
+
+    private LoadedSubject(Map<String, ByteBuffer> customPayload, AuthenticationSubject subject) {
+      this.customPayload = customPayload;
+      this.subject = subject;
+    }
+  }
 }
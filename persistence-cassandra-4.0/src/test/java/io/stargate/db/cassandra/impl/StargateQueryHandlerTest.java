@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.cassandra.cql3.CQLStatement;
 import org.apache.cassandra.cql3.ColumnIdentifier;
+import org.apache.cassandra.cql3.QueryOptions;
 import org.apache.cassandra.cql3.QueryProcessor;
 import org.apache.cassandra.cql3.VariableSpecifications;
 import org.apache.cassandra.cql3.statements.AlterRoleStatement;
@@ -70,6 +71,7 @@ import org.apache.cassandra.schema.Schema;
 import org.apache.cassandra.schema.TableMetadata;
 import org.apache.cassandra.schema.Tables;
 import org.apache.cassandra.service.ClientState;
+import org.apache.cassandra.service.QueryState;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -884,6 +886,35 @@ class StargateQueryHandlerTest extends BaseCassandraTest {
             eq(SourceAPI.CQL));
   }
 
+  @Test
+  void processPreparedAuthorizesEveryExecution() throws UnauthorizedException {
+    SelectStatement.Raw rawStatement = QueryProcessor.parseStatement("select * from system.local");
+    CQLStatement statement = rawStatement.prepare(ClientState.forInternalCalls());
+    QueryState queryState = new QueryState(ClientState.forInternalCalls());
+    AuthenticatedUser otherUser = AuthenticatedUser.of("other", "token2");
+
+    for (int i = 0; i < 2; i++) {
+      queryHandler.processPrepared(
+          statement, queryState, QueryOptions.DEFAULT, createToken(), System.nanoTime());
+    }
+    queryHandler.processPrepared(
+        statement,
+        queryState,
+        QueryOptions.DEFAULT,
+        AuthenticatedUser.Serializer.serialize(otherUser),
+        System.nanoTime());
+
+    verify(authorizationService, times(2))
+        .authorizeDataRead(
+            refEq(authenticationSubject), eq("system"), eq("local"), eq(SourceAPI.CQL));
+    verify(authorizationService, times(1))
+        .authorizeDataRead(
+            refEq(AuthenticationSubject.of(otherUser)),
+            eq("system"),
+            eq("local"),
+            eq(SourceAPI.CQL));
+  }
+
   private Map<String, ByteBuffer> createToken() {
     return AuthenticatedUser.Serializer.serialize(authenticatedUser);
   }
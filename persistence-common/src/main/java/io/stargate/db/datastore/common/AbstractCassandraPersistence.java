@@ -3,11 +3,18 @@ package io.stargate.db.datastore.common;
 import com.google.common.base.Joiner;
 import io.stargate.db.AuthenticatedUser;
 import io.stargate.db.ClientInfo;
+import io.stargate.db.EventListener;
 import io.stargate.db.Persistence;
+import io.stargate.db.schema.Keyspace;
 import io.stargate.db.schema.Schema;
+import io.stargate.db.schema.SchemaDiff;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,9 +45,13 @@ public abstract class AbstractCassandraPersistence<Config, K, T, C, U, I, V>
 
   // The schema exposed by stargate. It is translated from the internal C* schema during
   // initialization, and then updated every time the internal schema changes through a schema
-  // listener callback.
+  // listener callback. Only the keyspace that changed is translated again on updates: the other
+  // keyspaces are the same instances as in the previous schema.
   private volatile Schema schema;
 
+  // The listeners notified, after every update of the schema, of what changed in it.
+  private final List<EventListener> schemaChangeListeners = new CopyOnWriteArrayList<>();
+
   protected AbstractCassandraPersistence(String name) {
     this.name = name;
     this.schemaConverter = newSchemaConverter();
@@ -53,21 +64,29 @@ public abstract class AbstractCassandraPersistence<Config, K, T, C, U, I, V>
   protected abstract Iterable<K> currentInternalSchema();
 
   /**
-   * Register an internal schema listener that runs the provided runnable every time the internal
-   * schema of the persistence layer changes.
+   * Register an internal schema listener that calls the provided consumer, with the name of the
+   * keyspace that changed, every time the internal schema of the persistence layer changes (this
+   * includes changes to any of the tables, types, functions, etc. of the keyspace).
    *
    * <p>This is guaranteed to be called only once for each persistence instance, during
    * initialization. Implementations should usually keep track of the registered listener so they
    * can implement {@link #unregisterInternalSchemaListener()}.
    */
-  protected abstract void registerInternalSchemaListener(Runnable onSchemaChange);
+  protected abstract void registerInternalSchemaListener(Consumer<String> onKeyspaceChange);
 
   /**
    * Unregister the internal schema listener registered through {@link
-   * #registerInternalSchemaListener(Runnable)}, if necessary.
+   * #registerInternalSchemaListener(Consumer)}, if necessary.
    */
   protected abstract void unregisterInternalSchemaListener();
 
+  /**
+   * Registers the provided listener for the events of the persistence layer (basically, the {@link
+   * #registerEventListener} implementation, but modulo the {@link EventListener#onSchemaChange}
+   * events, which are handled by this abstract facility).
+   */
+  protected abstract void registerInternalEventListener(EventListener listener);
+
   /**
    * Actually initialize the persistence layer (basically, the {@link #initialize} implementation,
    * but modulo the parts that are already handled by this abstract facility)
@@ -96,6 +115,12 @@ public abstract class AbstractCassandraPersistence<Config, K, T, C, U, I, V>
     return schema;
   }
 
+  @Override
+  public boolean readsCustomProperties() {
+    // The connections of the Cassandra-like persistences ignore the custom properties.
+    return false;
+  }
+
   public final void initialize(Config config) {
     logger.info("Initializing {}", name);
 
@@ -105,12 +130,42 @@ public abstract class AbstractCassandraPersistence<Config, K, T, C, U, I, V>
 
     initializePersistence(config);
 
-    schema = computeCurrentSchema();
-    registerInternalSchemaListener(() -> schema = computeCurrentSchema());
+    schema = schemaConverter.convertCassandraSchema(currentInternalSchema());
+    registerInternalSchemaListener(this::updateSchema);
+  }
+
+  private synchronized void updateSchema(String changedKeyspace) {
+    Schema previous = schema;
+    List<Keyspace> keyspaces = new ArrayList<>();
+    for (K internalKeyspace : currentInternalSchema()) {
+      String name = schemaConverter.keyspaceName(internalKeyspace);
+      Keyspace keyspace = previous.keyspace(name);
+      if (keyspace == null || name.equals(changedKeyspace)) {
+        keyspace = schemaConverter.convertKeyspace(internalKeyspace);
+      }
+      keyspaces.add(keyspace);
+    }
+    Schema current = Schema.create(keyspaces);
+    schema = current;
+
+    SchemaDiff diff = SchemaDiff.between(previous, current);
+    if (diff.isEmpty()) {
+      return;
+    }
+    logger.debug("Schema updated: {}", diff);
+    for (EventListener listener : schemaChangeListeners) {
+      try {
+        listener.onSchemaChange(diff);
+      } catch (Exception e) {
+        logger.error("Unexpected error notifying {} of schema change {}", listener, diff, e);
+      }
+    }
   }
 
-  private Schema computeCurrentSchema() {
-    return schemaConverter.convertCassandraSchema(currentInternalSchema());
+  @Override
+  public final void registerEventListener(EventListener listener) {
+    schemaChangeListeners.add(listener);
+    registerInternalEventListener(listener);
   }
 
   public final void destroy() {
@@ -110,7 +110,11 @@ public abstract class AbstractCassandraSchemaConverter<K, T, C, U, I, V> {
     return Schema.create(Iterables.transform(cassandraKeyspaces, this::convertKeyspace));
   }
 
-  private Keyspace convertKeyspace(K keyspace) {
+  /**
+   * Converts a single internal keyspace, for persistence layers that update their schema one
+   * changed keyspace at a time.
+   */
+  public Keyspace convertKeyspace(K keyspace) {
     String name = keyspaceName(keyspace);
     Stream<Table> tables = convertTables(name, tables(keyspace), views(keyspace));
     Stream<UserDefinedType> userDefinedTypes = convertUserTypes(name, userTypes(keyspace));
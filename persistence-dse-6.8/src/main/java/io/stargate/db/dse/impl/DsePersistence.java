@@ -37,6 +37,7 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -143,13 +144,13 @@ public class DsePersistence
   }
 
   @Override
-  protected void registerInternalSchemaListener(Runnable runOnSchemaChange) {
+  protected void registerInternalSchemaListener(Consumer<String> onKeyspaceChange) {
 
     schemaChangeListener =
         new SimpleCallbackSchemaChangeListener() {
           @Override
-          void onSchemaChange() {
-            runOnSchemaChange.run();
+          void onSchemaChange(String keyspace) {
+            onKeyspaceChange.accept(keyspace);
           }
         };
     org.apache.cassandra.schema.SchemaManager.instance.registerListener(schemaChangeListener);
@@ -226,7 +227,7 @@ public class DsePersistence
   }
 
   @Override
-  public void registerEventListener(EventListener listener) {
+  protected void registerInternalEventListener(EventListener listener) {
     SchemaManager.instance.registerListener(new EventListenerWrapper(listener));
     interceptor.register(listener);
   }
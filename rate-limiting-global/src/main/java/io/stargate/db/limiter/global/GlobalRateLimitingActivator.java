@@ -1,23 +1,37 @@
 package io.stargate.db.limiter.global;
 
+import io.stargate.config.store.api.ConfigStore;
 import io.stargate.core.activator.BaseActivator;
+import io.stargate.core.metrics.api.Metrics;
 import io.stargate.db.DbActivator;
 import io.stargate.db.limiter.RateLimitingManager;
 import io.stargate.db.limiter.global.impl.GlobalRateLimitingManager;
+import io.stargate.db.limiter.global.impl.TenantRateLimitingManager;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Hashtable;
 import java.util.List;
 
 /**
- * Activator for the {@link GlobalRateLimitingManager} rate limiting service.
+ * Activator for the {@link GlobalRateLimitingManager} and {@link TenantRateLimitingManager} rate
+ * limiting services.
  *
- * <p>For this service to activate, the {@link #IDENTIFIER} value needs to be passed to the {@link
+ * <p>For one of those services to activate, its identifier ({@link #IDENTIFIER} or {@link
+ * #TENANT_IDENTIFIER} respectively) needs to be passed to the {@link
  * DbActivator#RATE_LIMITING_ID_PROPERTY)} system property (see {@link DbActivator}).
  */
 public class GlobalRateLimitingActivator extends BaseActivator {
   public static final String IDENTIFIER = "GlobalRateLimiting";
+  public static final String TENANT_IDENTIFIER = "TenantRateLimiting";
+  private static final String METRICS_PREFIX = "rate-limiting";
+
   private static final boolean IS_ENABLED =
       IDENTIFIER.equalsIgnoreCase(System.getProperty(DbActivator.RATE_LIMITING_ID_PROPERTY));
+  private static final boolean IS_TENANT_ENABLED =
+      TENANT_IDENTIFIER.equalsIgnoreCase(System.getProperty(DbActivator.RATE_LIMITING_ID_PROPERTY));
+
+  private final ServicePointer<ConfigStore> configStore = ServicePointer.create(ConfigStore.class);
+  private final ServicePointer<Metrics> metrics = ServicePointer.create(Metrics.class);
 
   public GlobalRateLimitingActivator() {
     super("Global Rate Limiting");
@@ -29,21 +43,29 @@ public class GlobalRateLimitingActivator extends BaseActivator {
     // service), we avoid creating the manager, as the manager would throw if it doesn't find
     // its configuration. Maybe that's a bit ugly and we should instead rely on user not using
     // this service not including the bundle on the classpath at all instead?
+    if (IS_TENANT_ENABLED) {
+      TenantRateLimitingManager manager =
+          new TenantRateLimitingManager(
+              configStore.get(), metrics.get().getRegistry(METRICS_PREFIX));
+      return new ServiceAndProperties(
+          manager, RateLimitingManager.class, properties(TENANT_IDENTIFIER));
+    }
     if (!IS_ENABLED) {
       return null;
     }
     GlobalRateLimitingManager manager = new GlobalRateLimitingManager();
-    return new ServiceAndProperties(manager, RateLimitingManager.class, properties());
+    return new ServiceAndProperties(manager, RateLimitingManager.class, properties(IDENTIFIER));
   }
 
-  private static Hashtable<String, String> properties() {
+  private static Hashtable<String, String> properties(String identifier) {
     Hashtable<String, String> props = new Hashtable<>();
-    props.put("Identifier", IDENTIFIER);
+    props.put("Identifier", identifier);
     return props;
   }
 
   @Override
   protected List<ServicePointer<?>> dependencies() {
-    return Collections.emptyList();
+    // Only the tenant manager needs those, so we don't wait for them otherwise.
+    return IS_TENANT_ENABLED ? Arrays.asList(configStore, metrics) : Collections.emptyList();
   }
 }
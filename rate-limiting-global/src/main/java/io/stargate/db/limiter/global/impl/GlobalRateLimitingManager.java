@@ -101,7 +101,7 @@ public class GlobalRateLimitingManager implements RateLimitingManager, Connectio
     // Nothing specific to users.
   }
 
-  private static boolean shouldExclude(String query) {
+  static boolean shouldExclude(String query) {
     // TODO: this is a horrible horrible hack. As we only pass strings through `Persistence`, we
     //   have no simple reliable way to know the keyspace or table queried. But if we want to use
     //   this for testing somewhat reliably, we need to be able to exclude the bunch of system table
@@ -0,0 +1,82 @@
+package io.stargate.db.limiter.global.impl;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import io.stargate.db.limiter.AsyncRateLimiter;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A rate limiter for one bucket of a {@link TenantRateLimitingManager} (the global one, or the one
+ * of a particular tenant or user), that records its throttling in metrics.
+ *
+ * <p>The metrics of a bucket are registered under {@code <level>.<key>}, and comprise the rate of
+ * permits acquired ({@code permits}), the number of tasks that had to wait for their permits
+ * ({@code throttled}) and how long they waited ({@code delay}).
+ */
+class RateLimitingBucket extends AsyncRateLimiter {
+  private static final long THROTTLED_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final MetricRegistry metrics;
+  private final String metricsPrefix;
+  private final Meter permits;
+  private final Counter throttled;
+  private final Timer delay;
+
+  private volatile long lastUsedNanos = System.nanoTime();
+
+  RateLimitingBucket(
+      ScheduledExecutorService executor,
+      long rate,
+      MetricRegistry metrics,
+      String level,
+      String key) {
+    super(executor, rate, TimeUnit.SECONDS, 1, TimeUnit.MINUTES);
+    this.metrics = metrics;
+    // Dots separate the components of metric names, so they would make the prefix ambiguous.
+    this.metricsPrefix = name(level, key.replace('.', '_'));
+    this.permits = metrics.meter(name(metricsPrefix, "permits"));
+    this.throttled = metrics.counter(name(metricsPrefix, "throttled"));
+    this.delay = metrics.timer(name(metricsPrefix, "delay"));
+  }
+
+  @Override
+  public <T> CompletableFuture<T> acquireAndExecute(
+      long permits, Supplier<CompletableFuture<T>> task) {
+    long start = System.nanoTime();
+    markUsed(start);
+    this.permits.mark(permits);
+    return super.acquireAndExecute(
+        permits,
+        () -> {
+          long waited = System.nanoTime() - start;
+          if (waited >= THROTTLED_THRESHOLD_NANOS) {
+            throttled.inc();
+            delay.update(Duration.ofNanos(waited));
+          }
+          return task.get();
+        });
+  }
+
+  /** Records that this bucket is used at the provided time, so it's not considered idle. */
+  void markUsed(long nowNanos) {
+    lastUsedNanos = nowNanos;
+  }
+
+  /** Whether this bucket has not been used for at least the provided time. */
+  boolean isIdle(long idleNanos, long nowNanos) {
+    return nowNanos - lastUsedNanos >= idleNanos;
+  }
+
+  /** Removes the metrics of this bucket, once it is not used anymore. */
+  void unregisterMetrics() {
+    metrics.removeMatching((name, metric) -> name.startsWith(metricsPrefix + "."));
+  }
+}
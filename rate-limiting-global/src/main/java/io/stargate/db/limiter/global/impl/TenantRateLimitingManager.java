@@ -0,0 +1,313 @@
+package io.stargate.db.limiter.global.impl;
+
+import static java.lang.String.format;
+
+import com.codahale.metrics.MetricRegistry;
+import io.stargate.config.store.api.ConfigStore;
+import io.stargate.config.store.api.ConfigWithOverrides;
+import io.stargate.config.store.api.MissingModuleSettingsException;
+import io.stargate.db.AuthenticatedUser;
+import io.stargate.db.Batch;
+import io.stargate.db.ClientInfo;
+import io.stargate.db.Parameters;
+import io.stargate.db.SimpleStatement;
+import io.stargate.db.Statement;
+import io.stargate.db.limiter.RateLimitingDecision;
+import io.stargate.db.limiter.RateLimitingManager;
+import io.stargate.db.limiter.RateLimitingManager.ConnectionManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A rate limiting manager that limits the queries of each user and of each tenant, on top of a
+ * global limit.
+ *
+ * <p>Each query acquires permits on the bucket of its user, then on the one of its tenant, then on
+ * the global one, so that a user or tenant that exceeds its own limit is delayed before it uses any
+ * of the global capacity, and cannot starve the others. The tenant of a user is the value of its
+ * {@link #TENANT_PROPERTY} custom property, if any. Connections without logged user (internal
+ * queries) are only subject to the global limit.
+ *
+ * <p>The number of permits acquired by a query reflects its cost: executions acquire a permit per
+ * {@link #ROWS_PER_PERMIT} rows of their page size (and at least one), and batches a permit per
+ * statement.
+ *
+ * <p>The rates, in queries per second, are read from the {@link #CONFIG_MODULE} module of the
+ * config store (which can be overridden by system properties as usual, e.g. {@code
+ * rate_limiting.global_rate_qps}), and refreshed periodically so they can be changed without
+ * restart. A rate of 0 (the default) disables the corresponding limit.
+ *
+ * <p>Buckets that are not used for a while are dropped, along with their metrics.
+ */
+public class TenantRateLimitingManager implements RateLimitingManager {
+  private static final Logger logger = LoggerFactory.getLogger(TenantRateLimitingManager.class);
+
+  public static final String CONFIG_MODULE = "rate_limiting";
+  public static final String GLOBAL_RATE_SETTING = "global_rate_qps";
+  public static final String TENANT_RATE_SETTING = "tenant_rate_qps";
+  public static final String USER_RATE_SETTING = "user_rate_qps";
+
+  public static final String TENANT_PROPERTY =
+      System.getProperty("stargate.limiter.tenant.property", "tenant_id");
+  private static final int ROWS_PER_PERMIT =
+      Math.max(1, Integer.getInteger("stargate.limiter.tenant.rows_per_permit", 100));
+  private static final long CONFIG_REFRESH_SECS =
+      Long.getLong("stargate.limiter.tenant.config_refresh_seconds", 10);
+  private static final long IDLE_BUCKET_NANOS =
+      TimeUnit.MINUTES.toNanos(Long.getLong("stargate.limiter.tenant.idle_bucket_minutes", 10));
+  private static final int DELAYED_TASKS_EXECUTOR_THREADS =
+      Integer.getInteger("stargate.limiter.tenant.threads", 4);
+
+  private final ScheduledExecutorService executor;
+  private final Supplier<ConfigWithOverrides> config;
+  private final MetricRegistry metrics;
+
+  private volatile Rates rates;
+  private final RateLimitingBucket globalBucket;
+  private final ConcurrentMap<String, RateLimitingBucket> tenantBuckets = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, RateLimitingBucket> userBuckets = new ConcurrentHashMap<>();
+
+  public TenantRateLimitingManager(ConfigStore configStore, MetricRegistry metrics) {
+    this(
+        Executors.newScheduledThreadPool(DELAYED_TASKS_EXECUTOR_THREADS),
+        () -> moduleConfig(configStore),
+        metrics);
+  }
+
+  public TenantRateLimitingManager(
+      ScheduledExecutorService executor,
+      Supplier<ConfigWithOverrides> config,
+      MetricRegistry metrics) {
+    this.executor = executor;
+    this.config = config;
+    this.metrics = metrics;
+    this.rates = Rates.read(config.get(), Rates.UNLIMITED);
+    // A rate of 0 is not valid for a limiter, but the global bucket is not used in that case.
+    this.globalBucket =
+        new RateLimitingBucket(executor, Math.max(1, rates.global), metrics, "global", "all");
+    executor.scheduleWithFixedDelay(
+        this::refresh, CONFIG_REFRESH_SECS, CONFIG_REFRESH_SECS, TimeUnit.SECONDS);
+  }
+
+  private static ConfigWithOverrides moduleConfig(ConfigStore configStore) {
+    try {
+      return configStore.getConfigForModule(CONFIG_MODULE);
+    } catch (MissingModuleSettingsException e) {
+      // Only the overrides apply then.
+      return new ConfigWithOverrides(Collections.emptyMap(), CONFIG_MODULE);
+    }
+  }
+
+  /** Re-reads the rates, applying any change to the existing buckets, and drops idle buckets. */
+  void refresh() {
+    try {
+      Rates previous = rates;
+      Rates current = Rates.read(config.get(), previous);
+      if (!current.equals(previous)) {
+        logger.info("Updating rate limits: {}", current);
+        rates = current;
+        if (current.global > 0) {
+          globalBucket.setRate(current.global, TimeUnit.SECONDS);
+        }
+        updateRates(tenantBuckets, current.tenant);
+        updateRates(userBuckets, current.user);
+      }
+      evictIdle(System.nanoTime());
+    } catch (Exception e) {
+      // Don't let the failure cancel the next refreshes
+      logger.warn("Error while refreshing rate limits", e);
+    }
+  }
+
+  private static void updateRates(Map<String, RateLimitingBucket> buckets, long rate) {
+    if (rate > 0) {
+      for (RateLimitingBucket bucket : buckets.values()) {
+        bucket.setRate(rate, TimeUnit.SECONDS);
+      }
+    }
+  }
+
+  /**
+   * Drops the buckets that have been idle for {@link #IDLE_BUCKET_NANOS}.
+   *
+   * <p>Each bucket is checked and removed atomically with respect to {@link #bucket}, which marks
+   * the buckets it returns as used, so a bucket that was just handed out to a query is never
+   * dropped.
+   */
+  private static void evictIdle(ConcurrentMap<String, RateLimitingBucket> buckets, long now) {
+    for (String key : buckets.keySet()) {
+      buckets.computeIfPresent(
+          key,
+          (k, bucket) -> {
+            if (bucket.isIdle(IDLE_BUCKET_NANOS, now)) {
+              bucket.unregisterMetrics();
+              return null;
+            }
+            return bucket;
+          });
+    }
+  }
+
+  /** Drops the buckets that are idle at the provided time (exposed for testing). */
+  void evictIdle(long now) {
+    evictIdle(tenantBuckets, now);
+    evictIdle(userBuckets, now);
+  }
+
+  int bucketCount() {
+    return tenantBuckets.size() + userBuckets.size();
+  }
+
+  @Override
+  public String description() {
+    return format("tenant rate limiting (%s)", rates);
+  }
+
+  @Override
+  public ConnectionManager forNewConnection() {
+    return new TenantConnectionManager();
+  }
+
+  @Override
+  public ConnectionManager forNewConnection(ClientInfo clientInfo) {
+    return new TenantConnectionManager();
+  }
+
+  RateLimitingDecision decide(@Nullable AuthenticatedUser user, long permits) {
+    Rates current = rates;
+    List<RateLimitingBucket> buckets = new ArrayList<>(3);
+    if (user != null) {
+      if (current.user > 0) {
+        buckets.add(bucket(userBuckets, "user", user.name(), current.user));
+      }
+      String tenant = user.customProperties().get(TENANT_PROPERTY);
+      if (tenant != null && current.tenant > 0) {
+        buckets.add(bucket(tenantBuckets, "tenant", tenant, current.tenant));
+      }
+    }
+    if (current.global > 0) {
+      buckets.add(globalBucket);
+    }
+    return RateLimitingDecision.limitAll(buckets, permits);
+  }
+
+  private RateLimitingBucket bucket(
+      ConcurrentMap<String, RateLimitingBucket> buckets, String level, String key, long rate) {
+    return buckets.compute(
+        key,
+        (k, existing) -> {
+          RateLimitingBucket bucket =
+              existing == null
+                  ? new RateLimitingBucket(executor, rate, metrics, level, k)
+                  : existing;
+          bucket.markUsed(System.nanoTime());
+          return bucket;
+        });
+  }
+
+  private static long executionCost(Parameters parameters) {
+    int pageSize = parameters.pageSize().orElse(0);
+    return Math.max(1, (pageSize + ROWS_PER_PERMIT - 1) / ROWS_PER_PERMIT);
+  }
+
+  private class TenantConnectionManager implements ConnectionManager {
+    private volatile AuthenticatedUser user;
+
+    @Override
+    public void onUserLogged(AuthenticatedUser user) {
+      this.user = user;
+    }
+
+    @Override
+    public RateLimitingDecision forPrepare(String query, Parameters parameters) {
+      if (GlobalRateLimitingManager.shouldExclude(query)) {
+        return RateLimitingDecision.unlimited();
+      }
+      return decide(user, 1);
+    }
+
+    @Override
+    public RateLimitingDecision forExecute(Statement statement, Parameters parameters) {
+      if (statement instanceof SimpleStatement
+          && GlobalRateLimitingManager.shouldExclude(((SimpleStatement) statement).queryString())) {
+        return RateLimitingDecision.unlimited();
+      }
+      return decide(user, executionCost(parameters));
+    }
+
+    @Override
+    public RateLimitingDecision forBatch(Batch batch, Parameters parameters) {
+      return decide(user, batch.size());
+    }
+  }
+
+  /** The rates of each level of buckets, in queries per second. */
+  static final class Rates {
+    static final Rates UNLIMITED = new Rates(0, 0, 0);
+
+    final long global;
+    final long tenant;
+    final long user;
+
+    Rates(long global, long tenant, long user) {
+      this.global = global;
+      this.tenant = tenant;
+      this.user = user;
+    }
+
+    /** Reads the rates from the provided config, keeping the previous value of invalid ones. */
+    static Rates read(ConfigWithOverrides config, Rates previous) {
+      return new Rates(
+          read(config, GLOBAL_RATE_SETTING, previous.global),
+          read(config, TENANT_RATE_SETTING, previous.tenant),
+          read(config, USER_RATE_SETTING, previous.user));
+    }
+
+    private static long read(ConfigWithOverrides config, String setting, long previous) {
+      String value = config.getWithOverrides(setting);
+      if (value == null || value.isEmpty()) {
+        return 0;
+      }
+      try {
+        return Math.max(0, Long.parseLong(value));
+      } catch (NumberFormatException e) {
+        logger.warn(
+            "Invalid value for rate limiting setting '{}': expected a number, but got {}",
+            setting,
+            value);
+        return previous;
+      }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Rates that = (Rates) o;
+      return global == that.global && tenant == that.tenant && user == that.user;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(global) * 31 * 31 + Long.hashCode(tenant) * 31 + Long.hashCode(user);
+    }
+
+    @Override
+    public String toString() {
+      return format(
+          "global: %d, per tenant: %d, per user: %d queries/seconds (0 for unlimited)",
+          global, tenant, user);
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package io.stargate.db.limiter.global.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codahale.metrics.MetricRegistry;
+import io.stargate.config.store.api.ConfigWithOverrides;
+import io.stargate.db.AuthenticatedUser;
+import io.stargate.db.limiter.RateLimitingDecision;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class TenantRateLimitingManagerTest {
+
+  private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+  private final Map<String, Object> settings = new HashMap<>();
+  private final MetricRegistry metrics = new MetricRegistry();
+  private final TenantRateLimitingManager manager =
+      new TenantRateLimitingManager(
+          executor,
+          () ->
+              new ConfigWithOverrides(
+                  new HashMap<>(settings), TenantRateLimitingManager.CONFIG_MODULE),
+          metrics);
+
+  private static final AuthenticatedUser USER =
+      AuthenticatedUser.of(
+          "user",
+          "token",
+          false,
+          Collections.singletonMap(TenantRateLimitingManager.TENANT_PROPERTY, "tenant1"));
+
+  @AfterEach
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldNotLimitByDefault() {
+    assertThat(manager.decide(USER, 1)).isSameAs(RateLimitingDecision.unlimited());
+  }
+
+  @Test
+  public void shouldLimitOnEachLevel() {
+    settings.put(TenantRateLimitingManager.GLOBAL_RATE_SETTING, 1000);
+    settings.put(TenantRateLimitingManager.TENANT_RATE_SETTING, 100);
+    settings.put(TenantRateLimitingManager.USER_RATE_SETTING, 10);
+    manager.refresh();
+
+    RateLimitingDecision decision = manager.decide(USER, 2);
+    assertThat(decision).isInstanceOf(RateLimitingDecision.LimitedAll.class);
+    CompletableFuture<String> result =
+        decision.apply(() -> CompletableFuture.completedFuture("done"));
+
+    assertThat(result).isCompletedWithValue("done");
+    assertThat(manager.bucketCount()).isEqualTo(2);
+    assertThat(metrics.meter("user.user.permits").getCount()).isEqualTo(2);
+    assertThat(metrics.meter("tenant.tenant1.permits").getCount()).isEqualTo(2);
+    assertThat(metrics.meter("global.all.permits").getCount()).isEqualTo(2);
+    // Internal queries are only subject to the global limit
+    assertThat(manager.decide(null, 1)).isInstanceOf(RateLimitingDecision.Limited.class);
+  }
+
+  @Test
+  public void shouldApplyRateChanges() {
+    settings.put(TenantRateLimitingManager.USER_RATE_SETTING, 10);
+    manager.refresh();
+    assertThat(manager.description()).contains("per user: 10");
+    assertThat(manager.decide(USER, 1)).isInstanceOf(RateLimitingDecision.Limited.class);
+
+    settings.put(TenantRateLimitingManager.USER_RATE_SETTING, "invalid");
+    manager.refresh();
+    assertThat(manager.description()).contains("per user: 10");
+
+    settings.remove(TenantRateLimitingManager.USER_RATE_SETTING);
+    manager.refresh();
+    assertThat(manager.decide(USER, 1)).isSameAs(RateLimitingDecision.unlimited());
+  }
+
+  @Test
+  public void shouldDropIdleBuckets() {
+    settings.put(TenantRateLimitingManager.TENANT_RATE_SETTING, 100);
+    settings.put(TenantRateLimitingManager.USER_RATE_SETTING, 10);
+    manager.refresh();
+    manager.decide(USER, 1).apply(() -> CompletableFuture.completedFuture("done"));
+    assertThat(manager.bucketCount()).isEqualTo(2);
+
+    manager.evictIdle(System.nanoTime());
+    assertThat(manager.bucketCount()).isEqualTo(2);
+
+    manager.evictIdle(System.nanoTime() + TimeUnit.HOURS.toNanos(1));
+    assertThat(manager.bucketCount()).isZero();
+    assertThat(metrics.getMeters())
+        .doesNotContainKeys("user.user.permits", "tenant.tenant1.permits");
+
+    // The buckets are re-created by the next queries.
+    manager.decide(USER, 1);
+    assertThat(manager.bucketCount()).isEqualTo(2);
+  }
+}
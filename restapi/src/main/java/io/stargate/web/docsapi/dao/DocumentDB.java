@@ -14,11 +14,14 @@ import io.stargate.db.ImmutableParameters;
 import io.stargate.db.Parameters;
 import io.stargate.db.datastore.DataStore;
 import io.stargate.db.datastore.ResultSet;
+import io.stargate.db.datastore.Row;
 import io.stargate.db.query.BoundQuery;
 import io.stargate.db.query.Predicate;
 import io.stargate.db.query.TypedValue;
 import io.stargate.db.query.builder.BuiltCondition;
+import io.stargate.db.query.builder.BuiltQuery;
 import io.stargate.db.query.builder.QueryBuilder;
+import io.stargate.db.query.builder.QueryTemplates;
 import io.stargate.db.query.builder.ValueModifier;
 import io.stargate.db.schema.Column;
 import io.stargate.db.schema.Column.Kind;
@@ -29,9 +32,12 @@ import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.apache.cassandra.stargate.db.ConsistencyLevel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,16 +50,24 @@ public class DocumentDB {
   private static final List<Column.ColumnType> allColumnTypes;
   private static final List<String> allPathColumnNames;
   private static final List<Column.ColumnType> allPathColumnTypes;
+  // The columns to select for each read depth, from 0 to MAX_DEPTH.
+  private static final List<List<Column>> columnsByReadDepth;
   public static final Integer MAX_DEPTH = Integer.getInteger("stargate.document_max_depth", 64);
   private Boolean useLoggedBatches;
   public static final Integer SEARCH_PAGE_SIZE =
       Integer.getInteger("stargate.document_search_page_size", 1000);
+  // Reads only select the path columns up to the depth of the documents of a collection (see
+  // readDepth), which starts at this value. Setting it to document_max_depth reads all of them.
+  public static final Integer INITIAL_READ_DEPTH =
+      Math.max(1, Integer.getInteger("stargate.document_initial_read_depth", 8));
 
   // All array elements will be represented as 6 digits, so they get left-padded, such as [000010]
   // instead of [10]
   public static final Integer MAX_ARRAY_LENGTH =
       Integer.getInteger("stargate.document_max_array_len", 1000000);
   public static final String GLOB_VALUE = "*";
+  /** The alias of the token of the document key, selected along with the rows of documents. */
+  public static final String TOKEN_COLUMN = "key_token";
 
   public static final String ROOT_DOC_MARKER = "DOCROOT-a9fb1f04-0394-4c74-b77b-49b4e0ef7900";
   public static final String EMPTY_OBJECT_MARKER = "EMPTYOBJ-bccbeee1-6173-4120-8492-7d7bafaefb1f";
@@ -66,6 +80,20 @@ public class DocumentDB {
   final DataStore dataStore;
   private final AuthorizationService authorizationService;
   private final AuthenticationSubject authenticationSubject;
+  private final DocumentReadDepths readDepths;
+
+  // The statements of document writes are built once per table and shape, and then only bound:
+  // a document with thousands of leaves is written with as many inserts.
+  private final QueryTemplates<StatementShape> insertTemplates =
+      new QueryTemplates<>(this::buildInsertTemplate);
+  private final QueryTemplates<StatementShape> prefixDeleteTemplates =
+      new QueryTemplates<>(this::buildPrefixDeleteTemplate);
+  private final QueryTemplates<StatementShape> subpathArrayDeleteTemplates =
+      new QueryTemplates<>(this::buildSubpathArrayDeleteTemplate);
+  private final QueryTemplates<StatementShape> pathKeysDeleteTemplates =
+      new QueryTemplates<>(this::buildPathKeysDeleteTemplate);
+  private final QueryTemplates<StatementShape> exactPathDeleteTemplates =
+      new QueryTemplates<>(shape -> buildDeleteTemplate(shape, pathConditions(MAX_DEPTH, 0)));
 
   static {
     allColumns = new ArrayList<>();
@@ -96,6 +124,15 @@ public class DocumentDB {
     allColumnTypes.add(Type.Boolean);
     allColumns.add(Column.create("bool_value", Type.Boolean));
 
+    columnsByReadDepth = new ArrayList<>(MAX_DEPTH + 1);
+    List<Column> valueColumns = allColumns.subList(MAX_DEPTH + 1, allColumns.size());
+    for (int depth = 0; depth <= MAX_DEPTH; depth++) {
+      List<Column> columns =
+          new ArrayList<>(allColumns.subList(0, Math.min(depth + 1, MAX_DEPTH) + 1));
+      columns.addAll(valueColumns);
+      columnsByReadDepth.add(Collections.unmodifiableList(columns));
+    }
+
     forbiddenCharacters = ImmutableList.of('[', ']', ',', '.', '\'', '*');
 
     if (MAX_ARRAY_LENGTH > 1000000) {
@@ -108,9 +145,18 @@ public class DocumentDB {
       DataStore dataStore,
       AuthenticationSubject authenticationSubject,
       AuthorizationService authorizationService) {
+    this(dataStore, authenticationSubject, authorizationService, new DocumentReadDepths());
+  }
+
+  public DocumentDB(
+      DataStore dataStore,
+      AuthenticationSubject authenticationSubject,
+      AuthorizationService authorizationService,
+      DocumentReadDepths readDepths) {
     this.dataStore = dataStore;
     this.authenticationSubject = authenticationSubject;
     this.authorizationService = authorizationService;
+    this.readDepths = readDepths;
     useLoggedBatches =
         Boolean.parseBoolean(
             System.getProperty(
@@ -129,6 +175,10 @@ public class DocumentDB {
     return authenticationSubject;
   }
 
+  public boolean supportsSAI() {
+    return dataStore.supportsSAI();
+  }
+
   public boolean treatBooleansAsNumeric() {
     return !dataStore.supportsSecondaryIndex();
   }
@@ -316,32 +366,39 @@ public class DocumentDB {
 
   public void deleteTable(String keyspaceName, String tableName)
       throws InterruptedException, ExecutionException {
+    readDepths.forget(keyspaceName, tableName);
     dataStore.queryBuilder().drop().table(keyspaceName, tableName).build().execute().get();
   }
 
   public void executeBatch(Collection<BoundQuery> queries) {
+    executeBatchAsync(queries).join();
+  }
+
+  public CompletableFuture<ResultSet> executeBatchAsync(Collection<BoundQuery> queries) {
     if (useLoggedBatches) {
-      dataStore.batch(queries, ConsistencyLevel.LOCAL_QUORUM).join();
+      return dataStore.batch(queries, ConsistencyLevel.LOCAL_QUORUM);
     } else {
-      dataStore.unloggedBatch(queries, ConsistencyLevel.LOCAL_QUORUM).join();
+      return dataStore.unloggedBatch(queries, ConsistencyLevel.LOCAL_QUORUM);
     }
   }
 
   public ResultSet executeSelect(
       String keyspace, String collection, List<BuiltCondition> predicates)
       throws UnauthorizedException {
+    return executeSelectAsync(keyspace, collection, predicates).join();
+  }
+
+  /**
+   * Same as {@link #executeSelect(String, String, List)}, but without waiting for the query to
+   * complete. Authorization is still checked before returning.
+   */
+  public CompletableFuture<ResultSet> executeSelectAsync(
+      String keyspace, String collection, List<BuiltCondition> predicates)
+      throws UnauthorizedException {
     // Run generic authorizeDataRead for now
     getAuthorizationService()
         .authorizeDataRead(getAuthenticationSubject(), keyspace, collection, SourceAPI.REST);
-    return this.builder()
-        .select()
-        .column(DocumentDB.allColumns())
-        .writeTimeColumn("leaf")
-        .from(keyspace, collection)
-        .where(predicates)
-        .build()
-        .execute()
-        .join();
+    return select(keyspace, collection, predicates, false, null, true);
   }
 
   public ResultSet executeSelect(
@@ -356,15 +413,7 @@ public class DocumentDB {
         .authorizeDataRead(getAuthenticationSubject(), keyspace, collection, SourceAPI.REST);
     UnaryOperator<Parameters> parametersModifier =
         p -> ImmutableParameters.builder().pageSize(pageSize).pagingState(pageState).build();
-    return this.builder()
-        .select()
-        .column(DocumentDB.allColumns())
-        .writeTimeColumn("leaf")
-        .from(keyspace, collection)
-        .where(predicates)
-        .build()
-        .execute(parametersModifier)
-        .join();
+    return select(keyspace, collection, predicates, false, parametersModifier, false).join();
   }
 
   public ResultSet executeSelect(
@@ -374,16 +423,7 @@ public class DocumentDB {
     getAuthorizationService()
         .authorizeDataRead(getAuthenticationSubject(), keyspace, collection, SourceAPI.REST);
 
-    return this.builder()
-        .select()
-        .column(DocumentDB.allColumns())
-        .writeTimeColumn("leaf")
-        .from(keyspace, collection)
-        .where(predicates)
-        .allowFiltering(allowFiltering)
-        .build()
-        .execute()
-        .join();
+    return select(keyspace, collection, predicates, allowFiltering, null, true).join();
   }
 
   public ResultSet executeSelect(
@@ -394,27 +434,33 @@ public class DocumentDB {
       int pageSize,
       ByteBuffer pageState)
       throws UnauthorizedException {
+    return executeSelectAsync(keyspace, collection, predicates, allowFiltering, pageSize, pageState)
+        .join();
+  }
+
+  /**
+   * Selects a single page of rows, which should be consumed through {@link
+   * ResultSet#currentPageRows()}: only the path columns of that page are known to be complete (see
+   * {@link #readDepth}).
+   */
+  public CompletableFuture<ResultSet> executeSelectAsync(
+      String keyspace,
+      String collection,
+      List<BuiltCondition> predicates,
+      boolean allowFiltering,
+      int pageSize,
+      ByteBuffer pageState)
+      throws UnauthorizedException {
     // Run generic authorizeDataRead for now
     getAuthorizationService()
         .authorizeDataRead(getAuthenticationSubject(), keyspace, collection, SourceAPI.REST);
-    UnaryOperator<Parameters> parametersModifier =
-        p -> {
-          if (pageState != null) {
-            return ImmutableParameters.builder().pageSize(pageSize).pagingState(pageState).build();
-          } else {
-            return ImmutableParameters.builder().pageSize(pageSize).build();
-          }
-        };
-    return this.builder()
-        .select()
-        .column(DocumentDB.allColumns())
-        .writeTimeColumn("leaf")
-        .from(keyspace, collection)
-        .where(predicates)
-        .allowFiltering(allowFiltering)
-        .build()
-        .execute(parametersModifier)
-        .join();
+    return select(
+        keyspace,
+        collection,
+        predicates,
+        allowFiltering,
+        pageParameters(pageSize, pageState),
+        false);
   }
 
   public ResultSet executeSelectAll(String keyspace, String collection)
@@ -423,56 +469,204 @@ public class DocumentDB {
     getAuthorizationService()
         .authorizeDataRead(getAuthenticationSubject(), keyspace, collection, SourceAPI.REST);
 
-    return this.builder()
-        .select()
-        .column(DocumentDB.allColumns())
-        .writeTimeColumn("leaf")
-        .from(keyspace, collection)
-        .build()
-        .execute()
-        .join();
+    return select(keyspace, collection, Collections.emptyList(), false, null, true).join();
   }
 
   public ResultSet executeSelectAll(
       String keyspace, String collection, int pageSize, ByteBuffer pageState)
       throws UnauthorizedException {
+    return executeSelectAllAsync(keyspace, collection, pageSize, pageState).join();
+  }
+
+  /** Same as the paged {@link #executeSelectAsync}, without predicates. */
+  public CompletableFuture<ResultSet> executeSelectAllAsync(
+      String keyspace, String collection, int pageSize, ByteBuffer pageState)
+      throws UnauthorizedException {
     // Run generic authorizeDataRead for now
     getAuthorizationService()
         .authorizeDataRead(getAuthenticationSubject(), keyspace, collection, SourceAPI.REST);
-    UnaryOperator<Parameters> parametersModifier =
-        p -> {
-          if (pageState != null) {
-            return ImmutableParameters.builder().pageSize(pageSize).pagingState(pageState).build();
-          } else {
-            return ImmutableParameters.builder().pageSize(pageSize).build();
-          }
-        };
+    return select(
+        keyspace,
+        collection,
+        Collections.emptyList(),
+        false,
+        pageParameters(pageSize, pageState),
+        false);
+  }
 
-    return this.builder()
-        .select()
-        .column(DocumentDB.allColumns())
-        .writeTimeColumn("leaf")
-        .from(keyspace, collection)
-        .build()
-        .execute(parametersModifier)
-        .join();
+  private static UnaryOperator<Parameters> pageParameters(int pageSize, ByteBuffer pageState) {
+    return p -> {
+      if (pageState != null) {
+        return ImmutableParameters.builder().pageSize(pageSize).pagingState(pageState).build();
+      } else {
+        return ImmutableParameters.builder().pageSize(pageSize).build();
+      }
+    };
+  }
+
+  /**
+   * Selects the rows of a collection, with only the path columns up to its {@link #readDepth}.
+   *
+   * <p>The rows read are checked against that depth (either the rows of all pages if @param
+   * allPages, or the ones of the first page), and if a row turns out to be deeper, the depth of the
+   * collection is raised and the query re-executed.
+   */
+  private CompletableFuture<ResultSet> select(
+      String keyspace,
+      String collection,
+      List<BuiltCondition> predicates,
+      boolean allowFiltering,
+      @Nullable UnaryOperator<Parameters> parametersModifier,
+      boolean allPages) {
+    int depth = readDepth(keyspace, collection);
+    BuiltQuery<?> query =
+        this.builder()
+            .select()
+            .column(columnsByReadDepth.get(depth))
+            .writeTimeColumn("leaf")
+            .tokenColumn(TOKEN_COLUMN)
+            .from(keyspace, collection)
+            .where(predicates)
+            .allowFiltering(allowFiltering)
+            .build();
+    CompletableFuture<ResultSet> result =
+        parametersModifier == null ? query.execute() : query.execute(parametersModifier);
+    return result.thenCompose(
+        rs -> {
+          // The rows of a page can only be consumed once, so the ones checked are returned.
+          CompletionStage<List<Row>> rows =
+              allPages ? rs.rowsAsync() : CompletableFuture.completedFuture(rs.currentPageRows());
+          return rows.thenCompose(
+              checked -> {
+                if (!exceedsReadDepth(checked, depth)) {
+                  return CompletableFuture.completedFuture(
+                      new FetchedResultSet(checked, allPages ? null : rs.getPagingState()));
+                }
+                int deeper = Math.min(MAX_DEPTH, depth * 2);
+                logger.debug(
+                    "Rows of {}.{} deeper than {}, reading up to depth {}",
+                    keyspace,
+                    collection,
+                    depth,
+                    deeper);
+                observeDepth(keyspace, collection, deeper);
+                return select(
+                    keyspace, collection, predicates, allowFiltering, parametersModifier, allPages);
+              });
+        });
+  }
+
+  /**
+   * The number of path columns read from the rows of a collection, along with the column right
+   * after them, which is then expected to be empty in all rows.
+   *
+   * <p>It is the deepest path observed in the collection by this node (through writes, or reads
+   * finding deeper rows), and at least {@link #INITIAL_READ_DEPTH}.
+   */
+  public int readDepth(String keyspace, String collection) {
+    return readDepths.get(keyspace, collection);
+  }
+
+  private void observeDepth(String keyspace, String collection, int depth) {
+    readDepths.observe(keyspace, collection, depth);
+  }
+
+  private static boolean exceedsReadDepth(List<Row> rows, int depth) {
+    if (depth >= MAX_DEPTH) {
+      return false;
+    }
+    String nextColumn = allPathColumnNames.get(depth);
+    for (Row row : rows) {
+      String next = row.getString(nextColumn);
+      if (next != null && !next.isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The rows of a query, fetched before being returned: either the rows of all its pages, or the
+   * rows of a single page along with the paging state of the next one.
+   */
+  private static class FetchedResultSet implements ResultSet {
+    private final List<Row> rows;
+    private final @Nullable ByteBuffer pagingState;
+    private int next;
+
+    private FetchedResultSet(List<Row> rows, @Nullable ByteBuffer pagingState) {
+      this.rows = rows;
+      this.pagingState = pagingState;
+    }
+
+    @Override
+    public ResultSet withRowInspector(java.util.function.Predicate<Row> authzFilter) {
+      return new FetchedResultSet(
+          rows.stream().filter(authzFilter::test).collect(Collectors.toList()), pagingState);
+    }
+
+    @Override
+    public Iterator<Row> iterator() {
+      return new Iterator<Row>() {
+        @Override
+        public boolean hasNext() {
+          return next < rows.size();
+        }
+
+        @Override
+        public Row next() {
+          return one();
+        }
+      };
+    }
+
+    @Override
+    public Row one() {
+      if (next >= rows.size()) {
+        throw new NoSuchElementException();
+      }
+      return rows.get(next++);
+    }
+
+    @Override
+    public List<Row> rows() {
+      List<Row> remaining = new ArrayList<>(rows.subList(next, rows.size()));
+      next = rows.size();
+      return remaining;
+    }
+
+    @Override
+    public List<Row> currentPageRows() {
+      return rows;
+    }
+
+    @Override
+    public boolean hasNoMoreFetchedRows() {
+      return next >= rows.size();
+    }
+
+    @Override
+    public ByteBuffer getPagingState() {
+      return pagingState;
+    }
   }
 
   public BoundQuery getInsertStatement(
       String keyspaceName, String tableName, long microsTimestamp, Object[] columnValues) {
-
-    List<ValueModifier> modifiers = new ArrayList<>(columnValues.length);
-    for (int i = 0; i < columnValues.length; i++) {
-      modifiers.add(ValueModifier.set(allColumnNames.get(i), columnValues[i]));
+    int depth = 0;
+    while (depth < MAX_DEPTH
+        && depth + 1 < columnValues.length
+        && !"".equals(columnValues[depth + 1])) {
+      depth++;
     }
+    if (depth > INITIAL_READ_DEPTH) {
+      observeDepth(keyspaceName, tableName, depth);
+    }
+    Object[] values = Arrays.copyOf(columnValues, columnValues.length + 1);
+    values[columnValues.length] = microsTimestamp;
     BoundQuery query =
-        dataStore
-            .queryBuilder()
-            .insertInto(keyspaceName, tableName)
-            .value(modifiers)
-            .timestamp(microsTimestamp)
-            .build()
-            .bind();
+        insertTemplates.bind(
+            new StatementShape(keyspaceName, tableName, columnValues.length), values);
     logger.debug(query.toString());
     return query;
   }
@@ -485,20 +679,11 @@ public class DocumentDB {
       long microsTimestamp,
       List<String> pathPrefixToDelete) {
 
-    List<BuiltCondition> where = new ArrayList<>(1 + pathPrefixToDelete.size());
-    where.add(BuiltCondition.of("key", Predicate.EQ, key));
-    for (int i = 0; i < pathPrefixToDelete.size(); i++) {
-      where.add(BuiltCondition.of("p" + i, Predicate.EQ, pathPrefixToDelete.get(i)));
-    }
+    int pathSize = pathPrefixToDelete.size();
     BoundQuery query =
-        dataStore
-            .queryBuilder()
-            .delete()
-            .from(keyspaceName, tableName)
-            .timestamp(microsTimestamp)
-            .where(where)
-            .build()
-            .bind();
+        prefixDeleteTemplates.bind(
+            new StatementShape(keyspaceName, tableName, pathSize),
+            deleteValues(microsTimestamp, key, pathPrefixToDelete, 0));
     logger.debug(query.toString());
     return query;
   }
@@ -516,23 +701,13 @@ public class DocumentDB {
       List<String> pathToDelete) {
 
     int pathSize = pathToDelete.size();
-    List<BuiltCondition> where = new ArrayList<>(3 + pathSize);
-    where.add(BuiltCondition.of("key", Predicate.EQ, key));
-    for (int i = 0; i < pathSize; i++) {
-      where.add(BuiltCondition.of("p" + i, Predicate.EQ, pathToDelete.get(i)));
-    }
+    Object[] values = deleteValues(microsTimestamp, key, pathToDelete, 2);
     // Delete array paths with a range tombstone
-    where.add(BuiltCondition.of("p" + pathSize, Predicate.GTE, "[000000]"));
-    where.add(BuiltCondition.of("p" + pathSize, Predicate.LTE, "[999999]"));
+    values[values.length - 2] = "[000000]";
+    values[values.length - 1] = "[999999]";
     BoundQuery query =
-        dataStore
-            .queryBuilder()
-            .delete()
-            .from(keyspaceName, tableName)
-            .timestamp(microsTimestamp)
-            .where(where)
-            .build()
-            .bind();
+        subpathArrayDeleteTemplates.bind(
+            new StatementShape(keyspaceName, tableName, pathSize), values);
     logger.debug(query.toString());
     return query;
   }
@@ -550,23 +725,17 @@ public class DocumentDB {
       List<String> keysToDelete) {
 
     int pathSize = pathToDelete.size();
-    List<BuiltCondition> where = new ArrayList<>(3 + pathSize);
-    where.add(BuiltCondition.of("key", Predicate.EQ, key));
-    for (int i = 0; i < pathSize; i++) {
-      where.add(BuiltCondition.of("p" + i, Predicate.EQ, pathToDelete.get(i)));
-    }
+    StatementShape shape = new StatementShape(keyspaceName, tableName, pathSize);
+    BoundQuery query;
     if (pathSize < MAX_DEPTH && !keysToDelete.isEmpty()) {
-      where.add(BuiltCondition.of("p" + pathSize, Predicate.IN, keysToDelete));
+      Object[] values = deleteValues(microsTimestamp, key, pathToDelete, 1);
+      values[values.length - 1] = keysToDelete;
+      query = pathKeysDeleteTemplates.bind(shape, values);
+    } else {
+      // Without keys, this is the same statement as a prefix delete.
+      query =
+          prefixDeleteTemplates.bind(shape, deleteValues(microsTimestamp, key, pathToDelete, 0));
     }
-    BoundQuery query =
-        dataStore
-            .queryBuilder()
-            .delete()
-            .from(keyspaceName, tableName)
-            .timestamp(microsTimestamp)
-            .where(where)
-            .build()
-            .bind();
     logger.debug(query.toString());
     return query;
   }
@@ -580,27 +749,114 @@ public class DocumentDB {
       List<String> pathToDelete) {
 
     int pathSize = pathToDelete.size();
-    List<BuiltCondition> where = new ArrayList<>(1 + MAX_DEPTH);
-    where.add(BuiltCondition.of("key", Predicate.EQ, key));
-    for (int i = 0; i < pathSize; i++) {
-      where.add(BuiltCondition.of("p" + i, Predicate.EQ, pathToDelete.get(i)));
-    }
-    for (int i = pathSize; i < MAX_DEPTH; i++) {
-      where.add(BuiltCondition.of("p" + i, Predicate.EQ, ""));
-    }
+    Object[] values = deleteValues(microsTimestamp, key, pathToDelete, MAX_DEPTH - pathSize);
+    Arrays.fill(values, 2 + pathSize, values.length, "");
+    // Every path column is restricted, so the statement does not depend on the path size.
     BoundQuery query =
-        dataStore
-            .queryBuilder()
-            .delete()
-            .from(keyspaceName, tableName)
-            .timestamp(microsTimestamp)
-            .where(where)
-            .build()
-            .bind();
+        exactPathDeleteTemplates.bind(
+            new StatementShape(keyspaceName, tableName, MAX_DEPTH), values);
     logger.debug(query.toString());
     return query;
   }
 
+  /**
+   * The values for the delete templates: the timestamp, the key and the path, followed by {@code
+   * extraValues} values left for the caller to set.
+   */
+  private static Object[] deleteValues(
+      long microsTimestamp, String key, List<String> path, int extraValues) {
+    Object[] values = new Object[2 + path.size() + extraValues];
+    values[0] = microsTimestamp;
+    values[1] = key;
+    for (int i = 0; i < path.size(); i++) {
+      values[2 + i] = path.get(i);
+    }
+    return values;
+  }
+
+  private BuiltQuery<?> buildInsertTemplate(StatementShape shape) {
+    List<ValueModifier> modifiers = new ArrayList<>(shape.size);
+    for (int i = 0; i < shape.size; i++) {
+      modifiers.add(ValueModifier.marker(allColumnNames.get(i)));
+    }
+    return dataStore
+        .queryBuilder()
+        .insertInto(shape.keyspace, shape.table)
+        .value(modifiers)
+        .timestamp()
+        .build();
+  }
+
+  // The conditions on the key and on the first `pathSize` path columns shared by all deletes.
+  private static List<BuiltCondition> pathConditions(int pathSize, int extraConditions) {
+    List<BuiltCondition> where = new ArrayList<>(1 + pathSize + extraConditions);
+    where.add(BuiltCondition.ofMarker("key", Predicate.EQ));
+    for (int i = 0; i < pathSize; i++) {
+      where.add(BuiltCondition.ofMarker("p" + i, Predicate.EQ));
+    }
+    return where;
+  }
+
+  private BuiltQuery<?> buildDeleteTemplate(StatementShape shape, List<BuiltCondition> where) {
+    return dataStore
+        .queryBuilder()
+        .delete()
+        .from(shape.keyspace, shape.table)
+        .timestamp()
+        .where(where)
+        .build();
+  }
+
+  private BuiltQuery<?> buildPrefixDeleteTemplate(StatementShape shape) {
+    return buildDeleteTemplate(shape, pathConditions(shape.size, 0));
+  }
+
+  private BuiltQuery<?> buildSubpathArrayDeleteTemplate(StatementShape shape) {
+    List<BuiltCondition> where = pathConditions(shape.size, 2);
+    where.add(BuiltCondition.ofMarker("p" + shape.size, Predicate.GTE));
+    where.add(BuiltCondition.ofMarker("p" + shape.size, Predicate.LTE));
+    return buildDeleteTemplate(shape, where);
+  }
+
+  private BuiltQuery<?> buildPathKeysDeleteTemplate(StatementShape shape) {
+    List<BuiltCondition> where = pathConditions(shape.size, 1);
+    where.add(BuiltCondition.ofMarker("p" + shape.size, Predicate.IN));
+    return buildDeleteTemplate(shape, where);
+  }
+
+  /**
+   * Identifies a statement template: the table it applies to, and its size (the number of values of
+   * an insert, or the length of the path of a delete).
+   */
+  private static final class StatementShape {
+    private final String keyspace;
+    private final String table;
+    private final int size;
+
+    private StatementShape(String keyspace, String table, int size) {
+      this.keyspace = keyspace;
+      this.table = table;
+      this.size = size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof StatementShape)) {
+        return false;
+      }
+      StatementShape that = (StatementShape) o;
+      return size == that.size && keyspace.equals(that.keyspace) && table.equals(that.table);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(keyspace, table, size);
+    }
+  }
+
   /**
    * Performs a delete of all the rows that are prefixed by the @param path, and then does an insert
    * using the @param vars provided, all in one batch.
@@ -613,6 +869,17 @@ public class DocumentDB {
       List<String> pathToDelete,
       long microsSinceEpoch)
       throws UnauthorizedException {
+    deleteThenInsertBatchAsync(keyspace, table, key, vars, pathToDelete, microsSinceEpoch).join();
+  }
+
+  public CompletableFuture<ResultSet> deleteThenInsertBatchAsync(
+      String keyspace,
+      String table,
+      String key,
+      List<Object[]> vars,
+      List<String> pathToDelete,
+      long microsSinceEpoch)
+      throws UnauthorizedException {
 
     List<BoundQuery> queries = new ArrayList<>(1 + vars.size());
     queries.add(getPrefixDeleteStatement(keyspace, table, key, microsSinceEpoch - 1, pathToDelete));
@@ -627,7 +894,7 @@ public class DocumentDB {
     getAuthorizationService()
         .authorizeDataWrite(authenticationSubject, keyspace, table, Scope.MODIFY, SourceAPI.REST);
 
-    executeBatch(queries);
+    return executeBatchAsync(queries);
   }
 
   /**
@@ -643,6 +910,20 @@ public class DocumentDB {
       List<String> patchedKeys,
       long microsSinceEpoch)
       throws UnauthorizedException {
+    deletePatchedPathsThenInsertBatchAsync(
+            keyspace, table, key, vars, pathToDelete, patchedKeys, microsSinceEpoch)
+        .join();
+  }
+
+  public CompletableFuture<ResultSet> deletePatchedPathsThenInsertBatchAsync(
+      String keyspace,
+      String table,
+      String key,
+      List<Object[]> vars,
+      List<String> pathToDelete,
+      List<String> patchedKeys,
+      long microsSinceEpoch)
+      throws UnauthorizedException {
     boolean hasPath = !pathToDelete.isEmpty();
 
     long insertTs = microsSinceEpoch;
@@ -679,28 +960,38 @@ public class DocumentDB {
     getAuthorizationService()
         .authorizeDataWrite(authenticationSubject, keyspace, table, Scope.MODIFY, SourceAPI.REST);
 
-    executeBatch(queries);
+    return executeBatchAsync(queries);
   }
 
   public void delete(
       String keyspace, String table, String key, List<String> pathToDelete, long microsSinceEpoch)
       throws UnauthorizedException {
+    deleteAsync(keyspace, table, key, pathToDelete, microsSinceEpoch).join();
+  }
+
+  public CompletableFuture<ResultSet> deleteAsync(
+      String keyspace, String table, String key, List<String> pathToDelete, long microsSinceEpoch)
+      throws UnauthorizedException {
 
     getAuthorizationService()
         .authorizeDataWrite(
             getAuthenticationSubject(), keyspace, table, Scope.DELETE, SourceAPI.REST);
-    dataStore
-        .execute(
-            getPrefixDeleteStatement(keyspace, table, key, microsSinceEpoch, pathToDelete),
-            ConsistencyLevel.LOCAL_QUORUM)
-        .join();
+    return dataStore.execute(
+        getPrefixDeleteStatement(keyspace, table, key, microsSinceEpoch, pathToDelete),
+        ConsistencyLevel.LOCAL_QUORUM);
   }
 
   public void deleteDeadLeaves(
       String keyspaceName, String tableName, String key, Map<String, List<JsonNode>> deadLeaves)
       throws UnauthorizedException {
+    deleteDeadLeavesAsync(keyspaceName, tableName, key, deadLeaves).join();
+  }
+
+  public CompletableFuture<ResultSet> deleteDeadLeavesAsync(
+      String keyspaceName, String tableName, String key, Map<String, List<JsonNode>> deadLeaves)
+      throws UnauthorizedException {
     long now = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
-    deleteDeadLeaves(keyspaceName, tableName, key, now, deadLeaves);
+    return deleteDeadLeavesAsync(keyspaceName, tableName, key, now, deadLeaves);
   }
 
   @VisibleForTesting
@@ -711,6 +1002,16 @@ public class DocumentDB {
       long microsTimestamp,
       Map<String, List<JsonNode>> deadLeaves)
       throws UnauthorizedException {
+    deleteDeadLeavesAsync(keyspaceName, tableName, key, microsTimestamp, deadLeaves).join();
+  }
+
+  private CompletableFuture<ResultSet> deleteDeadLeavesAsync(
+      String keyspaceName,
+      String tableName,
+      String key,
+      long microsTimestamp,
+      Map<String, List<JsonNode>> deadLeaves)
+      throws UnauthorizedException {
 
     getAuthorizationService()
         .authorizeDataWrite(
@@ -749,8 +1050,7 @@ public class DocumentDB {
       }
     }
 
-    // Fire this off in a future
-    executeBatch(queries);
+    return executeBatchAsync(queries);
   }
 
   public Map<String, Object> newBindMap(List<String> path) {
@@ -0,0 +1,56 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.web.docsapi.dao;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * The deepest paths observed in the collections read by the Documents API (see {@link
+ * DocumentDB#readDepth}).
+ *
+ * <p>Only a bounded number of collections is remembered: the depth of a collection that was evicted
+ * starts over at {@link DocumentDB#INITIAL_READ_DEPTH}, and is raised again by the first read that
+ * finds deeper rows.
+ */
+public class DocumentReadDepths {
+  private final Cache<String, Integer> depths;
+
+  public DocumentReadDepths() {
+    this(Long.getLong("stargate.document_read_depths_max_size", 10_000));
+  }
+
+  public DocumentReadDepths(long maxSize) {
+    this.depths = Caffeine.newBuilder().maximumSize(maxSize).build();
+  }
+
+  int get(String keyspace, String collection) {
+    Integer depth = depths.getIfPresent(keyspace + "." + collection);
+    return depth == null ? Math.min(DocumentDB.INITIAL_READ_DEPTH, DocumentDB.MAX_DEPTH) : depth;
+  }
+
+  void observe(String keyspace, String collection, int depth) {
+    if (depth > get(keyspace, collection)) {
+      depths
+          .asMap()
+          .merge(keyspace + "." + collection, Math.min(depth, DocumentDB.MAX_DEPTH), Math::max);
+    }
+  }
+
+  void forget(String keyspace, String collection) {
+    depths.invalidate(keyspace + "." + collection);
+  }
+}
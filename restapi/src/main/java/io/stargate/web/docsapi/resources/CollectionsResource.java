@@ -208,7 +208,8 @@ public class CollectionsResource {
               new DocumentDB(
                   authenticatedDB.getDataStore(),
                   authenticatedDB.getAuthenticationSubject(),
-                  db.getAuthorizationService()));
+                  db.getAuthorizationService(),
+                  db.getDocsReadDepths()));
           return Response.status(Response.Status.NO_CONTENT).build();
         });
   }
@@ -285,7 +286,8 @@ public class CollectionsResource {
                   new DocumentDB(
                       authenticatedDB.getDataStore(),
                       authenticatedDB.getAuthenticationSubject(),
-                      db.getAuthorizationService()),
+                      db.getAuthorizationService(),
+                      db.getDocsReadDepths()),
                   request.getUpgradeType());
 
           if (success) {
@@ -24,6 +24,8 @@ import java.net.URI;
 import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
@@ -38,6 +40,8 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
@@ -93,7 +97,7 @@ public class DocumentResourceV2 {
   @Path("collections/{collection-id}")
   @Consumes("application/json, application/x-www-form-urlencoded")
   @Produces("application/json")
-  public Response postDoc(
+  public void postDoc(
       @Context HttpHeaders headers,
       @Context UriInfo ui,
       @ApiParam(
@@ -108,36 +112,45 @@ public class DocumentResourceV2 {
       @ApiParam(value = "the name of the collection", required = true) @PathParam("collection-id")
           String collection,
       @ApiParam(value = "The JSON document", required = true) String payload,
-      @Context HttpServletRequest request) {
+      @Context HttpServletRequest request,
+      @Suspended AsyncResponse asyncResponse) {
     // This route does nearly the same thing as PUT, except that it assigns an ID for the requester
     // And returns it as a Location header/in JSON body
     logger.debug("Post: Collection = {}", collection);
     String newId = UUID.randomUUID().toString();
-    return handle(
+    handleAsync(
+        asyncResponse,
         () -> {
           boolean isJson =
               headers
                   .getHeaderString(HttpHeaders.CONTENT_TYPE)
                   .toLowerCase()
                   .contains("application/json");
-          documentService.putAtPath(
-              authToken,
-              namespace,
-              collection,
-              newId,
-              payload,
-              new ArrayList<>(),
-              false,
-              dbFactory,
-              isJson,
-              getAllHeaders(request));
-
-          return Response.created(
-                  URI.create(
-                      String.format(
-                          "/v2/namespaces/%s/collections/%s/%s", namespace, collection, newId)))
-              .entity(mapper.writeValueAsString(new DocumentResponseWrapper<>(newId, null, null)))
-              .build();
+          return documentService
+              .putAtPath(
+                  authToken,
+                  namespace,
+                  collection,
+                  newId,
+                  payload,
+                  new ArrayList<>(),
+                  false,
+                  dbFactory,
+                  isJson,
+                  getAllHeaders(request))
+              .thenApply(
+                  v ->
+                      handle(
+                          () ->
+                              Response.created(
+                                      URI.create(
+                                          String.format(
+                                              "/v2/namespaces/%s/collections/%s/%s",
+                                              namespace, collection, newId)))
+                                  .entity(
+                                      mapper.writeValueAsString(
+                                          new DocumentResponseWrapper<>(newId, null, null)))
+                                  .build()));
         });
   }
 
@@ -155,7 +168,7 @@ public class DocumentResourceV2 {
   @Path("collections/{collection-id}/{document-id}")
   @Consumes("application/json, application/x-www-form-urlencoded")
   @Produces("application/json")
-  public Response putDoc(
+  public void putDoc(
       @Context HttpHeaders headers,
       @Context UriInfo ui,
       @ApiParam(
@@ -172,29 +185,38 @@ public class DocumentResourceV2 {
       @ApiParam(value = "the name of the document", required = true) @PathParam("document-id")
           String id,
       @ApiParam(value = "The JSON document", required = true) String payload,
-      @Context HttpServletRequest request) {
+      @Context HttpServletRequest request,
+      @Suspended AsyncResponse asyncResponse) {
     logger.debug("Put: Collection = {}, id = {}", collection, id);
-    return handle(
+    handleAsync(
+        asyncResponse,
         () -> {
           boolean isJson =
               headers
                   .getHeaderString(HttpHeaders.CONTENT_TYPE)
                   .toLowerCase()
                   .contains("application/json");
-          documentService.putAtPath(
-              authToken,
-              namespace,
-              collection,
-              id,
-              payload,
-              new ArrayList<>(),
-              false,
-              dbFactory,
-              isJson,
-              getAllHeaders(request));
-          return Response.ok()
-              .entity(mapper.writeValueAsString(new DocumentResponseWrapper<>(id, null, null)))
-              .build();
+          return documentService
+              .putAtPath(
+                  authToken,
+                  namespace,
+                  collection,
+                  id,
+                  payload,
+                  new ArrayList<>(),
+                  false,
+                  dbFactory,
+                  isJson,
+                  getAllHeaders(request))
+              .thenApply(
+                  v ->
+                      handle(
+                          () ->
+                              Response.ok()
+                                  .entity(
+                                      mapper.writeValueAsString(
+                                          new DocumentResponseWrapper<>(id, null, null)))
+                                  .build()));
         });
   }
 
@@ -214,7 +236,7 @@ public class DocumentResourceV2 {
   @Path("collections/{collection-id}/{document-id}/{document-path: .*}")
   @Consumes("application/json, application/x-www-form-urlencoded")
   @Produces("application/json")
-  public Response putDocPath(
+  public void putDocPath(
       @Context HttpHeaders headers,
       @Context UriInfo ui,
       @ApiParam(
@@ -234,29 +256,38 @@ public class DocumentResourceV2 {
           @PathParam("document-path")
           List<PathSegment> path,
       @ApiParam(value = "The JSON document", required = true) String payload,
-      @Context HttpServletRequest request) {
+      @Context HttpServletRequest request,
+      @Suspended AsyncResponse asyncResponse) {
     logger.debug("Put: Collection = {}, id = {}, path = {}", collection, id, path);
-    return handle(
+    handleAsync(
+        asyncResponse,
         () -> {
           boolean isJson =
               headers
                   .getHeaderString(HttpHeaders.CONTENT_TYPE)
                   .toLowerCase()
                   .contains("application/json");
-          documentService.putAtPath(
-              authToken,
-              namespace,
-              collection,
-              id,
-              payload,
-              path,
-              false,
-              dbFactory,
-              isJson,
-              getAllHeaders(request));
-          return Response.ok()
-              .entity(mapper.writeValueAsString(new DocumentResponseWrapper<>(id, null, null)))
-              .build();
+          return documentService
+              .putAtPath(
+                  authToken,
+                  namespace,
+                  collection,
+                  id,
+                  payload,
+                  path,
+                  false,
+                  dbFactory,
+                  isJson,
+                  getAllHeaders(request))
+              .thenApply(
+                  v ->
+                      handle(
+                          () ->
+                              Response.ok()
+                                  .entity(
+                                      mapper.writeValueAsString(
+                                          new DocumentResponseWrapper<>(id, null, null)))
+                                  .build()));
         });
   }
 
@@ -276,7 +307,7 @@ public class DocumentResourceV2 {
   @Path("collections/{collection-id}/{document-id}")
   @Consumes("application/json, application/x-www-form-urlencoded")
   @Produces("application/json")
-  public Response patchDoc(
+  public void patchDoc(
       @Context HttpHeaders headers,
       @Context UriInfo ui,
       @ApiParam(
@@ -293,29 +324,38 @@ public class DocumentResourceV2 {
       @ApiParam(value = "the name of the document", required = true) @PathParam("document-id")
           String id,
       @ApiParam(value = "The JSON document", required = true) String payload,
-      @Context HttpServletRequest request) {
+      @Context HttpServletRequest request,
+      @Suspended AsyncResponse asyncResponse) {
     logger.debug("Patch: Collection = {}, id = {}", collection, id);
-    return handle(
+    handleAsync(
+        asyncResponse,
         () -> {
           boolean isJson =
               headers
                   .getHeaderString(HttpHeaders.CONTENT_TYPE)
                   .toLowerCase()
                   .contains("application/json");
-          documentService.putAtPath(
-              authToken,
-              namespace,
-              collection,
-              id,
-              payload,
-              new ArrayList<>(),
-              true,
-              dbFactory,
-              isJson,
-              getAllHeaders(request));
-          return Response.ok()
-              .entity(mapper.writeValueAsString(new DocumentResponseWrapper<>(id, null, null)))
-              .build();
+          return documentService
+              .putAtPath(
+                  authToken,
+                  namespace,
+                  collection,
+                  id,
+                  payload,
+                  new ArrayList<>(),
+                  true,
+                  dbFactory,
+                  isJson,
+                  getAllHeaders(request))
+              .thenApply(
+                  v ->
+                      handle(
+                          () ->
+                              Response.ok()
+                                  .entity(
+                                      mapper.writeValueAsString(
+                                          new DocumentResponseWrapper<>(id, null, null)))
+                                  .build()));
         });
   }
 
@@ -336,7 +376,7 @@ public class DocumentResourceV2 {
   @Path("collections/{collection-id}/{document-id}/{document-path: .*}")
   @Consumes("application/json, application/x-www-form-urlencoded")
   @Produces("application/json")
-  public Response patchDocPath(
+  public void patchDocPath(
       @Context HttpHeaders headers,
       @Context UriInfo ui,
       @ApiParam(
@@ -356,29 +396,38 @@ public class DocumentResourceV2 {
           @PathParam("document-path")
           List<PathSegment> path,
       @ApiParam(value = "The JSON document", required = true) String payload,
-      @Context HttpServletRequest request) {
+      @Context HttpServletRequest request,
+      @Suspended AsyncResponse asyncResponse) {
     logger.debug("Patch: Collection = {}, id = {}, path = {}", collection, id, path);
-    return handle(
+    handleAsync(
+        asyncResponse,
         () -> {
           boolean isJson =
               headers
                   .getHeaderString(HttpHeaders.CONTENT_TYPE)
                   .toLowerCase()
                   .contains("application/json");
-          documentService.putAtPath(
-              authToken,
-              namespace,
-              collection,
-              id,
-              payload,
-              path,
-              true,
-              dbFactory,
-              isJson,
-              getAllHeaders(request));
-          return Response.ok()
-              .entity(mapper.writeValueAsString(new DocumentResponseWrapper<>(id, null, null)))
-              .build();
+          return documentService
+              .putAtPath(
+                  authToken,
+                  namespace,
+                  collection,
+                  id,
+                  payload,
+                  path,
+                  true,
+                  dbFactory,
+                  isJson,
+                  getAllHeaders(request))
+              .thenApply(
+                  v ->
+                      handle(
+                          () ->
+                              Response.ok()
+                                  .entity(
+                                      mapper.writeValueAsString(
+                                          new DocumentResponseWrapper<>(id, null, null)))
+                                  .build()));
         });
   }
 
@@ -395,7 +444,7 @@ public class DocumentResourceV2 {
   @Path("collections/{collection-id: [a-zA-Z_0-9]+}/{document-id}")
   @Consumes("application/json")
   @Produces("application/json")
-  public Response deleteDoc(
+  public void deleteDoc(
       @Context HttpHeaders headers,
       @Context UriInfo ui,
       @ApiParam(
@@ -411,14 +460,17 @@ public class DocumentResourceV2 {
           String collection,
       @ApiParam(value = "the name of the document", required = true) @PathParam("document-id")
           String id,
-      @Context HttpServletRequest request) {
+      @Context HttpServletRequest request,
+      @Suspended AsyncResponse asyncResponse) {
     logger.debug("Delete: Collection = {}, id = {}, path = {}", collection, id, new ArrayList<>());
-    return handle(
+    handleAsync(
+        asyncResponse,
         () -> {
           Map<String, String> allHeaders = getAllHeaders(request);
           DocumentDB db = dbFactory.getDocDataStoreForToken(authToken, allHeaders);
-          documentService.deleteAtPath(db, namespace, collection, id, new ArrayList<>());
-          return Response.noContent().build();
+          return documentService
+              .deleteAtPath(db, namespace, collection, id, new ArrayList<>())
+              .thenApply(v -> Response.noContent().build());
         });
   }
 
@@ -435,7 +487,7 @@ public class DocumentResourceV2 {
   @Path("collections/{collection-id: [a-zA-Z_0-9]+}/{document-id}/{document-path: .*}")
   @Consumes("application/json")
   @Produces("application/json")
-  public Response deleteDocPath(
+  public void deleteDocPath(
       @Context HttpHeaders headers,
       @Context UriInfo ui,
       @ApiParam(
@@ -454,14 +506,17 @@ public class DocumentResourceV2 {
       @ApiParam(value = "the path in the JSON that you want to retrieve", required = true)
           @PathParam("document-path")
           List<PathSegment> path,
-      @Context HttpServletRequest request) {
+      @Context HttpServletRequest request,
+      @Suspended AsyncResponse asyncResponse) {
     logger.debug("Delete: Collection = {}, id = {}, path = {}", collection, id, path);
-    return handle(
+    handleAsync(
+        asyncResponse,
         () -> {
           Map<String, String> allHeaders = getAllHeaders(request);
           DocumentDB db = dbFactory.getDocDataStoreForToken(authToken, allHeaders);
-          documentService.deleteAtPath(db, namespace, collection, id, path);
-          return Response.noContent().build();
+          return documentService
+              .deleteAtPath(db, namespace, collection, id, path)
+              .thenApply(v -> Response.noContent().build());
         });
   }
 
@@ -482,7 +537,7 @@ public class DocumentResourceV2 {
   @Path("collections/{collection-id: [a-zA-Z_0-9]+}/{document-id}")
   @Consumes("application/json")
   @Produces("application/json")
-  public Response getDoc(
+  public void getDoc(
       @Context HttpHeaders headers,
       @Context UriInfo ui,
       @ApiParam(
@@ -520,8 +575,9 @@ public class DocumentResourceV2 {
           @QueryParam("page-state")
           String pageStateParam,
       @ApiParam(value = "Unwrap results", defaultValue = "false") @QueryParam("raw") Boolean raw,
-      @Context HttpServletRequest request) {
-    return getDocPath(
+      @Context HttpServletRequest request,
+      @Suspended AsyncResponse asyncResponse) {
+    getDocPath(
         headers,
         ui,
         authToken,
@@ -534,7 +590,8 @@ public class DocumentResourceV2 {
         pageSizeParam,
         pageStateParam,
         raw,
-        request);
+        request,
+        asyncResponse);
   }
 
   @GET
@@ -556,7 +613,7 @@ public class DocumentResourceV2 {
   @Path("collections/{collection-id: [a-zA-Z_0-9]+}/{document-id}/{document-path: .*}")
   @Consumes("application/json")
   @Produces("application/json")
-  public Response getDocPath(
+  public void getDocPath(
       @Context HttpHeaders headers,
       @Context UriInfo ui,
       @ApiParam(
@@ -597,8 +654,10 @@ public class DocumentResourceV2 {
           @QueryParam("page-state")
           String pageStateParam,
       @ApiParam(value = "Unwrap results", defaultValue = "false") @QueryParam("raw") Boolean raw,
-      @Context HttpServletRequest request) {
-    return handle(
+      @Context HttpServletRequest request,
+      @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
         () -> {
           Map<String, String> allHeaders = getAllHeaders(request);
           List<FilterCondition> filters = new ArrayList<>();
@@ -632,24 +691,31 @@ public class DocumentResourceV2 {
             }
           }
 
-          JsonNode node;
           if (filters.isEmpty()) {
 
             DocumentDB db = dbFactory.getDocDataStoreForToken(authToken, allHeaders);
-            node = documentService.getJsonAtPath(db, namespace, collection, id, path);
-            if (node == null) {
-              return Response.noContent().build();
-            }
-
-            String json;
-            if (raw == null || !raw) {
-              json = mapper.writeValueAsString(new DocumentResponseWrapper<>(id, null, node));
-            } else {
-              json = mapper.writeValueAsString(node);
-            }
-
-            logger.debug(json);
-            return Response.ok(json).build();
+            return documentService
+                .getJsonAtPath(db, namespace, collection, id, path)
+                .thenApply(
+                    node ->
+                        handle(
+                            () -> {
+                              if (node == null) {
+                                return Response.noContent().build();
+                              }
+
+                              String json;
+                              if (raw == null || !raw) {
+                                json =
+                                    mapper.writeValueAsString(
+                                        new DocumentResponseWrapper<>(id, null, node));
+                              } else {
+                                json = mapper.writeValueAsString(node);
+                              }
+
+                              logger.debug(json);
+                              return Response.ok(json).build();
+                            }));
           } else {
             ByteBuffer pageState = null;
             if (pageStateParam != null) {
@@ -658,30 +724,35 @@ public class DocumentResourceV2 {
             }
             DocumentDB db = dbFactory.getDocDataStoreForToken(authToken, getAllHeaders(request));
             int pageSize = pageSizeParam > 0 ? pageSizeParam : DEFAULT_PAGE_SIZE;
-            ImmutablePair<JsonNode, ByteBuffer> result =
-                documentService.searchDocumentsV2(
-                    db, namespace, collection, filters, selectionList, id, pageSize, pageState);
-
-            if (result == null) {
-              return Response.noContent().build();
-            }
-
-            String json;
-
-            if (raw == null || !raw) {
-              String pagingStateStr =
-                  result.right != null
-                      ? Base64.getEncoder().encodeToString(result.right.array())
-                      : null;
-              json =
-                  mapper.writeValueAsString(
-                      new DocumentResponseWrapper<>(id, pagingStateStr, result.left));
-            } else {
-              json = mapper.writeValueAsString(result.left);
-            }
-
-            logger.debug(json);
-            return Response.ok(json).build();
+            return documentService
+                .searchDocumentsV2(
+                    db, namespace, collection, filters, selectionList, id, pageSize, pageState)
+                .thenApply(
+                    result ->
+                        handle(
+                            () -> {
+                              if (result == null) {
+                                return Response.noContent().build();
+                              }
+
+                              String json;
+
+                              if (raw == null || !raw) {
+                                String pagingStateStr =
+                                    result.right != null
+                                        ? Base64.getEncoder().encodeToString(result.right.array())
+                                        : null;
+                                json =
+                                    mapper.writeValueAsString(
+                                        new DocumentResponseWrapper<>(
+                                            id, pagingStateStr, result.left));
+                              } else {
+                                json = mapper.writeValueAsString(result.left);
+                              }
+
+                              logger.debug(json);
+                              return Response.ok(json).build();
+                            }));
           }
         });
   }
@@ -704,7 +775,7 @@ public class DocumentResourceV2 {
       })
   @Path("collections/{collection-id: [a-zA-Z_0-9]+}")
   @Produces("application/json")
-  public Response searchDoc(
+  public void searchDoc(
       @Context HttpHeaders headers,
       @Context UriInfo ui,
       @ApiParam(
@@ -739,8 +810,10 @@ public class DocumentResourceV2 {
       // TODO: Someday, support this in a non-restrictive way
       // @QueryParam("sort") String sort,
       @ApiParam(value = "Unwrap results", defaultValue = "false") @QueryParam("raw") Boolean raw,
-      @Context HttpServletRequest request) {
-    return handle(
+      @Context HttpServletRequest request,
+      @Suspended AsyncResponse asyncResponse) {
+    handleAsync(
+        asyncResponse,
         () -> {
           List<FilterCondition> filters = new ArrayList<>();
           List<String> selectionList = new ArrayList<>();
@@ -765,7 +838,7 @@ public class DocumentResourceV2 {
           ByteBuffer cloneState = pageState != null ? pageState.duplicate() : null;
           DocumentDB db = dbFactory.getDocDataStoreForToken(authToken, getAllHeaders(request));
 
-          ImmutablePair<JsonNode, ByteBuffer> results;
+          CompletionStage<ImmutablePair<JsonNode, ByteBuffer>> results;
 
           if (pageSizeParam > 20) {
             throw new DocumentAPIRequestException("The parameter `page-size` is limited to 20.");
@@ -799,47 +872,86 @@ public class DocumentResourceV2 {
                     getAllHeaders(request));
           }
 
-          if (results == null) {
-            return Response.noContent().build();
-          }
+          return results.thenApply(
+              result ->
+                  handle(
+                      () -> {
+                        if (result == null) {
+                          return Response.noContent().build();
+                        }
+
+                        JsonNode docsResult = result.left;
+                        String pagingStateStr =
+                            result.right != null
+                                ? Base64.getEncoder().encodeToString(result.right.array())
+                                : null;
+
+                        String json;
+                        if (raw == null || !raw) {
+                          json =
+                              mapper.writeValueAsString(
+                                  new DocumentResponseWrapper<>(null, pagingStateStr, docsResult));
+                        } else {
+                          json = mapper.writeValueAsString(docsResult);
+                        }
+
+                        logger.debug(json);
+                        return Response.ok(json).build();
+                      }));
+        });
+  }
 
-          JsonNode docsResult = results.left;
-          String pagingStateStr =
-              results.right != null
-                  ? Base64.getEncoder().encodeToString(results.right.array())
-                  : null;
-
-          String json;
-          if (raw == null || !raw) {
-            json =
-                mapper.writeValueAsString(
-                    new DocumentResponseWrapper<>(null, pagingStateStr, docsResult));
+  /**
+   * Resumes {@code asyncResponse} with the response that {@code action} eventually completes with,
+   * or with the error response corresponding to the failure, whether {@code action} throws or the
+   * stage it returns completes exceptionally.
+   */
+  static void handleAsync(AsyncResponse asyncResponse, Callable<CompletionStage<Response>> action) {
+    CompletionStage<Response> response;
+    try {
+      response = action.call();
+    } catch (Throwable t) {
+      asyncResponse.resume(toErrorResponse(t));
+      return;
+    }
+    response.whenComplete(
+        (r, error) -> {
+          if (error != null) {
+            if (error instanceof CompletionException && error.getCause() != null) {
+              error = error.getCause();
+            }
+            asyncResponse.resume(toErrorResponse(error));
           } else {
-            json = mapper.writeValueAsString(docsResult);
+            asyncResponse.resume(r);
           }
-
-          logger.debug(json);
-          return Response.ok(json).build();
         });
   }
 
   static Response handle(Callable<Response> action) {
     try {
       return action.call();
-    } catch (UnauthorizedException ue) {
+    } catch (Throwable t) {
+      return toErrorResponse(t);
+    }
+  }
+
+  private static Response toErrorResponse(Throwable error) {
+    if (error instanceof UnauthorizedException) {
       return Response.status(Response.Status.UNAUTHORIZED)
           .entity("You are not permitted to perform this action. Did you authenticate?")
           .build();
-    } catch (DocumentAPIRequestException sre) {
-      return Response.status(Response.Status.BAD_REQUEST).entity(sre.getLocalizedMessage()).build();
-    } catch (NoNodeAvailableException e) {
+    } else if (error instanceof DocumentAPIRequestException) {
+      return Response.status(Response.Status.BAD_REQUEST)
+          .entity(error.getLocalizedMessage())
+          .build();
+    } else if (error instanceof NoNodeAvailableException) {
       return Response.status(Response.Status.SERVICE_UNAVAILABLE)
           .entity("Internal connection to Cassandra closed")
           .build();
-    } catch (Throwable t) {
-      logger.error("Error when executing request", t);
+    } else {
+      logger.error("Error when executing request", error);
       return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-          .entity(t.getLocalizedMessage())
+          .entity(error.getLocalizedMessage())
           .build();
     }
   }
@@ -0,0 +1,181 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.web.docsapi.service;
+
+import io.stargate.db.datastore.Row;
+import io.stargate.db.schema.Column;
+import io.stargate.web.docsapi.dao.DocumentDB;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * The paging state of the Documents API reads that return full documents, which resumes reading
+ * right after the last document returned.
+ *
+ * <p>The rows of a document can span several pages of the underlying query, so a cursor is made of
+ * the Cassandra paging state of the page holding the last row of the last document returned, and of
+ * the key and token of that document: resuming re-reads that page, and skips its rows up to that
+ * document. The rows are read in token order, so they are skipped by token, which still works when
+ * the last document was deleted in the meantime.
+ *
+ * <p>Cursors are encoded opaquely for clients. A paging state that is not an encoded cursor (as
+ * returned by older versions) is used as a plain Cassandra paging state.
+ */
+class DocumentCursor {
+  private static final int MAGIC_WITHOUT_TOKEN = 0x44435231; // "DCR1"
+  private static final int MAGIC = 0x44435232; // "DCR2"
+
+  private final @Nullable ByteBuffer pagingState;
+  private final @Nullable String lastKey;
+  private final @Nullable Long lastToken;
+
+  DocumentCursor(@Nullable ByteBuffer pagingState, @Nullable String lastKey) {
+    this(pagingState, lastKey, null);
+  }
+
+  DocumentCursor(
+      @Nullable ByteBuffer pagingState, @Nullable String lastKey, @Nullable Long lastToken) {
+    this.pagingState = pagingState;
+    this.lastKey = lastKey;
+    this.lastToken = lastToken;
+  }
+
+  /**
+   * The cursor right after the document of @param row, whose page was read from @param pagingState.
+   */
+  static DocumentCursor after(Row row, @Nullable ByteBuffer pagingState) {
+    return new DocumentCursor(pagingState, row.getString("key"), tokenOf(row));
+  }
+
+  /**
+   * The token of the document of @param row, if it was selected (see {@link
+   * DocumentDB#TOKEN_COLUMN}) and is a Murmur3 token.
+   */
+  @Nullable
+  private static Long tokenOf(Row row) {
+    for (Column column : row.columns()) {
+      if (DocumentDB.TOKEN_COLUMN.equals(column.name())) {
+        return column.type() == Column.Type.Bigint && !row.isNull(DocumentDB.TOKEN_COLUMN)
+            ? row.getLong(DocumentDB.TOKEN_COLUMN)
+            : null;
+      }
+    }
+    return null;
+  }
+
+  /** The Cassandra paging state to resume from (null to start from the first page). */
+  @Nullable
+  ByteBuffer pagingState() {
+    return pagingState == null ? null : pagingState.duplicate();
+  }
+
+  /** The key of the last document returned before this cursor, if any. */
+  @Nullable
+  String lastKey() {
+    return lastKey;
+  }
+
+  /** The token of the last document returned before this cursor, if known. */
+  @Nullable
+  Long lastToken() {
+    return lastToken;
+  }
+
+  /**
+   * Drops the rows of the page read from {@link #pagingState()} that were already returned, that is
+   * the rows up to the last one of document {@link #lastKey()}.
+   */
+  List<Row> skipReturnedRows(List<Row> firstPageRows) {
+    if (lastKey == null) {
+      return firstPageRows;
+    }
+    if (lastToken != null) {
+      int i = 0;
+      while (i < firstPageRows.size() && isReturned(firstPageRows.get(i))) {
+        i++;
+      }
+      return firstPageRows.subList(i, firstPageRows.size());
+    }
+    // Cursors of older versions only have the key: the page is searched for the rows of that key.
+    for (int i = firstPageRows.size() - 1; i >= 0; i--) {
+      if (lastKey.equals(firstPageRows.get(i).getString("key"))) {
+        return firstPageRows.subList(i + 1, firstPageRows.size());
+      }
+    }
+    return firstPageRows;
+  }
+
+  /**
+   * Whether @param row, of a page read in token order, comes before or is of the last document.
+   * Keys with the same token are in no particular order for us, so the ones that collide with the
+   * last document (which is very unlikely) may be returned twice, but are never skipped.
+   */
+  private boolean isReturned(Row row) {
+    Long token = tokenOf(row);
+    if (token == null) {
+      return lastKey.equals(row.getString("key"));
+    }
+    return token < lastToken || (token.equals(lastToken) && lastKey.equals(row.getString("key")));
+  }
+
+  ByteBuffer encode() {
+    byte[] key = lastKey == null ? new byte[0] : lastKey.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer state = pagingState();
+    int stateSize = state == null ? 0 : state.remaining();
+    ByteBuffer encoded = ByteBuffer.allocate(8 + key.length + 9 + stateSize);
+    encoded.putInt(MAGIC).putInt(key.length).put(key);
+    encoded.put((byte) (lastToken == null ? 0 : 1)).putLong(lastToken == null ? 0 : lastToken);
+    if (state != null) {
+      encoded.put(state);
+    }
+    encoded.flip();
+    return encoded;
+  }
+
+  /** Decodes a cursor returned by {@link #encode()}, or a plain Cassandra paging state. */
+  static DocumentCursor decode(@Nullable ByteBuffer encoded) {
+    if (encoded == null) {
+      return new DocumentCursor(null, null);
+    }
+    ByteBuffer buffer = encoded.duplicate();
+    if (buffer.remaining() < 8) {
+      return new DocumentCursor(encoded, null);
+    }
+    int magic = buffer.getInt();
+    if (magic != MAGIC && magic != MAGIC_WITHOUT_TOKEN) {
+      return new DocumentCursor(encoded, null);
+    }
+    int keySize = buffer.getInt();
+    int tokenSize = magic == MAGIC ? 9 : 0;
+    if (keySize < 0 || keySize > buffer.remaining() - tokenSize) {
+      return new DocumentCursor(encoded, null);
+    }
+    byte[] key = new byte[keySize];
+    buffer.get(key);
+    Long token = null;
+    if (magic == MAGIC) {
+      boolean hasToken = buffer.get() != 0;
+      long value = buffer.getLong();
+      token = hasToken ? value : null;
+    }
+    return new DocumentCursor(
+        buffer.hasRemaining() ? buffer.slice() : null,
+        keySize == 0 ? null : new String(key, StandardCharsets.UTF_8),
+        token);
+  }
+}
@@ -28,6 +28,7 @@ import io.stargate.web.docsapi.dao.DocumentDB;
 import io.stargate.web.docsapi.exception.DocumentAPIErrorHandlingStrategy;
 import io.stargate.web.docsapi.exception.DocumentAPIRequestException;
 import io.stargate.web.docsapi.service.filter.FilterCondition;
+import io.stargate.web.docsapi.service.filter.FilterMatcher;
 import io.stargate.web.docsapi.service.filter.FilterOp;
 import io.stargate.web.docsapi.service.filter.ListFilterCondition;
 import io.stargate.web.docsapi.service.filter.SingleFilterCondition;
@@ -36,9 +37,13 @@ import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import javax.ws.rs.core.PathSegment;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -56,7 +61,6 @@ public class DocumentService {
   private static final Pattern PERIOD_PATTERN = Pattern.compile("\\.");
   private static final Splitter FORM_SPLITTER = Splitter.on('&');
   private static final Splitter PAIR_SPLITTER = Splitter.on('=');
-  private static final Splitter PATH_SPLITTER = Splitter.on('/');
 
   /*
    * Converts a JSON path string (e.g. "$.a.b.c[0]") into a JSON path string
@@ -377,7 +381,7 @@ public class DocumentService {
     return ImmutablePair.of(bindVariableList, firstLevelKeys);
   }
 
-  public void putAtPath(
+  public CompletionStage<Void> putAtPath(
       String authToken,
       String keyspace,
       String collection,
@@ -424,17 +428,22 @@ public class DocumentService {
     logger.debug("Bind {}", bindVariableList.size());
 
     long now = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    CompletionStage<ResultSet> written;
     if (patching) {
-      db.deletePatchedPathsThenInsertBatch(
-          keyspace, collection, id, bindVariableList, convertedPath, firstLevelKeys, now);
+      written =
+          db.deletePatchedPathsThenInsertBatchAsync(
+              keyspace, collection, id, bindVariableList, convertedPath, firstLevelKeys, now);
     } else {
-      db.deleteThenInsertBatch(keyspace, collection, id, bindVariableList, convertedPath, now);
+      written =
+          db.deleteThenInsertBatchAsync(
+              keyspace, collection, id, bindVariableList, convertedPath, now);
     }
+    return written.thenApply(rs -> null);
   }
 
-  public JsonNode getJsonAtPath(
+  public CompletionStage<JsonNode> getJsonAtPath(
       DocumentDB db, String keyspace, String collection, String id, List<PathSegment> path)
-      throws ExecutionException, InterruptedException, UnauthorizedException {
+      throws UnauthorizedException {
     List<BuiltCondition> predicates = new ArrayList<>();
     predicates.add(BuiltCondition.of("key", Predicate.EQ, id));
 
@@ -452,24 +461,28 @@ public class DocumentService {
       }
     }
 
-    ResultSet r = db.executeSelect(keyspace, collection, predicates);
-    List<Row> rows = r.rows();
-
-    if (rows.isEmpty()) {
-      return null;
-    }
-    ImmutablePair<JsonNode, Map<String, List<JsonNode>>> result =
-        convertToJsonDoc(rows, false, db.treatBooleansAsNumeric());
-    if (!result.right.isEmpty()) {
-      logger.info(String.format("Deleting %d dead leaves", result.right.size()));
-      db.deleteDeadLeaves(keyspace, collection, id, result.right);
-    }
-    JsonNode node = result.left.at(pathStr.toString());
-    if (node.isMissingNode()) {
-      return null;
-    }
-
-    return node;
+    return db.executeSelectAsync(keyspace, collection, predicates)
+        .thenCompose(ResultSet::rowsAsync)
+        .thenCompose(
+            rows -> {
+              if (rows.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+              }
+              ImmutablePair<JsonNode, Map<String, List<JsonNode>>> result =
+                  convertToJsonDoc(rows, false, db.treatBooleansAsNumeric());
+              JsonNode node = result.left.at(pathStr.toString());
+              JsonNode found = node.isMissingNode() ? null : node;
+              if (result.right.isEmpty()) {
+                return CompletableFuture.completedFuture(found);
+              }
+              logger.info(String.format("Deleting %d dead leaves", result.right.size()));
+              try {
+                return db.deleteDeadLeavesAsync(keyspace, collection, id, result.right)
+                    .thenApply(rs -> found);
+              } catch (UnauthorizedException e) {
+                throw new CompletionException(e);
+              }
+            });
   }
 
   private void validateOpAndValue(String op, JsonNode value, String fieldName) {
@@ -602,7 +615,7 @@ public class DocumentService {
     return conditions;
   }
 
-  public void deleteAtPath(
+  public CompletionStage<Void> deleteAtPath(
       DocumentDB db, String keyspace, String collection, String id, List<PathSegment> path)
       throws UnauthorizedException {
     List<String> convertedPath = new ArrayList<>(path.size());
@@ -612,7 +625,7 @@ public class DocumentService {
     }
     Long now = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
 
-    db.delete(keyspace, collection, id, convertedPath, now);
+    return db.deleteAsync(keyspace, collection, id, convertedPath, now).thenApply(rs -> null);
   }
 
   public JsonNode searchDocuments(
@@ -642,6 +655,8 @@ public class DocumentService {
                 documentKey,
                 pageSize,
                 pageState)
+            .toCompletableFuture()
+            .join()
             .left;
 
     if (rows.isEmpty()) return null;
@@ -668,7 +683,7 @@ public class DocumentService {
     return docsResult;
   }
 
-  public ImmutablePair<JsonNode, ByteBuffer> searchDocumentsV2(
+  public CompletionStage<ImmutablePair<JsonNode, ByteBuffer>> searchDocumentsV2(
       DocumentDB db,
       String keyspace,
       String collection,
@@ -681,18 +696,16 @@ public class DocumentService {
     FilterCondition first = filters.get(0);
     List<String> path = first.getPath();
 
-    ImmutablePair<List<Row>, ByteBuffer> searchResult =
-        searchRows(
-            keyspace,
-            collection,
-            db,
-            filters,
-            fields,
-            path,
-            false,
-            documentId,
-            pageSize,
-            pageState);
+    return searchRows(
+            keyspace, collection, db, filters, fields, path, false, documentId, pageSize, pageState)
+        .thenApply(searchResult -> toSearchResults(db, searchResult, fields, documentId));
+  }
+
+  private ImmutablePair<JsonNode, ByteBuffer> toSearchResults(
+      DocumentDB db,
+      ImmutablePair<List<Row>, ByteBuffer> searchResult,
+      List<String> fields,
+      String documentId) {
     List<Row> rows = searchResult.left;
     ByteBuffer newpageState = searchResult.right;
     if (rows.isEmpty()) {
@@ -768,7 +781,7 @@ public class DocumentService {
       Set<String> existsByDoc,
       Map<String, Integer> rowCountsByDoc,
       List<Row> rows,
-      List<FilterCondition> filters,
+      FilterMatcher filters,
       boolean booleansStoredAsTinyint,
       boolean endOfResults) {
     LinkedHashMap<String, List<Row>> documentChunks = new LinkedHashMap<>();
@@ -806,8 +819,11 @@ public class DocumentService {
   /**
    * This method gets all the rows for @param limit documents, by fetching result sets sequentially
    * and stringing them together. This is NOT expected to perform well for large documents.
+   *
+   * <p>The returned paging state is a {@link DocumentCursor}, positioned right after the last
+   * document returned.
    */
-  public ImmutablePair<JsonNode, ByteBuffer> getFullDocuments(
+  public CompletionStage<ImmutablePair<JsonNode, ByteBuffer>> getFullDocuments(
       Db dbFactory,
       DocumentDB db,
       String authToken,
@@ -818,69 +834,105 @@ public class DocumentService {
       int pageSize,
       int limit,
       Map<String, String> headers)
-      throws ExecutionException, InterruptedException, UnauthorizedException {
-    ObjectNode docsResult = mapper.createObjectNode();
+      throws UnauthorizedException {
     LinkedHashMap<String, List<Row>> rowsByDoc = new LinkedHashMap<>();
+    Map<String, DocumentCursor> cursorByDoc = new HashMap<>();
+    DocumentCursor cursor = DocumentCursor.decode(initialPagingState);
 
-    ImmutablePair<List<Row>, ByteBuffer> page;
-    ByteBuffer currentPageState = initialPagingState;
-    do {
-      page =
-          searchRows(
-              keyspace,
-              collection,
-              db,
-              new ArrayList<>(),
-              new ArrayList<>(),
-              new ArrayList<>(),
-              false,
-              null,
-              pageSize,
-              currentPageState);
-      addRowsToMap(rowsByDoc, page.left);
-      currentPageState = page.right;
-    } while (rowsByDoc.keySet().size() <= limit && currentPageState != null);
-
-    // Either we've reached the end of all rows in the collection, or we have enough rows
-    // in memory to build the final result.
-    Set<String> docNames = rowsByDoc.keySet();
-    if (docNames.size() > limit) {
-      int totalSize = 0;
-      Iterator<Map.Entry<String, List<Row>>> iter = rowsByDoc.entrySet().iterator();
-      for (int i = 0; i < limit; i++) {
-        Map.Entry<String, List<Row>> e = iter.next();
-        totalSize += e.getValue().size();
-        List<Row> rows = new ArrayList<>();
-        for (Row row : e.getValue()) {
-          if (fields.isEmpty() || fields.contains(row.getString("p0"))) rows.add(row);
-        }
-        docsResult.set(e.getKey(), convertToJsonDoc(rows, false, db.treatBooleansAsNumeric()).left);
-      }
-      ByteBuffer finalPagingState =
-          searchRows(
-                  keyspace,
-                  collection,
-                  db,
-                  new ArrayList<>(),
-                  new ArrayList<>(),
-                  new ArrayList<>(),
-                  false,
-                  null,
-                  totalSize,
-                  initialPagingState)
-              .right;
-      return ImmutablePair.of(docsResult, finalPagingState);
-    } else {
-      Iterator<Map.Entry<String, List<Row>>> iter = rowsByDoc.entrySet().iterator();
-      while (iter.hasNext()) {
-        Map.Entry<String, List<Row>> e = iter.next();
-        List<Row> rows = new ArrayList<>();
-        for (Row row : e.getValue()) {
-          if (fields.isEmpty() || fields.contains(row.getString("p0"))) rows.add(row);
-        }
-        docsResult.set(e.getKey(), convertToJsonDoc(rows, false, db.treatBooleansAsNumeric()).left);
-      }
-      return ImmutablePair.of(docsResult, null);
+    return collectRowsByDoc(
+            keyspace,
+            collection,
+            db,
+            rowsByDoc,
+            cursorByDoc,
+            cursor,
+            pageSize,
+            cursor.pagingState(),
+            limit)
+        .thenApply(
+            v -> {
+              // Either we've reached the end of all rows in the collection, or we have enough rows
+              // in memory to build the final result.
+              ObjectNode docsResult = mapper.createObjectNode();
+              String lastKey = null;
+              Iterator<Map.Entry<String, List<Row>>> iter = rowsByDoc.entrySet().iterator();
+              for (int i = 0; i < limit && iter.hasNext(); i++) {
+                Map.Entry<String, List<Row>> e = iter.next();
+                List<Row> rows = new ArrayList<>();
+                for (Row row : e.getValue()) {
+                  if (fields.isEmpty() || fields.contains(row.getString("p0"))) rows.add(row);
+                }
+                docsResult.set(
+                    e.getKey(), convertToJsonDoc(rows, false, db.treatBooleansAsNumeric()).left);
+                lastKey = e.getKey();
+              }
+              ByteBuffer nextState = iter.hasNext() ? cursorByDoc.get(lastKey).encode() : null;
+              return ImmutablePair.of((JsonNode) docsResult, nextState);
+            });
+  }
+
+  /**
+   * Fetches pages of rows, starting at @param pageState, until the rows of more than @param limit
+   * documents are in @param rowsByDoc or there are no more pages. The rows already returned before
+   *
+   * @param cursor are skipped, and the cursor right after each document is recorded in @param
+   *     cursorByDoc.
+   */
+  private CompletionStage<Void> collectRowsByDoc(
+      String keyspace,
+      String collection,
+      DocumentDB db,
+      LinkedHashMap<String, List<Row>> rowsByDoc,
+      Map<String, DocumentCursor> cursorByDoc,
+      @Nullable DocumentCursor cursor,
+      int pageSize,
+      ByteBuffer pageState,
+      int limit)
+      throws UnauthorizedException {
+    return searchRows(
+            keyspace,
+            collection,
+            db,
+            new ArrayList<>(),
+            new ArrayList<>(),
+            new ArrayList<>(),
+            false,
+            null,
+            pageSize,
+            pageState)
+        .thenCompose(
+            page -> {
+              List<Row> rows = cursor == null ? page.left : cursor.skipReturnedRows(page.left);
+              addRowsToMap(rowsByDoc, rows);
+              recordCursors(cursorByDoc, rows, pageState);
+              if (rowsByDoc.keySet().size() > limit || page.right == null) {
+                return CompletableFuture.completedFuture(null);
+              }
+              try {
+                return collectRowsByDoc(
+                    keyspace,
+                    collection,
+                    db,
+                    rowsByDoc,
+                    cursorByDoc,
+                    null,
+                    pageSize,
+                    page.right,
+                    limit);
+              } catch (UnauthorizedException e) {
+                throw new CompletionException(e);
+              }
+            });
+  }
+
+  /**
+   * Records the cursors right after the documents of @param pageRows, as the last rows of these
+   * documents read so far are in the page read from @param pageState.
+   */
+  private static void recordCursors(
+      Map<String, DocumentCursor> cursorByDoc, List<Row> pageRows, ByteBuffer pageState) {
+    for (Row row : pageRows) {
+      cursorByDoc.put(row.getString("key"), DocumentCursor.after(row, pageState));
     }
   }
 
@@ -889,8 +941,11 @@ public class DocumentService {
    * and stringing them together. After getting all the data out, it will pare down the document to
    * just the relevant result set, while maintaining page state. This is expected to be even more
    * intensive than getFullDocuments.
+   *
+   * <p>The returned paging state is a {@link DocumentCursor}, positioned right after the last
+   * document returned.
    */
-  public ImmutablePair<JsonNode, ByteBuffer> getFullDocumentsFiltered(
+  public CompletionStage<ImmutablePair<JsonNode, ByteBuffer>> getFullDocumentsFiltered(
       Db dbFactory,
       DocumentDB db,
       String authToken,
@@ -903,9 +958,10 @@ public class DocumentService {
       int limit,
       Map<String, String> headers)
       throws UnauthorizedException {
-    ObjectNode docsResult = mapper.createObjectNode();
     LinkedHashSet<String> existsByDoc = new LinkedHashSet<>();
     LinkedHashMap<String, Integer> countsByDoc = new LinkedHashMap<>();
+    Map<String, DocumentCursor> cursorByDoc = new HashMap<>();
+    DocumentCursor cursor = DocumentCursor.decode(initialPagingState);
 
     List<FilterCondition> inCassandraFilters =
         filters.stream()
@@ -918,6 +974,43 @@ public class DocumentService {
 
     Set<String> inCassandraPaths =
         inCassandraFilters.stream().map(f -> f.getFullFieldPath()).collect(Collectors.toSet());
+    if ((inCassandraPaths.size() > 1 || inMemoryFilters.size() > 0)
+        && !inCassandraFilters.isEmpty()
+        && db.supportsSAI()) {
+      // With SAI, the filters of one path are searched with an indexed query instead, and the
+      // documents found are then checked against the other filters in memory. Cassandra doesn't
+      // support restricting an indexed query to a set of keys, so the rows of these candidates are
+      // read as a whole rather than searched with an indexed query per path.
+      String drivingPath = inCassandraFilters.get(0).getFullFieldPath();
+      Map<Boolean, List<FilterCondition>> byDrivingPath =
+          inCassandraFilters.stream()
+              .collect(Collectors.partitioningBy(f -> f.getFullFieldPath().equals(drivingPath)));
+      List<FilterCondition> otherFilters = new ArrayList<>(byDrivingPath.get(false));
+      otherFilters.addAll(inMemoryFilters);
+      return collectIntersectedDocs(
+              keyspace,
+              collection,
+              db,
+              byDrivingPath.get(true),
+              FilterMatcher.compile(otherFilters),
+              existsByDoc,
+              cursorByDoc,
+              cursor,
+              pageSize,
+              cursor.pagingState(),
+              limit)
+          .thenApply(v -> firstDocs(existsByDoc, cursorByDoc, limit))
+          .thenCompose(
+              docNamesAndPagingState ->
+                  fetchFullDocuments(
+                      dbFactory,
+                      authToken,
+                      headers,
+                      keyspace,
+                      collection,
+                      fields,
+                      docNamesAndPagingState));
+    }
     if (inCassandraPaths.size() > 1 || inMemoryFilters.size() > 0) {
       // If the request involves more than one filter that could be handled by cassandra, or if
       // there is a combination of supported and unsupported filters, then we have to default to the
@@ -928,80 +1021,260 @@ public class DocumentService {
       inMemoryFilters = filters;
     }
 
-    ImmutablePair<List<Row>, ByteBuffer> page;
-    List<Row> leftoverRows = Collections.emptyList();
-    ByteBuffer currentPageState = initialPagingState;
+    List<FilterCondition> cassandraFilters = inCassandraFilters;
     List<String> path =
         inCassandraFilters.isEmpty()
             ? Collections.emptyList()
             : inCassandraFilters.get(0).getPath();
-    do {
-      page =
-          searchRows(
-              keyspace,
-              collection,
-              db,
-              inCassandraFilters,
-              Collections.emptyList(),
-              path,
-              false,
-              null,
-              pageSize,
-              currentPageState);
-      ArrayList<Row> rowsResult = new ArrayList<>();
-      rowsResult.addAll(leftoverRows);
-      rowsResult.addAll(page.left);
-      leftoverRows =
-          updateExistenceForMap(
-              existsByDoc,
-              countsByDoc,
-              rowsResult,
-              inMemoryFilters,
-              db.treatBooleansAsNumeric(),
-              page.right == null);
-      currentPageState = page.right;
-    } while (existsByDoc.size() <= limit && currentPageState != null);
-
-    // Either we've reached the end of all rows in the collection, or we have enough rows
-    // in memory to build the final result.
-    ByteBuffer finalPagingState;
-    Set<String> docNames = existsByDoc;
-    if (existsByDoc.size() > limit) {
-      int totalSize = 0;
-      docNames = new HashSet<>();
-      Iterator<Map.Entry<String, Integer>> iter = countsByDoc.entrySet().iterator();
-      int i = 0;
-      while (i < limit) {
-        Map.Entry<String, Integer> e = iter.next();
-        totalSize += e.getValue();
-        if (existsByDoc.contains(e.getKey())) {
-          docNames.add(e.getKey());
-          i++;
-        }
-      }
-      finalPagingState =
-          searchRows(
-                  keyspace,
-                  collection,
-                  db,
-                  inCassandraFilters,
-                  Collections.emptyList(),
-                  path,
-                  false,
-                  null,
-                  totalSize,
-                  initialPagingState)
-              .right;
-    } else {
-      finalPagingState = null;
+    return collectExistingDocs(
+            keyspace,
+            collection,
+            db,
+            cassandraFilters,
+            FilterMatcher.compile(inMemoryFilters),
+            path,
+            existsByDoc,
+            countsByDoc,
+            cursorByDoc,
+            cursor,
+            Collections.emptyList(),
+            pageSize,
+            cursor.pagingState(),
+            limit)
+        .thenApply(v -> firstDocs(existsByDoc, cursorByDoc, limit))
+        .thenCompose(
+            docNamesAndPagingState ->
+                fetchFullDocuments(
+                    dbFactory,
+                    authToken,
+                    headers,
+                    keyspace,
+                    collection,
+                    fields,
+                    docNamesAndPagingState));
+  }
+
+  /**
+   * Returns the first @param limit documents of @param docs, and the cursor to resume after them if
+   * there are more documents.
+   */
+  private static ImmutablePair<Set<String>, ByteBuffer> firstDocs(
+      Set<String> docs, Map<String, DocumentCursor> cursorByDoc, int limit) {
+    // Either we've reached the end of all rows in the collection, or we have enough rows in memory
+    // to build the final result.
+    if (docs.size() <= limit) {
+      return ImmutablePair.of(docs, null);
     }
+    Set<String> docNames = new HashSet<>();
+    String lastKey = null;
+    Iterator<String> iter = docs.iterator();
+    for (int i = 0; i < limit; i++) {
+      lastKey = iter.next();
+      docNames.add(lastKey);
+    }
+    return ImmutablePair.of(docNames, cursorByDoc.get(lastKey).encode());
+  }
 
+  private CompletionStage<ImmutablePair<JsonNode, ByteBuffer>> fetchFullDocuments(
+      Db dbFactory,
+      String authToken,
+      Map<String, String> headers,
+      String keyspace,
+      String collection,
+      List<String> fields,
+      ImmutablePair<Set<String>, ByteBuffer> docNamesAndPagingState) {
     List<BuiltCondition> predicate =
-        ImmutableList.of(BuiltCondition.of("key", Predicate.IN, new ArrayList<>(docNames)));
+        ImmutableList.of(
+            BuiltCondition.of("key", Predicate.IN, new ArrayList<>(docNamesAndPagingState.left)));
+    try {
+      DocumentDB docsDb = dbFactory.getDocDataStoreForToken(authToken, headers);
+      return docsDb
+          .executeSelectAsync(keyspace, collection, predicate)
+          .thenCompose(ResultSet::rowsAsync)
+          .thenApply(
+              rows ->
+                  ImmutablePair.of(
+                      toFullDocuments(docsDb, rows, fields), docNamesAndPagingState.right));
+    } catch (UnauthorizedException e) {
+      throw new CompletionException(e);
+    }
+  }
+
+  /**
+   * Fetches pages of the rows matching the @param drivingFilters, starting at @param pageState, and
+   * adds to @param matchingDocs the documents of each page that also match the @param otherFilters,
+   * until more than @param limit documents are found or there are no more pages. Only the documents
+   * of one page are checked at a time, so memory stays bounded whatever the size of the collection.
+   * As for collectRowsByDoc, the rows already returned before @param cursor are skipped and the
+   * cursor right after each document is recorded in @param cursorByDoc.
+   */
+  private CompletionStage<Void> collectIntersectedDocs(
+      String keyspace,
+      String collection,
+      DocumentDB db,
+      List<FilterCondition> drivingFilters,
+      FilterMatcher otherFilters,
+      Set<String> matchingDocs,
+      Map<String, DocumentCursor> cursorByDoc,
+      @Nullable DocumentCursor cursor,
+      int pageSize,
+      ByteBuffer pageState,
+      int limit)
+      throws UnauthorizedException {
+    return searchRows(
+            keyspace,
+            collection,
+            db,
+            drivingFilters,
+            Collections.emptyList(),
+            drivingFilters.get(0).getPath(),
+            false,
+            null,
+            pageSize,
+            pageState)
+        .thenCompose(
+            page -> {
+              List<Row> rows = cursor == null ? page.left : cursor.skipReturnedRows(page.left);
+              recordCursors(cursorByDoc, rows, pageState);
+              Set<String> candidates = new LinkedHashSet<>();
+              for (Row row : rows) {
+                candidates.add(row.getString("key"));
+              }
+              try {
+                return intersectDocs(keyspace, collection, db, candidates, otherFilters)
+                    .thenCompose(
+                        matches -> {
+                          matchingDocs.addAll(matches);
+                          if (matchingDocs.size() > limit || page.right == null) {
+                            return CompletableFuture.completedFuture(null);
+                          }
+                          try {
+                            return collectIntersectedDocs(
+                                keyspace,
+                                collection,
+                                db,
+                                drivingFilters,
+                                otherFilters,
+                                matchingDocs,
+                                cursorByDoc,
+                                null,
+                                pageSize,
+                                page.right,
+                                limit);
+                          } catch (UnauthorizedException e) {
+                            throw new CompletionException(e);
+                          }
+                        });
+              } catch (UnauthorizedException e) {
+                throw new CompletionException(e);
+              }
+            });
+  }
+
+  /**
+   * Retains, in @param candidates, the documents that match the @param otherFilters, which are
+   * evaluated against all the rows of these documents, read with a single query.
+   */
+  private CompletionStage<Set<String>> intersectDocs(
+      String keyspace,
+      String collection,
+      DocumentDB db,
+      Set<String> candidates,
+      FilterMatcher otherFilters)
+      throws UnauthorizedException {
+    if (candidates.isEmpty() || otherFilters.isEmpty()) {
+      return CompletableFuture.completedFuture(candidates);
+    }
+    List<BuiltCondition> candidateKeys =
+        ImmutableList.of(BuiltCondition.of("key", Predicate.IN, new ArrayList<>(candidates)));
+    return db.executeSelectAsync(keyspace, collection, candidateKeys)
+        .thenCompose(ResultSet::rowsAsync)
+        .thenApply(
+            rows -> {
+              Set<String> existing = new HashSet<>();
+              updateExistenceForMap(
+                  existing, new HashMap<>(), rows, otherFilters, db.treatBooleansAsNumeric(), true);
+              candidates.retainAll(existing);
+              return candidates;
+            });
+  }
 
-    db = dbFactory.getDocDataStoreForToken(authToken, headers);
+  /**
+   * Fetches pages of rows, starting at @param pageState, until more than @param limit documents
+   * matching @param inMemoryFilters are found or there are no more pages. The rows of a document
+   * may span two pages, so the rows of the last document of a page are carried over to the next one
+   * as @param leftoverRows. As for collectRowsByDoc, the rows already returned before @param cursor
+   * are skipped and the cursor right after each document is recorded in @param cursorByDoc.
+   */
+  private CompletionStage<Void> collectExistingDocs(
+      String keyspace,
+      String collection,
+      DocumentDB db,
+      List<FilterCondition> inCassandraFilters,
+      FilterMatcher inMemoryFilters,
+      List<String> path,
+      Set<String> existsByDoc,
+      Map<String, Integer> countsByDoc,
+      Map<String, DocumentCursor> cursorByDoc,
+      @Nullable DocumentCursor cursor,
+      List<Row> leftoverRows,
+      int pageSize,
+      ByteBuffer pageState,
+      int limit)
+      throws UnauthorizedException {
+    return searchRows(
+            keyspace,
+            collection,
+            db,
+            inCassandraFilters,
+            Collections.emptyList(),
+            path,
+            false,
+            null,
+            pageSize,
+            pageState)
+        .thenCompose(
+            page -> {
+              List<Row> pageRows = cursor == null ? page.left : cursor.skipReturnedRows(page.left);
+              recordCursors(cursorByDoc, pageRows, pageState);
+              ArrayList<Row> rowsResult = new ArrayList<>();
+              rowsResult.addAll(leftoverRows);
+              rowsResult.addAll(pageRows);
+              List<Row> leftover =
+                  updateExistenceForMap(
+                      existsByDoc,
+                      countsByDoc,
+                      rowsResult,
+                      inMemoryFilters,
+                      db.treatBooleansAsNumeric(),
+                      page.right == null);
+              if (existsByDoc.size() > limit || page.right == null) {
+                return CompletableFuture.completedFuture(null);
+              }
+              try {
+                return collectExistingDocs(
+                    keyspace,
+                    collection,
+                    db,
+                    inCassandraFilters,
+                    inMemoryFilters,
+                    path,
+                    existsByDoc,
+                    countsByDoc,
+                    cursorByDoc,
+                    null,
+                    leftover,
+                    pageSize,
+                    page.right,
+                    limit);
+              } catch (UnauthorizedException e) {
+                throw new CompletionException(e);
+              }
+            });
+  }
 
-    List<Row> rows = db.executeSelect(keyspace, collection, predicate).rows();
+  private JsonNode toFullDocuments(DocumentDB db, List<Row> rows, List<String> fields) {
+    ObjectNode docsResult = mapper.createObjectNode();
     Map<String, List<Row>> rowsByDoc = new HashMap<>();
     for (Row row : rows) {
       String key = row.getString("key");
@@ -1017,8 +1290,7 @@ public class DocumentService {
           entry.getKey(),
           convertToJsonDoc(entry.getValue(), false, db.treatBooleansAsNumeric()).left);
     }
-
-    return ImmutablePair.of(docsResult, finalPagingState);
+    return docsResult;
   }
 
   /**
@@ -1040,12 +1312,12 @@ public class DocumentService {
    * @param documentKey filter down to only one document's results
    * @param pageSize number of rows to return
    * @param pageState current state of database paging
-   * @return
-   * @throws ExecutionException
-   * @throws InterruptedException
+   * @return a stage that completes with the matching rows of the page, and the paging state of the
+   *     next page (null if there is none)
+   * @throws UnauthorizedException if reading the collection isn't allowed
    */
   @VisibleForTesting
-  ImmutablePair<List<Row>, ByteBuffer> searchRows(
+  CompletionStage<ImmutablePair<List<Row>, ByteBuffer>> searchRows(
       String keyspace,
       String collection,
       DocumentDB db,
@@ -1057,7 +1329,38 @@ public class DocumentService {
       int pageSize,
       ByteBuffer pageState)
       throws UnauthorizedException {
-    StringBuilder pathStr = new StringBuilder();
+    List<BuiltCondition> predicates = searchPredicates(db, filters, fields, path, recurse);
+
+    List<FilterCondition> inMemoryFilters =
+        fields.isEmpty()
+            ? filters.stream()
+                .filter(f -> FilterOp.LIMITED_SUPPORT_FILTERS.contains(f.getFilterOp()))
+                .collect(Collectors.toList())
+            : filters;
+
+    CompletionStage<ResultSet> r;
+
+    if (!predicates.isEmpty()) {
+      r = db.executeSelectAsync(keyspace, collection, predicates, true, pageSize, pageState);
+    } else {
+      r = db.executeSelectAllAsync(keyspace, collection, pageSize, pageState);
+    }
+
+    FilterMatcher inMemoryMatcher = FilterMatcher.compile(inMemoryFilters);
+    return r.thenApply(rs -> filterPage(rs, db, fields, path, documentKey, inMemoryMatcher));
+  }
+
+  /**
+   * The CQL predicates of the query searching a collection, as done by {@link #searchRows}, for
+   *
+   * @param filters on @param path.
+   */
+  private List<BuiltCondition> searchPredicates(
+      DocumentDB db,
+      List<FilterCondition> filters,
+      List<String> fields,
+      List<String> path,
+      Boolean recurse) {
     List<BuiltCondition> predicates = new ArrayList<>();
 
     if (!filters.isEmpty() && fields.isEmpty()) {
@@ -1065,22 +1368,16 @@ public class DocumentService {
       predicates.add(BuiltCondition.of("leaf", Predicate.EQ, first.getField()));
     }
 
-    boolean manyPathsFound = false;
-
     int i;
     for (i = 0; i < path.size(); i++) {
       String[] pathSegmentSplit = path.get(i).split(",");
       if (pathSegmentSplit.length == 1) {
         String pathSegment = pathSegmentSplit[0];
         if (pathSegment.equals(DocumentDB.GLOB_VALUE)) {
-          manyPathsFound = true;
           predicates.add(BuiltCondition.of("p" + i, Predicate.GT, ""));
         } else {
           String convertedPath = convertArrayPath(pathSegment);
           predicates.add(BuiltCondition.of("p" + i, Predicate.EQ, convertedPath));
-          if (!manyPathsFound) {
-            pathStr.append("/").append(pathSegment);
-          }
         }
       } else {
         List<String> segmentsList = Arrays.asList(pathSegmentSplit);
@@ -1088,23 +1385,16 @@ public class DocumentService {
         segmentsList =
             segmentsList.stream().map(this::convertArrayPath).collect(Collectors.toList());
 
-        manyPathsFound = true;
         predicates.add(BuiltCondition.of("p" + i, Predicate.IN, segmentsList));
       }
     }
 
     List<FilterCondition> inCassandraFilters = new ArrayList<>();
-    List<FilterCondition> inMemoryFilters = filters;
-
     if (fields.isEmpty()) {
       inCassandraFilters =
           filters.stream()
               .filter(f -> !FilterOp.LIMITED_SUPPORT_FILTERS.contains(f.getFilterOp()))
               .collect(Collectors.toList());
-      inMemoryFilters =
-          filters.stream()
-              .filter(f -> FilterOp.LIMITED_SUPPORT_FILTERS.contains(f.getFilterOp()))
-              .collect(Collectors.toList());
     }
 
     if ((recurse == null || !recurse)
@@ -1130,15 +1420,16 @@ public class DocumentService {
         predicates.add(BuiltCondition.of(queryValueField, queryOp.predicate, queryValue));
       }
     }
+    return predicates;
+  }
 
-    ResultSet r;
-
-    if (!predicates.isEmpty()) {
-      r = db.executeSelect(keyspace, collection, predicates, true, pageSize, pageState);
-    } else {
-      r = db.executeSelectAll(keyspace, collection, pageSize, pageState);
-    }
-
+  private ImmutablePair<List<Row>, ByteBuffer> filterPage(
+      ResultSet r,
+      DocumentDB db,
+      List<String> fields,
+      List<String> path,
+      String documentKey,
+      FilterMatcher inMemoryFilters) {
     List<Row> rows = r.currentPageRows();
     ByteBuffer newState = r.getPagingState();
 
@@ -1179,23 +1470,6 @@ public class DocumentService {
     return s.toString();
   }
 
-  private boolean pathsMatch(String path1, String path2) {
-    String[] parts1 = PERIOD_PATTERN.split(path1);
-    String[] parts2 = PERIOD_PATTERN.split(path2);
-    if (parts1.length != parts2.length) {
-      return false;
-    }
-
-    for (int i = 0; i < parts1.length; i++) {
-      String part1 = parts1[i];
-      String part2 = parts2[i];
-      if (!part1.equals("*") && !part2.equals("*") && !part1.equals(part2)) {
-        return false;
-      }
-    }
-    return true;
-  }
-
   private List<Row> filterToSelectionSet(
       List<Row> rows, List<String> fieldNames, List<String> requestedPath) {
     if (fieldNames.isEmpty()) {
@@ -1245,59 +1519,11 @@ public class DocumentService {
    * @param fieldsPerDoc The number of rows that make up a single document result
    * @return rows for each doc that match all filters
    */
-  private List<Row> applyInMemoryFilters(
-      List<Row> rows,
-      List<FilterCondition> inMemoryFilters,
-      int fieldsPerDoc,
-      boolean numericBooleans) {
-    if (inMemoryFilters.isEmpty()) {
-      return rows;
-    }
-    Set<String> filterFieldPaths =
-        inMemoryFilters.stream().map(FilterCondition::getFullFieldPath).collect(Collectors.toSet());
-    return Lists.partition(rows, fieldsPerDoc).stream()
-        .filter(
-            docChunk -> {
-              List<Row> fieldRows =
-                  docChunk.stream()
-                      .filter(
-                          r -> {
-                            if (r == null || r.getString("leaf") == null) {
-                              return false;
-                            }
-                            List<String> parentPath =
-                                PATH_SPLITTER.splitToList(getParentPathFromRow(r));
-                            String rowPath = "";
-                            if (parentPath.size() == 2) {
-                              rowPath = parentPath.get(1);
-                            }
-                            String fullRowPath = rowPath + r.getString("leaf");
-                            List<FilterCondition> matchingFilters =
-                                inMemoryFilters.stream()
-                                    .filter(f -> pathsMatch(fullRowPath, f.getFullFieldPath()))
-                                    .collect(Collectors.toList());
-                            if (matchingFilters.isEmpty()) {
-                              return false;
-                            }
-                            return allFiltersMatch(r, matchingFilters, numericBooleans);
-                          })
-                      .collect(Collectors.toList());
-              // This ensures that wildcard paths are properly counted with non-wildcard paths,
-              // by making sure that for every filter above, at least one matches a valid row.
-              return filterFieldPaths.stream()
-                  .allMatch(
-                      fieldPath ->
-                          fieldRows.stream()
-                              .anyMatch(
-                                  row -> {
-                                    List<String> segments =
-                                        PATH_SPLITTER.splitToList(getParentPathFromRow(row));
-                                    String path = segments.get(segments.size() - 1);
-                                    return pathsMatch(path + row.getString("leaf"), fieldPath);
-                                  }));
-            })
-        .flatMap(x -> x.stream())
-        .collect(Collectors.toList());
+  @VisibleForTesting
+  List<Row> applyInMemoryFilters(
+      List<Row> rows, FilterMatcher inMemoryFilters, int fieldsPerDoc, boolean numericBooleans) {
+    return inMemoryFilters.filterDocuments(
+        rows, fieldsPerDoc, (row, filters) -> allFiltersMatch(row, filters, numericBooleans));
   }
 
   private Boolean getBooleanFromRow(Row row, String colName, boolean numericBooleans) {
@@ -0,0 +1,231 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.web.docsapi.service.filter;
+
+import io.stargate.db.datastore.Row;
+import io.stargate.web.docsapi.dao.DocumentDB;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.regex.Pattern;
+
+/**
+ * Filters that are evaluated in memory against the rows of documents, compiled once (per request)
+ * into a trie of their field paths.
+ *
+ * <p>The path of a row (its path columns up to its leaf) is then matched against every filter in a
+ * single walk of the trie, without building or splitting path strings. A document matches if, for
+ * every field path of the filters, one of its rows has a matching path and satisfies all the
+ * filters whose path it matches. A {@code *} segment of a field path matches any segment of a row
+ * path.
+ *
+ * <p>Instances are immutable and thread-safe.
+ */
+public class FilterMatcher {
+  private static final Pattern PERIOD_PATTERN = Pattern.compile("\\.");
+  private static final String GLOB = "*";
+  private static final String[] PATH_COLUMNS = new String[DocumentDB.MAX_DEPTH];
+
+  static {
+    for (int i = 0; i < PATH_COLUMNS.length; i++) {
+      PATH_COLUMNS[i] = "p" + i;
+    }
+  }
+
+  private static final FilterMatcher EMPTY = new FilterMatcher(new Node(), new ArrayList<>());
+
+  private final Node root;
+  // The filters of each distinct field path, indexed by the path's group in the trie.
+  private final List<List<FilterCondition>> filtersByPath;
+
+  private FilterMatcher(Node root, List<List<FilterCondition>> filtersByPath) {
+    this.root = root;
+    this.filtersByPath = filtersByPath;
+  }
+
+  public static FilterMatcher compile(List<FilterCondition> filters) {
+    if (filters.isEmpty()) {
+      return EMPTY;
+    }
+    Node root = new Node();
+    Map<Node, List<FilterCondition>> filtersByLeaf = new LinkedHashMap<>();
+    for (FilterCondition filter : filters) {
+      Node node = root;
+      for (String segment : PERIOD_PATTERN.split(filter.getFullFieldPath())) {
+        node = node.child(segment);
+      }
+      filtersByLeaf.computeIfAbsent(node, n -> new ArrayList<>()).add(filter);
+    }
+    List<List<FilterCondition>> filtersByPath = new ArrayList<>(filtersByLeaf.size());
+    for (Map.Entry<Node, List<FilterCondition>> entry : filtersByLeaf.entrySet()) {
+      entry.getKey().group = filtersByPath.size();
+      filtersByPath.add(entry.getValue());
+    }
+    return new FilterMatcher(root, filtersByPath);
+  }
+
+  public boolean isEmpty() {
+    return filtersByPath.isEmpty();
+  }
+
+  /**
+   * Returns the rows of the documents that match the filters.
+   *
+   * @param rows the rows to filter, where every consecutive {@code rowsPerDoc} rows are the rows of
+   *     a document. Rows may be null, in which case they match no filter.
+   * @param rowsPerDoc the number of rows of each document.
+   * @param rowMatches whether a row satisfies the provided filters (which all have a path that
+   *     matches the path of the row).
+   */
+  public List<Row> filterDocuments(
+      List<Row> rows, int rowsPerDoc, BiPredicate<Row, List<FilterCondition>> rowMatches) {
+    if (isEmpty()) {
+      return rows;
+    }
+    Evaluation evaluation = new Evaluation(rowMatches);
+    List<Row> result = new ArrayList<>();
+    for (int start = 0; start < rows.size(); start += rowsPerDoc) {
+      int end = Math.min(start + rowsPerDoc, rows.size());
+      if (evaluation.documentMatches(rows, start, end)) {
+        result.addAll(rows.subList(start, end));
+      }
+    }
+    return result;
+  }
+
+  /** The state of the evaluation of the rows of a page, reused from row to row. */
+  private class Evaluation {
+    private final BiPredicate<Row, List<FilterCondition>> rowMatches;
+    private final String[] rowPath = new String[DocumentDB.MAX_DEPTH + 1];
+    private final boolean[] satisfiedPaths = new boolean[filtersByPath.size()];
+    private final int[] matchedPaths = new int[filtersByPath.size()];
+    private int matchedCount;
+
+    private Evaluation(BiPredicate<Row, List<FilterCondition>> rowMatches) {
+      this.rowMatches = rowMatches;
+    }
+
+    private boolean documentMatches(List<Row> rows, int start, int end) {
+      Arrays.fill(satisfiedPaths, false);
+      for (int i = start; i < end; i++) {
+        evaluate(rows.get(i));
+      }
+      for (boolean satisfied : satisfiedPaths) {
+        if (!satisfied) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void evaluate(Row row) {
+      if (row == null) {
+        return;
+      }
+      int length = loadRowPath(row);
+      if (length < 0) {
+        return;
+      }
+      matchedCount = 0;
+      match(root, 0, length);
+      if (matchedCount == 0) {
+        return;
+      }
+      for (int i = 0; i < matchedCount; i++) {
+        if (!rowMatches.test(row, filtersByPath.get(matchedPaths[i]))) {
+          return;
+        }
+      }
+      for (int i = 0; i < matchedCount; i++) {
+        satisfiedPaths[matchedPaths[i]] = true;
+      }
+    }
+
+    /**
+     * Loads the path of the row (its parent path columns followed by its leaf) in {@link #rowPath},
+     * and returns its length, or -1 if the row has no leaf.
+     */
+    private int loadRowPath(Row row) {
+      String leaf = row.getString("leaf");
+      if (leaf == null) {
+        return -1;
+      }
+      // The parent path stops before the last non-empty path column.
+      int parentLength = 0;
+      while (parentLength + 1 < PATH_COLUMNS.length) {
+        String next = row.getString(PATH_COLUMNS[parentLength + 1]);
+        if (next == null || next.isEmpty()) {
+          break;
+        }
+        rowPath[parentLength] = row.getString(PATH_COLUMNS[parentLength]);
+        parentLength++;
+      }
+      rowPath[parentLength] = leaf;
+      // Trailing empty segments are ignored, except for an empty path which is a single segment.
+      int length = parentLength + 1;
+      while (length > 1 && rowPath[length - 1].isEmpty()) {
+        length--;
+      }
+      if (length == 1 && rowPath[0].isEmpty() && parentLength > 0) {
+        length = 0;
+      }
+      return length;
+    }
+
+    private void match(Node node, int depth, int length) {
+      if (depth == length) {
+        if (node.group >= 0) {
+          matchedPaths[matchedCount++] = node.group;
+        }
+        return;
+      }
+      String segment = rowPath[depth];
+      if (GLOB.equals(segment)) {
+        for (Node child : node.children.values()) {
+          match(child, depth + 1, length);
+        }
+      } else {
+        Node child = node.children.get(segment);
+        if (child != null) {
+          match(child, depth + 1, length);
+        }
+      }
+      if (node.glob != null) {
+        match(node.glob, depth + 1, length);
+      }
+    }
+  }
+
+  private static class Node {
+    private final Map<String, Node> children = new HashMap<>();
+    private Node glob;
+    private int group = -1;
+
+    private Node child(String segment) {
+      if (segment.equals(GLOB)) {
+        if (glob == null) {
+          glob = new Node();
+        }
+        return glob;
+      }
+      return children.computeIfAbsent(segment, s -> new Node());
+    }
+  }
+}
@@ -26,6 +26,7 @@ import io.stargate.db.datastore.DataStore;
 import io.stargate.db.datastore.DataStoreFactory;
 import io.stargate.db.datastore.DataStoreOptions;
 import io.stargate.web.docsapi.dao.DocumentDB;
+import io.stargate.web.docsapi.dao.DocumentReadDepths;
 import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.Map;
@@ -36,9 +37,12 @@ import java.util.stream.Collectors;
 
 public class Db {
 
+  private static final int DOCS_PREFETCH_DEPTH = 1;
+
   private final DataStore dataStore;
   private final AuthenticationService authenticationService;
   private final AuthorizationService authorizationService;
+  private final DocumentReadDepths docsReadDepths = new DocumentReadDepths();
 
   private final LoadingCache<TokenAndHeaders, DocumentDB> docsTokensToDataStore =
       Caffeine.newBuilder()
@@ -66,8 +70,19 @@ public class Db {
     return authorizationService;
   }
 
+  /** The depths of the collections read by the Documents API, shared by all their requests. */
+  public DocumentReadDepths getDocsReadDepths() {
+    return docsReadDepths;
+  }
+
   public AuthenticatedDB getDataStoreForToken(String token, Map<String, String> headers)
       throws UnauthorizedException {
+    return getDataStoreForToken(token, headers, 0);
+  }
+
+  private AuthenticatedDB getDataStoreForToken(
+      String token, Map<String, String> headers, int pagePrefetchDepth)
+      throws UnauthorizedException {
     AuthenticationSubject authenticationSubject =
         authenticationService.validateToken(token, headers);
     DataStore dataStore =
@@ -75,6 +90,7 @@ public class Db {
             authenticationSubject.asUser(),
             DataStoreOptions.builder()
                 .alwaysPrepareQueries(true)
+                .pagePrefetchDepth(pagePrefetchDepth)
                 .putAllCustomProperties(headers)
                 .build());
 
@@ -116,12 +132,15 @@ public class Db {
 
   private DocumentDB getDocDataStoreForTokenInternal(TokenAndHeaders tokenAndHeaders)
       throws UnauthorizedException {
+    // Documents API reads frequently scan all the pages of a query (to fetch whole documents), so
+    // we fetch the next page while the current one is being processed.
     AuthenticatedDB authenticatedDB =
-        getDataStoreForToken(tokenAndHeaders.token, tokenAndHeaders.headers);
+        getDataStoreForToken(tokenAndHeaders.token, tokenAndHeaders.headers, DOCS_PREFETCH_DEPTH);
     return new DocumentDB(
         authenticatedDB.getDataStore(),
         authenticatedDB.getAuthenticationSubject(),
-        getAuthorizationService());
+        getAuthorizationService(),
+        docsReadDepths);
   }
 
   public AuthenticationSubject getAuthenticationSubjectForToken(TokenAndHeaders tokenAndHeaders)
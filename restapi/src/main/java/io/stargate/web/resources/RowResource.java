@@ -36,7 +36,6 @@ import io.stargate.web.models.Error;
 import io.stargate.web.models.Filter;
 import io.stargate.web.models.Query;
 import io.stargate.web.models.RowAdd;
-import io.stargate.web.models.RowResponse;
 import io.stargate.web.models.RowUpdate;
 import io.stargate.web.models.Rows;
 import io.stargate.web.models.RowsResponse;
@@ -158,11 +157,8 @@ public class RowResource {
                       TypedKeyValue.forSelect((BoundSelect) query),
                       SourceAPI.REST);
 
-          final List<Map<String, Object>> rows =
-              r.rows().stream().map(Converters::row2MapV1).collect(Collectors.toList());
-
           return Response.status(Response.Status.OK)
-              .entity(new RowResponse(rows.size(), rows))
+              .entity(RowsResponseWriter.v1(r.rows(), null))
               .build();
         });
   }
@@ -240,15 +236,12 @@ public class RowResource {
                       Collections.emptyList(),
                       SourceAPI.REST);
 
-          final List<Map<String, Object>> rows =
-              r.currentPageRows().stream().map(Converters::row2MapV1).collect(Collectors.toList());
-
           String newPagingState =
               r.getPagingState() != null
                   ? Base64.getEncoder().encodeToString(r.getPagingState().array())
                   : null;
           return Response.status(Response.Status.OK)
-              .entity(new Rows(rows.size(), newPagingState, rows))
+              .entity(RowsResponseWriter.v1(r.currentPageRows(), newPagingState))
               .build();
         });
   }
@@ -372,15 +365,12 @@ public class RowResource {
                       TypedKeyValue.forSelect((BoundSelect) query),
                       SourceAPI.REST);
 
-          final List<Map<String, Object>> rows =
-              r.currentPageRows().stream().map(Converters::row2MapV1).collect(Collectors.toList());
-
           String newPagingState =
               r.getPagingState() != null
                   ? Base64.getEncoder().encodeToString(r.getPagingState().array())
                   : null;
           return Response.status(Response.Status.OK)
-              .entity(new Rows(rows.size(), newPagingState, rows))
+              .entity(RowsResponseWriter.v1(r.currentPageRows(), newPagingState))
               .build();
         });
   }
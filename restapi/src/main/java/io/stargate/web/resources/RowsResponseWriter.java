@@ -0,0 +1,159 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.web.resources;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.jackson.Jackson;
+import io.stargate.db.datastore.Row;
+import io.stargate.db.schema.Column;
+import io.stargate.web.impl.Server;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Writes a page of rows as JSON directly to the response output stream.
+ *
+ * <p>This produces the same JSON as serializing the result of {@link Converters#row2Map} (or {@link
+ * Converters#row2MapV1} for the v1 API) wrapped in the relevant response object, but without
+ * building an intermediate map per row nor materializing the whole response as a string: each value
+ * is read from the {@link Row} and handed to a {@link JsonGenerator} as the response is written.
+ * The names of the columns are encoded once per page.
+ */
+public class RowsResponseWriter implements StreamingOutput {
+
+  private static final ObjectMapper V2_MAPPER = new ObjectMapper();
+  private static final ObjectMapper V1_MAPPER = v1ObjectMapper();
+
+  private static final SerializedString COUNT = new SerializedString("count");
+  private static final SerializedString PAGE_STATE = new SerializedString("pageState");
+  private static final SerializedString DATA = new SerializedString("data");
+  private static final SerializedString ROWS = new SerializedString("rows");
+
+  private final ObjectMapper mapper;
+  private final Function<Object, Object> valueConverter;
+  private final List<Row> rows;
+  private final @Nullable String pageState;
+  // The name of the field containing the rows, or null if the rows are written as a bare array.
+  private final @Nullable SerializableString rowsField;
+
+  private RowsResponseWriter(
+      ObjectMapper mapper,
+      Function<Object, Object> valueConverter,
+      List<Row> rows,
+      @Nullable String pageState,
+      @Nullable SerializableString rowsField) {
+    this.mapper = mapper;
+    this.valueConverter = valueConverter;
+    this.rows = rows;
+    this.pageState = pageState;
+    this.rowsField = rowsField;
+  }
+
+  /**
+   * A writer for the v2 API: either the rows as a bare array if {@code raw}, or a {@link
+   * io.stargate.web.models.GetResponseWrapper} shaped object otherwise.
+   */
+  public static RowsResponseWriter v2(List<Row> rows, @Nullable String pageState, boolean raw) {
+    return new RowsResponseWriter(
+        V2_MAPPER, Converters::toJsonValue, rows, pageState, raw ? null : DATA);
+  }
+
+  /**
+   * A writer for the v1 API, producing a {@link io.stargate.web.models.Rows} shaped object (or a
+   * {@link io.stargate.web.models.RowResponse} one if {@code pageState} is null).
+   */
+  public static RowsResponseWriter v1(List<Row> rows, @Nullable String pageState) {
+    return new RowsResponseWriter(V1_MAPPER, RowsResponseWriter::toV1Value, rows, pageState, ROWS);
+  }
+
+  @Override
+  public void write(OutputStream output) throws IOException {
+    // The output stream belongs to the container, closing the generator should only flush it.
+    try (JsonGenerator generator =
+        mapper
+            .getFactory()
+            .createGenerator(output)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+      if (rowsField == null) {
+        writeRows(generator);
+      } else {
+        generator.writeStartObject();
+        generator.writeFieldName(COUNT);
+        generator.writeNumber(rows.size());
+        if (pageState != null) {
+          generator.writeFieldName(PAGE_STATE);
+          generator.writeString(pageState);
+        }
+        generator.writeFieldName(rowsField);
+        writeRows(generator);
+        generator.writeEndObject();
+      }
+    }
+  }
+
+  private void writeRows(JsonGenerator generator) throws IOException {
+    generator.writeStartArray();
+    if (!rows.isEmpty()) {
+      // All the rows of a page share the same columns.
+      List<Column> columns = rows.get(0).columns();
+      int[] indexes = new int[columns.size()];
+      SerializedString[] names = new SerializedString[columns.size()];
+      int count = 0;
+      Set<String> seen = new HashSet<>();
+      for (int i = 0; i < columns.size(); i++) {
+        String name = columns.get(i).name();
+        // Like with a map, a column selected multiple times is only written once, with the value of
+        // its first occurrence.
+        if (seen.add(name)) {
+          indexes[count] = i;
+          names[count] = new SerializedString(name);
+          count++;
+        }
+      }
+
+      for (Row row : rows) {
+        generator.writeStartObject();
+        for (int i = 0; i < count; i++) {
+          generator.writeFieldName(names[i]);
+          generator.writeObject(valueConverter.apply(row.getObject(indexes[i])));
+        }
+        generator.writeEndObject();
+      }
+    }
+    generator.writeEndArray();
+  }
+
+  private static Object toV1Value(Object value) {
+    return value instanceof Object[] ? Arrays.asList((Object[]) value) : value;
+  }
+
+  /** Mirrors the object mapper used by Jersey for the entities returned by the v1 resources. */
+  private static ObjectMapper v1ObjectMapper() {
+    ObjectMapper mapper = Jackson.newObjectMapper();
+    Server.configureObjectMapper(mapper);
+    return mapper;
+  }
+}
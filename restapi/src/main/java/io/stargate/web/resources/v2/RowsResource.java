@@ -39,6 +39,7 @@ import io.stargate.web.resources.AuthenticatedDB;
 import io.stargate.web.resources.Converters;
 import io.stargate.web.resources.Db;
 import io.stargate.web.resources.RequestHandler;
+import io.stargate.web.resources.RowsResponseWriter;
 import io.stargate.web.service.WhereParser;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -166,7 +167,7 @@ public class RowsResource {
               db.getDataStoreForToken(token, pageSize, pageState, allHeaders);
           final Table tableMetadata = authenticatedDB.getTable(keyspaceName, tableName);
 
-          Object response =
+          RowsResponseWriter response =
               getRows(
                   fields,
                   raw,
@@ -174,9 +175,7 @@ public class RowsResource {
                   authenticatedDB,
                   tableMetadata,
                   WhereParser.parseWhere(where, tableMetadata));
-          return Response.status(Response.Status.OK)
-              .entity(Converters.writeResponse(response))
-              .build();
+          return Response.status(Response.Status.OK).entity(response).build();
         });
   }
 
@@ -255,10 +254,9 @@ public class RowsResource {
                 .build();
           }
 
-          Object response = getRows(fields, raw, sort, authenticatedDB, tableMetadata, where);
-          return Response.status(Response.Status.OK)
-              .entity(Converters.writeResponse(response))
-              .build();
+          RowsResponseWriter response =
+              getRows(fields, raw, sort, authenticatedDB, tableMetadata, where);
+          return Response.status(Response.Status.OK).entity(response).build();
         });
   }
 
@@ -556,7 +554,7 @@ public class RowsResource {
     return Response.status(Response.Status.OK).entity(Converters.writeResponse(response)).build();
   }
 
-  private Object getRows(
+  private RowsResponseWriter getRows(
       String fields,
       boolean raw,
       String sort,
@@ -598,13 +596,11 @@ public class RowsResource {
                 TypedKeyValue.forSelect((BoundSelect) query),
                 SourceAPI.REST);
 
-    List<Map<String, Object>> rows =
-        r.currentPageRows().stream().map(Converters::row2Map).collect(Collectors.toList());
     String newPagingState =
         r.getPagingState() != null
             ? Base64.getEncoder().encodeToString(r.getPagingState().array())
             : null;
-    return raw ? rows : new GetResponseWrapper(rows.size(), newPagingState, rows);
+    return RowsResponseWriter.v2(r.currentPageRows(), newPagingState, raw);
   }
 
   private List<ColumnOrder> buildSortOrder(String sort)
@@ -11,6 +11,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -26,15 +27,20 @@ import io.stargate.db.BatchType;
 import io.stargate.db.Parameters;
 import io.stargate.db.datastore.DataStore;
 import io.stargate.db.datastore.ResultSet;
+import io.stargate.db.datastore.Row;
 import io.stargate.db.query.BoundQuery;
 import io.stargate.db.query.Query;
 import io.stargate.db.query.TypedValue.Codec;
 import io.stargate.db.schema.Column.Type;
 import io.stargate.db.schema.Schema;
 import io.stargate.db.schema.SchemaBuilder.SchemaBuilder__5;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -66,6 +72,18 @@ public class DocumentDBTest {
       schemaBuilder = schemaBuilder.column("p" + i, Type.Text, Clustering);
     }
 
+    schemaBuilder =
+        schemaBuilder
+            .table("collection")
+            .column("key", Type.Text, PartitionKey)
+            .column("leaf", Type.Text)
+            .column("text_value", Type.Text)
+            .column("dbl_value", Type.Double)
+            .column("bool_value", Type.Boolean);
+    for (int i = 0; i < DocumentDB.MAX_DEPTH; i++) {
+      schemaBuilder = schemaBuilder.column("p" + i, Type.Text, Clustering);
+    }
+
     return schemaBuilder.build();
   }
 
@@ -116,6 +134,81 @@ public class DocumentDBTest {
     assertThat(query.queryString())
         .isEqualTo(
             "INSERT INTO \"keyspace\".\"table\" (key, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9, p10, p11, p12, p13, p14, p15, p16, p17, p18, p19, p20, p21, p22, p23, p24, p25, p26, p27, p28, p29, p30, p31, p32, p33, p34, p35, p36, p37, p38, p39, p40, p41, p42, p43, p44, p45, p46, p47, p48, p49, p50, p51, p52, p53, p54, p55, p56, p57, p58, p59, p60, p61, p62, p63, leaf, text_value, dbl_value, bool_value) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) USING TIMESTAMP ?");
+    // The depth of the document is now read from the collection.
+    assertThat(documentDB.readDepth("keyspace", "table")).isEqualTo(DocumentDB.MAX_DEPTH);
+  }
+
+  @Test
+  public void executeSelectReadsPathColumnsUpToReadDepth() throws UnauthorizedException {
+    int depth = documentDB.readDepth("keyspace", "collection");
+    assertThat(depth).isEqualTo(DocumentDB.INITIAL_READ_DEPTH);
+
+    documentDB.executeSelect("keyspace", "collection", new ArrayList<>());
+    List<BoundQuery> generatedQueries = ds.getRecentStatements();
+    assertThat(generatedQueries).hasSize(1);
+    // The column right after the read depth is read to check that no row is deeper.
+    assertThat(generatedQueries.get(0).queryString())
+        .contains("p" + depth + ",")
+        .doesNotContain("p" + (depth + 1) + ",")
+        .contains("leaf, text_value, dbl_value, bool_value, WRITETIME(leaf)");
+
+    // A row is deeper: the query is re-executed with more path columns.
+    Row deepRow = mock(Row.class);
+    when(deepRow.getString("p" + depth)).thenReturn("deep");
+    ResultSet deepResult = mock(ResultSet.class);
+    when(deepResult.rowsAsync())
+        .thenReturn(CompletableFuture.completedFuture(singletonList(deepRow)));
+    ds.results.add(deepResult);
+
+    ResultSet result = documentDB.executeSelect("keyspace", "collection", new ArrayList<>());
+    generatedQueries = ds.getRecentStatements();
+    assertThat(generatedQueries).hasSize(2);
+    assertThat(generatedQueries.get(1).queryString())
+        .contains("p" + (2 * depth) + ",")
+        .doesNotContain("p" + (2 * depth + 1) + ",");
+    assertThat(result.rows()).isEmpty();
+    assertThat(documentDB.readDepth("keyspace", "collection")).isEqualTo(2 * depth);
+  }
+
+  @Test
+  public void executeSelectReturnsTheRowsOfThePageItChecked() throws UnauthorizedException {
+    Row row = mock(Row.class);
+    ByteBuffer pagingState = ByteBuffer.wrap(new byte[] {1, 2, 3});
+    // Like the actual result sets, the rows of the page are consumed when read.
+    ResultSet page = mock(ResultSet.class);
+    when(page.currentPageRows()).thenReturn(singletonList(row), Collections.emptyList());
+    when(page.getPagingState()).thenReturn(pagingState);
+    ds.results.add(page);
+
+    ResultSet result =
+        documentDB
+            .executeSelectAsync("keyspace", "collection", new ArrayList<>(), false, 10, null)
+            .join();
+
+    assertThat(result.currentPageRows()).containsExactly(row);
+    assertThat(result.getPagingState()).isEqualTo(pagingState);
+  }
+
+  @Test
+  public void readDepthsAreSharedThroughTheirOwner() throws UnauthorizedException {
+    DocumentReadDepths readDepths = new DocumentReadDepths(10);
+    AuthorizationService authorizationService = mock(AuthorizationService.class);
+    DocumentDB first =
+        new DocumentDB(
+            ds, AuthenticationSubject.of("foo", "bar"), authorizationService, readDepths);
+    DocumentDB second =
+        new DocumentDB(
+            ds, AuthenticationSubject.of("foo", "bar"), authorizationService, readDepths);
+    Object[] values = new Object[DocumentDB.allColumns().size()];
+    Arrays.fill(values, "value");
+    values[values.length - 2] = 1.2d; // dbl_value
+    values[values.length - 1] = true; // bool_value
+
+    first.getInsertStatement("keyspace", "table", 1, values);
+
+    assertThat(second.readDepth("keyspace", "table")).isEqualTo(DocumentDB.MAX_DEPTH);
+    // Other owners, such as the ones of other tests, don't see it.
+    assertThat(documentDB.readDepth("keyspace", "table")).isEqualTo(DocumentDB.INITIAL_READ_DEPTH);
   }
 
   @Test
@@ -350,6 +443,8 @@ public class DocumentDBTest {
   private static class TestDataStore implements DataStore {
 
     private final List<BoundQuery> recentQueries = new ArrayList<>();
+    // The results of the next queries executed, if any.
+    private final Deque<ResultSet> results = new ArrayDeque<>();
     private final Schema schema;
 
     public TestDataStore(Schema schema) {
@@ -370,7 +465,8 @@ public class DocumentDBTest {
     public CompletableFuture<ResultSet> execute(
         BoundQuery query, UnaryOperator<Parameters> parametersModifier) {
       this.recentQueries.add(query);
-      return CompletableFuture.completedFuture(ResultSet.empty());
+      ResultSet result = results.poll();
+      return CompletableFuture.completedFuture(result == null ? ResultSet.empty() : result);
     }
 
     @Override
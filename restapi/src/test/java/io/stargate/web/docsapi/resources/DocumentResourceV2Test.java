@@ -2,11 +2,14 @@ package io.stargate.web.docsapi.resources;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.anyObject;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -24,8 +27,12 @@ import io.stargate.web.resources.Db;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.PathSegment;
 import javax.ws.rs.core.Response;
@@ -33,6 +40,7 @@ import javax.ws.rs.core.UriInfo;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 public class DocumentResourceV2Test {
@@ -43,10 +51,23 @@ public class DocumentResourceV2Test {
   private HttpServletRequest httpServletRequest;
 
   @BeforeEach
-  public void setup() {
+  public void setup() throws UnauthorizedException {
     documentResourceV2 = new DocumentResourceV2(dbFactoryMock, documentServiceMock);
     httpServletRequest = mock(HttpServletRequest.class);
     when(httpServletRequest.getHeaderNames()).thenReturn(Collections.emptyEnumeration());
+    when(documentServiceMock.putAtPath(
+            any(), any(), any(), any(), any(), any(), anyBoolean(), any(), anyBoolean(), any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    when(documentServiceMock.deleteAtPath(any(), any(), any(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+  }
+
+  private static Response response(Consumer<AsyncResponse> request) {
+    AsyncResponse asyncResponse = mock(AsyncResponse.class);
+    request.accept(asyncResponse);
+    ArgumentCaptor<Object> response = ArgumentCaptor.forClass(Object.class);
+    verify(asyncResponse).resume(response.capture());
+    return (Response) response.getValue();
   }
 
   @Test
@@ -60,8 +81,17 @@ public class DocumentResourceV2Test {
     String payload = "{}";
 
     Response r =
-        documentResourceV2.postDoc(
-            headers, ui, authToken, keyspace, collection, payload, httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.postDoc(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    payload,
+                    httpServletRequest,
+                    asyncResponse));
 
     assertThat(r.getStatus()).isEqualTo(201);
     mapper.readTree((String) r.getEntity()).requiredAt("/documentId");
@@ -79,8 +109,18 @@ public class DocumentResourceV2Test {
     String payload = "{}";
 
     Response r =
-        documentResourceV2.putDoc(
-            headers, ui, authToken, keyspace, collection, id, payload, httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.putDoc(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    id,
+                    payload,
+                    httpServletRequest,
+                    asyncResponse));
 
     assertThat(r.getStatus()).isEqualTo(200);
     mapper.readTree((String) r.getEntity()).requiredAt("/documentId");
@@ -99,8 +139,19 @@ public class DocumentResourceV2Test {
     String payload = "{}";
 
     Response r =
-        documentResourceV2.putDocPath(
-            headers, ui, authToken, keyspace, collection, id, path, payload, httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.putDocPath(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    id,
+                    path,
+                    payload,
+                    httpServletRequest,
+                    asyncResponse));
 
     assertThat(r.getStatus()).isEqualTo(200);
     assertThat(mapper.readTree((String) r.getEntity()).requiredAt("/documentId").asText())
@@ -119,8 +170,18 @@ public class DocumentResourceV2Test {
     String payload = "{}";
 
     Response r =
-        documentResourceV2.patchDoc(
-            headers, ui, authToken, keyspace, collection, id, payload, httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.patchDoc(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    id,
+                    payload,
+                    httpServletRequest,
+                    asyncResponse));
 
     assertThat(r.getStatus()).isEqualTo(200);
     assertThat(mapper.readTree((String) r.getEntity()).requiredAt("/documentId").asText())
@@ -140,8 +201,19 @@ public class DocumentResourceV2Test {
     String payload = "{}";
 
     Response r =
-        documentResourceV2.patchDocPath(
-            headers, ui, authToken, keyspace, collection, id, path, payload, httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.patchDocPath(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    id,
+                    path,
+                    payload,
+                    httpServletRequest,
+                    asyncResponse));
 
     assertThat(r.getStatus()).isEqualTo(200);
     assertThat(mapper.readTree((String) r.getEntity()).requiredAt("/documentId").asText())
@@ -158,8 +230,17 @@ public class DocumentResourceV2Test {
     String id = "id";
 
     Response r =
-        documentResourceV2.deleteDoc(
-            headers, ui, authToken, keyspace, collection, id, httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.deleteDoc(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    id,
+                    httpServletRequest,
+                    asyncResponse));
 
     assertThat(r.getStatus()).isEqualTo(204);
   }
@@ -175,8 +256,18 @@ public class DocumentResourceV2Test {
     List<PathSegment> path = new ArrayList<>();
 
     Response r =
-        documentResourceV2.deleteDocPath(
-            headers, ui, authToken, keyspace, collection, id, path, httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.deleteDocPath(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    id,
+                    path,
+                    httpServletRequest,
+                    asyncResponse));
 
     assertThat(r.getStatus()).isEqualTo(204);
   }
@@ -202,22 +293,25 @@ public class DocumentResourceV2Test {
     Mockito.when(
             documentServiceMock.getJsonAtPath(
                 anyObject(), anyString(), anyString(), anyString(), anyObject()))
-        .thenReturn(mockedReturn);
+        .thenReturn(CompletableFuture.completedFuture(mockedReturn));
 
     Response r =
-        documentResourceV2.getDoc(
-            headers,
-            ui,
-            authToken,
-            keyspace,
-            collection,
-            id,
-            where,
-            fields,
-            pageSizeParam,
-            pageStateParam,
-            true,
-            httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.getDoc(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    id,
+                    where,
+                    fields,
+                    pageSizeParam,
+                    pageStateParam,
+                    true,
+                    httpServletRequest,
+                    asyncResponse));
 
     assertThat(r.getStatus()).isEqualTo(200);
     assertThat(mapper.readTree((String) r.getEntity())).isEqualTo(mockedReturn);
@@ -245,23 +339,26 @@ public class DocumentResourceV2Test {
     Mockito.when(
             documentServiceMock.getJsonAtPath(
                 anyObject(), anyString(), anyString(), anyString(), anyObject()))
-        .thenReturn(mockedReturn);
+        .thenReturn(CompletableFuture.completedFuture(mockedReturn));
 
     Response r =
-        documentResourceV2.getDocPath(
-            headers,
-            ui,
-            authToken,
-            keyspace,
-            collection,
-            id,
-            path,
-            where,
-            fields,
-            pageSizeParam,
-            pageStateParam,
-            true,
-            httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.getDocPath(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    id,
+                    path,
+                    where,
+                    fields,
+                    pageSizeParam,
+                    pageStateParam,
+                    true,
+                    httpServletRequest,
+                    asyncResponse));
 
     assertThat(r.getStatus()).isEqualTo(200);
     assertThat(mapper.readTree((String) r.getEntity())).isEqualTo(mockedReturn);
@@ -296,7 +393,7 @@ public class DocumentResourceV2Test {
                 anyString(),
                 anyInt(),
                 anyObject()))
-        .thenReturn(ImmutablePair.of(mockedReturn, null));
+        .thenReturn(CompletableFuture.completedFuture(ImmutablePair.of(mockedReturn, null)));
 
     Mockito.when(documentServiceMock.convertToFilterOps(anyList(), anyObject()))
         .thenCallRealMethod();
@@ -304,20 +401,23 @@ public class DocumentResourceV2Test {
     Mockito.when(documentServiceMock.convertToSelectionList(anyObject())).thenCallRealMethod();
 
     Response r =
-        documentResourceV2.getDocPath(
-            headers,
-            ui,
-            authToken,
-            keyspace,
-            collection,
-            id,
-            path,
-            where,
-            fields,
-            pageSizeParam,
-            pageStateParam,
-            true,
-            httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.getDocPath(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    id,
+                    path,
+                    where,
+                    fields,
+                    pageSizeParam,
+                    pageStateParam,
+                    true,
+                    httpServletRequest,
+                    asyncResponse));
 
     assertThat(r.getStatus()).isEqualTo(200);
     assertThat(mapper.readTree((String) r.getEntity())).isEqualTo(mockedReturn);
@@ -345,23 +445,26 @@ public class DocumentResourceV2Test {
     Mockito.when(
             documentServiceMock.getJsonAtPath(
                 anyObject(), anyString(), anyString(), anyString(), anyObject()))
-        .thenReturn(mockedReturn);
+        .thenReturn(CompletableFuture.completedFuture(mockedReturn));
 
     Response r =
-        documentResourceV2.getDocPath(
-            headers,
-            ui,
-            authToken,
-            keyspace,
-            collection,
-            id,
-            path,
-            where,
-            fields,
-            pageSizeParam,
-            pageStateParam,
-            false,
-            httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.getDocPath(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    id,
+                    path,
+                    where,
+                    fields,
+                    pageSizeParam,
+                    pageStateParam,
+                    false,
+                    httpServletRequest,
+                    asyncResponse));
 
     assertThat(r.getStatus()).isEqualTo(200);
     ObjectNode expected = mapper.createObjectNode();
@@ -370,6 +473,43 @@ public class DocumentResourceV2Test {
     assertThat(mapper.readTree((String) r.getEntity())).isEqualTo(expected);
   }
 
+  @Test
+  public void getDocPath_resumedWhenStageCompletes() throws UnauthorizedException {
+    HttpHeaders headers = mock(HttpHeaders.class);
+    UriInfo ui = mock(UriInfo.class);
+    List<PathSegment> path = new ArrayList<>();
+
+    CompletableFuture<JsonNode> pending = new CompletableFuture<>();
+    Mockito.when(
+            documentServiceMock.getJsonAtPath(
+                anyObject(), anyString(), anyString(), anyString(), anyObject()))
+        .thenReturn(pending);
+
+    AsyncResponse asyncResponse = mock(AsyncResponse.class);
+    documentResourceV2.getDocPath(
+        headers,
+        ui,
+        "auth_token",
+        "keyspace",
+        "collection",
+        "id",
+        path,
+        null,
+        null,
+        0,
+        null,
+        false,
+        httpServletRequest,
+        asyncResponse);
+    verify(asyncResponse, never()).resume(any());
+
+    // Failures of the stages composed by the service are wrapped in CompletionExceptions.
+    pending.completeExceptionally(new CompletionException(new UnauthorizedException("denied")));
+    ArgumentCaptor<Object> response = ArgumentCaptor.forClass(Object.class);
+    verify(asyncResponse).resume(response.capture());
+    assertThat(((Response) response.getValue()).getStatus()).isEqualTo(401);
+  }
+
   @Test
   public void getDocPath_emptyResult()
       throws ExecutionException, InterruptedException, UnauthorizedException {
@@ -388,39 +528,45 @@ public class DocumentResourceV2Test {
     Mockito.when(
             documentServiceMock.getJsonAtPath(
                 anyObject(), anyString(), anyString(), anyString(), anyObject()))
-        .thenReturn(null);
+        .thenReturn(CompletableFuture.completedFuture(null));
 
     Response r =
-        documentResourceV2.getDocPath(
-            headers,
-            ui,
-            authToken,
-            keyspace,
-            collection,
-            id,
-            path,
-            where,
-            fields,
-            pageSizeParam,
-            pageStateParam,
-            false,
-            httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.getDocPath(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    id,
+                    path,
+                    where,
+                    fields,
+                    pageSizeParam,
+                    pageStateParam,
+                    false,
+                    httpServletRequest,
+                    asyncResponse));
     assertThat(r.getStatus()).isEqualTo(204);
     r =
-        documentResourceV2.getDocPath(
-            headers,
-            ui,
-            authToken,
-            keyspace,
-            collection,
-            id,
-            path,
-            where,
-            fields,
-            pageSizeParam,
-            pageStateParam,
-            true,
-            httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.getDocPath(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    id,
+                    path,
+                    where,
+                    fields,
+                    pageSizeParam,
+                    pageStateParam,
+                    true,
+                    httpServletRequest,
+                    asyncResponse));
     assertThat(r.getStatus()).isEqualTo(204);
   }
 
@@ -463,21 +609,24 @@ public class DocumentResourceV2Test {
                 anyInt(),
                 anyInt(),
                 any()))
-        .thenReturn(ImmutablePair.of(searchResult, null));
+        .thenReturn(CompletableFuture.completedFuture(ImmutablePair.of(searchResult, null)));
 
     Response r =
-        documentResourceV2.searchDoc(
-            headers,
-            ui,
-            authToken,
-            keyspace,
-            collection,
-            where,
-            fields,
-            pageSizeParam,
-            pageStateParam,
-            raw,
-            httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.searchDoc(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    where,
+                    fields,
+                    pageSizeParam,
+                    pageStateParam,
+                    raw,
+                    httpServletRequest,
+                    asyncResponse));
     assertThat(r.getStatus()).isEqualTo(200);
     JsonNode resp = mapper.readTree((String) r.getEntity());
     ObjectNode expected = mapper.createObjectNode();
@@ -524,21 +673,24 @@ public class DocumentResourceV2Test {
                 anyInt(),
                 anyInt(),
                 any()))
-        .thenReturn(ImmutablePair.of(searchResult, null));
+        .thenReturn(CompletableFuture.completedFuture(ImmutablePair.of(searchResult, null)));
 
     Response r =
-        documentResourceV2.searchDoc(
-            headers,
-            ui,
-            authToken,
-            keyspace,
-            collection,
-            where,
-            fields,
-            pageSizeParam,
-            pageStateParam,
-            raw,
-            httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.searchDoc(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    where,
+                    fields,
+                    pageSizeParam,
+                    pageStateParam,
+                    raw,
+                    httpServletRequest,
+                    asyncResponse));
     assertThat(r.getStatus()).isEqualTo(200);
     assertThat(mapper.readTree((String) r.getEntity())).isEqualTo(searchResult);
   }
@@ -585,27 +737,30 @@ public class DocumentResourceV2Test {
                 anyInt(),
                 anyInt(),
                 any()))
-        .thenReturn(ImmutablePair.of(searchResult, null));
+        .thenReturn(CompletableFuture.completedFuture(ImmutablePair.of(searchResult, null)));
 
     Response r =
-        documentResourceV2.searchDoc(
-            headers,
-            ui,
-            authToken,
-            keyspace,
-            collection,
-            where,
-            fields,
-            pageSizeParam,
-            pageStateParam,
-            raw,
-            httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.searchDoc(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    where,
+                    fields,
+                    pageSizeParam,
+                    pageStateParam,
+                    raw,
+                    httpServletRequest,
+                    asyncResponse));
     assertThat(r.getStatus()).isEqualTo(200);
     assertThat(mapper.readTree((String) r.getEntity())).isEqualTo(searchResult);
   }
 
   @Test
-  public void searchDoc_invalidFieldsWithNoWhere() {
+  public void searchDoc_invalidFieldsWithNoWhere() throws UnauthorizedException {
     HttpHeaders headers = mock(HttpHeaders.class);
     UriInfo ui = mock(UriInfo.class);
     String authToken = "auth_token";
@@ -625,20 +780,36 @@ public class DocumentResourceV2Test {
         .thenReturn(conditions);
     Mockito.when(documentServiceMock.convertToSelectionList(anyObject()))
         .thenReturn(ImmutableList.of("field1"));
+    Mockito.when(
+            documentServiceMock.getFullDocuments(
+                anyObject(),
+                anyObject(),
+                anyString(),
+                anyString(),
+                anyString(),
+                anyList(),
+                anyObject(),
+                anyInt(),
+                anyInt(),
+                any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
 
     Response r =
-        documentResourceV2.searchDoc(
-            headers,
-            ui,
-            authToken,
-            keyspace,
-            collection,
-            where,
-            fields,
-            pageSizeParam,
-            pageStateParam,
-            raw,
-            httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.searchDoc(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    where,
+                    fields,
+                    pageSizeParam,
+                    pageStateParam,
+                    raw,
+                    httpServletRequest,
+                    asyncResponse));
     assertThat(r.getStatus()).isEqualTo(204);
   }
 
@@ -666,18 +837,21 @@ public class DocumentResourceV2Test {
         .thenReturn(ImmutableList.of("field1"));
 
     Response r =
-        documentResourceV2.searchDoc(
-            headers,
-            ui,
-            authToken,
-            keyspace,
-            collection,
-            where,
-            fields,
-            pageSizeParam,
-            pageStateParam,
-            raw,
-            httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.searchDoc(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    where,
+                    fields,
+                    pageSizeParam,
+                    pageStateParam,
+                    raw,
+                    httpServletRequest,
+                    asyncResponse));
     assertThat(r.getStatus()).isEqualTo(400);
     assertThat((String) r.getEntity()).isEqualTo("The parameter `page-size` is limited to 20.");
   }
@@ -713,21 +887,24 @@ public class DocumentResourceV2Test {
                 anyInt(),
                 anyInt(),
                 any()))
-        .thenReturn(ImmutablePair.of(searchResult, null));
+        .thenReturn(CompletableFuture.completedFuture(ImmutablePair.of(searchResult, null)));
 
     Response r =
-        documentResourceV2.searchDoc(
-            headers,
-            ui,
-            authToken,
-            keyspace,
-            collection,
-            where,
-            fields,
-            pageSizeParam,
-            pageStateParam,
-            raw,
-            httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.searchDoc(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    where,
+                    fields,
+                    pageSizeParam,
+                    pageStateParam,
+                    raw,
+                    httpServletRequest,
+                    asyncResponse));
     assertThat(r.getStatus()).isEqualTo(200);
     assertThat(mapper.readTree((String) r.getEntity())).isEqualTo(searchResult);
   }
@@ -746,18 +923,21 @@ public class DocumentResourceV2Test {
     boolean raw = true;
 
     Response r =
-        documentResourceV2.searchDoc(
-            headers,
-            ui,
-            authToken,
-            keyspace,
-            collection,
-            where,
-            fields,
-            pageSizeParam,
-            pageStateParam,
-            raw,
-            httpServletRequest);
+        response(
+            asyncResponse ->
+                documentResourceV2.searchDoc(
+                    headers,
+                    ui,
+                    authToken,
+                    keyspace,
+                    collection,
+                    where,
+                    fields,
+                    pageSizeParam,
+                    pageStateParam,
+                    raw,
+                    httpServletRequest,
+                    asyncResponse));
     assertThat(r.getStatus()).isEqualTo(400);
     assertThat((String) r.getEntity()).isEqualTo("The parameter `page-size` is limited to 20.");
   }
@@ -0,0 +1,109 @@
+package io.stargate.web.docsapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.stargate.db.datastore.Row;
+import io.stargate.db.schema.Column;
+import io.stargate.db.schema.Column.Type;
+import io.stargate.web.docsapi.dao.DocumentDB;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class DocumentCursorTest {
+
+  @Test
+  public void encodeAndDecode() {
+    ByteBuffer pagingState = ByteBuffer.wrap(new byte[] {1, 2, 3});
+
+    DocumentCursor cursor = DocumentCursor.decode(new DocumentCursor(pagingState, "doc1").encode());
+
+    assertThat(cursor.lastKey()).isEqualTo("doc1");
+    assertThat(cursor.lastToken()).isNull();
+    assertThat(cursor.pagingState()).isEqualTo(pagingState);
+  }
+
+  @Test
+  public void encodeAndDecodeWithToken() {
+    ByteBuffer pagingState = ByteBuffer.wrap(new byte[] {1, 2, 3});
+
+    DocumentCursor cursor =
+        DocumentCursor.decode(DocumentCursor.after(row("doc1", -42L), pagingState).encode());
+
+    assertThat(cursor.lastKey()).isEqualTo("doc1");
+    assertThat(cursor.lastToken()).isEqualTo(-42L);
+    assertThat(cursor.pagingState()).isEqualTo(pagingState);
+  }
+
+  @Test
+  public void encodeAndDecodeFromFirstPage() {
+    DocumentCursor cursor = DocumentCursor.decode(new DocumentCursor(null, "doc1").encode());
+
+    assertThat(cursor.lastKey()).isEqualTo("doc1");
+    assertThat(cursor.pagingState()).isNull();
+  }
+
+  @Test
+  public void decodePlainPagingState() {
+    ByteBuffer pagingState = ByteBuffer.wrap(new byte[] {0, 0, 0, 4, 1, 2, 3, 4, 5});
+
+    DocumentCursor cursor = DocumentCursor.decode(pagingState);
+
+    assertThat(cursor.lastKey()).isNull();
+    assertThat(cursor.pagingState()).isEqualTo(pagingState);
+    assertThat(DocumentCursor.decode(null).pagingState()).isNull();
+  }
+
+  @Test
+  public void skipReturnedRows() {
+    List<Row> rows = Arrays.asList(row("a"), row("b"), row("b"), row("c"));
+
+    assertThat(new DocumentCursor(null, "b").skipReturnedRows(rows)).containsExactly(rows.get(3));
+    assertThat(new DocumentCursor(null, "c").skipReturnedRows(rows)).isEmpty();
+    // The last document ended in the previous page.
+    assertThat(new DocumentCursor(null, "z").skipReturnedRows(rows)).isEqualTo(rows);
+    assertThat(new DocumentCursor(null, null).skipReturnedRows(rows)).isEqualTo(rows);
+  }
+
+  @Test
+  public void skipReturnedRowsByToken() {
+    List<Row> rows = Arrays.asList(row("a", -3L), row("b", 5L), row("b", 5L), row("c", 9L));
+
+    assertThat(cursor("a", -3L).skipReturnedRows(rows)).isEqualTo(rows.subList(1, 4));
+    assertThat(cursor("b", 5L).skipReturnedRows(rows)).containsExactly(rows.get(3));
+    assertThat(cursor("c", 9L).skipReturnedRows(rows)).isEmpty();
+    // A key that collides with the token of the last document is never skipped.
+    assertThat(cursor("z", 5L).skipReturnedRows(rows)).isEqualTo(rows.subList(1, 4));
+  }
+
+  @Test
+  public void skipReturnedRowsOfDeletedLastDocument() {
+    List<Row> rows = Arrays.asList(row("a", -3L), row("c", 9L));
+
+    // "b" was the last document returned, but it was deleted before resuming.
+    assertThat(cursor("b", 5L).skipReturnedRows(rows)).containsExactly(rows.get(1));
+    assertThat(cursor("d", 12L).skipReturnedRows(rows)).isEmpty();
+  }
+
+  private static DocumentCursor cursor(String lastKey, long lastToken) {
+    return new DocumentCursor(null, lastKey, lastToken);
+  }
+
+  private static Row row(String key, long token) {
+    Row row = row(key);
+    when(row.columns())
+        .thenReturn(Collections.singletonList(Column.create(DocumentDB.TOKEN_COLUMN, Type.Bigint)));
+    when(row.getLong(DocumentDB.TOKEN_COLUMN)).thenReturn(token);
+    return row;
+  }
+
+  private static Row row(String key) {
+    Row row = mock(Row.class);
+    when(row.getString("key")).thenReturn(key);
+    return row;
+  }
+}
@@ -38,12 +38,14 @@ import io.stargate.auth.UnauthorizedException;
 import io.stargate.db.datastore.ArrayListBackedRow;
 import io.stargate.db.datastore.ResultSet;
 import io.stargate.db.datastore.Row;
+import io.stargate.db.query.Predicate;
 import io.stargate.db.query.builder.BuiltCondition;
 import io.stargate.db.schema.Column;
 import io.stargate.db.schema.Column.Type;
 import io.stargate.web.docsapi.dao.DocumentDB;
 import io.stargate.web.docsapi.exception.DocumentAPIRequestException;
 import io.stargate.web.docsapi.service.filter.FilterCondition;
+import io.stargate.web.docsapi.service.filter.FilterMatcher;
 import io.stargate.web.docsapi.service.filter.ListFilterCondition;
 import io.stargate.web.docsapi.service.filter.SingleFilterCondition;
 import io.stargate.web.resources.Db;
@@ -58,6 +60,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.PathSegment;
@@ -66,6 +70,7 @@ import org.jsfr.json.JsonSurfer;
 import org.jsfr.json.JsonSurferGson;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 public class DocumentServiceTest {
@@ -82,7 +87,6 @@ public class DocumentServiceTest {
   private Method getParentPathFromRow;
   private Method filterToSelectionSet;
   private Method applyInMemoryFilters;
-  private Method pathsMatch;
   private Method checkEqualsOp;
   private Method checkInOp;
   private Method checkGtOp;
@@ -129,7 +133,7 @@ public class DocumentServiceTest {
             Set.class,
             Map.class,
             List.class,
-            List.class,
+            FilterMatcher.class,
             boolean.class,
             boolean.class);
     updateExistenceForMap.setAccessible(true);
@@ -142,10 +146,8 @@ public class DocumentServiceTest {
     filterToSelectionSet.setAccessible(true);
     applyInMemoryFilters =
         DocumentService.class.getDeclaredMethod(
-            "applyInMemoryFilters", List.class, List.class, int.class, boolean.class);
+            "applyInMemoryFilters", List.class, FilterMatcher.class, int.class, boolean.class);
     applyInMemoryFilters.setAccessible(true);
-    pathsMatch = DocumentService.class.getDeclaredMethod("pathsMatch", String.class, String.class);
-    pathsMatch.setAccessible(true);
     checkEqualsOp =
         DocumentService.class.getDeclaredMethod(
             "checkEqualsOp",
@@ -923,6 +925,12 @@ public class DocumentServiceTest {
     Db dbFactoryMock = mock(Db.class);
     when(dbFactoryMock.getDocDataStoreForToken(anyString(), any())).thenReturn(dbMock);
     when(dbMock.newBindMap(any())).thenCallRealMethod();
+    when(dbMock.deleteThenInsertBatchAsync(
+            anyString(), anyString(), anyString(), any(), any(), anyLong()))
+        .thenReturn(CompletableFuture.completedFuture(ResultSet.empty()));
+    when(dbMock.deletePatchedPathsThenInsertBatchAsync(
+            anyString(), anyString(), anyString(), any(), any(), any(), anyLong()))
+        .thenReturn(CompletableFuture.completedFuture(ResultSet.empty()));
 
     service.putAtPath(
         "authToken",
@@ -937,9 +945,9 @@ public class DocumentServiceTest {
         EMPTY_HEADERS);
 
     verify(dbMock, times(1))
-        .deleteThenInsertBatch(anyString(), anyString(), anyString(), any(), any(), anyLong());
+        .deleteThenInsertBatchAsync(anyString(), anyString(), anyString(), any(), any(), anyLong());
     verify(dbMock, times(0))
-        .deletePatchedPathsThenInsertBatch(
+        .deletePatchedPathsThenInsertBatchAsync(
             anyString(), anyString(), anyString(), any(), any(), any(), anyLong());
   }
 
@@ -949,6 +957,12 @@ public class DocumentServiceTest {
     Db dbFactoryMock = mock(Db.class);
     when(dbFactoryMock.getDocDataStoreForToken(anyString(), any())).thenReturn(dbMock);
     when(dbMock.newBindMap(any())).thenCallRealMethod();
+    when(dbMock.deleteThenInsertBatchAsync(
+            anyString(), anyString(), anyString(), any(), any(), anyLong()))
+        .thenReturn(CompletableFuture.completedFuture(ResultSet.empty()));
+    when(dbMock.deletePatchedPathsThenInsertBatchAsync(
+            anyString(), anyString(), anyString(), any(), any(), any(), anyLong()))
+        .thenReturn(CompletableFuture.completedFuture(ResultSet.empty()));
 
     service.putAtPath(
         "authToken",
@@ -963,9 +977,9 @@ public class DocumentServiceTest {
         EMPTY_HEADERS);
 
     verify(dbMock, times(0))
-        .deleteThenInsertBatch(anyString(), anyString(), anyString(), any(), any(), anyLong());
+        .deleteThenInsertBatchAsync(anyString(), anyString(), anyString(), any(), any(), anyLong());
     verify(dbMock, times(1))
-        .deletePatchedPathsThenInsertBatch(
+        .deletePatchedPathsThenInsertBatchAsync(
             anyString(), anyString(), anyString(), any(), any(), any(), anyLong());
   }
 
@@ -1003,9 +1017,9 @@ public class DocumentServiceTest {
     AuthorizationService authorizationService = mock(AuthorizationService.class);
     DocumentDB dbMock = mock(DocumentDB.class);
     ResultSet rsMock = mock(ResultSet.class);
-    when(dbMock.executeSelect(anyString(), anyString(), anyListOf(BuiltCondition.class)))
-        .thenReturn(rsMock);
-    when(rsMock.rows()).thenReturn(new ArrayList<>());
+    when(dbMock.executeSelectAsync(anyString(), anyString(), anyListOf(BuiltCondition.class)))
+        .thenReturn(CompletableFuture.completedFuture(rsMock));
+    when(rsMock.rowsAsync()).thenReturn(CompletableFuture.completedFuture(new ArrayList<>()));
     when(dbMock.getAuthorizationService()).thenReturn(authorizationService);
     doNothing()
         .when(authorizationService)
@@ -1013,7 +1027,8 @@ public class DocumentServiceTest {
             any(AuthenticationSubject.class), anyString(), anyString(), eq(SourceAPI.REST));
 
     List<PathSegment> path = smallPath();
-    JsonNode result = service.getJsonAtPath(dbMock, "ks", "collection", "id", path);
+    JsonNode result =
+        service.getJsonAtPath(dbMock, "ks", "collection", "id", path).toCompletableFuture().join();
 
     assertThat(result).isNull();
   }
@@ -1025,8 +1040,8 @@ public class DocumentServiceTest {
     DocumentDB dbMock = mock(DocumentDB.class);
     ResultSet rsMock = mock(ResultSet.class);
     DocumentService serviceMock = mock(DocumentService.class, CALLS_REAL_METHODS);
-    when(dbMock.executeSelect(anyString(), anyString(), anyListOf(BuiltCondition.class)))
-        .thenReturn(rsMock);
+    when(dbMock.executeSelectAsync(anyString(), anyString(), anyListOf(BuiltCondition.class)))
+        .thenReturn(CompletableFuture.completedFuture(rsMock));
     when(dbMock.getAuthorizationService()).thenReturn(authorizationService);
     doNothing()
         .when(authorizationService)
@@ -1034,14 +1049,18 @@ public class DocumentServiceTest {
             any(AuthenticationSubject.class), anyString(), anyString(), eq(SourceAPI.REST));
 
     List<Row> rows = makeInitialRowData();
-    when(rsMock.rows()).thenReturn(rows);
+    when(rsMock.rowsAsync()).thenReturn(CompletableFuture.completedFuture(rows));
 
     List<PathSegment> path = smallPath();
 
     when(serviceMock.convertToJsonDoc(anyListOf(Row.class), anyBoolean(), anyBoolean()))
         .thenReturn(ImmutablePair.of(mapper.createObjectNode(), new HashMap<>()));
 
-    JsonNode result = serviceMock.getJsonAtPath(dbMock, "ks", "collection", "id", path);
+    JsonNode result =
+        serviceMock
+            .getJsonAtPath(dbMock, "ks", "collection", "id", path)
+            .toCompletableFuture()
+            .join();
 
     assertThat(result).isNull();
   }
@@ -1054,8 +1073,8 @@ public class DocumentServiceTest {
     DocumentDB dbMock = mock(DocumentDB.class);
     ResultSet rsMock = mock(ResultSet.class);
     DocumentService serviceMock = mock(DocumentService.class, CALLS_REAL_METHODS);
-    when(dbMock.executeSelect(anyString(), anyString(), anyListOf(BuiltCondition.class)))
-        .thenReturn(rsMock);
+    when(dbMock.executeSelectAsync(anyString(), anyString(), anyListOf(BuiltCondition.class)))
+        .thenReturn(CompletableFuture.completedFuture(rsMock));
     when(dbMock.getAuthorizationService()).thenReturn(authorizationService);
     doNothing()
         .when(authorizationService)
@@ -1063,7 +1082,7 @@ public class DocumentServiceTest {
             any(AuthenticationSubject.class), anyString(), anyString(), eq(SourceAPI.REST));
 
     List<Row> rows = makeInitialRowData();
-    when(rsMock.rows()).thenReturn(rows);
+    when(rsMock.rowsAsync()).thenReturn(CompletableFuture.completedFuture(rows));
 
     List<PathSegment> path = smallPath();
 
@@ -1073,7 +1092,11 @@ public class DocumentServiceTest {
     when(serviceMock.convertToJsonDoc(anyListOf(Row.class), anyBoolean(), anyBoolean()))
         .thenReturn(ImmutablePair.of(jsonObj, new HashMap<>()));
 
-    JsonNode result = serviceMock.getJsonAtPath(dbMock, "ks", "collection", "id", path);
+    JsonNode result =
+        serviceMock
+            .getJsonAtPath(dbMock, "ks", "collection", "id", path)
+            .toCompletableFuture()
+            .join();
 
     assertThat(result).isEqualTo(IntNode.valueOf(1));
   }
@@ -1086,8 +1109,8 @@ public class DocumentServiceTest {
     DocumentDB dbMock = mock(DocumentDB.class);
     ResultSet rsMock = mock(ResultSet.class);
     DocumentService serviceMock = mock(DocumentService.class, CALLS_REAL_METHODS);
-    when(dbMock.executeSelect(anyString(), anyString(), anyListOf(BuiltCondition.class)))
-        .thenReturn(rsMock);
+    when(dbMock.executeSelectAsync(anyString(), anyString(), anyListOf(BuiltCondition.class)))
+        .thenReturn(CompletableFuture.completedFuture(rsMock));
     when(dbMock.getAuthorizationService()).thenReturn(authorizationService);
     doNothing()
         .when(authorizationService)
@@ -1095,7 +1118,7 @@ public class DocumentServiceTest {
             any(AuthenticationSubject.class), anyString(), anyString(), eq(SourceAPI.REST));
 
     List<Row> rows = makeInitialRowData();
-    when(rsMock.rows()).thenReturn(rows);
+    when(rsMock.rowsAsync()).thenReturn(CompletableFuture.completedFuture(rows));
 
     List<PathSegment> path = smallPath();
 
@@ -1104,13 +1127,19 @@ public class DocumentServiceTest {
 
     Map<String, List<JsonNode>> deadLeaves = new HashMap<>();
     deadLeaves.put("a", new ArrayList<>());
+    when(dbMock.deleteDeadLeavesAsync("ks", "collection", "id", deadLeaves))
+        .thenReturn(CompletableFuture.completedFuture(ResultSet.empty()));
     when(serviceMock.convertToJsonDoc(anyListOf(Row.class), anyBoolean(), anyBoolean()))
         .thenReturn(ImmutablePair.of(jsonObj, deadLeaves));
 
-    JsonNode result = serviceMock.getJsonAtPath(dbMock, "ks", "collection", "id", path);
+    JsonNode result =
+        serviceMock
+            .getJsonAtPath(dbMock, "ks", "collection", "id", path)
+            .toCompletableFuture()
+            .join();
 
     assertThat(result).isEqualTo(IntNode.valueOf(1));
-    verify(dbMock, times(1)).deleteDeadLeaves("ks", "collection", "id", deadLeaves);
+    verify(dbMock, times(1)).deleteDeadLeavesAsync("ks", "collection", "id", deadLeaves);
   }
 
   @Test
@@ -1221,9 +1250,13 @@ public class DocumentServiceTest {
         .authorizeDataRead(
             any(AuthenticationSubject.class), anyString(), anyString(), eq(SourceAPI.REST));
 
+    when(dbMock.deleteAsync(
+            anyString(), anyString(), anyString(), anyListOf(String.class), anyLong()))
+        .thenReturn(CompletableFuture.completedFuture(ResultSet.empty()));
+
     service.deleteAtPath(dbMock, "keyspace", "collection", "id", smallPath());
     verify(dbMock, times(1))
-        .delete(anyString(), anyString(), anyString(), anyListOf(String.class), anyLong());
+        .deleteAsync(anyString(), anyString(), anyString(), anyListOf(String.class), anyLong());
   }
 
   // searchDocuments unit tests excluded here, it is in deprecated v1
@@ -1239,14 +1272,17 @@ public class DocumentServiceTest {
     Mockito.when(
             serviceMock.searchRows(
                 any(), any(), any(), any(), any(), any(), any(), any(), anyInt(), any()))
-        .thenReturn(ImmutablePair.of(new ArrayList<>(), null));
+        .thenReturn(CompletableFuture.completedFuture(ImmutablePair.of(new ArrayList<>(), null)));
 
     List<FilterCondition> filters =
         ImmutableList.of(
             new SingleFilterCondition(ImmutableList.of("a", "b", "c"), "$eq", "value"));
     ImmutablePair<JsonNode, ByteBuffer> result =
-        serviceMock.searchDocumentsV2(
-            dbMock, "keyspace", "collection", filters, new ArrayList<>(), null, 100, null);
+        serviceMock
+            .searchDocumentsV2(
+                dbMock, "keyspace", "collection", filters, new ArrayList<>(), null, 100, null)
+            .toCompletableFuture()
+            .join();
     assertThat(result).isNull();
   }
 
@@ -1261,7 +1297,8 @@ public class DocumentServiceTest {
     Mockito.when(
             serviceMock.searchRows(
                 any(), any(), any(), any(), any(), any(), any(), any(), anyInt(), any()))
-        .thenReturn(ImmutablePair.of(makeInitialRowData(), null));
+        .thenReturn(
+            CompletableFuture.completedFuture(ImmutablePair.of(makeInitialRowData(), null)));
     Mockito.when(serviceMock.convertToJsonDoc(any(), anyBoolean(), anyBoolean()))
         .thenReturn(ImmutablePair.of(mapper.readTree("{\"a\": 1}"), new HashMap<>()));
 
@@ -1269,8 +1306,11 @@ public class DocumentServiceTest {
         ImmutableList.of(
             new SingleFilterCondition(ImmutableList.of("a", "b", "c"), "$eq", "value"));
     ImmutablePair<JsonNode, ByteBuffer> result =
-        serviceMock.searchDocumentsV2(
-            dbMock, "keyspace", "collection", filters, new ArrayList<>(), null, 100, null);
+        serviceMock
+            .searchDocumentsV2(
+                dbMock, "keyspace", "collection", filters, new ArrayList<>(), null, 100, null)
+            .toCompletableFuture()
+            .join();
     assertThat(result.right).isNull();
     assertThat(result.left).isEqualTo(mapper.readTree("{\"1\":[{\"a\":1},{\"a\":1},{\"a\":1}]}"));
   }
@@ -1286,15 +1326,26 @@ public class DocumentServiceTest {
     Mockito.when(
             serviceMock.searchRows(
                 any(), any(), any(), any(), any(), any(), any(), any(), anyInt(), any()))
-        .thenReturn(ImmutablePair.of(makeInitialRowData(), null));
+        .thenReturn(
+            CompletableFuture.completedFuture(ImmutablePair.of(makeInitialRowData(), null)));
     Mockito.when(serviceMock.convertToJsonDoc(any(), anyBoolean(), anyBoolean()))
         .thenReturn(ImmutablePair.of(mapper.readTree("{\"a\": 1}"), new HashMap<>()));
     List<FilterCondition> filters =
         ImmutableList.of(
             new SingleFilterCondition(ImmutableList.of("a", "b", "c"), "$exists", true));
     ImmutablePair<JsonNode, ByteBuffer> result =
-        serviceMock.searchDocumentsV2(
-            dbMock, "keyspace", "collection", filters, ImmutableList.of("field"), null, 100, null);
+        serviceMock
+            .searchDocumentsV2(
+                dbMock,
+                "keyspace",
+                "collection",
+                filters,
+                ImmutableList.of("field"),
+                null,
+                100,
+                null)
+            .toCompletableFuture()
+            .join();
     assertThat(result.right).isNull();
     assertThat(result.left).isEqualTo(mapper.readTree("{\"1\":[{\"a\":1},{\"a\":1},{\"a\":1}]}"));
   }
@@ -1313,7 +1364,13 @@ public class DocumentServiceTest {
     Map<String, Integer> countsByDoc = new HashMap<>();
     List<Row> rows = makeInitialRowData();
     updateExistenceForMap.invoke(
-        service, existenceByDoc, countsByDoc, rows, new ArrayList<>(), false, true);
+        service,
+        existenceByDoc,
+        countsByDoc,
+        rows,
+        FilterMatcher.compile(new ArrayList<>()),
+        false,
+        true);
     assertThat(existenceByDoc.contains("1")).isTrue();
     assertThat(countsByDoc.get("1")).isEqualTo(3);
   }
@@ -1327,7 +1384,8 @@ public class DocumentServiceTest {
     Mockito.when(
             serviceMock.searchRows(
                 any(), any(), any(), any(), any(), any(), any(), any(), anyInt(), any()))
-        .thenReturn(ImmutablePair.of(makeInitialRowData(), null));
+        .thenReturn(
+            CompletableFuture.completedFuture(ImmutablePair.of(makeInitialRowData(), null)));
     Mockito.when(
             serviceMock.getFullDocuments(
                 any(),
@@ -1346,17 +1404,20 @@ public class DocumentServiceTest {
         .thenReturn(ImmutablePair.of(mapper.readTree("{\"a\": 1}"), new HashMap<>()));
 
     ImmutablePair<JsonNode, ByteBuffer> result =
-        serviceMock.getFullDocuments(
-            dbFactoryMock,
-            dbMock,
-            "authToken",
-            "keyspace",
-            "collection",
-            new ArrayList<>(),
-            null,
-            100,
-            1,
-            EMPTY_HEADERS);
+        serviceMock
+            .getFullDocuments(
+                dbFactoryMock,
+                dbMock,
+                "authToken",
+                "keyspace",
+                "collection",
+                new ArrayList<>(),
+                null,
+                100,
+                1,
+                EMPTY_HEADERS)
+            .toCompletableFuture()
+            .join();
     assertThat(result.right).isNull();
     assertThat(result.left).isEqualTo(mapper.readTree("{\"1\": {\"a\": 1}}"));
   }
@@ -1372,7 +1433,61 @@ public class DocumentServiceTest {
     Mockito.when(
             serviceMock.searchRows(
                 any(), any(), any(), any(), any(), any(), any(), any(), anyInt(), any()))
-        .thenReturn(ImmutablePair.of(twoDocsRows, null));
+        .thenReturn(CompletableFuture.completedFuture(ImmutablePair.of(twoDocsRows, null)));
+    Mockito.when(
+            serviceMock.getFullDocuments(
+                any(),
+                any(),
+                anyString(),
+                anyString(),
+                anyString(),
+                anyListOf(String.class),
+                any(),
+                anyInt(),
+                anyInt(),
+                any()))
+        .thenCallRealMethod();
+    Mockito.doCallRealMethod().when(serviceMock).addRowsToMap(anyMap(), anyList());
+    Mockito.when(serviceMock.convertToJsonDoc(any(), anyBoolean(), anyBoolean()))
+        .thenReturn(ImmutablePair.of(mapper.readTree("{\"a\": 1}"), new HashMap<>()));
+
+    ImmutablePair<JsonNode, ByteBuffer> result =
+        serviceMock
+            .getFullDocuments(
+                dbFactoryMock,
+                dbMock,
+                "authToken",
+                "keyspace",
+                "collection",
+                new ArrayList<>(),
+                null,
+                100,
+                1,
+                EMPTY_HEADERS)
+            .toCompletableFuture()
+            .join();
+    DocumentCursor cursor = DocumentCursor.decode(result.right);
+    assertThat(cursor.lastKey()).isEqualTo("1");
+    assertThat(cursor.pagingState()).isNull();
+    assertThat(result.left).isEqualTo(mapper.readTree("{\"1\": {\"a\": 1}}"));
+    // The paging state is computed from the rows read, without reading them again.
+    Mockito.verify(serviceMock, Mockito.times(1))
+        .searchRows(any(), any(), any(), any(), any(), any(), any(), any(), anyInt(), any());
+  }
+
+  @Test
+  public void getFullDocuments_resumesAfterCursor() throws Exception {
+    Db dbFactoryMock = Mockito.mock(Db.class);
+    DocumentDB dbMock = Mockito.mock(DocumentDB.class);
+    DocumentService serviceMock = Mockito.mock(DocumentService.class);
+    List<Row> twoDocsRows = makeInitialRowData();
+    twoDocsRows.addAll(makeRowDataForSecondDoc());
+    ByteBuffer pagingState = ByteBuffer.wrap(new byte[] {1, 2, 3});
+    Mockito.when(dbFactoryMock.getDocDataStoreForToken(anyString(), any())).thenReturn(dbMock);
+    Mockito.when(
+            serviceMock.searchRows(
+                any(), any(), any(), any(), any(), any(), any(), any(), anyInt(), any()))
+        .thenReturn(CompletableFuture.completedFuture(ImmutablePair.of(twoDocsRows, null)));
     Mockito.when(
             serviceMock.getFullDocuments(
                 any(),
@@ -1391,19 +1506,107 @@ public class DocumentServiceTest {
         .thenReturn(ImmutablePair.of(mapper.readTree("{\"a\": 1}"), new HashMap<>()));
 
     ImmutablePair<JsonNode, ByteBuffer> result =
-        serviceMock.getFullDocuments(
-            dbFactoryMock,
-            dbMock,
-            "authToken",
-            "keyspace",
-            "collection",
-            new ArrayList<>(),
-            null,
-            100,
-            1,
-            EMPTY_HEADERS);
+        serviceMock
+            .getFullDocuments(
+                dbFactoryMock,
+                dbMock,
+                "authToken",
+                "keyspace",
+                "collection",
+                new ArrayList<>(),
+                new DocumentCursor(pagingState, "1").encode(),
+                100,
+                1,
+                EMPTY_HEADERS)
+            .toCompletableFuture()
+            .join();
+    assertThat(result.right).isNull();
+    assertThat(result.left).isEqualTo(mapper.readTree("{\"2\": {\"a\": 1}}"));
+    Mockito.verify(serviceMock)
+        .searchRows(
+            any(), any(), any(), any(), any(), any(), any(), any(), anyInt(), eq(pagingState));
+  }
+
+  @Test
+  public void getFullDocumentsFiltered_intersectsPathsWithSAI() throws Exception {
+    Db dbFactoryMock = Mockito.mock(Db.class);
+    DocumentDB dbMock = Mockito.mock(DocumentDB.class);
+    DocumentService serviceMock = Mockito.mock(DocumentService.class);
+    List<Row> twoDocsRows = makeInitialRowData();
+    twoDocsRows.addAll(makeRowDataForSecondDoc());
+    List<Row> firstDocRows = makeInitialRowData();
+    Mockito.when(dbMock.supportsSAI()).thenReturn(true);
+    Mockito.when(dbFactoryMock.getDocDataStoreForToken(anyString(), any())).thenReturn(dbMock);
+    Mockito.when(
+            serviceMock.searchRows(
+                any(), any(), any(), any(), any(), any(), any(), any(), anyInt(), any()))
+        .thenReturn(CompletableFuture.completedFuture(ImmutablePair.of(twoDocsRows, null)));
+    // The rows of both candidates are read, then the ones of the matching document.
+    ResultSet candidatesRs = mock(ResultSet.class);
+    Mockito.when(candidatesRs.rowsAsync())
+        .thenReturn(CompletableFuture.completedFuture(twoDocsRows));
+    ResultSet docsRs = mock(ResultSet.class);
+    Mockito.when(docsRs.rowsAsync()).thenReturn(CompletableFuture.completedFuture(firstDocRows));
+    Mockito.when(dbMock.executeSelectAsync(anyString(), anyString(), anyList()))
+        .thenReturn(
+            CompletableFuture.completedFuture(candidatesRs),
+            CompletableFuture.completedFuture(docsRs));
+    Mockito.when(
+            serviceMock.applyInMemoryFilters(
+                anyList(), any(FilterMatcher.class), anyInt(), anyBoolean()))
+        .thenCallRealMethod();
+    Mockito.when(
+            serviceMock.getFullDocumentsFiltered(
+                any(),
+                any(),
+                anyString(),
+                anyString(),
+                anyString(),
+                anyList(),
+                anyListOf(String.class),
+                any(),
+                anyInt(),
+                anyInt(),
+                any()))
+        .thenCallRealMethod();
+    Mockito.when(serviceMock.convertToJsonDoc(any(), anyBoolean(), anyBoolean()))
+        .thenReturn(ImmutablePair.of(mapper.readTree("{\"a\": 1}"), new HashMap<>()));
+
+    // Only the first document has an "f" field equal to "abc".
+    List<FilterCondition> filters =
+        ImmutableList.of(
+            new SingleFilterCondition(ImmutableList.of("a"), "$eq", "x"),
+            new SingleFilterCondition(ImmutableList.of("f"), "$eq", "abc"));
+    ImmutablePair<JsonNode, ByteBuffer> result =
+        serviceMock
+            .getFullDocumentsFiltered(
+                dbFactoryMock,
+                dbMock,
+                "authToken",
+                "keyspace",
+                "collection",
+                filters,
+                new ArrayList<>(),
+                null,
+                100,
+                1,
+                EMPTY_HEADERS)
+            .toCompletableFuture()
+            .join();
+
     assertThat(result.right).isNull();
     assertThat(result.left).isEqualTo(mapper.readTree("{\"1\": {\"a\": 1}}"));
+    // One indexed query for the first path, and the rows of the candidate documents are read by
+    // key only, as Cassandra rejects indexed queries restricted to a set of keys.
+    Mockito.verify(serviceMock, Mockito.times(1))
+        .searchRows(any(), any(), any(), any(), any(), any(), any(), any(), anyInt(), any());
+    ArgumentCaptor<List<BuiltCondition>> predicates = ArgumentCaptor.forClass(List.class);
+    Mockito.verify(dbMock, Mockito.times(2))
+        .executeSelectAsync(anyString(), anyString(), predicates.capture());
+    assertThat(predicates.getAllValues().get(0))
+        .containsExactly(BuiltCondition.of("key", Predicate.IN, ImmutableList.of("1", "2")));
+    assertThat(predicates.getAllValues().get(1))
+        .containsExactly(BuiltCondition.of("key", Predicate.IN, ImmutableList.of("1")));
   }
 
   @Test
@@ -1414,9 +1617,10 @@ public class DocumentServiceTest {
 
     ResultSet rsMock = mock(ResultSet.class);
     List<Row> rows = makeInitialRowData();
-    when(dbMock.executeSelectAll(anyString(), anyString(), anyInt(), any())).thenReturn(rsMock);
-    when(dbMock.executeSelect(anyString(), anyString(), any(), anyBoolean(), anyInt(), any()))
-        .thenReturn(rsMock);
+    when(dbMock.executeSelectAllAsync(anyString(), anyString(), anyInt(), any()))
+        .thenReturn(CompletableFuture.completedFuture(rsMock));
+    when(dbMock.executeSelectAsync(anyString(), anyString(), any(), anyBoolean(), anyInt(), any()))
+        .thenReturn(CompletableFuture.completedFuture(rsMock));
     when(rsMock.currentPageRows()).thenReturn(rows);
     when(dbMock.getAuthorizationService()).thenReturn(authorizationService);
     doNothing()
@@ -1429,36 +1633,42 @@ public class DocumentServiceTest {
 
     ImmutablePair<?, ?> result =
         (ImmutablePair<?, ?>)
-            searchRows.invoke(
-                service,
-                "keyspace",
-                "collection",
-                dbMock,
-                filters,
-                new ArrayList<>(),
-                ImmutableList.of("a,b", "*", "c"),
-                false,
-                null,
-                100,
-                null);
+            ((CompletionStage<?>)
+                    searchRows.invoke(
+                        service,
+                        "keyspace",
+                        "collection",
+                        dbMock,
+                        filters,
+                        new ArrayList<>(),
+                        ImmutableList.of("a,b", "*", "c"),
+                        false,
+                        null,
+                        100,
+                        null))
+                .toCompletableFuture()
+                .join();
 
     assertThat(result.right).isNull();
     assertThat(result.left).isEqualTo(rows);
 
     result =
         (ImmutablePair<?, ?>)
-            searchRows.invoke(
-                service,
-                "keyspace",
-                "collection",
-                dbMock,
-                new ArrayList<>(),
-                new ArrayList<>(),
-                new ArrayList<>(),
-                false,
-                null,
-                100,
-                null);
+            ((CompletionStage<?>)
+                    searchRows.invoke(
+                        service,
+                        "keyspace",
+                        "collection",
+                        dbMock,
+                        new ArrayList<>(),
+                        new ArrayList<>(),
+                        new ArrayList<>(),
+                        false,
+                        null,
+                        100,
+                        null))
+                .toCompletableFuture()
+                .join();
 
     assertThat(result.right).isNull();
     assertThat(result.left).isEqualTo(rows);
@@ -1470,9 +1680,10 @@ public class DocumentServiceTest {
     DocumentDB dbMock = mock(DocumentDB.class);
     ResultSet rsMock = mock(ResultSet.class);
     List<Row> rows = makeInitialRowData();
-    when(dbMock.executeSelectAll(anyString(), anyString(), anyInt(), any())).thenReturn(rsMock);
-    when(dbMock.executeSelect(anyString(), anyString(), any(), anyBoolean(), anyInt(), any()))
-        .thenReturn(rsMock);
+    when(dbMock.executeSelectAllAsync(anyString(), anyString(), anyInt(), any()))
+        .thenReturn(CompletableFuture.completedFuture(rsMock));
+    when(dbMock.executeSelectAsync(anyString(), anyString(), any(), anyBoolean(), anyInt(), any()))
+        .thenReturn(CompletableFuture.completedFuture(rsMock));
     when(dbMock.getAuthorizationService()).thenReturn(authorizationService);
     doNothing()
         .when(authorizationService)
@@ -1487,18 +1698,21 @@ public class DocumentServiceTest {
     Throwable thrown =
         catchThrowable(
             () ->
-                searchRows.invoke(
-                    service,
-                    "keyspace",
-                    "collection",
-                    dbMock,
-                    filters,
-                    new ArrayList<>(),
-                    ImmutableList.of("a,b", "*", "c"),
-                    null,
-                    null,
-                    1,
-                    null));
+                ((CompletionStage<?>)
+                        searchRows.invoke(
+                            service,
+                            "keyspace",
+                            "collection",
+                            dbMock,
+                            filters,
+                            new ArrayList<>(),
+                            ImmutableList.of("a,b", "*", "c"),
+                            null,
+                            null,
+                            1,
+                            null))
+                    .toCompletableFuture()
+                    .join());
 
     assertThat(thrown.getCause())
         .isInstanceOf(DocumentAPIRequestException.class)
@@ -1540,90 +1754,88 @@ public class DocumentServiceTest {
     List<FilterCondition> filters =
         ImmutableList.of(new SingleFilterCondition(ImmutableList.of("a", "b", "c"), "$eq", true));
     List<?> result =
-        (List<?>) applyInMemoryFilters.invoke(service, rows, new ArrayList<>(), 1, false);
+        (List<?>)
+            applyInMemoryFilters.invoke(
+                service, rows, FilterMatcher.compile(new ArrayList<>()), 1, false);
     assertThat(result).isEqualTo(rows);
 
-    result = (List<?>) applyInMemoryFilters.invoke(service, rows, filters, 1, false);
+    result =
+        (List<?>)
+            applyInMemoryFilters.invoke(service, rows, FilterMatcher.compile(filters), 1, false);
     assertThat(result.size()).isEqualTo(1);
     assertThat(result.get(0)).isEqualTo(rows.get(0));
 
     filters =
         ImmutableList.of(
             new SingleFilterCondition(ImmutableList.of("a", "b", "c"), "$exists", true));
-    result = (List<?>) applyInMemoryFilters.invoke(service, rows, filters, 1, false);
+    result =
+        (List<?>)
+            applyInMemoryFilters.invoke(service, rows, FilterMatcher.compile(filters), 1, false);
     assertThat(result.size()).isEqualTo(1);
     assertThat(result.get(0)).isEqualTo(rows.get(0));
 
     filters =
         ImmutableList.of(
             new SingleFilterCondition(ImmutableList.of("a", "b", "x"), "$exists", true));
-    result = (List<?>) applyInMemoryFilters.invoke(service, rows, filters, 1, false);
+    result =
+        (List<?>)
+            applyInMemoryFilters.invoke(service, rows, FilterMatcher.compile(filters), 1, false);
     assertThat(result.size()).isEqualTo(0);
 
     filters =
         ImmutableList.of(new SingleFilterCondition(ImmutableList.of("a", "b", "c"), "$gt", true));
-    result = (List<?>) applyInMemoryFilters.invoke(service, rows, filters, 1, false);
+    result =
+        (List<?>)
+            applyInMemoryFilters.invoke(service, rows, FilterMatcher.compile(filters), 1, false);
     assertThat(result.size()).isEqualTo(0);
 
     filters =
         ImmutableList.of(new SingleFilterCondition(ImmutableList.of("a", "b", "c"), "$gte", 2.0));
-    result = (List<?>) applyInMemoryFilters.invoke(service, rows, filters, 1, false);
+    result =
+        (List<?>)
+            applyInMemoryFilters.invoke(service, rows, FilterMatcher.compile(filters), 1, false);
     assertThat(result.size()).isEqualTo(0);
 
     filters =
         ImmutableList.of(new SingleFilterCondition(ImmutableList.of("a", "b", "c"), "$lt", true));
-    result = (List<?>) applyInMemoryFilters.invoke(service, rows, filters, 1, false);
+    result =
+        (List<?>)
+            applyInMemoryFilters.invoke(service, rows, FilterMatcher.compile(filters), 1, false);
     assertThat(result.size()).isEqualTo(0);
 
     filters =
         ImmutableList.of(new SingleFilterCondition(ImmutableList.of("a", "b", "c"), "$lte", false));
-    result = (List<?>) applyInMemoryFilters.invoke(service, rows, filters, 1, false);
+    result =
+        (List<?>)
+            applyInMemoryFilters.invoke(service, rows, FilterMatcher.compile(filters), 1, false);
     assertThat(result.size()).isEqualTo(0);
 
     filters =
         ImmutableList.of(new SingleFilterCondition(ImmutableList.of("a", "b", "c"), "$ne", true));
-    result = (List<?>) applyInMemoryFilters.invoke(service, rows, filters, 1, false);
+    result =
+        (List<?>)
+            applyInMemoryFilters.invoke(service, rows, FilterMatcher.compile(filters), 1, false);
     assertThat(result.size()).isEqualTo(0);
 
     filters =
         ImmutableList.of(
             new ListFilterCondition(
                 ImmutableList.of("a", "b", "c"), "$in", ImmutableList.of(false)));
-    result = (List<?>) applyInMemoryFilters.invoke(service, rows, filters, 1, false);
+    result =
+        (List<?>)
+            applyInMemoryFilters.invoke(service, rows, FilterMatcher.compile(filters), 1, false);
     assertThat(result.size()).isEqualTo(0);
 
     filters =
         ImmutableList.of(
             new ListFilterCondition(
                 ImmutableList.of("a", "b", "c"), "$nin", ImmutableList.of(true)));
-    result = (List<?>) applyInMemoryFilters.invoke(service, rows, filters, 1, false);
+    result =
+        (List<?>)
+            applyInMemoryFilters.invoke(service, rows, FilterMatcher.compile(filters), 1, false);
     assertThat(result.size()).isEqualTo(0);
   }
 
-  @Test
-  public void pathsMatch() throws InvocationTargetException, IllegalAccessException {
-    boolean res = (boolean) pathsMatch.invoke(service, "", "");
-    assertThat(res).isTrue();
-
-    res = (boolean) pathsMatch.invoke(service, "a", "a");
-    assertThat(res).isTrue();
-
-    res = (boolean) pathsMatch.invoke(service, "a", "b");
-    assertThat(res).isFalse();
-
-    res = (boolean) pathsMatch.invoke(service, "a.b", "a.b");
-    assertThat(res).isTrue();
-
-    res = (boolean) pathsMatch.invoke(service, "a.b", "a.c");
-    assertThat(res).isFalse();
-
-    res = (boolean) pathsMatch.invoke(service, "a.*.c", "a.b.c");
-    assertThat(res).isTrue();
-
-    res = (boolean) pathsMatch.invoke(service, "a.*.d", "a.b.c");
-    assertThat(res).isFalse();
-  }
-
   @Test
   public void checkEqualsOp() throws InvocationTargetException, IllegalAccessException {
     SingleFilterCondition cond = new SingleFilterCondition(ImmutableList.of("a"), "$eq", true);
@@ -0,0 +1,91 @@
+package io.stargate.web.docsapi.service.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.stargate.db.datastore.Row;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class FilterMatcherTest {
+
+  // Matches a row if it satisfies all the $exists filters, and has the text value of the others.
+  @Test
+  public void emptyFiltersMatchAllRows() {
+    FilterMatcher matcher = FilterMatcher.compile(Collections.emptyList());
+    List<Row> rows = Arrays.asList(row("a", "1"), row("b", "2"));
+
+    assertThat(matcher.isEmpty()).isTrue();
+    assertThat(matcher.filterDocuments(rows, 1, (row, filters) -> false)).isSameAs(rows);
+  }
+
+  @Test
+  public void matchesAllFieldPaths() {
+    FilterMatcher matcher =
+        FilterMatcher.compile(
+            Arrays.asList(
+                eq("a.b", "1"),
+                eq("c", "2"),
+                new SingleFilterCondition(Collections.singletonList("c"), "$exists", true)));
+    Row ab = row("1", "a", "b");
+    Row c = row("2", "c");
+    Row other = row("1", "d");
+
+    assertThat(matcher.isEmpty()).isFalse();
+    assertThat(matcher.filterDocuments(Arrays.asList(ab, c), 2, FilterMatcherTest::textEquals))
+        .containsExactly(ab, c);
+    // Each document must have a matching row for every field path.
+    assertThat(
+            matcher.filterDocuments(
+                Arrays.asList(ab, other, c, other), 2, FilterMatcherTest::textEquals))
+        .isEmpty();
+    assertThat(
+            matcher.filterDocuments(
+                Arrays.asList(row("3", "a", "b"), c), 2, FilterMatcherTest::textEquals))
+        .isEmpty();
+  }
+
+  @Test
+  public void matchesGlobSegments() {
+    FilterMatcher matcher = FilterMatcher.compile(Collections.singletonList(eq("*.b", "1")));
+    Row first = row("1", "x", "b");
+    Row second = row("1", "y", "b");
+    Row deeper = row("1", "x", "y", "b");
+
+    List<Row> rows = new ArrayList<>(Arrays.asList(first, second, deeper, null));
+    assertThat(matcher.filterDocuments(rows, 1, FilterMatcherTest::textEquals))
+        .containsExactly(first, second);
+    // A "*" row segment, as stored for array elements, matches any filter segment.
+    Row array = row("1", "*", "b");
+    assertThat(
+            matcher.filterDocuments(
+                Collections.singletonList(array), 1, FilterMatcherTest::textEquals))
+        .containsExactly(array);
+  }
+
+  private static boolean textEquals(Row row, List<FilterCondition> filters) {
+    return filters.stream()
+        .allMatch(
+            f ->
+                f.getFilterOp() == FilterOp.EXISTS
+                    || f.getValue().equals(row.getString("text_value")));
+  }
+
+  private static FilterCondition eq(String path, String value) {
+    return new SingleFilterCondition(Arrays.asList(path.split("\\.")), "$eq", value);
+  }
+
+  private static Row row(String textValue, String... path) {
+    Row row = mock(Row.class);
+    for (int i = 0; i < path.length; i++) {
+      when(row.getString("p" + i)).thenReturn(path[i]);
+    }
+    when(row.getString("leaf")).thenReturn(path.length == 0 ? null : path[path.length - 1]);
+    when(row.getString("text_value")).thenReturn(textValue);
+    return row;
+  }
+}
@@ -0,0 +1,129 @@
+package io.stargate.web.resources;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.dropwizard.jackson.Jackson;
+import io.stargate.db.datastore.ArrayListBackedRow;
+import io.stargate.db.datastore.Row;
+import io.stargate.db.schema.Column;
+import io.stargate.db.schema.Column.Type;
+import io.stargate.web.impl.Server;
+import io.stargate.web.models.GetResponseWrapper;
+import io.stargate.web.models.RowResponse;
+import io.stargate.web.models.Rows;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+public class RowsResponseWriterTest {
+
+  private static final ObjectMapper V1_MAPPER = v1ObjectMapper();
+
+  private static final List<Column> COLUMNS =
+      Arrays.asList(
+          Column.create("id", Type.Uuid),
+          Column.create("name", Type.Text),
+          Column.create("counter", Type.Bigint),
+          Column.create("varint", Type.Varint),
+          Column.create("created", Type.Timestamp),
+          Column.create("day", Type.Date),
+          Column.create("tags", Type.List.of(Type.Text)),
+          Column.create("scores", Type.Map.of(Type.Text, Type.Int)));
+
+  private static final List<Row> ROWS =
+      Arrays.asList(
+          row(
+              UUID.randomUUID(),
+              "alice",
+              Long.MAX_VALUE,
+              BigInteger.TEN.pow(30),
+              Instant.parse("2020-11-01T12:00:00Z"),
+              LocalDate.of(2020, 11, 1),
+              ImmutableList.of("a", "b"),
+              ImmutableMap.of("x", 1, "y", 2)),
+          row(UUID.randomUUID(), "bob \"quoted\"", 1L, null, null, null, null, null));
+
+  @Test
+  public void shouldWriteSameJsonAsV2Wrapper() throws IOException {
+    List<Map<String, Object>> maps = v2Maps();
+
+    String expected = Converters.writeResponse(new GetResponseWrapper(2, "c3RhdGU=", maps));
+    assertSameJson(write(RowsResponseWriter.v2(ROWS, "c3RhdGU=", false)), expected);
+
+    expected = Converters.writeResponse(new GetResponseWrapper(2, null, maps));
+    assertSameJson(write(RowsResponseWriter.v2(ROWS, null, false)), expected);
+  }
+
+  @Test
+  public void shouldWriteSameJsonAsV2Raw() throws IOException {
+    assertSameJson(
+        write(RowsResponseWriter.v2(ROWS, "c3RhdGU=", true)), Converters.writeResponse(v2Maps()));
+  }
+
+  @Test
+  public void shouldWriteEmptyPages() throws IOException {
+    assertThat(write(RowsResponseWriter.v2(new ArrayList<>(), null, false)))
+        .isEqualTo("{\"count\":0,\"data\":[]}");
+    assertThat(write(RowsResponseWriter.v2(new ArrayList<>(), null, true))).isEqualTo("[]");
+  }
+
+  @Test
+  public void shouldWriteSameJsonAsV1Entities() throws IOException {
+    List<Map<String, Object>> maps =
+        ROWS.stream().map(Converters::row2MapV1).collect(Collectors.toList());
+
+    String expected = V1_MAPPER.writeValueAsString(new Rows(2, "c3RhdGU=", maps));
+    assertSameJson(write(RowsResponseWriter.v1(ROWS, "c3RhdGU=")), expected);
+
+    expected = V1_MAPPER.writeValueAsString(new RowResponse(2, maps));
+    assertSameJson(write(RowsResponseWriter.v1(ROWS, null)), expected);
+  }
+
+  private static List<Map<String, Object>> v2Maps() {
+    return ROWS.stream().map(Converters::row2Map).collect(Collectors.toList());
+  }
+
+  private static String write(RowsResponseWriter writer) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writer.write(out);
+    return out.toString("UTF-8");
+  }
+
+  private static void assertSameJson(String actual, String expected) throws IOException {
+    // Rows are maps in the non-streaming serialization, so the order of their fields may differ.
+    JsonNode actualNode = V1_MAPPER.readTree(actual);
+    assertThat(actualNode).isEqualTo(V1_MAPPER.readTree(expected));
+    assertThat(actual).startsWith(expected.substring(0, expected.indexOf('[') + 1));
+  }
+
+  private static Row row(Object... data) {
+    List<ByteBuffer> values = new ArrayList<>(COLUMNS.size());
+    ProtocolVersion version = ProtocolVersion.DEFAULT;
+    for (int i = 0; i < COLUMNS.size(); i++) {
+      Object v = data[i];
+      values.add(v == null ? null : COLUMNS.get(i).type().codec().encode(v, version));
+    }
+    return new ArrayListBackedRow(COLUMNS, values, version);
+  }
+
+  private static ObjectMapper v1ObjectMapper() {
+    ObjectMapper mapper = Jackson.newObjectMapper();
+    Server.configureObjectMapper(mapper);
+    return mapper;
+  }
+}
@@ -2189,6 +2189,64 @@ public class BaseDocumentApiV2Test extends BaseOsgiIntegrationTest {
     assertThat(data).isEqualTo(expected);
   }
 
+  // With SAI (see DocumentApiV2TestDisable2i), the documents matching the first path are checked
+  // against the filters of the other paths in memory, a page at a time.
+  @Test
+  public void testGetFullDocMultiFilterPaginated() throws IOException {
+    String[] docs = {
+      "{\"a\": \"x\", \"b\": 1, \"c\": {\"d\": \"z\"}}",
+      "{\"a\": \"x\", \"b\": 3, \"c\": {\"d\": \"z\"}}",
+      "{\"a\": \"y\", \"b\": 4, \"c\": {\"d\": \"z\"}}",
+      "{\"a\": \"x\", \"b\": 5, \"c\": {\"d\": \"w\"}}",
+      "{\"a\": \"x\", \"b\": 6, \"c\": {\"d\": \"z\"}}",
+      "{\"a\": \"x\", \"b\": 7, \"c\": {\"d\": \"z\"}}"
+    };
+    for (int i = 0; i < docs.length; i++) {
+      RestUtils.put(
+          authToken,
+          hostWithPort + "/v2/namespaces/" + keyspace + "/collections/collection/" + (i + 1),
+          docs[i],
+          200);
+    }
+
+    String where =
+        URLEncoder.encode(
+            "{\"a\":{\"$eq\":\"x\"},\"b\":{\"$gt\":2},\"c.d\":{\"$eq\":\"z\"}}", "UTF-8");
+    ObjectNode docsSeen = objectMapper.createObjectNode();
+    String pageState = null;
+    do {
+      String r =
+          RestUtils.get(
+              authToken,
+              hostWithPort
+                  + "/v2/namespaces/"
+                  + keyspace
+                  + "/collections/collection?page-size=1&where="
+                  + where
+                  + (pageState == null
+                      ? ""
+                      : "&page-state=" + URLEncoder.encode(pageState, "UTF-8")),
+              200);
+      JsonNode resp = objectMapper.readTree(r);
+      JsonNode data = resp.requiredAt("/data");
+      assertThat(data.size()).isLessThanOrEqualTo(1);
+      Iterator<String> keys = data.fieldNames();
+      while (keys.hasNext()) {
+        String key = keys.next();
+        assertThat(docsSeen.has(key)).isFalse();
+        docsSeen.set(key, data.requiredAt("/" + key));
+      }
+      JsonNode nextState = resp.at("/pageState");
+      pageState = nextState.isMissingNode() || nextState.isNull() ? null : nextState.asText();
+    } while (pageState != null);
+
+    ObjectNode expected = objectMapper.createObjectNode();
+    expected.set("2", objectMapper.readTree(docs[1]));
+    expected.set("5", objectMapper.readTree(docs[4]));
+    expected.set("6", objectMapper.readTree(docs[5]));
+    assertThat(docsSeen).isEqualTo(expected);
+  }
+
   @Test
   public void testPaginationGetFullDoc() throws IOException {
     JsonNode doc1 =